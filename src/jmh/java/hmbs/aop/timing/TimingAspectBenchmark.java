@@ -0,0 +1,82 @@
+package hmbs.aop.timing;
+
+import hmbs.aop.logging.LoggingAspect;
+import hmbs.config.ApplicationProperties;
+import hmbs.domain.Booking;
+import hmbs.service.BookingValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.core.env.StandardEnvironment;
+
+/**
+ * Overhead of the {@link TimingAspect} on a cheap service call, against the bare call and the {@link LoggingAspect}
+ * with DEBUG off.
+ * <p>
+ * Every proxy pays for the Spring AOP interception, the timing aspect adds a timer lookup and two clock reads on the
+ * sampled calls only.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TimingAspectBenchmark {
+
+    private final Booking booking = new Booking().numOfGuests(2).finalPrice(100D);
+
+    private BookingValidator plain;
+
+    private BookingValidator logged;
+
+    private BookingValidator timed;
+
+    private BookingValidator sampled;
+
+    @Setup
+    public void setup() {
+        plain = new BookingValidator(new ApplicationProperties());
+        logged = proxy(new LoggingAspect(new StandardEnvironment()));
+        timed = proxy(new TimingAspect(new SimpleMeterRegistry(), 1.0, List.of("hmbs.service")));
+        sampled = proxy(new TimingAspect(new SimpleMeterRegistry(), 0.1, List.of("hmbs.service")));
+    }
+
+    @Benchmark
+    public Map<String, String> plain() {
+        return plain.errors(booking);
+    }
+
+    @Benchmark
+    public Map<String, String> logged() {
+        return logged.errors(booking);
+    }
+
+    @Benchmark
+    public Map<String, String> timed() {
+        return timed.errors(booking);
+    }
+
+    @Benchmark
+    public Map<String, String> sampled() {
+        return sampled.errors(booking);
+    }
+
+    private BookingValidator proxy(Object aspect) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new BookingValidator(new ApplicationProperties()));
+        factory.addAspect(aspect);
+        return factory.getProxy();
+    }
+}
@@ -0,0 +1,112 @@
+package hmbs.config;
+
+import hmbs.HmbsApp;
+import hmbs.domain.Booking;
+import hmbs.repository.BookingRepository;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Overhead of the {@link HibernateStatisticsConfiguration}: the Hibernate statistics and the slow statement log of the
+ * data source, on the in-memory H2 database of the tests.
+ * <p>
+ * The statistics update a few counters per statement and entity, and the data source times each execution. Both
+ * should stay within the noise of a primary key lookup, the cheapest query there is.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HibernateStatisticsBenchmark {
+
+    private static final int BOOKINGS = 10_000;
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2023, 1, 1);
+
+    private static final int DAYS = 730;
+
+    @Param({ "false", "true" })
+    private boolean statistics;
+
+    private final Pageable page = PageRequest.of(0, 20);
+
+    private final List<Long> ids = new ArrayList<>();
+
+    private ConfigurableApplicationContext context;
+
+    private BookingRepository bookingRepository;
+
+    private SplittableRandom random;
+
+    @Setup
+    public void setup() {
+        context =
+            new SpringApplicationBuilder(HmbsApp.class)
+                .properties(
+                    "server.port=0",
+                    "application.server-timing.enabled=false",
+                    "application.timing.enabled=false",
+                    "application.hibernate-statistics.enabled=" + statistics
+                )
+                .run();
+        bookingRepository = context.getBean(BookingRepository.class);
+        random = new SplittableRandom(42);
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            LocalDate checkin = FIRST_DAY.plusDays(random.nextInt(DAYS));
+            bookings.add(
+                new Booking()
+                    .hotelId((long) random.nextInt(50))
+                    .roomId((long) random.nextInt(100))
+                    .userId(random.nextInt(1000))
+                    .checkin(checkin)
+                    .checkout(checkin.plusDays(1 + random.nextInt(7)))
+                    .numOfGuests(1 + random.nextInt(4))
+                    .finalPrice(50.0 + random.nextInt(500))
+            );
+            if (bookings.size() == 1000) {
+                bookingRepository.saveAll(bookings).forEach(booking -> ids.add(booking.getId()));
+                bookings.clear();
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Booking> findById() {
+        return bookingRepository.findById(ids.get(random.nextInt(ids.size())));
+    }
+
+    @Benchmark
+    public Page<Booking> findWeek() {
+        LocalDate from = FIRST_DAY.plusDays(random.nextInt(DAYS));
+        return bookingRepository.findAllByCheckinGreaterThanEqualAndCheckoutLessThanEqual(from, from.plusDays(7), page);
+    }
+}
@@ -0,0 +1,110 @@
+package hmbs.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import hmbs.domain.Booking;
+import hmbs.security.AuthoritiesConstants;
+import hmbs.service.dto.AdminUserDTO;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Cost of writing the API payloads with the modules of {@link JacksonConfiguration}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JacksonSerializationBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private ObjectMapper objectMapper;
+
+    private Booking booking;
+
+    private List<Booking> bookings;
+
+    private AdminUserDTO user;
+
+    @Setup
+    public void setup() {
+        JacksonConfiguration jacksonConfiguration = new JacksonConfiguration();
+        objectMapper =
+            Jackson2ObjectMapperBuilder
+                .json()
+                .modules(
+                    jacksonConfiguration.javaTimeModule(),
+                    jacksonConfiguration.jdk8TimeModule(),
+                    jacksonConfiguration.hibernate5Module(),
+                    jacksonConfiguration.problemModule(),
+                    jacksonConfiguration.constraintViolationProblemModule()
+                )
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+                .build();
+
+        bookings = new ArrayList<>();
+        for (long id = 1; id <= PAGE_SIZE; id++) {
+            LocalDate checkin = LocalDate.of(2023, 2, 1).plusDays(id);
+            bookings.add(
+                new Booking()
+                    .id(id)
+                    .hotelId(1L)
+                    .roomId(id % 7)
+                    .userId((int) id)
+                    .checkin(checkin)
+                    .checkout(checkin.plusDays(3))
+                    .numOfGuests(2)
+                    .finalPrice(120.5 * id)
+            );
+        }
+        booking = bookings.get(0);
+
+        user = new AdminUserDTO();
+        user.setId(1L);
+        user.setLogin("user");
+        user.setFirstName("John");
+        user.setLastName("Doe");
+        user.setEmail("john.doe@localhost");
+        user.setActivated(true);
+        user.setLangKey("en");
+        user.setCreatedBy("system");
+        user.setCreatedDate(Instant.parse("2023-02-01T10:00:00Z"));
+        user.setLastModifiedBy("admin");
+        user.setLastModifiedDate(Instant.parse("2023-02-02T10:00:00Z"));
+        user.setAuthorities(Set.of(AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN));
+    }
+
+    @Benchmark
+    public byte[] writeBooking() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(booking);
+    }
+
+    @Benchmark
+    public byte[] writeBookingPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bookings);
+    }
+
+    @Benchmark
+    public byte[] writeAdminUser() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(user);
+    }
+}
@@ -0,0 +1,103 @@
+package hmbs.repository;
+
+import hmbs.HmbsApp;
+import hmbs.domain.Booking;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Latency of the date range query of {@code GET /api/booking}, on the in-memory H2 database of the tests.
+ * <p>
+ * The absolute numbers say little about a production database, but the trend across commits shows whether the query
+ * still uses the {@code idx_booking_checkin_checkout} index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingDateRangeBenchmark {
+
+    private static final int BOOKINGS = 20_000;
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2023, 1, 1);
+
+    private static final int DAYS = 730;
+
+    private final Pageable page = PageRequest.of(0, 20, Sort.by("checkin"));
+
+    private ConfigurableApplicationContext context;
+
+    private BookingRepository bookingRepository;
+
+    private SplittableRandom random;
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(HmbsApp.class).properties("server.port=0").run();
+        bookingRepository = context.getBean(BookingRepository.class);
+        random = new SplittableRandom(42);
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            LocalDate checkin = FIRST_DAY.plusDays(random.nextInt(DAYS));
+            bookings.add(
+                new Booking()
+                    .hotelId((long) random.nextInt(50))
+                    .roomId((long) random.nextInt(100))
+                    .userId(random.nextInt(1000))
+                    .checkin(checkin)
+                    .checkout(checkin.plusDays(1 + random.nextInt(7)))
+                    .numOfGuests(1 + random.nextInt(4))
+                    .finalPrice(50.0 + random.nextInt(500))
+            );
+            if (bookings.size() == 1000) {
+                bookingRepository.saveAll(bookings);
+                bookings.clear();
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * A week starting on a random day.
+     */
+    @Benchmark
+    public Page<Booking> findWeek() {
+        LocalDate from = FIRST_DAY.plusDays(random.nextInt(DAYS));
+        return bookingRepository.findAllByCheckinGreaterThanEqualAndCheckoutLessThanEqual(from, from.plusDays(7), page);
+    }
+
+    /**
+     * A quarter starting on a random day, whose count scans more of the index.
+     */
+    @Benchmark
+    public Page<Booking> findQuarter() {
+        LocalDate from = FIRST_DAY.plusDays(random.nextInt(DAYS));
+        return bookingRepository.findAllByCheckinGreaterThanEqualAndCheckoutLessThanEqual(from, from.plusDays(90), page);
+    }
+}
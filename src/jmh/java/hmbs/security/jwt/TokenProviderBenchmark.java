@@ -0,0 +1,92 @@
+package hmbs.security.jwt;
+
+import hmbs.config.ApplicationProperties;
+import hmbs.management.SecurityMetersService;
+import hmbs.security.AuthoritiesConstants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Cost of issuing a token and of authenticating a request with it.
+ * <p>
+ * {@link #validateThenGetAuthentication()} is the former path of {@link JWTFilter}, which parsed the token twice.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenProviderBenchmark {
+
+    private static final String BASE64_SECRET =
+        "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
+
+    private TokenProvider tokenProvider;
+
+    private TokenProvider uncachedTokenProvider;
+
+    private Authentication authentication;
+
+    private String token;
+
+    @Setup
+    public void setup() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(BASE64_SECRET);
+        SecurityMetersService securityMetersService = new SecurityMetersService(new SimpleMeterRegistry());
+        tokenProvider = new TokenProvider(jHipsterProperties, new ApplicationProperties(), securityMetersService);
+        ApplicationProperties uncached = new ApplicationProperties();
+        uncached.getSecurity().getAuthenticationCache().setMaxEntries(0);
+        uncachedTokenProvider = new TokenProvider(jHipsterProperties, uncached, securityMetersService);
+
+        authentication =
+            new UsernamePasswordAuthenticationToken(
+                "user",
+                "user",
+                List.of(new SimpleGrantedAuthority(AuthoritiesConstants.USER), new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN))
+            );
+        token = tokenProvider.createToken(authentication, false);
+    }
+
+    @Benchmark
+    public String createToken() {
+        return tokenProvider.createToken(authentication, false);
+    }
+
+    @Benchmark
+    public Authentication getAuthentication() {
+        return tokenProvider.getAuthentication(token);
+    }
+
+    @Benchmark
+    public Authentication validateThenGetAuthentication() {
+        return tokenProvider.validateToken(token) ? tokenProvider.getAuthentication(token) : null;
+    }
+
+    @Benchmark
+    public Optional<Authentication> authenticateUncached() {
+        return uncachedTokenProvider.authenticate(token);
+    }
+
+    @Benchmark
+    public Optional<Authentication> authenticateCached() {
+        return tokenProvider.authenticate(token);
+    }
+}
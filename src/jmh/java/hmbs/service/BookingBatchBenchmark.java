@@ -0,0 +1,95 @@
+package hmbs.service;
+
+import hmbs.HmbsApp;
+import hmbs.domain.Booking;
+import hmbs.service.dto.BookingBatchResultDTO;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Throughput of the booking creation, one transaction per booking as done by {@code POST /api/bookings}, against one
+ * transaction per batch as done by {@code POST /api/bookings/batch}.
+ * <p>
+ * Runs on the in-memory H2 database of the tests, so it mostly shows the saved round trips and transactions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingBatchBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    private static final LocalDate CHECKIN = LocalDate.of(2023, 2, 1);
+
+    private ConfigurableApplicationContext context;
+
+    private BookingService bookingService;
+
+    private LocalDate nextCheckin = CHECKIN;
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(HmbsApp.class).properties("server.port=0").run();
+        bookingService = context.getBean(BookingService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void saveOneByOne() {
+        for (Booking booking : nextBatch()) {
+            bookingService.save(booking);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<BookingBatchResultDTO> saveAll() {
+        return bookingService.saveAll(nextBatch());
+    }
+
+    /**
+     * One booking of each room, for nights which are not booked yet, so none is rejected.
+     */
+    private List<Booking> nextBatch() {
+        LocalDate checkin = nextCheckin;
+        nextCheckin = checkin.plusDays(2);
+        List<Booking> bookings = new ArrayList<>(BATCH_SIZE);
+        for (long roomId = 1; roomId <= BATCH_SIZE; roomId++) {
+            bookings.add(
+                new Booking()
+                    .hotelId(1L)
+                    .roomId(roomId)
+                    .userId(1)
+                    .checkin(checkin)
+                    .checkout(nextCheckin)
+                    .numOfGuests(2)
+                    .finalPrice(240.0)
+            );
+        }
+        return bookings;
+    }
+}
@@ -0,0 +1,72 @@
+package hmbs.service;
+
+import hmbs.domain.Booking;
+import hmbs.service.criteria.BookingCriteria;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Cost of turning the typical {@link BookingCriteria} of the API into a {@link Specification}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingSpecificationBenchmark {
+
+    /**
+     * The filters set on the criteria.
+     */
+    @Param({ "none", "hotel", "hotelAndDates", "all" })
+    public String shape;
+
+    private BookingQueryService bookingQueryService;
+
+    private BookingCriteria criteria;
+
+    @Setup
+    public void setup() {
+        bookingQueryService = new BookingQueryService(null, null, null);
+        criteria = new BookingCriteria();
+        LocalDate today = LocalDate.of(2023, 2, 1);
+        switch (shape) {
+            case "all":
+                criteria.id().setIn(List.of(1L, 2L, 3L));
+                criteria.roomId().setEquals(7L);
+                criteria.userId().setEquals(3);
+                criteria.numOfGuests().setGreaterThanOrEqual(2);
+                criteria.finalPrice().setLessThan(500.0);
+                criteria.setDistinct(true);
+            // fall through
+            case "hotelAndDates":
+                criteria.checkin().setGreaterThanOrEqual(today);
+                criteria.checkout().setLessThanOrEqual(today.plusDays(7));
+            // fall through
+            case "hotel":
+                criteria.hotelId().setEquals(1L);
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Benchmark
+    public Specification<Booking> createSpecification() {
+        return bookingQueryService.createSpecification(criteria);
+    }
+}
@@ -0,0 +1,208 @@
+package hmbs.service.availability;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import hmbs.config.ApplicationProperties;
+import hmbs.repository.BookingRepository;
+import hmbs.repository.BookingStay;
+import hmbs.repository.HotelRoom;
+import hmbs.service.dto.HotelFreeRoomsDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Latency of a free room search over many hotels, by the {@link RoomSearchService}, against one
+ * {@link RoomAvailabilityService#freeRooms} call per hotel followed by the guest filter.
+ * <p>
+ * The services are loaded with two million stays, forty per room, and no database. The per-hotel baseline boxes every
+ * room id and sorts them on each call, the search walks the primitive arrays of its directory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class RoomSearchBenchmark {
+
+    private static final int HOTELS = 1000;
+
+    private static final int ROOMS_PER_HOTEL = 50;
+
+    private static final int STAYS_PER_ROOM = 40;
+
+    private static final int QUERIES = 64;
+
+    @Param({ "10", "100" })
+    private int searchedHotels;
+
+    private RoomSearchService roomSearchService;
+
+    private RoomAvailabilityService roomAvailabilityService;
+
+    private final List<List<Long>> hotelIds = new ArrayList<>();
+
+    private final List<LocalDate> froms = new ArrayList<>();
+
+    private final int[] guests = new int[QUERIES];
+
+    private final int[] capacities = new int[HOTELS * ROOMS_PER_HOTEL + 1];
+
+    private int next;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDate today = LocalDate.now();
+        List<BookingStay> stays = new ArrayList<>(HOTELS * ROOMS_PER_HOTEL * STAYS_PER_ROOM);
+        List<HotelRoom> rooms = new ArrayList<>(HOTELS * ROOMS_PER_HOTEL);
+        long stayId = 1;
+        for (long hotelId = 1; hotelId <= HOTELS; hotelId++) {
+            for (int room = 0; room < ROOMS_PER_HOTEL; room++) {
+                long roomId = (hotelId - 1) * ROOMS_PER_HOTEL + room + 1;
+                int capacity = 1 + random.nextInt(4);
+                capacities[(int) roomId] = capacity;
+                rooms.add(new Room(hotelId, roomId, capacity));
+                // Stays of 1 to 7 nights with gaps of 0 to 13 nights, over the next two years
+                LocalDate checkin = today.plusDays(random.nextInt(7));
+                for (int i = 0; i < STAYS_PER_ROOM; i++) {
+                    LocalDate checkout = checkin.plusDays(1 + random.nextInt(7));
+                    stays.add(new Stay(stayId++, hotelId, roomId, checkin, checkout));
+                    checkin = checkout.plusDays(random.nextInt(14));
+                }
+            }
+        }
+        BookingRepository bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.streamAllStays()).thenAnswer(invocation -> stays.stream());
+        when(bookingRepository.findAllHotelRooms()).thenReturn(rooms);
+
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        roomAvailabilityService = new RoomAvailabilityService(bookingRepository, applicationProperties);
+        roomAvailabilityService.load();
+        RoomHoldService roomHoldService = new RoomHoldService(roomAvailabilityService, applicationProperties, new SimpleMeterRegistry());
+        roomSearchService = new RoomSearchService(bookingRepository, roomAvailabilityService, roomHoldService);
+        roomSearchService.load();
+
+        for (int i = 0; i < QUERIES; i++) {
+            List<Long> hotels = new ArrayList<>(searchedHotels);
+            random.longs(searchedHotels, 1, HOTELS + 1).forEach(hotels::add);
+            hotelIds.add(hotels);
+            froms.add(today.plusDays(random.nextInt(300)));
+            guests[i] = 1 + random.nextInt(3);
+        }
+    }
+
+    @Benchmark
+    public List<HotelFreeRoomsDTO> search() {
+        int query = nextQuery();
+        LocalDate from = froms.get(query);
+        return roomSearchService.search(hotelIds.get(query), from, from.plusDays(3), guests[query]);
+    }
+
+    @Benchmark
+    public List<List<Long>> freeRoomsPerHotel() {
+        int query = nextQuery();
+        LocalDate from = froms.get(query);
+        List<List<Long>> result = new ArrayList<>();
+        for (Long hotelId : hotelIds.get(query)) {
+            List<Long> free = roomAvailabilityService.freeRooms(hotelId, from, from.plusDays(3));
+            free.removeIf(roomId -> capacities[roomId.intValue()] < guests[query]);
+            if (!free.isEmpty()) {
+                result.add(free);
+            }
+        }
+        return result;
+    }
+
+    private int nextQuery() {
+        int query = next;
+        next = (query + 1) % QUERIES;
+        return query;
+    }
+
+    private static final class Stay implements BookingStay {
+
+        private final Long id;
+        private final Long hotelId;
+        private final Long roomId;
+        private final LocalDate checkin;
+        private final LocalDate checkout;
+
+        Stay(Long id, Long hotelId, Long roomId, LocalDate checkin, LocalDate checkout) {
+            this.id = id;
+            this.hotelId = hotelId;
+            this.roomId = roomId;
+            this.checkin = checkin;
+            this.checkout = checkout;
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public Long getHotelId() {
+            return hotelId;
+        }
+
+        @Override
+        public Long getRoomId() {
+            return roomId;
+        }
+
+        @Override
+        public LocalDate getCheckin() {
+            return checkin;
+        }
+
+        @Override
+        public LocalDate getCheckout() {
+            return checkout;
+        }
+    }
+
+    private static final class Room implements HotelRoom {
+
+        private final Long hotelId;
+        private final Long roomId;
+        private final Integer maxGuests;
+
+        Room(Long hotelId, Long roomId, Integer maxGuests) {
+            this.hotelId = hotelId;
+            this.roomId = roomId;
+            this.maxGuests = maxGuests;
+        }
+
+        @Override
+        public Long getHotelId() {
+            return hotelId;
+        }
+
+        @Override
+        public Long getRoomId() {
+            return roomId;
+        }
+
+        @Override
+        public Integer getMaxGuests() {
+            return maxGuests;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package hmbs.service.mapper;
+
+import hmbs.domain.Authority;
+import hmbs.domain.User;
+import hmbs.security.AuthoritiesConstants;
+import hmbs.service.dto.AdminUserDTO;
+import hmbs.service.dto.UserDTO;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of the bulk conversions of {@link UserMapper}, as done for a page of the user management API.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserMapperBenchmark {
+
+    @Param({ "20", "1000" })
+    public int size;
+
+    private UserMapper userMapper;
+
+    private List<User> users;
+
+    private List<AdminUserDTO> userDTOs;
+
+    @Setup
+    public void setup() {
+        userMapper = new UserMapper();
+        Authority user = new Authority();
+        user.setName(AuthoritiesConstants.USER);
+        Authority admin = new Authority();
+        admin.setName(AuthoritiesConstants.ADMIN);
+
+        users = new ArrayList<>();
+        for (long id = 1; id <= size; id++) {
+            User entity = new User();
+            entity.setId(id);
+            entity.setLogin("user-" + id);
+            entity.setFirstName("John");
+            entity.setLastName("Doe " + id);
+            entity.setEmail("user-" + id + "@localhost");
+            entity.setActivated(true);
+            entity.setLangKey("en");
+            entity.setAuthorities(id % 10 == 0 ? Set.of(user, admin) : Set.of(user));
+            users.add(entity);
+        }
+        userDTOs = userMapper.usersToAdminUserDTOs(users);
+    }
+
+    @Benchmark
+    public List<UserDTO> usersToUserDTOs() {
+        return userMapper.usersToUserDTOs(users);
+    }
+
+    @Benchmark
+    public List<AdminUserDTO> usersToAdminUserDTOs() {
+        return userMapper.usersToAdminUserDTOs(users);
+    }
+
+    @Benchmark
+    public List<User> userDTOsToUsers() {
+        return userMapper.userDTOsToUsers(userDTOs);
+    }
+}
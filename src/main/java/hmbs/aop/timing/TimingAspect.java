@@ -0,0 +1,119 @@
+package hmbs.aop.timing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Aspect timing the execution of service and repository Spring components, and of the REST endpoints, matched by
+ * the pointcuts of the {@link hmbs.aop.logging.LoggingAspect}, and of the Spring Data repositories, which these
+ * pointcuts do not match since their beans are proxies.
+ * <p>
+ * Each method of each component gets a {@value #METER_NAME} timer, tagged with the class of the component and the name
+ * of the method, resolved on its first call and then reused. The class is the one of the bean, even for the methods it
+ * inherits, and the repository interface for the Spring Data repositories. Methods of components outside the allowed
+ * packages are remembered as not timed, so they only pay for a lookup.
+ * <p>
+ * Only a share of the calls is timed: the others skip the lookup and the clock. The timers then count the sampled
+ * calls only, while their latencies stay representative.
+ */
+@Aspect
+public class TimingAspect {
+
+    public static final String METER_NAME = "method.timed";
+
+    private static final Optional<Timer> NOT_TIMED = Optional.empty();
+
+    private final MeterRegistry registry;
+
+    private final double sampleRate;
+
+    private final List<String> packages;
+
+    private final Map<Class<?>, Map<Method, Optional<Timer>>> timers = new ConcurrentHashMap<>();
+
+    /**
+     * @param registry the registry of the timers.
+     * @param sampleRate the share of the calls which are timed, from {@code 0} to {@code 1}.
+     * @param packages the packages whose classes are timed, with their sub-packages, all of them if empty.
+     */
+    public TimingAspect(MeterRegistry registry, double sampleRate, List<String> packages) {
+        this.registry = registry;
+        this.sampleRate = sampleRate;
+        this.packages = List.copyOf(packages);
+    }
+
+    /**
+     * Advice that times a sample of the calls of a method.
+     *
+     * @param joinPoint join point for advice.
+     * @return result.
+     * @throws Throwable the exception of the method, which is timed as well.
+     */
+    @Around(
+        "(hmbs.aop.logging.LoggingAspect.applicationPackagePointcut() && hmbs.aop.logging.LoggingAspect.springBeanPointcut())" +
+        " || execution(* org.springframework.data.repository.Repository+.*(..))"
+    )
+    public Object timeAround(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return joinPoint.proceed();
+        }
+        Class<?> targetClass = joinPoint.getTarget().getClass();
+        Map<Method, Optional<Timer>> methodTimers = timers.get(targetClass);
+        if (methodTimers == null) {
+            methodTimers = timers.computeIfAbsent(targetClass, key -> new ConcurrentHashMap<>());
+        }
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Optional<Timer> timer = methodTimers.get(method);
+        if (timer == null) {
+            timer = methodTimers.computeIfAbsent(method, key -> resolve(targetClass, key));
+        }
+        if (timer.isEmpty()) {
+            return joinPoint.proceed();
+        }
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            timer.get().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Optional<Timer> resolve(Class<?> targetClass, Method method) {
+        String className = componentClass(targetClass).getName();
+        if (!packages.isEmpty() && packages.stream().noneMatch(name -> className.startsWith(name + "."))) {
+            return NOT_TIMED;
+        }
+        return Optional.of(
+            Timer
+                .builder(METER_NAME)
+                .description("Execution time of the application components")
+                .tag("class", className)
+                .tag("method", method.getName())
+                .register(registry)
+        );
+    }
+
+    /**
+     * @return the class of a component, or its first interface if it is a JDK proxy, such as a Spring Data repository.
+     */
+    private static Class<?> componentClass(Class<?> targetClass) {
+        Class<?> userClass = ClassUtils.getUserClass(targetClass);
+        if (Proxy.isProxyClass(userClass) && userClass.getInterfaces().length > 0) {
+            return userClass.getInterfaces()[0];
+        }
+        return userClass;
+    }
+}
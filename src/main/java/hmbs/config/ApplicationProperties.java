@@ -1,5 +1,9 @@
 package hmbs.config;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -9,4 +13,482 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  * See {@link tech.jhipster.config.JHipsterProperties} for a good example.
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
-public class ApplicationProperties {}
+public class ApplicationProperties {
+
+    private final Availability availability = new Availability();
+
+    private final QueryCache queryCache = new QueryCache();
+
+    private final Cache cache = new Cache();
+
+    private final Security security = new Security();
+
+    private final BookingImport bookingImport = new BookingImport();
+
+    private final Validation validation = new Validation();
+
+    private final Idempotency idempotency = new Idempotency();
+
+    private final Rollup rollup = new Rollup();
+
+    private final Timing timing = new Timing();
+
+    private final ServerTiming serverTiming = new ServerTiming();
+
+    private final HibernateStatistics hibernateStatistics = new HibernateStatistics();
+
+    private final UserCleanup userCleanup = new UserCleanup();
+
+    public Availability getAvailability() {
+        return availability;
+    }
+
+    public QueryCache getQueryCache() {
+        return queryCache;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Security getSecurity() {
+        return security;
+    }
+
+    public BookingImport getBookingImport() {
+        return bookingImport;
+    }
+
+    public Validation getValidation() {
+        return validation;
+    }
+
+    public Idempotency getIdempotency() {
+        return idempotency;
+    }
+
+    public Rollup getRollup() {
+        return rollup;
+    }
+
+    public Timing getTiming() {
+        return timing;
+    }
+
+    public ServerTiming getServerTiming() {
+        return serverTiming;
+    }
+
+    public HibernateStatistics getHibernateStatistics() {
+        return hibernateStatistics;
+    }
+
+    public UserCleanup getUserCleanup() {
+        return userCleanup;
+    }
+
+    public static class Availability {
+
+        private final Calendar calendar = new Calendar();
+
+        private final Hold hold = new Hold();
+
+        private int lockStripes = 1024;
+
+        private long lockTimeoutSeconds = 10;
+
+        private boolean authoritativeView = false;
+
+        public Calendar getCalendar() {
+            return calendar;
+        }
+
+        public Hold getHold() {
+            return hold;
+        }
+
+        public int getLockStripes() {
+            return lockStripes;
+        }
+
+        public void setLockStripes(int lockStripes) {
+            this.lockStripes = lockStripes;
+        }
+
+        public long getLockTimeoutSeconds() {
+            return lockTimeoutSeconds;
+        }
+
+        public void setLockTimeoutSeconds(long lockTimeoutSeconds) {
+            this.lockTimeoutSeconds = lockTimeoutSeconds;
+        }
+
+        public boolean isAuthoritativeView() {
+            return authoritativeView;
+        }
+
+        public void setAuthoritativeView(boolean authoritativeView) {
+            this.authoritativeView = authoritativeView;
+        }
+
+        public static class Calendar {
+
+            private int pastDays = 30;
+
+            private int futureDays = 730;
+
+            private long maxMemoryMb = 64;
+
+            public int getPastDays() {
+                return pastDays;
+            }
+
+            public void setPastDays(int pastDays) {
+                this.pastDays = pastDays;
+            }
+
+            public int getFutureDays() {
+                return futureDays;
+            }
+
+            public void setFutureDays(int futureDays) {
+                this.futureDays = futureDays;
+            }
+
+            public long getMaxMemoryMb() {
+                return maxMemoryMb;
+            }
+
+            public void setMaxMemoryMb(long maxMemoryMb) {
+                this.maxMemoryMb = maxMemoryMb;
+            }
+        }
+
+        public static class Hold {
+
+            private long ttlSeconds = 600;
+
+            public long getTtlSeconds() {
+                return ttlSeconds;
+            }
+
+            public void setTtlSeconds(long ttlSeconds) {
+                this.ttlSeconds = ttlSeconds;
+            }
+        }
+    }
+
+    public static class QueryCache {
+
+        private boolean enabled = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+
+    public static class Cache {
+
+        private String diskDirectory;
+
+        private final Map<String, Region> regions = new HashMap<>();
+
+        public String getDiskDirectory() {
+            return diskDirectory;
+        }
+
+        public void setDiskDirectory(String diskDirectory) {
+            this.diskDirectory = diskDirectory;
+        }
+
+        public Map<String, Region> getRegions() {
+            return regions;
+        }
+
+        /**
+         * Sizing of one cache region. Unset values fall back to {@code jhipster.cache.ehcache}.
+         */
+        public static class Region {
+
+            private Long heapEntries;
+
+            private long offHeapMb = 0;
+
+            private long diskMb = 0;
+
+            private Long timeToLiveSeconds;
+
+            private Long timeToIdleSeconds;
+
+            public Long getHeapEntries() {
+                return heapEntries;
+            }
+
+            public void setHeapEntries(Long heapEntries) {
+                this.heapEntries = heapEntries;
+            }
+
+            public long getOffHeapMb() {
+                return offHeapMb;
+            }
+
+            public void setOffHeapMb(long offHeapMb) {
+                this.offHeapMb = offHeapMb;
+            }
+
+            public long getDiskMb() {
+                return diskMb;
+            }
+
+            public void setDiskMb(long diskMb) {
+                this.diskMb = diskMb;
+            }
+
+            public Long getTimeToLiveSeconds() {
+                return timeToLiveSeconds;
+            }
+
+            public void setTimeToLiveSeconds(Long timeToLiveSeconds) {
+                this.timeToLiveSeconds = timeToLiveSeconds;
+            }
+
+            public Long getTimeToIdleSeconds() {
+                return timeToIdleSeconds;
+            }
+
+            public void setTimeToIdleSeconds(Long timeToIdleSeconds) {
+                this.timeToIdleSeconds = timeToIdleSeconds;
+            }
+        }
+    }
+
+    public static class Security {
+
+        private final AuthenticationCache authenticationCache = new AuthenticationCache();
+
+        public AuthenticationCache getAuthenticationCache() {
+            return authenticationCache;
+        }
+
+        public static class AuthenticationCache {
+
+            private int maxEntries = 10000;
+
+            public int getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(int maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+        }
+    }
+
+    public static class BookingImport {
+
+        private String directory;
+
+        private int chunkSize = 1000;
+
+        private int leaseSeconds = 60;
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getLeaseSeconds() {
+            return leaseSeconds;
+        }
+
+        public void setLeaseSeconds(int leaseSeconds) {
+            this.leaseSeconds = leaseSeconds;
+        }
+    }
+
+    public static class Validation {
+
+        private int maxGuests = 50;
+
+        public int getMaxGuests() {
+            return maxGuests;
+        }
+
+        public void setMaxGuests(int maxGuests) {
+            this.maxGuests = maxGuests;
+        }
+    }
+
+    public static class Idempotency {
+
+        private long ttlSeconds = 86400;
+
+        private long inProgressTimeoutSeconds = 60;
+
+        private int maxEntries = 10000;
+
+        public long getTtlSeconds() {
+            return ttlSeconds;
+        }
+
+        public void setTtlSeconds(long ttlSeconds) {
+            this.ttlSeconds = ttlSeconds;
+        }
+
+        public long getInProgressTimeoutSeconds() {
+            return inProgressTimeoutSeconds;
+        }
+
+        public void setInProgressTimeoutSeconds(long inProgressTimeoutSeconds) {
+            this.inProgressTimeoutSeconds = inProgressTimeoutSeconds;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+    }
+
+    public static class Rollup {
+
+        private int rebuildParallelism = 4;
+
+        public int getRebuildParallelism() {
+            return rebuildParallelism;
+        }
+
+        public void setRebuildParallelism(int rebuildParallelism) {
+            this.rebuildParallelism = rebuildParallelism;
+        }
+    }
+
+    public static class Timing {
+
+        private boolean enabled = false;
+
+        private double sampleRate = 1.0;
+
+        private List<String> packages = new ArrayList<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getSampleRate() {
+            return sampleRate;
+        }
+
+        public void setSampleRate(double sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+
+        public List<String> getPackages() {
+            return packages;
+        }
+
+        public void setPackages(List<String> packages) {
+            this.packages = packages;
+        }
+    }
+
+    public static class ServerTiming {
+
+        private boolean enabled = false;
+
+        private boolean header = false;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public boolean isHeader() {
+            return header;
+        }
+
+        public void setHeader(boolean header) {
+            this.header = header;
+        }
+    }
+
+    public static class HibernateStatistics {
+
+        private boolean enabled = false;
+
+        private long slowQueryThresholdMs = 0;
+
+        private int maxQueries = 200;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getSlowQueryThresholdMs() {
+            return slowQueryThresholdMs;
+        }
+
+        public void setSlowQueryThresholdMs(long slowQueryThresholdMs) {
+            this.slowQueryThresholdMs = slowQueryThresholdMs;
+        }
+
+        public int getMaxQueries() {
+            return maxQueries;
+        }
+
+        public void setMaxQueries(int maxQueries) {
+            this.maxQueries = maxQueries;
+        }
+    }
+
+    public static class UserCleanup {
+
+        private int chunkSize = 500;
+
+        private long pauseMs = 100;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public long getPauseMs() {
+            return pauseMs;
+        }
+
+        public void setPauseMs(long pauseMs) {
+            this.pauseMs = pauseMs;
+        }
+    }
+}
@@ -1,9 +1,18 @@
 package hmbs.config;
 
+import java.io.File;
 import java.time.Duration;
+import javax.cache.Caching;
 import org.ehcache.config.builders.*;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.core.spi.service.StatisticsService;
+import org.ehcache.impl.config.persistence.DefaultPersistenceConfiguration;
+import org.ehcache.impl.serialization.PlainJavaSerializer;
 import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
 import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
@@ -21,18 +30,49 @@ public class CacheConfiguration {
 
     private GitProperties gitProperties;
     private BuildProperties buildProperties;
-    private final javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration;
+    private final JHipsterProperties.Cache.Ehcache ehcache;
+    private final ApplicationProperties.Cache cacheProperties;
 
-    public CacheConfiguration(JHipsterProperties jHipsterProperties) {
-        JHipsterProperties.Cache.Ehcache ehcache = jHipsterProperties.getCache().getEhcache();
+    /**
+     * Receives the statistics service of the cache manager. It is shared by the application contexts, like the cache
+     * manager of the default URI, which the provider only creates once.
+     */
+    private static final CacheStatisticsServiceFactory.Capture statisticsServiceCapture = new CacheStatisticsServiceFactory.Capture();
 
-        jcacheConfiguration =
-            Eh107Configuration.fromEhcacheCacheConfiguration(
-                CacheConfigurationBuilder
-                    .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(ehcache.getMaxEntries()))
-                    .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ehcache.getTimeToLiveSeconds())))
-                    .build()
+    public CacheConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        this.ehcache = jHipsterProperties.getCache().getEhcache();
+        this.cacheProperties = applicationProperties.getCache();
+    }
+
+    /**
+     * Create the cache manager, with the persistence service needed by the disk tiers when a disk directory is set. The
+     * disk tiers only extend the memory ones, and are emptied when the application starts.
+     */
+    @Bean
+    public javax.cache.CacheManager jCacheCacheManager(ObjectProvider<JCacheManagerCustomizer> cacheManagerCustomizers) {
+        javax.cache.CacheManager cacheManager = newCacheManager();
+        cacheManagerCustomizers.orderedStream().forEach(customizer -> customizer.customize(cacheManager));
+        return cacheManager;
+    }
+
+    javax.cache.CacheManager newCacheManager() {
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        DefaultConfiguration configuration = cacheProperties.getDiskDirectory() == null
+            ? new DefaultConfiguration(provider.getDefaultClassLoader(), statisticsServiceCapture)
+            : new DefaultConfiguration(
+                provider.getDefaultClassLoader(),
+                statisticsServiceCapture,
+                new DefaultPersistenceConfiguration(new File(cacheProperties.getDiskDirectory()))
             );
+        return provider.getCacheManager(provider.getDefaultURI(), configuration);
+    }
+
+    /**
+     * Expose the Ehcache statistics service of the cache manager, which JCache keeps to itself.
+     */
+    @Bean
+    public StatisticsService cacheStatisticsService(javax.cache.CacheManager cacheManager) {
+        return statisticsServiceCapture.getStatisticsService();
     }
 
     @Bean
@@ -49,6 +89,8 @@ public class CacheConfiguration {
             createCache(cm, hmbs.domain.Authority.class.getName());
             createCache(cm, hmbs.domain.User.class.getName() + ".authorities");
             createCache(cm, hmbs.domain.Booking.class.getName());
+            createCache(cm, hmbs.service.BookingQueryCache.BOOKINGS_BY_CRITERIA_CACHE);
+            createCache(cm, hmbs.service.BookingQueryCache.BOOKING_COUNTS_BY_CRITERIA_CACHE);
             // jhipster-needle-ehcache-add-entry
         };
     }
@@ -58,8 +100,48 @@ public class CacheConfiguration {
         if (cache != null) {
             cache.clear();
         } else {
-            cm.createCache(cacheName, jcacheConfiguration);
+            cm.createCache(cacheName, jcacheConfiguration(cacheName, cm.getClassLoader()));
+            // Exported by the cache metrics
+            cm.enableStatistics(cacheName, true);
+        }
+    }
+
+    /**
+     * Build the configuration of a region from {@code application.cache.regions}, or from {@code jhipster.cache.ehcache}
+     * for the regions which are not listed there.
+     * <p>
+     * Entries in the off-heap and disk tiers are stored serialized, so they must be {@link java.io.Serializable}. The disk
+     * tiers are never persistent: the Hibernate regions hold the disassembled state of the entities, which a new version
+     * of an entity could not assemble, and every region would replay the writes this node missed while it was stopped.
+     */
+    private javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration(String cacheName, ClassLoader classLoader) {
+        ApplicationProperties.Cache.Region region = cacheProperties
+            .getRegions()
+            .getOrDefault(cacheName, new ApplicationProperties.Cache.Region());
+        ResourcePoolsBuilder resourcePools = ResourcePoolsBuilder.heap(
+            region.getHeapEntries() != null ? region.getHeapEntries() : ehcache.getMaxEntries()
+        );
+        if (region.getOffHeapMb() > 0) {
+            resourcePools = resourcePools.offheap(region.getOffHeapMb(), MemoryUnit.MB);
+        }
+        if (region.getDiskMb() > 0) {
+            resourcePools = resourcePools.disk(region.getDiskMb(), MemoryUnit.MB, false);
+        }
+        long timeToLiveSeconds = region.getTimeToLiveSeconds() != null ? region.getTimeToLiveSeconds() : ehcache.getTimeToLiveSeconds();
+        CacheConfigurationBuilder<Object, Object> builder = CacheConfigurationBuilder
+            .newCacheConfigurationBuilder(Object.class, Object.class, resourcePools)
+            .withExpiry(
+                region.getTimeToIdleSeconds() != null
+                    ? ExpiryPolicyBuilder.timeToIdleExpiration(Duration.ofSeconds(region.getTimeToIdleSeconds()))
+                    : ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(timeToLiveSeconds))
+            );
+        if (region.getOffHeapMb() > 0 || region.getDiskMb() > 0) {
+            builder =
+                builder
+                    .withKeySerializer(new PlainJavaSerializer<>(classLoader))
+                    .withValueSerializer(new PlainJavaSerializer<>(classLoader));
         }
+        return Eh107Configuration.fromEhcacheCacheConfiguration(builder.build());
     }
 
     @Autowired(required = false)
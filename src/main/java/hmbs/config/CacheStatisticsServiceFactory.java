@@ -0,0 +1,82 @@
+package hmbs.config;
+
+import java.util.ServiceLoader;
+import java.util.function.Consumer;
+import org.ehcache.core.spi.service.ServiceFactory;
+import org.ehcache.core.spi.service.StatisticsService;
+import org.ehcache.spi.service.ServiceCreationConfiguration;
+
+/**
+ * Factory of the Ehcache {@link StatisticsService}, which hands the service to its configuration.
+ * <p>
+ * The JCache cache manager keeps its statistics service to itself. This factory, registered with the
+ * {@link ServiceLoader}, outranks the Ehcache one and delegates to it, then gives the service to a
+ * {@link Capture} set in the configuration of the cache manager. It only relies on Ehcache and JDK types, since it is
+ * loaded by the class loader of Ehcache, which may not be the one of the application.
+ */
+public class CacheStatisticsServiceFactory implements ServiceFactory<StatisticsService> {
+
+    private static final int RANK = 100;
+
+    @Override
+    public int rank() {
+        return RANK;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public StatisticsService create(ServiceCreationConfiguration<StatisticsService, ?> configuration) {
+        ServiceFactory<StatisticsService> delegate = null;
+        for (ServiceFactory<?> factory : ServiceLoader.load(ServiceFactory.class, ServiceFactory.class.getClassLoader())) {
+            if (
+                StatisticsService.class.isAssignableFrom(factory.getServiceType()) &&
+                factory.rank() < RANK &&
+                (delegate == null || factory.rank() > delegate.rank())
+            ) {
+                delegate = (ServiceFactory<StatisticsService>) factory;
+            }
+        }
+        if (delegate == null) {
+            throw new IllegalStateException("No Ehcache statistics service");
+        }
+        StatisticsService statisticsService = delegate.create(null);
+        if (configuration instanceof Consumer) {
+            ((Consumer<StatisticsService>) configuration).accept(statisticsService);
+        }
+        return statisticsService;
+    }
+
+    @Override
+    public Class<StatisticsService> getServiceType() {
+        return StatisticsService.class;
+    }
+
+    /**
+     * Configuration of a cache manager receiving its statistics service.
+     */
+    public static class Capture implements ServiceCreationConfiguration<StatisticsService, Void>, Consumer<StatisticsService> {
+
+        private volatile StatisticsService statisticsService;
+
+        @Override
+        public Class<StatisticsService> getServiceType() {
+            return StatisticsService.class;
+        }
+
+        @Override
+        public void accept(StatisticsService statisticsService) {
+            this.statisticsService = statisticsService;
+        }
+
+        /**
+         * @return the statistics service of the cache manager.
+         * @throws IllegalStateException if the cache manager was not created with this configuration.
+         */
+        public StatisticsService getStatisticsService() {
+            if (statisticsService == null) {
+                throw new IllegalStateException("The cache manager was not created with this configuration");
+            }
+            return statisticsService;
+        }
+    }
+}
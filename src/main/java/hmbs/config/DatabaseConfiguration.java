@@ -1,7 +1,11 @@
 package hmbs.config;
 
+import hmbs.management.AccountingDataSource;
+import javax.sql.DataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
@@ -13,4 +17,30 @@ import tech.jhipster.config.JHipsterConstants;
 @EnableJpaRepositories({ "hmbs.repository" })
 @EnableJpaAuditing(auditorAwareRef = "springSecurityAuditorAware")
 @EnableTransactionManagement
-public class DatabaseConfiguration {}
+public class DatabaseConfiguration {
+
+    /**
+     * Wrap the data source in an {@link AccountingDataSource} when its statements are counted for the Server-Timing
+     * header, or slow statements are logged.
+     */
+    @Bean
+    public static BeanPostProcessor accountingDataSourcePostProcessor(ObjectProvider<ApplicationProperties> applicationProperties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource) || bean instanceof AccountingDataSource) {
+                    return bean;
+                }
+                ApplicationProperties properties = applicationProperties.getObject();
+                ApplicationProperties.HibernateStatistics statistics = properties.getHibernateStatistics();
+                if (statistics.isEnabled()) {
+                    return new AccountingDataSource((DataSource) bean, statistics.getSlowQueryThresholdMs());
+                }
+                if (properties.getServerTiming().isEnabled()) {
+                    return new AccountingDataSource((DataSource) bean);
+                }
+                return bean;
+            }
+        };
+    }
+}
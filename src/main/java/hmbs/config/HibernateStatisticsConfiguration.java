@@ -0,0 +1,45 @@
+package hmbs.config;
+
+import hmbs.management.HibernateStatisticsMetrics;
+import io.micrometer.core.instrument.Tags;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Opt-in export of the Hibernate statistics to Micrometer, as the {@code hibernate.*} meters of the
+ * {@link HibernateStatisticsMetrics}.
+ * <p>
+ * Spring Boot only exports them with the {@code hibernate-micrometer} module, which is not a dependency. Slow
+ * statements are logged by the data source, wrapped in {@code DatabaseConfiguration}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.hibernate-statistics", name = "enabled", havingValue = "true")
+public class HibernateStatisticsConfiguration {
+
+    /**
+     * Name of the session factory in the tags of the meters, as Spring Boot would set it.
+     */
+    private static final String ENTITY_MANAGER_FACTORY = "entityManagerFactory";
+
+    @Bean
+    public HibernatePropertiesCustomizer statisticsHibernatePropertiesCustomizer() {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.GENERATE_STATISTICS, "true");
+    }
+
+    @Bean
+    public HibernateStatisticsMetrics hibernateStatisticsMetrics(
+        EntityManagerFactory entityManagerFactory,
+        ApplicationProperties applicationProperties
+    ) {
+        return new HibernateStatisticsMetrics(
+            entityManagerFactory.unwrap(SessionFactory.class).getStatistics(),
+            Tags.of(ENTITY_MANAGER_FACTORY, ENTITY_MANAGER_FACTORY),
+            applicationProperties.getHibernateStatistics().getMaxQueries()
+        );
+    }
+}
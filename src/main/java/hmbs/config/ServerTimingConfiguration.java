@@ -0,0 +1,44 @@
+package hmbs.config;
+
+import hmbs.management.AccountingSessionEventListener;
+import hmbs.web.filter.ServerTimingFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Accounting of the database work of each API request, reported by the {@link ServerTimingFilter}.
+ * <p>
+ * The statements are counted by the data source, wrapped in {@code DatabaseConfiguration}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.server-timing", name = "enabled", havingValue = "true")
+public class ServerTimingConfiguration {
+
+    @Bean
+    public HibernatePropertiesCustomizer accountingHibernatePropertiesCustomizer() {
+        return hibernateProperties ->
+            hibernateProperties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, AccountingSessionEventListener.class.getName());
+    }
+
+    /**
+     * Register the filter around the security filters, so their statements are counted as well.
+     */
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(
+        MeterRegistry registry,
+        ApplicationProperties applicationProperties
+    ) {
+        FilterRegistrationBean<ServerTimingFilter> registration = new FilterRegistrationBean<>(
+            new ServerTimingFilter(registry, applicationProperties.getServerTiming().isHeader())
+        );
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        return registration;
+    }
+}
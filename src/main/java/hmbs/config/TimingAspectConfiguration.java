@@ -0,0 +1,18 @@
+package hmbs.config;
+
+import hmbs.aop.timing.TimingAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.*;
+
+@Configuration
+@EnableAspectJAutoProxy
+public class TimingAspectConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.timing", name = "enabled", havingValue = "true")
+    public TimingAspect timingAspect(MeterRegistry registry, ApplicationProperties applicationProperties) {
+        ApplicationProperties.Timing timing = applicationProperties.getTiming();
+        return new TimingAspect(registry, timing.getSampleRate(), timing.getPackages());
+    }
+}
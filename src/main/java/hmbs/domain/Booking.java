@@ -16,8 +16,20 @@ public class Booking implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    /**
+     * Ids are allocated by blocks from the {@code id_generator} table, so inserts can be batched, which identity
+     * columns prevent.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "bookingIdGenerator")
+    @TableGenerator(
+        name = "bookingIdGenerator",
+        table = "id_generator",
+        pkColumnName = "sequence_name",
+        valueColumnName = "next_val",
+        pkColumnValue = "booking",
+        allocationSize = 50
+    )
     @Column(name = "id")
     private Long id;
 
@@ -42,6 +54,13 @@ public class Booking implements Serializable {
     @Column(name = "final_price")
     private Double finalPrice;
 
+    /**
+     * Incremented by every update, and exposed as the {@code ETag} of the booking so concurrent updates are detected.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -148,6 +167,19 @@ public class Booking implements Serializable {
         this.finalPrice = finalPrice;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public Booking version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -179,6 +211,7 @@ public class Booking implements Serializable {
             ", checkout='" + getCheckout() + "'" +
             ", numOfGuests=" + getNumOfGuests() +
             ", finalPrice=" + getFinalPrice() +
+            ", version=" + getVersion() +
             "}";
     }
 }
@@ -0,0 +1,228 @@
+package hmbs.domain;
+
+import hmbs.domain.enumeration.BookingImportFormat;
+import hmbs.domain.enumeration.BookingImportStatus;
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.Instant;
+import javax.persistence.*;
+
+/**
+ * An import of bookings from an uploaded file.
+ * <p>
+ * The counters are updated in the transaction committing each chunk of rows, so {@link #getProcessedRows()} is
+ * always the position to resume the file from.
+ */
+@Entity
+@Table(name = "booking_import")
+public class BookingImport implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "file_name")
+    private String fileName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "format", nullable = false)
+    private BookingImportFormat format;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private BookingImportStatus status;
+
+    @Column(name = "processed_rows", nullable = false)
+    private long processedRows;
+
+    @Column(name = "imported_rows", nullable = false)
+    private long importedRows;
+
+    @Column(name = "rejected_rows", nullable = false)
+    private long rejectedRows;
+
+    @Column(name = "last_error", length = 1024)
+    private String lastError;
+
+    @Column(name = "created_date")
+    private Instant createdDate;
+
+    @Column(name = "run_started_date")
+    private Instant runStartedDate;
+
+    @Column(name = "run_start_row", nullable = false)
+    private long runStartRow;
+
+    @Column(name = "finished_date")
+    private Instant finishedDate;
+
+    @Column(name = "heartbeat_date")
+    private Instant heartbeatDate;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public BookingImportFormat getFormat() {
+        return format;
+    }
+
+    public void setFormat(BookingImportFormat format) {
+        this.format = format;
+    }
+
+    public BookingImportStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(BookingImportStatus status) {
+        this.status = status;
+    }
+
+    /**
+     * @return the number of data rows of the file which were imported or rejected, in committed chunks.
+     */
+    public long getProcessedRows() {
+        return processedRows;
+    }
+
+    public void setProcessedRows(long processedRows) {
+        this.processedRows = processedRows;
+    }
+
+    public long getImportedRows() {
+        return importedRows;
+    }
+
+    public void setImportedRows(long importedRows) {
+        this.importedRows = importedRows;
+    }
+
+    public long getRejectedRows() {
+        return rejectedRows;
+    }
+
+    public void setRejectedRows(long rejectedRows) {
+        this.rejectedRows = rejectedRows;
+    }
+
+    /**
+     * @return the last rejected row or failure, {@code null} if there was none.
+     */
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError == null || lastError.length() <= 1024 ? lastError : lastError.substring(0, 1024);
+    }
+
+    public Instant getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    /**
+     * @return when the current or last run started, runs being resumed after a failure.
+     */
+    public Instant getRunStartedDate() {
+        return runStartedDate;
+    }
+
+    public void setRunStartedDate(Instant runStartedDate) {
+        this.runStartedDate = runStartedDate;
+    }
+
+    /**
+     * @return the processed rows when the current or last run started.
+     */
+    public long getRunStartRow() {
+        return runStartRow;
+    }
+
+    public void setRunStartRow(long runStartRow) {
+        this.runStartRow = runStartRow;
+    }
+
+    public Instant getFinishedDate() {
+        return finishedDate;
+    }
+
+    public void setFinishedDate(Instant finishedDate) {
+        this.finishedDate = finishedDate;
+    }
+
+    /**
+     * @return the last time the node running the import renewed its lease, which it does while the import is pending or
+     *         running.
+     */
+    public Instant getHeartbeatDate() {
+        return heartbeatDate;
+    }
+
+    public void setHeartbeatDate(Instant heartbeatDate) {
+        this.heartbeatDate = heartbeatDate;
+    }
+
+    /**
+     * @return the rows processed per second by the current or last run, {@code null} if it did not start.
+     */
+    public Double getRowsPerSecond() {
+        if (runStartedDate == null) {
+            return null;
+        }
+        Instant end = status == BookingImportStatus.RUNNING || finishedDate == null ? Instant.now() : finishedDate;
+        long millis = Math.max(1, Duration.between(runStartedDate, end).toMillis());
+        return (processedRows - runStartRow) * 1000.0 / millis;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BookingImport)) {
+            return false;
+        }
+        return id != null && id.equals(((BookingImport) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BookingImport{" +
+            "id=" + getId() +
+            ", fileName='" + getFileName() + "'" +
+            ", format='" + getFormat() + "'" +
+            ", status='" + getStatus() + "'" +
+            ", processedRows=" + getProcessedRows() +
+            ", importedRows=" + getImportedRows() +
+            ", rejectedRows=" + getRejectedRows() +
+            ", heartbeatDate='" + getHeartbeatDate() + "'" +
+            "}";
+    }
+}
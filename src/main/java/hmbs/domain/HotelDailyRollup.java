@@ -0,0 +1,146 @@
+package hmbs.domain;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
+import javax.persistence.Table;
+import javax.persistence.Transient;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * The occupancy and revenue of a hotel for one night, summed over the bookings staying that night.
+ * <p>
+ * The revenue of a booking is spread evenly over its nights. Rows are only ever incremented by the changes of the
+ * bookings, so a day whose bookings were all removed keeps a row of zeros.
+ */
+@Entity
+@Table(name = "hotel_daily_rollup")
+@IdClass(HotelDailyRollupId.class)
+public class HotelDailyRollup implements Serializable, Persistable<HotelDailyRollupId> {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "hotel_id")
+    private Long hotelId;
+
+    @Id
+    @Column(name = "stay_date")
+    private LocalDate day;
+
+    @Column(name = "room_nights", nullable = false)
+    private int roomNights;
+
+    /**
+     * The number of guests staying that night.
+     */
+    @Column(name = "guests", nullable = false)
+    private int guests;
+
+    @Column(name = "revenue", nullable = false)
+    private double revenue;
+
+    @Transient
+    private boolean isPersisted;
+
+    public HotelDailyRollup() {}
+
+    public HotelDailyRollup(Long hotelId, LocalDate day, int roomNights, int guests, double revenue) {
+        this.hotelId = hotelId;
+        this.day = day;
+        this.roomNights = roomNights;
+        this.guests = guests;
+        this.revenue = revenue;
+    }
+
+    public Long getHotelId() {
+        return hotelId;
+    }
+
+    public void setHotelId(Long hotelId) {
+        this.hotelId = hotelId;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public void setDay(LocalDate day) {
+        this.day = day;
+    }
+
+    public int getRoomNights() {
+        return roomNights;
+    }
+
+    public void setRoomNights(int roomNights) {
+        this.roomNights = roomNights;
+    }
+
+    public int getGuests() {
+        return guests;
+    }
+
+    public void setGuests(int guests) {
+        this.guests = guests;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(double revenue) {
+        this.revenue = revenue;
+    }
+
+    @Override
+    public HotelDailyRollupId getId() {
+        return new HotelDailyRollupId(hotelId, day);
+    }
+
+    @Override
+    public boolean isNew() {
+        return !isPersisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    public void updateEntityState() {
+        this.isPersisted = true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof HotelDailyRollup)) {
+            return false;
+        }
+        HotelDailyRollup other = (HotelDailyRollup) o;
+        return hotelId != null && day != null && Objects.equals(hotelId, other.hotelId) && Objects.equals(day, other.day);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "HotelDailyRollup{" +
+            "hotelId=" + getHotelId() +
+            ", day='" + getDay() + "'" +
+            ", roomNights=" + getRoomNights() +
+            ", guests=" + getGuests() +
+            ", revenue=" + getRevenue() +
+            "}";
+    }
+}
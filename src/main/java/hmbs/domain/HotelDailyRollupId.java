@@ -0,0 +1,58 @@
+package hmbs.domain;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * The primary key of a {@link HotelDailyRollup}: a hotel and a night.
+ */
+public class HotelDailyRollupId implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long hotelId;
+
+    private LocalDate day;
+
+    public HotelDailyRollupId() {}
+
+    public HotelDailyRollupId(Long hotelId, LocalDate day) {
+        this.hotelId = hotelId;
+        this.day = day;
+    }
+
+    public Long getHotelId() {
+        return hotelId;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof HotelDailyRollupId)) {
+            return false;
+        }
+        HotelDailyRollupId other = (HotelDailyRollupId) o;
+        return Objects.equals(hotelId, other.hotelId) && Objects.equals(day, other.day);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(hotelId, day);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "HotelDailyRollupId{" +
+            "hotelId=" + hotelId +
+            ", day='" + day + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,77 @@
+package hmbs.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * A row per hotel having {@link HotelDailyRollup}s, locked with {@code SELECT ... FOR UPDATE} by whoever writes them,
+ * so a rebuild never interleaves with the increments of the booking changes.
+ */
+@Entity
+@Table(name = "hotel_rollup_state")
+public class HotelRollupState implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "hotel_id")
+    private Long hotelId;
+
+    /**
+     * When the rollups of the hotel were last rebuilt from its bookings, {@code null} if never.
+     */
+    @Column(name = "rebuilt_date")
+    private Instant rebuiltDate;
+
+    public HotelRollupState() {}
+
+    public HotelRollupState(Long hotelId) {
+        this.hotelId = hotelId;
+    }
+
+    public Long getHotelId() {
+        return hotelId;
+    }
+
+    public void setHotelId(Long hotelId) {
+        this.hotelId = hotelId;
+    }
+
+    public Instant getRebuiltDate() {
+        return rebuiltDate;
+    }
+
+    public void setRebuiltDate(Instant rebuiltDate) {
+        this.rebuiltDate = rebuiltDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof HotelRollupState)) {
+            return false;
+        }
+        return Objects.equals(hotelId, ((HotelRollupState) o).hotelId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(hotelId);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "HotelRollupState{" +
+            "hotelId=" + hotelId +
+            ", rebuiltDate='" + rebuiltDate + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,149 @@
+package hmbs.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
+import javax.persistence.Table;
+import javax.persistence.Transient;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * A request made with an {@code Idempotency-Key}, with its response once it completed.
+ * <p>
+ * The row is inserted before the request is processed: its primary key is what makes concurrent retries of the
+ * same request, on any node, wait for the first one instead of processing it twice.
+ */
+@Entity
+@Table(name = "idempotent_request")
+public class IdempotentRequest implements Serializable, Persistable<String> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * SHA-256 of the user and the key sent by the client, in hexadecimal.
+     */
+    @Id
+    @Column(name = "key_hash", length = 64)
+    private String keyHash;
+
+    /**
+     * SHA-256 of the body of the request, in hexadecimal, to detect keys reused for another request.
+     */
+    @Column(name = "request_hash", length = 64, nullable = false)
+    private String requestHash;
+
+    @Column(name = "response_body", length = 4000)
+    private String responseBody;
+
+    @Column(name = "created_date", nullable = false)
+    private Instant createdDate;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Transient
+    private boolean isPersisted;
+
+    public IdempotentRequest() {}
+
+    public IdempotentRequest(String keyHash, String requestHash, Instant createdDate, Instant expiresAt) {
+        this.keyHash = keyHash;
+        this.requestHash = requestHash;
+        this.createdDate = createdDate;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getKeyHash() {
+        return keyHash;
+    }
+
+    public void setKeyHash(String keyHash) {
+        this.keyHash = keyHash;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public void setRequestHash(String requestHash) {
+        this.requestHash = requestHash;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    public void setResponseBody(String responseBody) {
+        this.responseBody = responseBody;
+    }
+
+    public Instant getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * @return whether the request was processed, {@code false} while it is in progress.
+     */
+    public boolean isCompleted() {
+        return responseBody != null;
+    }
+
+    @Override
+    public String getId() {
+        return keyHash;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !isPersisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    public void updateEntityState() {
+        this.isPersisted = true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof IdempotentRequest)) {
+            return false;
+        }
+        return keyHash != null && Objects.equals(keyHash, ((IdempotentRequest) o).keyHash);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "IdempotentRequest{" +
+            "keyHash='" + getKeyHash() + "'" +
+            ", createdDate='" + getCreatedDate() + "'" +
+            ", expiresAt='" + getExpiresAt() + "'" +
+            "}";
+    }
+}
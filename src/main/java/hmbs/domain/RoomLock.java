@@ -0,0 +1,61 @@
+package hmbs.domain;
+
+import java.io.Serializable;
+import java.util.Objects;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * A row per booked room, locked with {@code SELECT ... FOR UPDATE} to serialize the bookings of that room
+ * across all the application nodes.
+ */
+@Entity
+@Table(name = "room_lock")
+public class RoomLock implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "room_id")
+    private Long roomId;
+
+    public RoomLock() {}
+
+    public RoomLock(Long roomId) {
+        this.roomId = roomId;
+    }
+
+    public Long getRoomId() {
+        return roomId;
+    }
+
+    public void setRoomId(Long roomId) {
+        this.roomId = roomId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RoomLock)) {
+            return false;
+        }
+        return Objects.equals(roomId, ((RoomLock) o).roomId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(roomId);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "RoomLock{" +
+            "roomId=" + roomId +
+            "}";
+    }
+}
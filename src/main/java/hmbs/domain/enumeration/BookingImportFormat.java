@@ -0,0 +1,15 @@
+package hmbs.domain.enumeration;
+
+/**
+ * The BookingImportFormat enumeration.
+ */
+public enum BookingImportFormat {
+    /**
+     * Comma or semicolon separated values, with a header line naming the columns.
+     */
+    CSV,
+    /**
+     * One JSON object per line.
+     */
+    NDJSON,
+}
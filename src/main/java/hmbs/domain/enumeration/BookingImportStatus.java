@@ -0,0 +1,23 @@
+package hmbs.domain.enumeration;
+
+/**
+ * The BookingImportStatus enumeration.
+ */
+public enum BookingImportStatus {
+    /**
+     * Uploaded, waiting for a worker.
+     */
+    PENDING,
+    /**
+     * Being imported.
+     */
+    RUNNING,
+    /**
+     * Every row was imported or rejected.
+     */
+    COMPLETED,
+    /**
+     * Stopped by an error or a restart, can be resumed after its last committed chunk.
+     */
+    FAILED,
+}
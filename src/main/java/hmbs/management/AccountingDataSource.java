@@ -0,0 +1,153 @@
+package hmbs.management;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Data source counting the statements executed on its connections, and their duration, in the
+ * {@link RequestAccounting} of the executing thread, and logging the slow ones.
+ * <p>
+ * Connections and statements are wrapped in JDK proxies. Only the {@code execute*} methods of the statements are
+ * timed, and only when the thread is accounted or slow statements are logged: fetching the rows of a result set is not
+ * included.
+ * <p>
+ * Slow statements are logged with the types of their parameters, not their values, which may be personal data.
+ */
+public class AccountingDataSource extends DelegatingDataSource {
+
+    private final Logger log = LoggerFactory.getLogger(AccountingDataSource.class);
+
+    private final long slowStatementNanos;
+
+    public AccountingDataSource(DataSource targetDataSource) {
+        this(targetDataSource, 0);
+    }
+
+    /**
+     * @param targetDataSource the data source of the connections.
+     * @param slowStatementMillis the duration from which statements are logged, {@code 0} to log none.
+     */
+    public AccountingDataSource(DataSource targetDataSource, long slowStatementMillis) {
+        super(targetDataSource);
+        this.slowStatementNanos = TimeUnit.MILLISECONDS.toNanos(slowStatementMillis);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(Connection.class, super.getConnection(), this::invokeConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(Connection.class, super.getConnection(username, password), this::invokeConnection);
+    }
+
+    private Object invokeConnection(Object target, Method method, Object[] args) throws Throwable {
+        Object result = invoke(target, method, args);
+        if (result instanceof Statement) {
+            // Statement, PreparedStatement or CallableStatement, as declared by the method
+            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+            return wrap(method.getReturnType(), result, new StatementInvocationHandler(sql));
+        }
+        return result;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private static <T> T wrap(Class<T> type, Object target, TargetInvocationHandler handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> {
+            if (method.getName().equals("equals") && method.getParameterCount() == 1) {
+                return proxy == args[0];
+            }
+            if (method.getName().equals("hashCode") && method.getParameterCount() == 0) {
+                return System.identityHashCode(proxy);
+            }
+            return handler.invoke(target, method, args);
+        };
+        return type.cast(Proxy.newProxyInstance(AccountingDataSource.class.getClassLoader(), new Class<?>[] { type }, invocationHandler));
+    }
+
+    @FunctionalInterface
+    private interface TargetInvocationHandler {
+        Object invoke(Object target, Method method, Object[] args) throws Throwable;
+    }
+
+    private final class StatementInvocationHandler implements TargetInvocationHandler {
+
+        /**
+         * The prepared SQL, {@code null} for plain statements which get it on execution.
+         */
+        private final String sql;
+
+        /**
+         * Types of the bound parameters, by index from 1, only kept when slow statements are logged.
+         */
+        private final List<String> parameters = new ArrayList<>();
+
+        StatementInvocationHandler(String sql) {
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(target, method, args);
+            }
+            if (slowStatementNanos > 0) {
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                    // PreparedStatement.setXxx(parameterIndex, value, ...), not the one-argument Statement setters
+                    bind((Integer) args[0], name.equals("setNull") || args[1] == null ? "null" : args[1].getClass().getSimpleName());
+                } else if (name.equals("clearParameters")) {
+                    parameters.clear();
+                }
+            }
+            return AccountingDataSource.invoke(target, method, args);
+        }
+
+        private Object execute(Object target, Method method, Object[] args) throws Throwable {
+            boolean accounted = RequestAccounting.isActive();
+            if (!accounted && slowStatementNanos <= 0) {
+                return AccountingDataSource.invoke(target, method, args);
+            }
+            long start = System.nanoTime();
+            try {
+                return AccountingDataSource.invoke(target, method, args);
+            } finally {
+                long nanos = System.nanoTime() - start;
+                if (accounted) {
+                    RequestAccounting.statementExecuted(nanos);
+                }
+                if (slowStatementNanos > 0 && nanos >= slowStatementNanos) {
+                    String executed = sql != null ? sql : args != null && args.length > 0 ? String.valueOf(args[0]) : null;
+                    log.warn("Slow statement, {} ms: {} with parameters {}", TimeUnit.NANOSECONDS.toMillis(nanos), executed, parameters);
+                }
+            }
+        }
+
+        private void bind(int index, String type) {
+            while (parameters.size() < index) {
+                parameters.add("?");
+            }
+            parameters.set(index - 1, type);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package hmbs.management;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Hibernate session listener counting the hits and misses of the second level cache in the
+ * {@link RequestAccounting} of the current thread.
+ * <p>
+ * Hibernate creates one per session, from the {@code hibernate.session.events.auto} setting.
+ */
+public class AccountingSessionEventListener extends BaseSessionEventListener {
+
+    @Override
+    public void cacheGetEnd(boolean hit) {
+        RequestAccounting.cacheGet(hit);
+    }
+}
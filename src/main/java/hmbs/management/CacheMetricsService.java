@@ -0,0 +1,164 @@
+package hmbs.management;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+import javax.cache.CacheManager;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.ehcache.core.spi.service.StatisticsService;
+import org.ehcache.core.statistics.CacheStatistics;
+import org.ehcache.core.statistics.TierStatistics;
+import org.springframework.stereotype.Service;
+
+/**
+ * Statistics of the JCache regions.
+ * <p>
+ * Hits, misses, puts and evictions are exported by Spring Boot as the {@code cache.*} meters, from the JCache
+ * statistics enabled in {@code CacheConfiguration}. This binder adds what they miss: the size of each region and
+ * tier, and the average get and put durations.
+ * <p>
+ * The counters and durations are read from the JCache statistics MBeans, the tiers from the Ehcache
+ * {@link StatisticsService} of the cache manager, which already collects them.
+ */
+@Service
+public class CacheMetricsService implements MeterBinder {
+
+    /**
+     * Value of the {@code cacheManager} tag set by Spring Boot on the {@code cache.*} meters.
+     */
+    private static final String CACHE_MANAGER_TAG = "cacheManager";
+
+    private final CacheManager cacheManager;
+
+    private final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+    private final StatisticsService statisticsService;
+
+    public CacheMetricsService(CacheManager cacheManager, StatisticsService statisticsService) {
+        this.cacheManager = cacheManager;
+        this.statisticsService = statisticsService;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String cacheName : cacheManager.getCacheNames()) {
+            Tags tags = Tags.of("cache", cacheName, CACHE_MANAGER_TAG, CACHE_MANAGER_TAG);
+            Gauge
+                .builder("cache.size", this, service -> service.statistics(cacheName).getEntries())
+                .tags(tags)
+                .description("The number of entries in the cache")
+                .register(registry);
+            TimeGauge
+                .builder("cache.get.latency", this, TimeUnit.MICROSECONDS, attribute(cacheName, "AverageGetTime"))
+                .tags(tags)
+                .description("The average duration of the cache gets")
+                .register(registry);
+            TimeGauge
+                .builder("cache.put.latency", this, TimeUnit.MICROSECONDS, attribute(cacheName, "AveragePutTime"))
+                .tags(tags)
+                .description("The average duration of the cache puts")
+                .register(registry);
+            for (String tier : tierStatistics(cacheName).getTierStatistics().keySet()) {
+                Gauge
+                    .builder(
+                        "cache.tier.size",
+                        this,
+                        service -> service.tierStatistics(cacheName).getTierStatistics().get(tier).getMappings()
+                    )
+                    .tags(tags.and("tier", tier))
+                    .description("The number of entries in the cache tier")
+                    .register(registry);
+                Gauge
+                    .builder(
+                        "cache.tier.occupied",
+                        this,
+                        service -> service.tierStatistics(cacheName).getTierStatistics().get(tier).getOccupiedByteSize()
+                    )
+                    .tags(tags.and("tier", tier))
+                    .baseUnit("bytes")
+                    .description("The memory used by the cache tier, negative when it is sized in entries")
+                    .register(registry);
+            }
+        }
+    }
+
+    /**
+     * @return the statistics of every region.
+     */
+    public List<CacheRegionStatistics> getRegionStatistics() {
+        List<CacheRegionStatistics> result = new ArrayList<>();
+        for (String cacheName : cacheManager.getCacheNames()) {
+            result.add(statistics(cacheName));
+        }
+        return result;
+    }
+
+    /**
+     * @param cacheName the region.
+     * @return the statistics of the region.
+     */
+    public CacheRegionStatistics statistics(String cacheName) {
+        CacheStatistics statistics = tierStatistics(cacheName);
+        Map<String, CacheRegionStatistics.Tier> tiers = new LinkedHashMap<>();
+        long entries = 0;
+        for (Map.Entry<String, TierStatistics> tier : statistics.getTierStatistics().entrySet()) {
+            tiers.put(tier.getKey(), new CacheRegionStatistics.Tier(tier.getValue().getMappings(), tier.getValue().getOccupiedByteSize()));
+            // Every entry is in the lowest tier, which is the largest one
+            entries = Math.max(entries, tier.getValue().getMappings());
+        }
+        return new CacheRegionStatistics(
+            cacheName,
+            (long) attribute(cacheName, "CacheHits").applyAsDouble(this),
+            (long) attribute(cacheName, "CacheMisses").applyAsDouble(this),
+            (long) attribute(cacheName, "CachePuts").applyAsDouble(this),
+            (long) attribute(cacheName, "CacheEvictions").applyAsDouble(this),
+            statistics.getCacheExpirations(),
+            attribute(cacheName, "AverageGetTime").applyAsDouble(this),
+            attribute(cacheName, "AveragePutTime").applyAsDouble(this),
+            entries,
+            tiers
+        );
+    }
+
+    private CacheStatistics tierStatistics(String cacheName) {
+        return statisticsService.getCacheStatistics(cacheName);
+    }
+
+    /**
+     * Read an attribute of the JCache statistics MBean of a region, which is only registered when its statistics are
+     * enabled.
+     */
+    private ToDoubleFunction<CacheMetricsService> attribute(String cacheName, String attribute) {
+        return service -> {
+            try {
+                ObjectName objectName = new ObjectName(
+                    "javax.cache:type=CacheStatistics,CacheManager=" +
+                    sanitize(cacheManager.getURI().toString()) +
+                    ",Cache=" +
+                    sanitize(cacheName)
+                );
+                if (!mBeanServer.isRegistered(objectName)) {
+                    return 0;
+                }
+                return ((Number) mBeanServer.getAttribute(objectName, attribute)).doubleValue();
+            } catch (JMException e) {
+                return 0;
+            }
+        };
+    }
+
+    private static String sanitize(String name) {
+        return name == null ? "" : name.replaceAll("[,:=\n]", ".");
+    }
+}
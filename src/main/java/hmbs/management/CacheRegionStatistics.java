@@ -0,0 +1,142 @@
+package hmbs.management;
+
+import java.util.Map;
+
+/**
+ * Snapshot of the effectiveness and footprint of one cache region.
+ */
+public class CacheRegionStatistics {
+
+    private final String name;
+
+    private final long hits;
+
+    private final long misses;
+
+    private final long puts;
+
+    private final long evictions;
+
+    private final long expirations;
+
+    private final double averageGetMicros;
+
+    private final double averagePutMicros;
+
+    private final long entries;
+
+    private final Map<String, Tier> tiers;
+
+    public CacheRegionStatistics(
+        String name,
+        long hits,
+        long misses,
+        long puts,
+        long evictions,
+        long expirations,
+        double averageGetMicros,
+        double averagePutMicros,
+        long entries,
+        Map<String, Tier> tiers
+    ) {
+        this.name = name;
+        this.hits = hits;
+        this.misses = misses;
+        this.puts = puts;
+        this.evictions = evictions;
+        this.expirations = expirations;
+        this.averageGetMicros = averageGetMicros;
+        this.averagePutMicros = averagePutMicros;
+        this.entries = entries;
+        this.tiers = tiers;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return the share of the gets which were hits, {@code null} if there was no get yet.
+     */
+    public Double getHitRatio() {
+        return hits + misses == 0 ? null : (double) hits / (hits + misses);
+    }
+
+    public long getPuts() {
+        return puts;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getExpirations() {
+        return expirations;
+    }
+
+    /**
+     * @return the average duration of a get in microseconds, {@code 0} if unknown.
+     */
+    public double getAverageGetMicros() {
+        return averageGetMicros;
+    }
+
+    /**
+     * @return the average duration of a put in microseconds, {@code 0} if unknown.
+     */
+    public double getAveragePutMicros() {
+        return averagePutMicros;
+    }
+
+    /**
+     * @return the number of entries, as held by the lowest tier.
+     */
+    public long getEntries() {
+        return entries;
+    }
+
+    /**
+     * @return the bytes used by the tiers sized in memory units. Tiers sized in entries are not counted.
+     */
+    public long getOccupiedBytes() {
+        return tiers.values().stream().mapToLong(Tier::getOccupiedBytes).filter(bytes -> bytes > 0).sum();
+    }
+
+    public Map<String, Tier> getTiers() {
+        return tiers;
+    }
+
+    /**
+     * Footprint of one tier (heap, off-heap or disk) of a region.
+     */
+    public static class Tier {
+
+        private final long entries;
+
+        private final long occupiedBytes;
+
+        public Tier(long entries, long occupiedBytes) {
+            this.entries = entries;
+            this.occupiedBytes = occupiedBytes;
+        }
+
+        public long getEntries() {
+            return entries;
+        }
+
+        /**
+         * @return the bytes used by the tier, {@code -1} if it is sized in entries.
+         */
+        public long getOccupiedBytes() {
+            return occupiedBytes;
+        }
+    }
+}
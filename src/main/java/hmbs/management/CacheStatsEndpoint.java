@@ -0,0 +1,59 @@
+package hmbs.management;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code /management/cache-stats} : the cache regions ranked by hit ratio and by memory.
+ */
+@Component
+@Endpoint(id = "cachestats")
+public class CacheStatsEndpoint {
+
+    private final CacheMetricsService cacheMetricsService;
+
+    public CacheStatsEndpoint(CacheMetricsService cacheMetricsService) {
+        this.cacheMetricsService = cacheMetricsService;
+    }
+
+    /**
+     * @return the regions from the best to the worst hit ratio, those without any get last, and the regions from
+     * the largest to the smallest, by occupied bytes then by entries.
+     */
+    @ReadOperation
+    public Map<String, List<CacheRegionStatistics>> cacheStats() {
+        List<CacheRegionStatistics> regions = cacheMetricsService.getRegionStatistics();
+        Map<String, List<CacheRegionStatistics>> result = new LinkedHashMap<>();
+        result.put(
+            "byHitRatio",
+            regions
+                .stream()
+                .sorted(
+                    Comparator
+                        .comparing(CacheRegionStatistics::getHitRatio, Comparator.nullsLast(Comparator.reverseOrder()))
+                        .thenComparing(CacheRegionStatistics::getName)
+                )
+                .collect(Collectors.toList())
+        );
+        result.put(
+            "byMemory",
+            regions
+                .stream()
+                .sorted(
+                    Comparator
+                        .comparingLong(CacheRegionStatistics::getOccupiedBytes)
+                        .thenComparingLong(CacheRegionStatistics::getEntries)
+                        .reversed()
+                        .thenComparing(CacheRegionStatistics::getName)
+                )
+                .collect(Collectors.toList())
+        );
+        return result;
+    }
+}
@@ -0,0 +1,155 @@
+package hmbs.management;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Meters of the Hibernate {@link Statistics}, read when they are published.
+ * <p>
+ * The session factory gets meters for its entity and collection loads and fetches, flushes, prepared statements and
+ * query executions, and each second level cache region for its hits, misses and puts. Each HQL and criteria query
+ * gets meters for its executions and rows, and its average and maximum execution times.
+ * <p>
+ * The queries are only known once executed, so they are looked for every minute. Nothing is done on the execution of
+ * the queries, unlike Micrometer's {@code HibernateQueryMetrics} which looks for new queries on each loaded entity.
+ * The number of queries exported is bounded, since each of them is a tag value.
+ */
+public class HibernateStatisticsMetrics implements MeterBinder {
+
+    private final Logger log = LoggerFactory.getLogger(HibernateStatisticsMetrics.class);
+
+    private final Statistics statistics;
+
+    private final Tags tags;
+
+    private final int maxQueries;
+
+    private final Set<String> queries = ConcurrentHashMap.newKeySet();
+
+    private volatile MeterRegistry registry;
+
+    /**
+     * @param statistics the statistics of the session factory.
+     * @param tags the tags of the meters, naming the session factory.
+     * @param maxQueries the number of distinct queries exported.
+     */
+    public HibernateStatisticsMetrics(Statistics statistics, Tags tags, int maxQueries) {
+        this.statistics = statistics;
+        this.tags = tags;
+        this.maxQueries = maxQueries;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        counter(registry, "hibernate.sessions.open", "Sessions opened", Statistics::getSessionOpenCount);
+        counter(registry, "hibernate.entities.loads", "Entities loaded", Statistics::getEntityLoadCount);
+        counter(registry, "hibernate.entities.fetches", "Entities fetched from the database", Statistics::getEntityFetchCount);
+        counter(registry, "hibernate.collections.loads", "Collections loaded", Statistics::getCollectionLoadCount);
+        counter(registry, "hibernate.collections.fetches", "Collections fetched from the database", Statistics::getCollectionFetchCount);
+        counter(registry, "hibernate.flushes", "Flushes of the sessions", Statistics::getFlushCount);
+        counter(registry, "hibernate.statements", "JDBC statements prepared", Statistics::getPrepareStatementCount);
+        counter(registry, "hibernate.queries.executions", "Executions of the queries", Statistics::getQueryExecutionCount);
+        TimeGauge
+            .builder("hibernate.queries.execution.max", statistics, TimeUnit.MILLISECONDS, Statistics::getQueryExecutionMaxTime)
+            .tags(tags)
+            .description("Longest execution of a query")
+            .register(registry);
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            if (regionStatistics != null) {
+                bindRegion(registry, region, regionStatistics);
+            }
+        }
+        this.registry = registry;
+        registerNewQueries();
+    }
+
+    /**
+     * Register the meters of the queries executed since the last call.
+     */
+    @Scheduled(initialDelay = 60_000, fixedDelay = 60_000)
+    public void registerNewQueries() {
+        MeterRegistry meterRegistry = registry;
+        if (meterRegistry == null) {
+            return;
+        }
+        for (String query : statistics.getQueries()) {
+            if (queries.contains(query)) {
+                continue;
+            }
+            if (queries.size() >= maxQueries) {
+                log.warn("Not exporting the statistics of more than {} queries", maxQueries);
+                return;
+            }
+            queries.add(query);
+            bindQuery(meterRegistry, query, statistics.getQueryStatistics(query));
+        }
+    }
+
+    private void counter(MeterRegistry registry, String name, String description, ToDoubleFunction<Statistics> count) {
+        FunctionCounter.builder(name, statistics, count).tags(tags).description(description).register(registry);
+    }
+
+    private void bindRegion(MeterRegistry registry, String region, CacheRegionStatistics regionStatistics) {
+        Tags regionTags = tags.and("region", region);
+        FunctionCounter
+            .builder("hibernate.second.level.cache.requests", regionStatistics, CacheRegionStatistics::getHitCount)
+            .tags(regionTags.and("result", "hit"))
+            .description("Reads of the region which found their entry")
+            .register(registry);
+        FunctionCounter
+            .builder("hibernate.second.level.cache.requests", regionStatistics, CacheRegionStatistics::getMissCount)
+            .tags(regionTags.and("result", "miss"))
+            .description("Reads of the region which did not find their entry")
+            .register(registry);
+        FunctionCounter
+            .builder("hibernate.second.level.cache.puts", regionStatistics, CacheRegionStatistics::getPutCount)
+            .tags(regionTags)
+            .description("Entries put in the region")
+            .register(registry);
+    }
+
+    private void bindQuery(MeterRegistry registry, String query, QueryStatistics queryStatistics) {
+        Tags queryTags = tags.and("query", query);
+        FunctionCounter
+            .builder("hibernate.query.executions", queryStatistics, QueryStatistics::getExecutionCount)
+            .tags(queryTags)
+            .description("Executions of the query")
+            .register(registry);
+        FunctionCounter
+            .builder("hibernate.query.execution.rows", queryStatistics, QueryStatistics::getExecutionRowCount)
+            .tags(queryTags)
+            .description("Rows returned by the query")
+            .register(registry);
+        FunctionTimer
+            .builder(
+                "hibernate.query.execution.time",
+                queryStatistics,
+                QueryStatistics::getExecutionCount,
+                QueryStatistics::getExecutionTotalTime,
+                TimeUnit.MILLISECONDS
+            )
+            .tags(queryTags)
+            .description("Execution time of the query")
+            .register(registry);
+        TimeGauge
+            .builder("hibernate.query.execution.max", queryStatistics, TimeUnit.MILLISECONDS, QueryStatistics::getExecutionMaxTime)
+            .tags(queryTags)
+            .description("Longest execution of the query")
+            .register(registry);
+    }
+}
@@ -0,0 +1,111 @@
+package hmbs.management;
+
+/**
+ * Work done by the current thread on behalf of a request: the JDBC statements executed, with their total duration,
+ * and the hits and misses of the Hibernate second level cache.
+ * <p>
+ * The counters are bound to the thread between {@link #start()} and {@link #stop()}. Work done on other threads, by
+ * asynchronous tasks for instance, is not accounted. Accountings can be nested, the work is then counted by each of
+ * them: a test can count the statements of a request which the {@code ServerTimingFilter} counts as well.
+ */
+public final class RequestAccounting {
+
+    private static final ThreadLocal<RequestAccounting> CURRENT = new ThreadLocal<>();
+
+    private final RequestAccounting parent;
+
+    private final long startNanos = System.nanoTime();
+
+    private int statements;
+
+    private long statementNanos;
+
+    private int cacheHits;
+
+    private int cacheMisses;
+
+    private RequestAccounting(RequestAccounting parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * Start accounting the work of the current thread.
+     *
+     * @return the counters, bound to the current thread until they are stopped.
+     */
+    public static RequestAccounting start() {
+        RequestAccounting accounting = new RequestAccounting(CURRENT.get());
+        CURRENT.set(accounting);
+        return accounting;
+    }
+
+    /**
+     * Stop accounting the work of the current thread, which is then only counted by the enclosing accounting, if any.
+     */
+    public void stop() {
+        if (CURRENT.get() == this) {
+            if (parent == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(parent);
+            }
+        }
+    }
+
+    /**
+     * @return whether the work of the current thread is accounted.
+     */
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * Count a statement executed by the current thread.
+     *
+     * @param nanos the duration of the execution.
+     */
+    public static void statementExecuted(long nanos) {
+        for (RequestAccounting accounting = CURRENT.get(); accounting != null; accounting = accounting.parent) {
+            accounting.statements++;
+            accounting.statementNanos += nanos;
+        }
+    }
+
+    /**
+     * Count a read of the second level cache by the current thread.
+     *
+     * @param hit whether the entry was found.
+     */
+    public static void cacheGet(boolean hit) {
+        for (RequestAccounting accounting = CURRENT.get(); accounting != null; accounting = accounting.parent) {
+            if (hit) {
+                accounting.cacheHits++;
+            } else {
+                accounting.cacheMisses++;
+            }
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getStatementNanos() {
+        return statementNanos;
+    }
+
+    public int getCacheHits() {
+        return cacheHits;
+    }
+
+    public int getCacheMisses() {
+        return cacheMisses;
+    }
+
+    /**
+     * @return the time elapsed since the accounting started.
+     */
+    public long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+}
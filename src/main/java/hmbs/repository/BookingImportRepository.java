@@ -0,0 +1,83 @@
+package hmbs.repository;
+
+import hmbs.domain.BookingImport;
+import hmbs.domain.enumeration.BookingImportStatus;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import javax.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link BookingImport} entity.
+ */
+@Repository
+public interface BookingImportRepository extends JpaRepository<BookingImport, Long> {
+    List<BookingImport> findAllByStatusInAndHeartbeatDateBefore(Collection<BookingImportStatus> statuses, Instant heartbeatDate);
+
+    /**
+     * @param id the id of the import.
+     * @return the import, locked until the end of the transaction.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select bookingImport from BookingImport bookingImport where bookingImport.id = :id")
+    Optional<BookingImport> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Mark a failed import as pending, in a single statement so that only one resume succeeds.
+     *
+     * @param id the id of the import.
+     * @param now the first heartbeat of the pending import.
+     * @return {@code 1} if the import was failed, {@code 0} otherwise.
+     */
+    @Modifying
+    @Query(
+        "update BookingImport bookingImport set bookingImport.status = hmbs.domain.enumeration.BookingImportStatus.PENDING, " +
+        "bookingImport.lastError = null, bookingImport.finishedDate = null, bookingImport.heartbeatDate = :now " +
+        "where bookingImport.id = :id and bookingImport.status = hmbs.domain.enumeration.BookingImportStatus.FAILED"
+    )
+    int resumeFailed(@Param("id") Long id, @Param("now") Instant now);
+
+    /**
+     * Renew the leases of the imports run by a node.
+     *
+     * @param ids the ids of the imports.
+     * @param now the heartbeat.
+     * @return the number of renewed leases, which excludes the imports no longer pending or running.
+     */
+    @Modifying
+    @Query(
+        "update BookingImport bookingImport set bookingImport.heartbeatDate = :now where bookingImport.id in :ids and " +
+        "bookingImport.status in (hmbs.domain.enumeration.BookingImportStatus.PENDING, hmbs.domain.enumeration.BookingImportStatus.RUNNING)"
+    )
+    int renewLeases(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    /**
+     * Mark an import as failed if its lease is still expired, in a single statement so that a renewal is never lost.
+     *
+     * @param id the id of the import.
+     * @param heartbeatDate the time before which the last heartbeat expired the lease.
+     * @param now the end of the import.
+     * @param lastError the reason of the failure.
+     * @return {@code 1} if the import was failed, {@code 0} otherwise.
+     */
+    @Modifying
+    @Query(
+        "update BookingImport bookingImport set bookingImport.status = hmbs.domain.enumeration.BookingImportStatus.FAILED, " +
+        "bookingImport.lastError = :lastError, bookingImport.finishedDate = :now where bookingImport.id = :id and " +
+        "bookingImport.heartbeatDate < :heartbeatDate and " +
+        "bookingImport.status in (hmbs.domain.enumeration.BookingImportStatus.PENDING, hmbs.domain.enumeration.BookingImportStatus.RUNNING)"
+    )
+    int failExpired(
+        @Param("id") Long id,
+        @Param("heartbeatDate") Instant heartbeatDate,
+        @Param("now") Instant now,
+        @Param("lastError") String lastError
+    );
+}
@@ -1,7 +1,16 @@
 package hmbs.repository;
 
 import hmbs.domain.Booking;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +18,134 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long>, JpaSpecificationExecutor<Booking> {}
+public interface BookingRepository
+    extends JpaRepository<Booking, Long>, JpaSpecificationExecutor<Booking>, BookingRepositoryWithSlices {
+    /**
+     * Find the bookings whose stay lies completely within the given dates.
+     * Backed by the {@code idx_booking_checkin_checkout} index.
+     *
+     * @param checkin the earliest accepted checkin date (inclusive).
+     * @param checkout the latest accepted checkout date (inclusive).
+     * @param pageable the pagination information.
+     * @return the matching bookings.
+     */
+    Page<Booking> findAllByCheckinGreaterThanEqualAndCheckoutLessThanEqual(LocalDate checkin, LocalDate checkout, Pageable pageable);
+
+    /**
+     * Find the other bookings of the room which overlap the given nights, with a shared lock on them.
+     * Backed by the {@code idx_booking_room_checkin} index.
+     * <p>
+     * The lock makes it a current read on MySQL: it sees the bookings committed since the snapshot of a REPEATABLE READ
+     * transaction was taken, for instance by another node while this one waited for the room lock.
+     *
+     * @param roomId the room.
+     * @param checkin the first night (inclusive).
+     * @param checkout the checkout day (exclusive).
+     * @param bookingId the booking to ignore, {@code null} for a new booking.
+     * @return the ids of the overlapping bookings.
+     */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query(
+        "select booking.id from Booking booking " +
+        "where booking.roomId = :roomId and booking.checkin < :checkout and booking.checkout > :checkin " +
+        "and (:bookingId is null or booking.id <> :bookingId)"
+    )
+    List<Long> findAllOverlappingIds(
+        @Param("roomId") Long roomId,
+        @Param("checkin") LocalDate checkin,
+        @Param("checkout") LocalDate checkout,
+        @Param("bookingId") Long bookingId
+    );
+
+    /**
+     * Find the bookings of the given rooms which overlap the given nights, with a shared lock on them, which makes it a
+     * current read on MySQL like {@link #findAllOverlappingIds}.
+     * Backed by the {@code idx_booking_room_checkin} index.
+     *
+     * @param roomIds the rooms.
+     * @param checkin the first night (inclusive).
+     * @param checkout the checkout day (exclusive).
+     * @return the overlapping bookings.
+     */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query(
+        "select booking from Booking booking " +
+        "where booking.roomId in :roomIds and booking.checkin < :checkout and booking.checkout > :checkin"
+    )
+    List<Booking> findAllOverlapping(
+        @Param("roomIds") Collection<Long> roomIds,
+        @Param("checkin") LocalDate checkin,
+        @Param("checkout") LocalDate checkout
+    );
+
+    /**
+     * Stream the bookings in id order, optionally restricted to a hotel, bypassing the second-level cache.
+     * Must be called inside a transaction and the returned stream must be closed.
+     * <p>
+     * The rows are fetched by blocks of the fetch size. MySQL Connector/J only honors it with {@code useCursorFetch=true}
+     * on the JDBC URL: without it, the driver reads the whole result into the heap before the first row is returned.
+     *
+     * @param hotelId the hotel to export, {@code null} for all hotels.
+     * @return the matching bookings.
+     */
+    @Query("select booking from Booking booking where (:hotelId is null or booking.hotelId = :hotelId) order by booking.id")
+    @QueryHints(
+        {
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHE_MODE, value = "IGNORE"),
+        }
+    )
+    Stream<Booking> streamAllByHotelId(@Param("hotelId") Long hotelId);
+
+    /**
+     * Count the bookings of every hotel.
+     *
+     * @return the number of bookings per hotel, including the bookings without hotel.
+     */
+    @Query("select booking.hotelId as hotelId, count(booking) as bookings from Booking booking group by booking.hotelId")
+    List<HotelBookingCount> countAllByHotelId();
+
+    /**
+     * Stream the stay of every booking, without loading the entities into the persistence context.
+     * Must be called inside a transaction and the returned stream must be closed.
+     * The rows are fetched by blocks, as explained on {@link #streamAllByHotelId}.
+     *
+     * @return the stays of all bookings.
+     */
+    @Query(
+        "select booking.id as id, booking.hotelId as hotelId, booking.roomId as roomId, " +
+        "booking.checkin as checkin, booking.checkout as checkout from Booking booking"
+    )
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<BookingStay> streamAllStays();
+
+    /**
+     * Get every booked room of every hotel, with the largest party it was booked for.
+     *
+     * @return one row per hotel and room.
+     */
+    @Query(
+        "select booking.hotelId as hotelId, booking.roomId as roomId, max(booking.numOfGuests) as maxGuests from Booking booking " +
+        "where booking.hotelId is not null and booking.roomId is not null group by booking.hotelId, booking.roomId"
+    )
+    List<HotelRoom> findAllHotelRooms();
+
+    /**
+     * Stream the nights, guests and price of the bookings of a hotel, without loading the entities into the
+     * persistence context. Must be called inside a transaction and the returned stream must be closed.
+     * The rows are fetched by blocks, as explained on {@link #streamAllByHotelId}.
+     *
+     * @param hotelId the hotel.
+     * @return the bookings of the hotel having at least one night.
+     */
+    @Query(
+        "select booking.checkin as checkin, booking.checkout as checkout, booking.numOfGuests as numOfGuests, " +
+        "booking.finalPrice as finalPrice from Booking booking where booking.hotelId = :hotelId and booking.checkout > booking.checkin"
+    )
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<BookingRevenue> streamAllRevenues(@Param("hotelId") Long hotelId);
+
+    @Query("select distinct booking.hotelId from Booking booking where booking.hotelId is not null")
+    List<Long> findAllHotelIds();
+}
@@ -0,0 +1,21 @@
+package hmbs.repository;
+
+import hmbs.domain.Booking;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Paged queries of {@link Booking} which do not count the matching rows.
+ */
+public interface BookingRepositoryWithSlices {
+    /**
+     * Find a page of the bookings matching a specification, reading one extra row to know whether another page
+     * follows instead of counting them all.
+     *
+     * @param specification the filters, may be {@code null}.
+     * @param pageable the pagination information.
+     * @return the matching bookings.
+     */
+    Slice<Booking> findSlice(Specification<Booking> specification, Pageable pageable);
+}
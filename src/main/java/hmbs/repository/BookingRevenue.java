@@ -0,0 +1,16 @@
+package hmbs.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Projection of the {@link hmbs.domain.Booking} columns summed by the daily rollups of a hotel.
+ */
+public interface BookingRevenue {
+    LocalDate getCheckin();
+
+    LocalDate getCheckout();
+
+    Integer getNumOfGuests();
+
+    Double getFinalPrice();
+}
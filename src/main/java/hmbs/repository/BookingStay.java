@@ -0,0 +1,18 @@
+package hmbs.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Projection of the {@link hmbs.domain.Booking} columns needed to know which room is occupied when.
+ */
+public interface BookingStay {
+    Long getId();
+
+    Long getHotelId();
+
+    Long getRoomId();
+
+    LocalDate getCheckin();
+
+    LocalDate getCheckout();
+}
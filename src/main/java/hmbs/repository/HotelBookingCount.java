@@ -0,0 +1,10 @@
+package hmbs.repository;
+
+/**
+ * Projection of the number of {@link hmbs.domain.Booking} of a hotel.
+ */
+public interface HotelBookingCount {
+    Long getHotelId();
+
+    long getBookings();
+}
@@ -0,0 +1,68 @@
+package hmbs.repository;
+
+import hmbs.domain.HotelDailyRollup;
+import hmbs.domain.HotelDailyRollupId;
+import java.time.LocalDate;
+import java.util.List;
+import javax.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link HotelDailyRollup} entity.
+ */
+@Repository
+public interface HotelDailyRollupRepository extends JpaRepository<HotelDailyRollup, HotelDailyRollupId> {
+    /**
+     * Lock the existing rollups of a hotel for some nights. Unlike a plain read, this reads the latest committed rows
+     * even in a repeatable read transaction.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(
+        "select rollup from HotelDailyRollup rollup " +
+        "where rollup.hotelId = :hotelId and rollup.day >= :from and rollup.day < :to order by rollup.day"
+    )
+    List<HotelDailyRollup> findAllForUpdate(@Param("hotelId") Long hotelId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query(
+        "select rollup from HotelDailyRollup rollup " +
+        "where rollup.hotelId = :hotelId and rollup.day >= :from and rollup.day < :to and rollup.roomNights > 0 order by rollup.day"
+    )
+    List<HotelDailyRollup> findAllOccupied(@Param("hotelId") Long hotelId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query(
+        "select rollup.hotelId as hotelId, sum(rollup.roomNights) as roomNights, sum(rollup.guests) as guestNights, " +
+        "sum(rollup.revenue) as revenue from HotelDailyRollup rollup where rollup.day >= :from and rollup.day < :to " +
+        "group by rollup.hotelId having sum(rollup.roomNights) > 0 order by rollup.hotelId"
+    )
+    List<HotelRollupTotal> sumAllByHotelId(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Add to the existing rollups of a hotel for some nights, in a single statement which never loses a concurrent
+     * increment.
+     *
+     * @return the number of updated rows.
+     */
+    @Modifying
+    @Query(
+        "update HotelDailyRollup rollup set rollup.roomNights = rollup.roomNights + :roomNights, " +
+        "rollup.guests = rollup.guests + :guests, rollup.revenue = rollup.revenue + :revenue " +
+        "where rollup.hotelId = :hotelId and rollup.day >= :from and rollup.day < :to"
+    )
+    int addToAll(
+        @Param("hotelId") Long hotelId,
+        @Param("from") LocalDate from,
+        @Param("to") LocalDate to,
+        @Param("roomNights") int roomNights,
+        @Param("guests") int guests,
+        @Param("revenue") double revenue
+    );
+
+    @Modifying
+    @Query("delete from HotelDailyRollup rollup where rollup.hotelId = :hotelId")
+    int deleteAllByHotelId(@Param("hotelId") Long hotelId);
+}
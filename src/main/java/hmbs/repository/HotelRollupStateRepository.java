@@ -0,0 +1,30 @@
+package hmbs.repository;
+
+import hmbs.domain.HotelRollupState;
+import java.util.Collection;
+import java.util.List;
+import javax.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link HotelRollupState} entity.
+ */
+@Repository
+public interface HotelRollupStateRepository extends JpaRepository<HotelRollupState, Long> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select state from HotelRollupState state where state.hotelId in :hotelIds order by state.hotelId")
+    List<HotelRollupState> findAllForUpdate(@Param("hotelIds") Collection<Long> hotelIds);
+
+    @Query("select state.hotelId from HotelRollupState state where state.hotelId in :hotelIds")
+    List<Long> findAllExistingIds(@Param("hotelIds") Collection<Long> hotelIds);
+
+    @Query("select state.hotelId from HotelRollupState state")
+    List<Long> findAllHotelIds();
+
+    @Query("select state.hotelId from HotelRollupState state where state.rebuiltDate is not null")
+    List<Long> findAllRebuiltHotelIds();
+}
@@ -0,0 +1,14 @@
+package hmbs.repository;
+
+/**
+ * Projection of the {@link hmbs.domain.HotelDailyRollup}s of a hotel, summed over some nights.
+ */
+public interface HotelRollupTotal {
+    Long getHotelId();
+
+    long getRoomNights();
+
+    long getGuestNights();
+
+    double getRevenue();
+}
@@ -0,0 +1,15 @@
+package hmbs.repository;
+
+/**
+ * Projection of a room of a hotel, as known from its {@link hmbs.domain.Booking}s.
+ */
+public interface HotelRoom {
+    Long getHotelId();
+
+    Long getRoomId();
+
+    /**
+     * @return the largest number of guests of a booking of the room, {@code null} if unknown.
+     */
+    Integer getMaxGuests();
+}
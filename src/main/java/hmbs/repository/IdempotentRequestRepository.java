@@ -0,0 +1,19 @@
+package hmbs.repository;
+
+import hmbs.domain.IdempotentRequest;
+import java.time.Instant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link IdempotentRequest} entity.
+ */
+@Repository
+public interface IdempotentRequestRepository extends JpaRepository<IdempotentRequest, String> {
+    @Modifying
+    @Query("delete from IdempotentRequest idempotentRequest where idempotentRequest.expiresAt <= :now")
+    int deleteAllExpired(@Param("now") Instant now);
+}
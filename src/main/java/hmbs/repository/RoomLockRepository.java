@@ -0,0 +1,24 @@
+package hmbs.repository;
+
+import hmbs.domain.RoomLock;
+import java.util.Collection;
+import java.util.List;
+import javax.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link RoomLock} entity.
+ */
+@Repository
+public interface RoomLockRepository extends JpaRepository<RoomLock, Long> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select roomLock from RoomLock roomLock where roomLock.roomId in :roomIds order by roomLock.roomId")
+    List<RoomLock> findAllForUpdate(@Param("roomIds") Collection<Long> roomIds);
+
+    @Query("select roomLock.roomId from RoomLock roomLock where roomLock.roomId in :roomIds")
+    List<Long> findAllExistingIds(@Param("roomIds") Collection<Long> roomIds);
+}
@@ -0,0 +1,12 @@
+package hmbs.repository;
+
+/**
+ * Projection of a {@link hmbs.domain.User} on its id and the keys of its cached entries.
+ */
+public interface UserLogin {
+    Long getId();
+
+    String getLogin();
+
+    String getEmail();
+}
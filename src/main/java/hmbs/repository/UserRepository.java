@@ -2,12 +2,18 @@ package hmbs.repository;
 
 import hmbs.domain.User;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import javax.persistence.QueryHint;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -20,6 +26,52 @@ public interface UserRepository extends JpaRepository<User, Long> {
     String USERS_BY_EMAIL_CACHE = "usersByEmail";
     Optional<User> findOneByActivationKey(String activationKey);
     List<User> findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant dateTime);
+
+    /**
+     * Find a chunk of the users not activated and created before some date, by increasing id.
+     *
+     * @param dateTime the date.
+     * @param afterId the last id of the previous chunk, exclusive.
+     * @param pageable the size of the chunk.
+     * @return the users.
+     */
+    @Query(
+        "select user.id as id, user.login as login, user.email as email from User user " +
+        "where user.activated = false and user.activationKey is not null and user.createdDate < :dateTime and user.id > :afterId " +
+        "order by user.id"
+    )
+    List<UserLogin> findAllNotActivatedCreatedBefore(
+        @Param("dateTime") Instant dateTime,
+        @Param("afterId") Long afterId,
+        Pageable pageable
+    );
+
+    /**
+     * Delete the authorities of the users among some which are still not activated.
+     * <p>
+     * The table is declared as the only one affected, otherwise Hibernate would clear every second level cache region.
+     *
+     * @param ids the ids of the users.
+     * @return the number of authorities deleted.
+     */
+    @Modifying
+    @Query(
+        value = "delete from jhi_user_authority " +
+        "where user_id in (select id from jhi_user where id in (:ids) and activated = false)",
+        nativeQuery = true
+    )
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.NATIVE_SPACES, value = "jhi_user_authority"))
+    int deleteAllNotActivatedAuthoritiesByUserIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Delete the users among some which are still not activated, once their authorities are deleted.
+     *
+     * @param ids the ids of the users.
+     * @return the number of users deleted.
+     */
+    @Modifying
+    @Query("delete from User user where user.id in :ids and user.activated = false")
+    int deleteAllNotActivatedByIdIn(@Param("ids") Collection<Long> ids);
     Optional<User> findOneByResetKey(String resetKey);
     Optional<User> findOneByEmailIgnoreCase(String email);
     Optional<User> findOneByLogin(String login);
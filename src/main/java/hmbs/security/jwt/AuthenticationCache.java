@@ -0,0 +1,92 @@
+package hmbs.security.jwt;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Bounded cache of the authentications built from verified tokens, until the tokens expire.
+ * <p>
+ * A token is its own key: a hit requires the exact same token, which was verified when it was cached, so the
+ * signature does not need to be checked again. When the cache is full, expired entries are dropped first, then
+ * arbitrary ones.
+ */
+final class AuthenticationCache {
+
+    private final int maxEntries;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    AuthenticationCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @param token the token.
+     * @param now the current time, in milliseconds since the epoch.
+     * @return the authentication of the token, {@code null} if it is not cached or expired.
+     */
+    Authentication get(String token, long now) {
+        Entry entry = entries.get(token);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt <= now) {
+            entries.remove(token, entry);
+            return null;
+        }
+        return entry.authentication;
+    }
+
+    /**
+     * @param token a verified token.
+     * @param authentication the authentication of the token.
+     * @param expiresAt the expiration of the token, in milliseconds since the epoch.
+     * @param now the current time, in milliseconds since the epoch.
+     */
+    void put(String token, Authentication authentication, long expiresAt, long now) {
+        if (maxEntries <= 0 || expiresAt <= now) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            evictExpired(now);
+            Iterator<String> tokens = entries.keySet().iterator();
+            while (entries.size() >= maxEntries && tokens.hasNext()) {
+                tokens.next();
+                tokens.remove();
+            }
+        }
+        entries.put(token, new Entry(authentication, expiresAt));
+    }
+
+    /**
+     * @param now the current time, in milliseconds since the epoch.
+     * @return the number of evicted entries.
+     */
+    int evictExpired(long now) {
+        int evicted = 0;
+        for (Iterator<Entry> iterator = entries.values().iterator(); iterator.hasNext();) {
+            if (iterator.next().expiresAt <= now) {
+                iterator.remove();
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private static final class Entry {
+
+        private final Authentication authentication;
+        private final long expiresAt;
+
+        private Entry(Authentication authentication, long expiresAt) {
+            this.authentication = authentication;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
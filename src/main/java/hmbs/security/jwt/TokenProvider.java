@@ -1,5 +1,6 @@
 package hmbs.security.jwt;
 
+import hmbs.config.ApplicationProperties;
 import hmbs.management.SecurityMetersService;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
@@ -11,6 +12,7 @@ import java.util.*;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -39,7 +41,13 @@ public class TokenProvider {
 
     private final SecurityMetersService securityMetersService;
 
-    public TokenProvider(JHipsterProperties jHipsterProperties, SecurityMetersService securityMetersService) {
+    private final AuthenticationCache authenticationCache;
+
+    public TokenProvider(
+        JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties,
+        SecurityMetersService securityMetersService
+    ) {
         byte[] keyBytes;
         String secret = jHipsterProperties.getSecurity().getAuthentication().getJwt().getBase64Secret();
         if (!ObjectUtils.isEmpty(secret)) {
@@ -60,6 +68,7 @@ public class TokenProvider {
             1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSecondsForRememberMe();
 
         this.securityMetersService = securityMetersService;
+        this.authenticationCache = new AuthenticationCache(applicationProperties.getSecurity().getAuthenticationCache().getMaxEntries());
     }
 
     public String createToken(Authentication authentication, boolean rememberMe) {
@@ -83,8 +92,51 @@ public class TokenProvider {
     }
 
     public Authentication getAuthentication(String token) {
-        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        return toAuthentication(jwtParser.parseClaimsJws(token).getBody(), token);
+    }
+
+    /**
+     * Verify a token and build its authentication, parsing it only once.
+     * <p>
+     * The authentications of the verified tokens are cached until the tokens expire, so a token sent again skips the
+     * signature check and the parsing of its claims. The cached authentications are shared and must not be modified.
+     *
+     * @param token the token.
+     * @return the authentication, or nothing if the token is invalid or expired.
+     */
+    public Optional<Authentication> authenticate(String token) {
+        long now = System.currentTimeMillis();
+        Authentication authentication = authenticationCache.get(token, now);
+        if (authentication != null) {
+            return Optional.of(authentication);
+        }
+        Claims claims = parseClaims(token);
+        if (claims == null) {
+            return Optional.empty();
+        }
+        authentication = toAuthentication(claims, token);
+        if (claims.getExpiration() != null) {
+            authenticationCache.put(token, authentication, claims.getExpiration().getTime(), now);
+        }
+        return Optional.of(authentication);
+    }
 
+    /**
+     * Evict the authentications of the expired tokens.
+     * <p>
+     * This is scheduled to get fired every minute.
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void evictExpiredAuthentications() {
+        int evicted = authenticationCache.evictExpired(System.currentTimeMillis());
+        log.trace("Evicted {} expired authentications", evicted);
+    }
+
+    public boolean validateToken(String authToken) {
+        return parseClaims(authToken) != null;
+    }
+
+    private Authentication toAuthentication(Claims claims, String token) {
         Collection<? extends GrantedAuthority> authorities = Arrays
             .stream(claims.get(AUTHORITIES_KEY).toString().split(","))
             .filter(auth -> !auth.trim().isEmpty())
@@ -96,11 +148,9 @@ public class TokenProvider {
         return new UsernamePasswordAuthenticationToken(principal, token, authorities);
     }
 
-    public boolean validateToken(String authToken) {
+    private Claims parseClaims(String authToken) {
         try {
-            jwtParser.parseClaimsJws(authToken);
-
-            return true;
+            return jwtParser.parseClaimsJws(authToken).getBody();
         } catch (ExpiredJwtException e) {
             this.securityMetersService.trackTokenExpired();
 
@@ -121,6 +171,6 @@ public class TokenProvider {
             log.error("Token validation error {}", e.getMessage());
         }
 
-        return false;
+        return null;
     }
 }
@@ -0,0 +1,129 @@
+package hmbs.service;
+
+import hmbs.domain.Booking;
+import hmbs.repository.BookingRepository;
+import hmbs.repository.HotelBookingCount;
+import hmbs.service.criteria.BookingCriteria;
+import hmbs.service.event.BookingChangedEvent;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tech.jhipster.service.filter.LongFilter;
+
+/**
+ * Service keeping an estimate of the number of bookings, overall and per hotel.
+ * <p>
+ * The counters are loaded from the database once the application is ready and then follow every committed
+ * {@link BookingChangedEvent}. Changes committed while the counters are reloaded may be missed, so they are
+ * reloaded every hour to bound the drift.
+ */
+@Service
+public class BookingCountService {
+
+    private final Logger log = LoggerFactory.getLogger(BookingCountService.class);
+
+    private final BookingRepository bookingRepository;
+
+    private volatile Map<Long, LongAdder> countsByHotelId;
+
+    private final AtomicLong total = new AtomicLong();
+
+    public BookingCountService(BookingRepository bookingRepository) {
+        this.bookingRepository = bookingRepository;
+    }
+
+    /**
+     * Reload the counters from the database.
+     * <p>
+     * This is scheduled to get fired every hour, at the beginning of the hour.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 0 * * * ?")
+    @Transactional(readOnly = true)
+    public void reload() {
+        Map<Long, LongAdder> counts = new ConcurrentHashMap<>();
+        long bookings = 0;
+        for (HotelBookingCount count : bookingRepository.countAllByHotelId()) {
+            bookings += count.getBookings();
+            if (count.getHotelId() != null) {
+                counts.computeIfAbsent(count.getHotelId(), id -> new LongAdder()).add(count.getBookings());
+            }
+        }
+        countsByHotelId = counts;
+        total.set(bookings);
+        log.debug("Counted {} bookings in {} hotels", bookings, counts.size());
+    }
+
+    /**
+     * Keep the counters in sync with the committed bookings.
+     *
+     * @param event the committed change.
+     */
+    @TransactionalEventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        Map<Long, LongAdder> counts = countsByHotelId;
+        if (counts == null) {
+            return;
+        }
+        Booking previous = event.getPrevious();
+        Booking current = event.getCurrent();
+        if (previous == null) {
+            total.incrementAndGet();
+        } else if (current == null) {
+            total.decrementAndGet();
+        }
+        Long previousHotelId = previous == null ? null : previous.getHotelId();
+        Long currentHotelId = current == null ? null : current.getHotelId();
+        if (!Objects.equals(previousHotelId, currentHotelId)) {
+            if (previousHotelId != null) {
+                counts.computeIfAbsent(previousHotelId, id -> new LongAdder()).decrement();
+            }
+            if (currentHotelId != null) {
+                counts.computeIfAbsent(currentHotelId, id -> new LongAdder()).increment();
+            }
+        }
+    }
+
+    /**
+     * Estimate the number of bookings matching the criteria.
+     * <p>
+     * Only the criteria without filters, or filtering on a single hotel, can be estimated.
+     *
+     * @param criteria the criteria which the bookings should match.
+     * @return the estimated number of matching bookings, or nothing if it cannot be estimated.
+     */
+    public OptionalLong estimate(BookingCriteria criteria) {
+        Map<Long, LongAdder> counts = countsByHotelId;
+        if (counts == null) {
+            return OptionalLong.empty();
+        }
+        BookingCriteria others = criteria == null ? new BookingCriteria() : criteria.copy();
+        LongFilter hotelId = others.getHotelId();
+        others.setHotelId(null);
+        others.setDistinct(null);
+        if (!others.equals(new BookingCriteria())) {
+            return OptionalLong.empty();
+        }
+        if (hotelId == null) {
+            return OptionalLong.of(Math.max(total.get(), 0));
+        }
+        LongFilter equals = new LongFilter();
+        equals.setEquals(hotelId.getEquals());
+        if (hotelId.getEquals() == null || !equals.equals(hotelId)) {
+            return OptionalLong.empty();
+        }
+        LongAdder count = counts.get(hotelId.getEquals());
+        return OptionalLong.of(count == null ? 0 : Math.max(count.sum(), 0));
+    }
+}
@@ -0,0 +1,243 @@
+package hmbs.service;
+
+import hmbs.domain.Booking;
+import hmbs.domain.Booking_;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.metamodel.SingularAttribute;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Position after the last booking of a page, used for keyset pagination.
+ * <p>
+ * Bookings are ordered by at most one sort property followed by their id. They are read in two phases, so that each
+ * query seeks and orders on plain columns which an index on {@code (property, id)} serves: the rows with the sort
+ * property ordered by {@code (property, id)}, and the rows without it ordered by id. The rows without the sort property
+ * come after the others in ascending order, and before them in descending order. A cursor without value is in the
+ * phase of the rows without the sort property. The cursor is sent to clients as an opaque token.
+ */
+public final class BookingCursor {
+
+    private static final Map<String, SortKey> SORT_KEYS = Map.of(
+        "id",
+        new SortKey(Booking_.id, Booking::getId, Long::valueOf),
+        "hotelId",
+        new SortKey(Booking_.hotelId, Booking::getHotelId, Long::valueOf),
+        "roomId",
+        new SortKey(Booking_.roomId, Booking::getRoomId, Long::valueOf),
+        "userId",
+        new SortKey(Booking_.userId, Booking::getUserId, Integer::valueOf),
+        "checkin",
+        new SortKey(Booking_.checkin, Booking::getCheckin, LocalDate::parse),
+        "checkout",
+        new SortKey(Booking_.checkout, Booking::getCheckout, LocalDate::parse),
+        "numOfGuests",
+        new SortKey(Booking_.numOfGuests, Booking::getNumOfGuests, Integer::valueOf),
+        "finalPrice",
+        new SortKey(Booking_.finalPrice, Booking::getFinalPrice, Double::valueOf)
+    );
+
+    private static final String SEPARATOR = "|";
+
+    private final Sort.Order order;
+
+    private final Comparable<?> value;
+
+    private final Long id;
+
+    private BookingCursor(Sort.Order order, Comparable<?> value, Long id) {
+        this.order = order;
+        this.value = value;
+        this.id = id;
+    }
+
+    /**
+     * Turn a requested sort into the keyset order: the optional sort property, then the id in the same direction.
+     *
+     * @param sort the requested sort.
+     * @return the keyset order.
+     * @throws IllegalArgumentException if the sort has more than one property besides the id, or an unknown one.
+     */
+    public static Sort keysetSort(Sort sort) {
+        Sort.Order order = null;
+        for (Sort.Order requested : sort) {
+            if (!SORT_KEYS.containsKey(requested.getProperty())) {
+                throw new IllegalArgumentException("Unknown sort property " + requested.getProperty());
+            }
+            if (order != null && !"id".equals(requested.getProperty())) {
+                throw new IllegalArgumentException("Only one sort property besides id is supported");
+            }
+            if (order == null) {
+                order = requested;
+            }
+        }
+        if (order == null || "id".equals(order.getProperty())) {
+            return Sort.by(order == null ? Sort.Direction.ASC : order.getDirection(), "id");
+        }
+        return Sort.by(new Sort.Order(order.getDirection(), order.getProperty()), new Sort.Order(order.getDirection(), "id"));
+    }
+
+    /**
+     * Build the cursor after a booking.
+     *
+     * @param last the last booking of a page.
+     * @param keysetSort the order of the page, as returned by {@link #keysetSort(Sort)}.
+     * @return the cursor.
+     */
+    public static BookingCursor after(Booking last, Sort keysetSort) {
+        Sort.Order order = keysetSort.iterator().next();
+        return new BookingCursor(order, SORT_KEYS.get(order.getProperty()).getter.apply(last), last.getId());
+    }
+
+    /**
+     * Decode a token built by {@link #encode()}.
+     *
+     * @param token the token.
+     * @param keysetSort the order of the requested page, as returned by {@link #keysetSort(Sort)}.
+     * @return the cursor.
+     * @throws IllegalArgumentException if the token is malformed or was built for another order.
+     */
+    public static BookingCursor decode(String token, Sort keysetSort) {
+        Sort.Order order = keysetSort.iterator().next();
+        String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\" + SEPARATOR, -1);
+        if (parts.length != 4 || !order.getProperty().equals(parts[0]) || !order.getDirection().name().equals(parts[1])) {
+            throw new IllegalArgumentException("The cursor does not match the requested sort");
+        }
+        try {
+            Comparable<?> value = parts[2].isEmpty() ? null : SORT_KEYS.get(parts[0]).parser.apply(parts[2]);
+            return new BookingCursor(order, value, Long.valueOf(parts[3]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+
+    /**
+     * @return the opaque token of this cursor.
+     */
+    public String encode() {
+        String raw =
+            order.getProperty() + SEPARATOR + order.getDirection().name() + SEPARATOR + (value == null ? "" : value) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The queries of the rows coming after this cursor, or of the first page if there is none, one per phase still to
+     * read. A page is filled by reading them in order, each one once the previous one is exhausted.
+     *
+     * @param cursor the cursor, {@code null} for the first page.
+     * @param keysetSort the order of the page, as returned by {@link #keysetSort(Sort)}.
+     * @return the queries of the phases.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public static List<Phase> phases(BookingCursor cursor, Sort keysetSort) {
+        Iterator<Sort.Order> orders = keysetSort.iterator();
+        Sort.Order order = orders.next();
+        if (!orders.hasNext()) {
+            return List.of(new Phase(cursor == null ? null : idAfter(order, cursor.id), keysetSort));
+        }
+        SingularAttribute<Booking, ?> attribute = SORT_KEYS.get(order.getProperty()).attribute;
+        Sort byId = Sort.by(order.getDirection(), "id");
+        Phase firstWithValue = new Phase((root, query, builder) -> builder.isNotNull(root.get(attribute)), keysetSort);
+        Phase firstWithoutValue = new Phase((root, query, builder) -> builder.isNull(root.get(attribute)), byId);
+        if (cursor == null) {
+            return order.isAscending() ? List.of(firstWithValue, firstWithoutValue) : List.of(firstWithoutValue, firstWithValue);
+        }
+        if (cursor.value == null) {
+            Phase withoutValue = new Phase(firstWithoutValue.specification.and(idAfter(order, cursor.id)), byId);
+            return order.isAscending() ? List.of(withoutValue) : List.of(withoutValue, firstWithValue);
+        }
+        Comparable value = cursor.value;
+        Phase withValue = new Phase(
+            (root, query, builder) -> {
+                Path path = root.get(attribute);
+                Predicate valueAfter = order.isAscending() ? builder.greaterThan(path, value) : builder.lessThan(path, value);
+                Predicate idAfter = idAfter(order, cursor.id).toPredicate(root, query, builder);
+                return builder.or(valueAfter, builder.and(builder.equal(path, value), idAfter));
+            },
+            keysetSort
+        );
+        return order.isAscending() ? List.of(withValue, firstWithoutValue) : List.of(withValue);
+    }
+
+    private static Specification<Booking> idAfter(Sort.Order order, Long id) {
+        return (root, query, builder) -> {
+            Path<Long> idPath = root.get(Booking_.id);
+            return order.isAscending() ? builder.greaterThan(idPath, id) : builder.lessThan(idPath, id);
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BookingCursor)) {
+            return false;
+        }
+        BookingCursor that = (BookingCursor) o;
+        return order.equals(that.order) && Objects.equals(value, that.value) && id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(order, value, id);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BookingCursor{" +
+            "order=" + order +
+            ", value=" + value +
+            ", id=" + id +
+            "}";
+    }
+
+    /**
+     * The query of the rows of a phase: a filter, and the order of the page.
+     */
+    public static final class Phase {
+
+        private final Specification<Booking> specification;
+        private final Sort sort;
+
+        private Phase(Specification<Booking> specification, Sort sort) {
+            this.specification = Specification.where(specification);
+            this.sort = sort;
+        }
+
+        public Specification<Booking> getSpecification() {
+            return specification;
+        }
+
+        public Sort getSort() {
+            return sort;
+        }
+    }
+
+    private static final class SortKey {
+
+        private final SingularAttribute<Booking, ?> attribute;
+        private final Function<Booking, Comparable<?>> getter;
+        private final Function<String, Comparable<?>> parser;
+
+        private SortKey(
+            SingularAttribute<Booking, ?> attribute,
+            Function<Booking, Comparable<?>> getter,
+            Function<String, Comparable<?>> parser
+        ) {
+            this.attribute = attribute;
+            this.getter = getter;
+            this.parser = parser;
+        }
+    }
+}
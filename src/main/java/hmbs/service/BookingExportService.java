@@ -0,0 +1,168 @@
+package hmbs.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import hmbs.domain.Booking;
+import hmbs.repository.BookingRepository;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service exporting {@link Booking} entities with constant memory.
+ * <p>
+ * Rows are streamed from the database with a fetch size, written one by one, and the persistence context is cleared
+ * regularly, so the heap use does not depend on the number of exported rows.
+ */
+@Service
+@Transactional(readOnly = true)
+public class BookingExportService {
+
+    /**
+     * The supported export formats.
+     */
+    public enum Format {
+        /**
+         * A single JSON array.
+         */
+        JSON("application/json", "json"),
+        /**
+         * One JSON object per line.
+         */
+        NDJSON("application/x-ndjson", "ndjson"),
+        /**
+         * Comma separated values, with a header line.
+         */
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    private static final int CLEAR_EVERY_ROWS = 1000;
+
+    private static final String CSV_HEADER = "id,hotelId,roomId,userId,checkin,checkout,numOfGuests,finalPrice";
+
+    private final Logger log = LoggerFactory.getLogger(BookingExportService.class);
+
+    private final BookingRepository bookingRepository;
+
+    private final EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    public BookingExportService(BookingRepository bookingRepository, EntityManager entityManager, ObjectMapper objectMapper) {
+        this.bookingRepository = bookingRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Write the bookings to a stream.
+     *
+     * @param hotelId the hotel to export, {@code null} for all hotels.
+     * @param format the format to write.
+     * @param out the stream to write to, which is flushed but not closed.
+     * @return the number of exported bookings.
+     * @throws IOException if the stream cannot be written.
+     */
+    public long export(Long hotelId, Format format, OutputStream out) throws IOException {
+        log.debug("Request to export Bookings of hotel {} as {}", hotelId, format);
+        try (Stream<Booking> bookings = bookingRepository.streamAllByHotelId(hotelId)) {
+            Iterator<Booking> iterator = bookings.iterator();
+            long count = format == Format.CSV ? writeCsv(iterator, out) : writeJson(iterator, format, out);
+            log.debug("Exported {} Bookings", count);
+            return count;
+        }
+    }
+
+    private long writeJson(Iterator<Booking> bookings, Format format, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(Booking.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long count = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (format == Format.JSON) {
+                generator.writeStartArray();
+            }
+            while (bookings.hasNext()) {
+                writer.writeValue(generator, bookings.next());
+                if (format == Format.NDJSON) {
+                    generator.writeRaw('\n');
+                }
+                count = afterRow(count);
+            }
+            if (format == Format.JSON) {
+                generator.writeEndArray();
+            }
+        }
+        return count;
+    }
+
+    private long writeCsv(Iterator<Booking> bookings, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        long count = 0;
+        while (bookings.hasNext()) {
+            Booking booking = bookings.next();
+            writer.write(csvValue(booking.getId()));
+            writer.write(',');
+            writer.write(csvValue(booking.getHotelId()));
+            writer.write(',');
+            writer.write(csvValue(booking.getRoomId()));
+            writer.write(',');
+            writer.write(csvValue(booking.getUserId()));
+            writer.write(',');
+            writer.write(csvValue(booking.getCheckin()));
+            writer.write(',');
+            writer.write(csvValue(booking.getCheckout()));
+            writer.write(',');
+            writer.write(csvValue(booking.getNumOfGuests()));
+            writer.write(',');
+            writer.write(csvValue(booking.getFinalPrice()));
+            writer.write('\n');
+            count = afterRow(count);
+        }
+        writer.flush();
+        return count;
+    }
+
+    private long afterRow(long count) {
+        count++;
+        if (count % CLEAR_EVERY_ROWS == 0) {
+            entityManager.clear();
+        }
+        return count;
+    }
+
+    private static String csvValue(Object value) {
+        return value == null ? "" : value.toString();
+    }
+}
@@ -0,0 +1,231 @@
+package hmbs.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import hmbs.domain.Booking;
+import hmbs.domain.enumeration.BookingImportFormat;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Reads the bookings of an import file one row at a time, so the file is never held in memory.
+ * <p>
+ * CSV files start with a header naming the columns, separated by commas or semicolons. Both the names of the export,
+ * such as {@code hotelId}, and of the database, such as {@code hotel_id}, are accepted. Blank lines are skipped, and the
+ * {@code id} column or property is ignored so the bookings are created anew.
+ */
+final class BookingFileReader implements Closeable {
+
+    /**
+     * One data row of the file: either a booking, or the reason why it could not be read.
+     */
+    static final class Row {
+
+        private final long number;
+
+        private final Booking booking;
+
+        private final String error;
+
+        private Row(long number, Booking booking, String error) {
+            this.number = number;
+            this.booking = booking;
+            this.error = error;
+        }
+
+        /**
+         * @return the position of the row among the data rows, starting at 1.
+         */
+        long getNumber() {
+            return number;
+        }
+
+        /**
+         * @return the booking, {@code null} if the row is invalid.
+         */
+        Booking getBooking() {
+            return booking;
+        }
+
+        String getError() {
+            return error;
+        }
+    }
+
+    private static final Pattern CSV_QUOTES = Pattern.compile("^\"|\"$");
+
+    private final BufferedReader reader;
+
+    private final BookingImportFormat format;
+
+    private final ObjectReader jsonReader;
+
+    private char separator;
+
+    private Column[] columns;
+
+    private long rows;
+
+    BookingFileReader(BufferedReader reader, BookingImportFormat format, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.format = format;
+        this.jsonReader = objectMapper.readerFor(Booking.class);
+    }
+
+    /**
+     * @return the next data row, {@code null} at the end of the file. The values of the booking are validated when it
+     *         is saved.
+     * @throws IOException if the file cannot be read, or the CSV header is missing.
+     */
+    Row next() throws IOException {
+        String line = nextLine();
+        if (format == BookingImportFormat.CSV && columns == null) {
+            readHeader(line);
+            line = nextLine();
+        }
+        if (line == null) {
+            return null;
+        }
+        rows++;
+        try {
+            Booking booking = format == BookingImportFormat.CSV ? parseCsv(line) : jsonReader.readValue(line);
+            if (booking == null) {
+                return new Row(rows, null, "Row " + rows + ": the booking is missing");
+            }
+            booking.setId(null);
+            return new Row(rows, booking, null);
+        } catch (JsonProcessingException e) {
+            return new Row(rows, null, "Row " + rows + ": " + e.getOriginalMessage());
+        } catch (RuntimeException e) {
+            // A row which cannot be read is rejected, the import goes on with the next one
+            return new Row(rows, null, "Row " + rows + ": " + (e.getMessage() == null ? e.getClass().getName() : e.getMessage()));
+        }
+    }
+
+    /**
+     * Skip data rows without parsing them, to resume an import.
+     *
+     * @param count the number of rows to skip.
+     * @return the number of skipped rows, less than requested if the file ended.
+     * @throws IOException if the file cannot be read, or the CSV header is missing.
+     */
+    long skip(long count) throws IOException {
+        if (format == BookingImportFormat.CSV && columns == null) {
+            readHeader(nextLine());
+        }
+        long skipped = 0;
+        while (skipped < count && nextLine() != null) {
+            skipped++;
+        }
+        rows += skipped;
+        return skipped;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private String nextLine() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+        } while (line != null && line.isBlank());
+        return line;
+    }
+
+    private void readHeader(String line) throws IOException {
+        if (line == null) {
+            throw new IOException("The CSV header is missing");
+        }
+        if (!line.isEmpty() && line.charAt(0) == '\uFEFF') {
+            line = line.substring(1);
+        }
+        separator = line.indexOf(';') >= 0 && line.indexOf(',') < 0 ? ';' : ',';
+        String[] names = line.split(Pattern.quote(String.valueOf(separator)), -1);
+        columns = new Column[names.length];
+        for (int i = 0; i < names.length; i++) {
+            columns[i] = Column.of(CSV_QUOTES.matcher(names[i].trim()).replaceAll(""));
+        }
+    }
+
+    private Booking parseCsv(String line) {
+        String[] values = line.split(Pattern.quote(String.valueOf(separator)), -1);
+        if (values.length != columns.length) {
+            throw new IllegalArgumentException("expected " + columns.length + " columns, found " + values.length);
+        }
+        Booking booking = new Booking();
+        for (int i = 0; i < values.length; i++) {
+            String value = CSV_QUOTES.matcher(values[i].trim()).replaceAll("");
+            if (!value.isEmpty() && columns[i] != null) {
+                columns[i].set(booking, value);
+            }
+        }
+        return booking;
+    }
+
+    private enum Column {
+        HOTEL_ID {
+            @Override
+            void set(Booking booking, String value) {
+                booking.setHotelId(Long.valueOf(value));
+            }
+        },
+        ROOM_ID {
+            @Override
+            void set(Booking booking, String value) {
+                booking.setRoomId(Long.valueOf(value));
+            }
+        },
+        USER_ID {
+            @Override
+            void set(Booking booking, String value) {
+                booking.setUserId(Integer.valueOf(value));
+            }
+        },
+        CHECKIN {
+            @Override
+            void set(Booking booking, String value) {
+                booking.setCheckin(LocalDate.parse(value));
+            }
+        },
+        CHECKOUT {
+            @Override
+            void set(Booking booking, String value) {
+                booking.setCheckout(LocalDate.parse(value));
+            }
+        },
+        NUM_OF_GUESTS {
+            @Override
+            void set(Booking booking, String value) {
+                booking.setNumOfGuests(Integer.valueOf(value));
+            }
+        },
+        FINAL_PRICE {
+            @Override
+            void set(Booking booking, String value) {
+                booking.setFinalPrice(Double.valueOf(value));
+            }
+        };
+
+        abstract void set(Booking booking, String value);
+
+        /**
+         * @return the column of a header name, {@code null} if it is ignored.
+         */
+        static Column of(String name) {
+            String normalized = name.replace("_", "").toLowerCase(Locale.ROOT);
+            for (Column column : values()) {
+                if (column.name().replace("_", "").toLowerCase(Locale.ROOT).equals(normalized)) {
+                    return column;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,423 @@
+package hmbs.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hmbs.config.ApplicationProperties;
+import hmbs.domain.Booking;
+import hmbs.domain.BookingImport;
+import hmbs.domain.enumeration.BookingImportFormat;
+import hmbs.domain.enumeration.BookingImportStatus;
+import hmbs.repository.BookingImportRepository;
+import hmbs.service.dto.BookingBatchResultDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service importing bookings from uploaded files, in the background.
+ * <p>
+ * The upload is stored as is, then read one row at a time by a worker of the task executor. The rows are created by
+ * chunks through {@link BookingService#saveAll(List)}, and the progress of the {@link BookingImport} is updated in the
+ * transaction of each chunk. A failed import can therefore be resumed exactly after its last committed chunk.
+ * <p>
+ * The uploads are stored in a directory shared by the nodes, so any node can resume an import. Each import is run by
+ * the node which started or resumed it, which renews its lease until the end. An import whose lease expired, as its
+ * node stopped, is marked as failed by any node so it can be resumed; the runs are fenced by their start, so a node
+ * which lost its lease stops at its next chunk.
+ */
+@Service
+public class BookingImportService {
+
+    public static final String METER_NAME = "booking.import.rows";
+
+    private static final long HEARTBEAT_MILLIS = 10_000;
+
+    private final Logger log = LoggerFactory.getLogger(BookingImportService.class);
+
+    private final BookingImportRepository bookingImportRepository;
+
+    private final BookingService bookingService;
+
+    private final ObjectMapper objectMapper;
+
+    private final Executor taskExecutor;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Path directory;
+
+    private final int chunkSize;
+
+    private final Duration lease;
+
+    /**
+     * The imports pending or running on this node, whose leases it renews.
+     */
+    private final Set<Long> leasedIds = ConcurrentHashMap.newKeySet();
+
+    private final Counter importedRows;
+
+    private final Counter rejectedRows;
+
+    public BookingImportService(
+        BookingImportRepository bookingImportRepository,
+        BookingService bookingService,
+        ObjectMapper objectMapper,
+        @Qualifier("taskExecutor") Executor taskExecutor,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry registry
+    ) {
+        this.bookingImportRepository = bookingImportRepository;
+        this.bookingService = bookingService;
+        this.objectMapper = objectMapper;
+        this.taskExecutor = taskExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        String configuredDirectory = applicationProperties.getBookingImport().getDirectory();
+        this.directory = configuredDirectory == null || configuredDirectory.isBlank() ? null : Paths.get(configuredDirectory);
+        this.chunkSize = Math.max(1, applicationProperties.getBookingImport().getChunkSize());
+        this.lease = Duration.ofSeconds(applicationProperties.getBookingImport().getLeaseSeconds());
+        this.importedRows = counter("imported", registry);
+        this.rejectedRows = counter("rejected", registry);
+    }
+
+    /**
+     * Store a file and start importing it in the background.
+     *
+     * @param format the format of the file.
+     * @param fileName the name of the file, for reference only.
+     * @param content the content of the file, which is read to the end but not closed.
+     * @return the pending import.
+     * @throws IOException if the file cannot be stored.
+     * @throws IllegalStateException if no shared directory is configured for the files.
+     */
+    public BookingImport start(BookingImportFormat format, String fileName, InputStream content) throws IOException {
+        log.debug("Request to import Bookings from {} as {}", fileName, format);
+        if (directory == null) {
+            throw new IllegalStateException("No directory shared by the nodes is configured for the booking imports");
+        }
+        Instant now = Instant.now();
+        BookingImport bookingImport = new BookingImport();
+        bookingImport.setFileName(fileName);
+        bookingImport.setFormat(format);
+        bookingImport.setStatus(BookingImportStatus.PENDING);
+        bookingImport.setCreatedDate(now);
+        bookingImport.setHeartbeatDate(now);
+        bookingImport = bookingImportRepository.save(bookingImport);
+        try {
+            Files.createDirectories(directory);
+            Files.copy(content, file(bookingImport), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            fail(bookingImport.getId(), null, e);
+            throw e;
+        }
+        return submit(bookingImport);
+    }
+
+    /**
+     * Resume a failed import after its last committed chunk, on this node.
+     * <p>
+     * The import is marked as pending only if it is still failed, so concurrent resumes of an import run it once.
+     *
+     * @param id the id of the import.
+     * @return the pending import, or nothing if there is no such import.
+     * @throws IllegalStateException if the import did not fail.
+     * @throws NoSuchFileException if the file of the failed import cannot be read by this node.
+     */
+    public Optional<BookingImport> resume(Long id) throws NoSuchFileException {
+        log.debug("Request to resume BookingImport : {}", id);
+        Optional<BookingImport> failed = bookingImportRepository.findById(id);
+        if (failed.isPresent() && failed.get().getStatus() == BookingImportStatus.FAILED) {
+            Path file = directory == null ? null : file(failed.get());
+            if (file == null || !Files.isReadable(file)) {
+                throw new NoSuchFileException(String.valueOf(file), null, "The file of the import cannot be read by this node");
+            }
+        }
+        Optional<BookingImport> result = transactionTemplate.execute(status -> {
+            boolean resumed = bookingImportRepository.resumeFailed(id, Instant.now()) == 1;
+            Optional<BookingImport> bookingImport = bookingImportRepository.findById(id);
+            if (!resumed && bookingImport.isPresent()) {
+                throw new IllegalStateException("Only a failed import can be resumed, this one is " + bookingImport.get().getStatus());
+            }
+            return bookingImport;
+        });
+        return result.map(this::submit);
+    }
+
+    /**
+     * Get all the imports.
+     *
+     * @param pageable the pagination information.
+     * @return the list of imports.
+     */
+    public Page<BookingImport> findAll(Pageable pageable) {
+        return bookingImportRepository.findAll(pageable);
+    }
+
+    /**
+     * Get one import by id.
+     *
+     * @param id the id of the import.
+     * @return the import.
+     */
+    public Optional<BookingImport> findOne(Long id) {
+        return bookingImportRepository.findById(id);
+    }
+
+    /**
+     * Renew the leases of the imports of this node, then fail the imports whose lease expired.
+     */
+    @Scheduled(fixedDelay = HEARTBEAT_MILLIS)
+    public void heartbeat() {
+        renewLeases();
+        failAbandonedImports();
+    }
+
+    /**
+     * Renew the leases of the imports pending or running on this node.
+     */
+    public void renewLeases() {
+        if (!leasedIds.isEmpty()) {
+            Set<Long> ids = Set.copyOf(leasedIds);
+            transactionTemplate.executeWithoutResult(status -> bookingImportRepository.renewLeases(ids, Instant.now()));
+        }
+    }
+
+    /**
+     * Mark the pending and running imports whose lease expired as failed, so they can be resumed.
+     */
+    public void failAbandonedImports() {
+        Instant expired = Instant.now().minus(lease);
+        for (BookingImport bookingImport : bookingImportRepository.findAllByStatusInAndHeartbeatDateBefore(
+            EnumSet.of(BookingImportStatus.PENDING, BookingImportStatus.RUNNING),
+            expired
+        )) {
+            Integer failed = transactionTemplate.execute(status ->
+                bookingImportRepository.failExpired(bookingImport.getId(), expired, Instant.now(), "Abandoned by its node")
+            );
+            if (failed != null && failed == 1) {
+                log.warn("BookingImport {} was abandoned after {} rows", bookingImport.getId(), bookingImport.getProcessedRows());
+            }
+        }
+    }
+
+    private BookingImport submit(BookingImport bookingImport) {
+        Long id = bookingImport.getId();
+        leasedIds.add(id);
+        try {
+            taskExecutor.execute(() -> {
+                try {
+                    run(id);
+                } finally {
+                    leasedIds.remove(id);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            leasedIds.remove(id);
+            fail(id, null, e);
+            throw e;
+        }
+        return bookingImport;
+    }
+
+    private void run(Long id) {
+        // Truncated to the precision of the column, as it identifies the run
+        Instant runStartedDate = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        BookingImport bookingImport = transactionTemplate.execute(status -> {
+            BookingImport running = bookingImportRepository.findByIdForUpdate(id).orElseThrow();
+            if (running.getStatus() != BookingImportStatus.PENDING) {
+                return null;
+            }
+            running.setStatus(BookingImportStatus.RUNNING);
+            running.setRunStartedDate(runStartedDate);
+            running.setRunStartRow(running.getProcessedRows());
+            running.setHeartbeatDate(runStartedDate);
+            return running;
+        });
+        if (bookingImport == null) {
+            log.warn("BookingImport {} is no longer pending, it is not run", id);
+            return;
+        }
+        log.info("Importing Bookings of BookingImport {} from row {}", id, bookingImport.getProcessedRows() + 1);
+        try (
+            BookingFileReader reader = new BookingFileReader(
+                Files.newBufferedReader(file(bookingImport), StandardCharsets.UTF_8),
+                bookingImport.getFormat(),
+                objectMapper
+            )
+        ) {
+            reader.skip(bookingImport.getProcessedRows());
+            List<BookingFileReader.Row> chunk = new ArrayList<>(chunkSize);
+            BookingFileReader.Row row;
+            do {
+                row = reader.next();
+                if (row != null) {
+                    chunk.add(row);
+                }
+                if (chunk.size() == chunkSize || (row == null && !chunk.isEmpty())) {
+                    long imported = bookingImport.getImportedRows();
+                    long rejected = bookingImport.getRejectedRows();
+                    bookingImport = commit(id, runStartedDate, chunk);
+                    if (bookingImport == null) {
+                        log.warn("BookingImport {} lost its lease, it is no longer run by this node", id);
+                        return;
+                    }
+                    // Counted once committed, as the rows of a rolled back chunk are processed again on resume
+                    importedRows.increment(bookingImport.getImportedRows() - imported);
+                    rejectedRows.increment(bookingImport.getRejectedRows() - rejected);
+                    chunk.clear();
+                    log.debug(
+                        "BookingImport {}: {} rows processed, {} rows/s",
+                        id,
+                        bookingImport.getProcessedRows(),
+                        String.format(Locale.ROOT, "%.0f", bookingImport.getRowsPerSecond())
+                    );
+                }
+            } while (row != null);
+        } catch (RuntimeException | IOException e) {
+            log.error("BookingImport {} failed", id, e);
+            fail(id, runStartedDate, e);
+            return;
+        }
+        bookingImport =
+            transactionTemplate.execute(status -> {
+                BookingImport completed = currentRun(id, runStartedDate);
+                if (completed != null) {
+                    completed.setStatus(BookingImportStatus.COMPLETED);
+                    completed.setFinishedDate(Instant.now());
+                }
+                return completed;
+            });
+        if (bookingImport == null) {
+            log.warn("BookingImport {} lost its lease, it is no longer run by this node", id);
+            return;
+        }
+        log.info(
+            "Imported {} and rejected {} Bookings of BookingImport {}, {} rows/s",
+            bookingImport.getImportedRows(),
+            bookingImport.getRejectedRows(),
+            id,
+            String.format(Locale.ROOT, "%.0f", bookingImport.getRowsPerSecond())
+        );
+        try {
+            Files.deleteIfExists(file(bookingImport));
+        } catch (IOException e) {
+            log.warn("Could not delete the file of BookingImport {}", id, e);
+        }
+    }
+
+    /**
+     * Save the valid rows of a chunk and record the progress, in a single transaction.
+     *
+     * @return the import, {@code null} if the run lost its lease.
+     */
+    private BookingImport commit(Long id, Instant runStartedDate, List<BookingFileReader.Row> chunk) {
+        return transactionTemplate.execute(status -> {
+            BookingImport bookingImport = currentRun(id, runStartedDate);
+            if (bookingImport == null) {
+                return null;
+            }
+            List<Booking> bookings = new ArrayList<>(chunk.size());
+            String lastError = null;
+            for (BookingFileReader.Row row : chunk) {
+                if (row.getBooking() != null) {
+                    bookings.add(row.getBooking());
+                } else {
+                    lastError = row.getError();
+                }
+            }
+            long imported = 0;
+            int index = 0;
+            for (BookingBatchResultDTO result : bookingService.saveAll(bookings)) {
+                if (result.getStatus() == BookingBatchResultDTO.Status.CREATED) {
+                    imported++;
+                } else {
+                    // Rows without a booking were left out of the batch, find the row of the rejected booking
+                    while (chunk.get(index).getBooking() != bookings.get(result.getIndex())) {
+                        index++;
+                    }
+                    lastError = "Row " + chunk.get(index).getNumber() + ": " + result.getMessage();
+                }
+            }
+            long rejected = chunk.size() - imported;
+            bookingImport.setProcessedRows(bookingImport.getProcessedRows() + chunk.size());
+            bookingImport.setImportedRows(bookingImport.getImportedRows() + imported);
+            bookingImport.setRejectedRows(bookingImport.getRejectedRows() + rejected);
+            if (lastError != null) {
+                bookingImport.setLastError(lastError);
+            }
+            return bookingImport;
+        });
+    }
+
+    /**
+     * Lock an import until the end of the transaction, if it is still run by the given run.
+     *
+     * @return the import, {@code null} if it failed as abandoned or runs again since.
+     */
+    private BookingImport currentRun(Long id, Instant runStartedDate) {
+        BookingImport bookingImport = bookingImportRepository.findByIdForUpdate(id).orElseThrow();
+        boolean current =
+            bookingImport.getStatus() == BookingImportStatus.RUNNING && runStartedDate.equals(bookingImport.getRunStartedDate());
+        return current ? bookingImport : null;
+    }
+
+    /**
+     * Mark an import as failed, unless the given run lost its lease.
+     *
+     * @param runStartedDate the start of the failed run, {@code null} if it did not start.
+     */
+    private void fail(Long id, Instant runStartedDate, Exception e) {
+        transactionTemplate.executeWithoutResult(status -> {
+            BookingImport bookingImport = runStartedDate == null
+                ? bookingImportRepository.findById(id).orElseThrow()
+                : currentRun(id, runStartedDate);
+            if (bookingImport == null) {
+                return;
+            }
+            bookingImport.setStatus(BookingImportStatus.FAILED);
+            bookingImport.setLastError(e.getMessage() == null ? e.getClass().getName() : e.getMessage());
+            bookingImport.setFinishedDate(Instant.now());
+        });
+    }
+
+    private Path file(BookingImport bookingImport) {
+        String extension = bookingImport.getFormat().name().toLowerCase(Locale.ROOT);
+        return directory.resolve("booking-import-" + bookingImport.getId() + "." + extension);
+    }
+
+    private static Counter counter(String result, MeterRegistry registry) {
+        return Counter
+            .builder(METER_NAME)
+            .description("Rows of the booking imports")
+            .tag("result", result)
+            .register(registry);
+    }
+}
@@ -0,0 +1,355 @@
+package hmbs.service;
+
+import hmbs.config.ApplicationProperties;
+import hmbs.domain.Booking;
+import hmbs.service.criteria.BookingCriteria;
+import hmbs.service.event.BookingChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tech.jhipster.service.filter.Filter;
+import tech.jhipster.service.filter.LongFilter;
+import tech.jhipster.service.filter.RangeFilter;
+
+/**
+ * Cache of the results of the {@link BookingCriteria} queries.
+ * <p>
+ * Results are keyed by a canonical form of the criteria and the page, so equivalent requests share their entry.
+ * When a booking change is committed, only the entries whose hotel and date filters match the booking, before or
+ * after the change, are evicted. A result read while an eviction runs is not cached, as it may predate the change.
+ * <p>
+ * The cached keys are indexed by the hotels their criteria are restricted to, so a change only looks at the keys of
+ * its hotels and at the keys of the criteria not restricted to some hotels, and never reads the cached results.
+ * <p>
+ * The evictions only reach the cache of the node which committed the change. The other nodes, like the writes which
+ * do not go through {@link BookingService}, see it once their entries expire, within the time to live of the regions.
+ */
+@Service
+public class BookingQueryCache {
+
+    public static final String BOOKINGS_BY_CRITERIA_CACHE = "bookingsByCriteria";
+
+    public static final String BOOKING_COUNTS_BY_CRITERIA_CACHE = "bookingCountsByCriteria";
+
+    public static final String METER_NAME = "booking.query.cache";
+
+    /**
+     * Index entry of the keys whose criteria are not restricted to some hotels.
+     */
+    private static final String ANY_HOTEL = "*";
+
+    private final Logger log = LoggerFactory.getLogger(BookingQueryCache.class);
+
+    private final CacheManager cacheManager;
+
+    private final boolean enabled;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Map<String, Meters> metersByCacheName;
+
+    private final Map<String, Map<Object, Set<Key>>> keysByCacheName;
+
+    public BookingQueryCache(CacheManager cacheManager, ApplicationProperties applicationProperties, MeterRegistry registry) {
+        this.cacheManager = cacheManager;
+        this.enabled = applicationProperties.getQueryCache().isEnabled();
+        this.metersByCacheName =
+            Map.of(
+                BOOKINGS_BY_CRITERIA_CACHE,
+                new Meters(BOOKINGS_BY_CRITERIA_CACHE, registry),
+                BOOKING_COUNTS_BY_CRITERIA_CACHE,
+                new Meters(BOOKING_COUNTS_BY_CRITERIA_CACHE, registry)
+            );
+        this.keysByCacheName =
+            Map.of(BOOKINGS_BY_CRITERIA_CACHE, new ConcurrentHashMap<>(), BOOKING_COUNTS_BY_CRITERIA_CACHE, new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Get a cached result, or load and cache it.
+     *
+     * @param cacheName {@link #BOOKINGS_BY_CRITERIA_CACHE} or {@link #BOOKING_COUNTS_BY_CRITERIA_CACHE}.
+     * @param criteria the criteria of the query.
+     * @param pageable the requested page, {@code null} for a count.
+     * @param loader runs the query.
+     * @param <T> the type of the result.
+     * @return the result.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String cacheName, BookingCriteria criteria, Pageable pageable, Supplier<T> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        Cache cache = Objects.requireNonNull(cacheManager.getCache(cacheName));
+        Meters meters = metersByCacheName.get(cacheName);
+        Key key = new Key(criteria, pageable);
+        Cache.ValueWrapper cached = cache.get(key);
+        if (cached != null) {
+            meters.hits.increment();
+            return (T) cached.get();
+        }
+        meters.misses.increment();
+        long start = generation.get();
+        T result = loader.get();
+        if (generation.get() == start) {
+            Map<Object, Set<Key>> keysByHotel = keysByCacheName.get(cacheName);
+            key.hotels().forEach(hotel -> keysByHotel.computeIfAbsent(hotel, any -> ConcurrentHashMap.newKeySet()).add(key));
+            cache.put(key, result);
+            if (generation.get() != start) {
+                // An eviction started before the put, and may have missed it
+                cache.evict(key);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Evict the cached results which the committed change may affect.
+     *
+     * @param event the committed change.
+     */
+    @TransactionalEventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        generation.incrementAndGet();
+        List<Object> hotels = new ArrayList<>(3);
+        hotels.add(ANY_HOTEL);
+        for (Booking booking : new Booking[] { event.getPrevious(), event.getCurrent() }) {
+            if (booking != null && booking.getHotelId() != null && !hotels.contains(booking.getHotelId())) {
+                hotels.add(booking.getHotelId());
+            }
+        }
+        for (Map.Entry<String, Meters> entry : metersByCacheName.entrySet()) {
+            Cache cache = Objects.requireNonNull(cacheManager.getCache(entry.getKey()));
+            Map<Object, Set<Key>> keysByHotel = keysByCacheName.get(entry.getKey());
+            // A key restricted to several hotels is indexed under each of them
+            Set<Key> evicted = new HashSet<>();
+            for (Object hotel : hotels) {
+                Set<Key> keys = keysByHotel.getOrDefault(hotel, Set.of());
+                for (Key key : keys) {
+                    if (key.matches(event.getPrevious()) || key.matches(event.getCurrent())) {
+                        keys.remove(key);
+                        evicted.add(key);
+                    }
+                }
+            }
+            evicted.forEach(cache::evict);
+            entry.getValue().evictions.increment(evicted.size());
+            log.debug("Evicted {} entries of {} after {}", evicted.size(), entry.getKey(), event);
+        }
+    }
+
+    /**
+     * Forget the indexed keys whose entry left the cache, because it expired or made room for others.
+     * <p>
+     * This is scheduled to get fired every 10 minutes.
+     */
+    @Scheduled(initialDelay = 600_000, fixedDelay = 600_000)
+    public void removeStaleKeys() {
+        for (Map.Entry<String, Map<Object, Set<Key>>> entry : keysByCacheName.entrySet()) {
+            Cache cache = Objects.requireNonNull(cacheManager.getCache(entry.getKey()));
+            int removed = 0;
+            for (Set<Key> keys : entry.getValue().values()) {
+                for (Key key : keys) {
+                    if (!contains(cache, key)) {
+                        keys.remove(key);
+                        removed++;
+                    }
+                }
+            }
+            log.debug("Removed {} stale keys of {}", removed, entry.getKey());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static boolean contains(Cache cache, Key key) {
+        if (cache.getNativeCache() instanceof javax.cache.Cache) {
+            // Unlike a get, this does not read the cached result
+            return ((javax.cache.Cache<Object, Object>) cache.getNativeCache()).containsKey(key);
+        }
+        return cache.get(key) != null;
+    }
+
+    /**
+     * Canonical cache key of a query: empty filters are dropped and the lists of values are sorted.
+     */
+    static final class Key implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final BookingCriteria criteria;
+
+        private final Pageable pageable;
+
+        Key(BookingCriteria criteria, Pageable pageable) {
+            BookingCriteria canonical = criteria == null ? new BookingCriteria() : criteria.copy();
+            canonical.setId(canonical(canonical.getId()));
+            canonical.setHotelId(canonical(canonical.getHotelId()));
+            canonical.setRoomId(canonical(canonical.getRoomId()));
+            canonical.setUserId(canonical(canonical.getUserId()));
+            canonical.setCheckin(canonical(canonical.getCheckin()));
+            canonical.setCheckout(canonical(canonical.getCheckout()));
+            canonical.setNumOfGuests(canonical(canonical.getNumOfGuests()));
+            canonical.setFinalPrice(canonical(canonical.getFinalPrice()));
+            canonical.setDistinct(Boolean.TRUE.equals(canonical.getDistinct()) ? Boolean.TRUE : null);
+            this.criteria = canonical;
+            this.pageable = pageable;
+        }
+
+        /**
+         * @return the hotels the criteria are restricted to, or {@link #ANY_HOTEL} if they are not.
+         */
+        Collection<Object> hotels() {
+            LongFilter hotelId = criteria.getHotelId();
+            if (hotelId != null && hotelId.getEquals() != null) {
+                return List.of(hotelId.getEquals());
+            }
+            if (hotelId != null && hotelId.getIn() != null) {
+                // Keys of an empty list are not indexed: no booking can match them
+                return hotelId.getIn().stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+            }
+            return List.of(ANY_HOTEL);
+        }
+
+        /**
+         * @param booking a booking, may be {@code null}.
+         * @return {@code true} if the booking may be part of the result, judging by its hotel and dates.
+         */
+        boolean matches(Booking booking) {
+            return (
+                booking != null &&
+                matches(criteria.getHotelId(), booking.getHotelId()) &&
+                matches(criteria.getCheckin(), booking.getCheckin()) &&
+                matches(criteria.getCheckout(), booking.getCheckout())
+            );
+        }
+
+        private static <T extends Comparable<? super T>> boolean matches(RangeFilter<T> filter, T value) {
+            if (filter == null) {
+                return true;
+            }
+            if (filter.getSpecified() != null && filter.getSpecified() != (value != null)) {
+                return false;
+            }
+            if (value == null) {
+                // Any comparison with null excludes the row
+                return (
+                    filter.getEquals() == null &&
+                    filter.getNotEquals() == null &&
+                    filter.getIn() == null &&
+                    filter.getNotIn() == null &&
+                    filter.getGreaterThan() == null &&
+                    filter.getLessThan() == null &&
+                    filter.getGreaterThanOrEqual() == null &&
+                    filter.getLessThanOrEqual() == null
+                );
+            }
+            return (
+                (filter.getEquals() == null || filter.getEquals().compareTo(value) == 0) &&
+                (filter.getNotEquals() == null || filter.getNotEquals().compareTo(value) != 0) &&
+                (filter.getIn() == null || filter.getIn().contains(value)) &&
+                (filter.getNotIn() == null || !filter.getNotIn().contains(value)) &&
+                (filter.getGreaterThan() == null || value.compareTo(filter.getGreaterThan()) > 0) &&
+                (filter.getLessThan() == null || value.compareTo(filter.getLessThan()) < 0) &&
+                (filter.getGreaterThanOrEqual() == null || value.compareTo(filter.getGreaterThanOrEqual()) >= 0) &&
+                (filter.getLessThanOrEqual() == null || value.compareTo(filter.getLessThanOrEqual()) <= 0)
+            );
+        }
+
+        private static <T extends Comparable<? super T>, F extends Filter<T>> F canonical(F filter) {
+            if (filter == null) {
+                return null;
+            }
+            if (filter.getIn() != null) {
+                filter.setIn(new ArrayList<>(new TreeSet<>(filter.getIn())));
+            }
+            if (filter.getNotIn() != null) {
+                filter.setNotIn(new ArrayList<>(new TreeSet<>(filter.getNotIn())));
+            }
+            boolean empty =
+                filter.getEquals() == null &&
+                filter.getNotEquals() == null &&
+                filter.getSpecified() == null &&
+                filter.getIn() == null &&
+                filter.getNotIn() == null;
+            if (filter instanceof RangeFilter) {
+                RangeFilter<T> range = (RangeFilter<T>) filter;
+                empty &=
+                    range.getGreaterThan() == null &&
+                    range.getLessThan() == null &&
+                    range.getGreaterThanOrEqual() == null &&
+                    range.getLessThanOrEqual() == null;
+            }
+            return empty ? null : filter;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key that = (Key) o;
+            return criteria.equals(that.criteria) && Objects.equals(pageable, that.pageable);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(criteria, pageable);
+        }
+
+        // prettier-ignore
+        @Override
+        public String toString() {
+            return "Key{" +
+                "criteria=" + criteria +
+                ", pageable=" + pageable +
+                "}";
+        }
+    }
+
+    private static final class Meters {
+
+        private final Counter hits;
+        private final Counter misses;
+        private final Counter evictions;
+
+        private Meters(String cacheName, MeterRegistry registry) {
+            this.hits = counter(cacheName, "hit", registry);
+            this.misses = counter(cacheName, "miss", registry);
+            this.evictions = counter(cacheName, "eviction", registry);
+        }
+
+        private static Counter counter(String cacheName, String result, MeterRegistry registry) {
+            return Counter
+                .builder(METER_NAME)
+                .description("Lookups and evictions of the booking query cache")
+                .tag("cache", cacheName)
+                .tag("result", result)
+                .register(registry);
+        }
+    }
+}
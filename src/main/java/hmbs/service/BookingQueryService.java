@@ -4,14 +4,23 @@ import hmbs.domain.*; // for static metamodels
 import hmbs.domain.Booking;
 import hmbs.repository.BookingRepository;
 import hmbs.service.criteria.BookingCriteria;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.OptionalLong;
 import javax.persistence.criteria.JoinType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import tech.jhipster.service.QueryService;
 
@@ -25,12 +34,40 @@ import tech.jhipster.service.QueryService;
 @Transactional(readOnly = true)
 public class BookingQueryService extends QueryService<Booking> {
 
+    /**
+     * How the total number of matching entities of a page is obtained.
+     */
+    public enum CountMode {
+        /**
+         * Count the matching entities with a second query.
+         */
+        EXACT,
+        /**
+         * Do not count the matching entities, only find out whether another page follows.
+         */
+        NONE,
+        /**
+         * Use the estimate of {@link BookingCountService}, or do not count if the criteria cannot be estimated.
+         */
+        ESTIMATE,
+    }
+
     private final Logger log = LoggerFactory.getLogger(BookingQueryService.class);
 
     private final BookingRepository bookingRepository;
 
-    public BookingQueryService(BookingRepository bookingRepository) {
+    private final BookingCountService bookingCountService;
+
+    private final BookingQueryCache bookingQueryCache;
+
+    public BookingQueryService(
+        BookingRepository bookingRepository,
+        BookingCountService bookingCountService,
+        BookingQueryCache bookingQueryCache
+    ) {
         this.bookingRepository = bookingRepository;
+        this.bookingCountService = bookingCountService;
+        this.bookingQueryCache = bookingQueryCache;
     }
 
     /**
@@ -46,28 +83,105 @@ public class BookingQueryService extends QueryService<Booking> {
     }
 
     /**
-     * Return a {@link Page} of {@link Booking} which matches the criteria from the database.
+     * Return a {@link Page} of {@link Booking} which matches the criteria from the database, or from the
+     * {@link BookingQueryCache}.
+     * <p>
+     * No transaction is started here, so that cache hits do not hold a database connection.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @param page The page, which should be returned.
      * @return the matching entities.
      */
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Page<Booking> findByCriteria(BookingCriteria criteria, Pageable page) {
         log.debug("find by criteria : {}, page: {}", criteria, page);
+        return bookingQueryCache.get(
+            BookingQueryCache.BOOKINGS_BY_CRITERIA_CACHE,
+            criteria,
+            page,
+            () -> bookingRepository.findAll(createSpecification(criteria), page)
+        );
+    }
+
+    /**
+     * Return a {@link Slice} of {@link Booking} which matches the criteria from the database, counting them as asked.
+     * <p>
+     * No transaction is started here either: an exact count goes through the {@link BookingQueryCache}, and the other
+     * modes run each query in a transaction of the repository.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @param countMode How to count the matching entities.
+     * @return the matching entities, as a {@link Page} if they were counted or estimated.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public Slice<Booking> findByCriteria(BookingCriteria criteria, Pageable page, CountMode countMode) {
+        if (countMode == CountMode.EXACT) {
+            return findByCriteria(criteria, page);
+        }
+        log.debug("find by criteria : {}, page: {}, count: {}", criteria, page, countMode);
         final Specification<Booking> specification = createSpecification(criteria);
-        return bookingRepository.findAll(specification, page);
+        Slice<Booking> slice = bookingRepository.findSlice(specification, page);
+        OptionalLong estimate = countMode == CountMode.ESTIMATE ? bookingCountService.estimate(criteria) : OptionalLong.empty();
+        if (estimate.isEmpty()) {
+            return slice;
+        }
+        // The estimate may be behind the page which was just read
+        long seen = page.isPaged()
+            ? page.getOffset() + slice.getNumberOfElements() + (slice.hasNext() ? 1 : 0)
+            : slice.getNumberOfElements();
+        return new PageImpl<>(slice.getContent(), page, Math.max(estimate.getAsLong(), seen));
     }
 
     /**
-     * Return the number of matching entities in the database.
+     * Return the page of {@link Booking} which matches the criteria and comes after a cursor, without counting
+     * the matching entities.
+     * <p>
+     * The phases of the cursor are read in order until the page is full, see {@link BookingCursor#phases}.
      * @param criteria The object which holds all the filters, which the entities should match.
-     * @return the number of matching entities.
+     * @param after The position after the previous page, {@code null} for the first page.
+     * @param keysetSort The order of the entities, as returned by {@link BookingCursor#keysetSort}.
+     * @param size The number of entities in the page.
+     * @return the matching entities.
      */
     @Transactional(readOnly = true)
+    public Slice<Booking> findByCriteriaAfter(BookingCriteria criteria, BookingCursor after, Sort keysetSort, int size) {
+        log.debug("find by criteria : {}, after: {}, sort: {}, size: {}", criteria, after, keysetSort, size);
+        final Specification<Booking> specification = createSpecification(criteria);
+        List<Booking> content = new ArrayList<>(size);
+        Iterator<BookingCursor.Phase> phases = BookingCursor.phases(after, keysetSort).iterator();
+        while (phases.hasNext()) {
+            BookingCursor.Phase phase = phases.next();
+            Pageable pageable = PageRequest.of(0, size - content.size(), phase.getSort());
+            Slice<Booking> slice = bookingRepository.findSlice(specification.and(phase.getSpecification()), pageable);
+            content.addAll(slice.getContent());
+            if (content.size() == size) {
+                // The page is full, the next one starts in this phase or in a later one with rows
+                boolean hasNext = slice.hasNext();
+                while (!hasNext && phases.hasNext()) {
+                    BookingCursor.Phase later = phases.next();
+                    hasNext = bookingRepository.findSlice(specification.and(later.getSpecification()), PageRequest.of(0, 1)).hasContent();
+                }
+                return new SliceImpl<>(content, PageRequest.of(0, size, keysetSort), hasNext);
+            }
+        }
+        return new SliceImpl<>(content, PageRequest.of(0, size, keysetSort), false);
+    }
+
+    /**
+     * Return the number of matching entities in the database, or from the {@link BookingQueryCache}.
+     * <p>
+     * No transaction is started here, so that cache hits do not hold a database connection.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the number of matching entities.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public long countByCriteria(BookingCriteria criteria) {
         log.debug("count by criteria : {}", criteria);
-        final Specification<Booking> specification = createSpecification(criteria);
-        return bookingRepository.count(specification);
+        return bookingQueryCache.get(
+            BookingQueryCache.BOOKING_COUNTS_BY_CRITERIA_CACHE,
+            criteria,
+            null,
+            () -> bookingRepository.count(createSpecification(criteria))
+        );
     }
 
     /**
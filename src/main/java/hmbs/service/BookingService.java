@@ -1,17 +1,41 @@
 package hmbs.service;
 
+import hmbs.config.ApplicationProperties;
 import hmbs.domain.Booking;
 import hmbs.repository.BookingRepository;
+import hmbs.service.availability.RoomAvailabilityService;
+import hmbs.service.availability.RoomHoldService;
+import hmbs.service.availability.RoomLockService;
+import hmbs.service.dto.BookingBatchResultDTO;
+import hmbs.service.event.BookingChangedEvent;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Service Implementation for managing {@link Booking}.
+ * <p>
+ * Every write publishes a {@link BookingChangedEvent}, which in-memory views of the bookings use to stay in sync, and
+ * which the {@link HotelRollupService} adds to the daily rollups of the hotels when the transaction commits.
+ * <p>
+ * Writes occupying a room first lock it through the {@link RoomLockService}, then reject any overlap with the
+ * other bookings of the room. They also avoid the nights held by the {@link RoomHoldService}, unless the booking is
+ * converted from that hold.
  */
 @Service
 @Transactional
@@ -21,8 +45,34 @@ public class BookingService {
 
     private final BookingRepository bookingRepository;
 
-    public BookingService(BookingRepository bookingRepository) {
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final RoomLockService roomLockService;
+
+    private final RoomAvailabilityService roomAvailabilityService;
+
+    private final BookingValidator bookingValidator;
+
+    private final RoomHoldService roomHoldService;
+
+    private final boolean authoritativeView;
+
+    public BookingService(
+        BookingRepository bookingRepository,
+        ApplicationEventPublisher eventPublisher,
+        RoomLockService roomLockService,
+        RoomAvailabilityService roomAvailabilityService,
+        BookingValidator bookingValidator,
+        RoomHoldService roomHoldService,
+        ApplicationProperties applicationProperties
+    ) {
         this.bookingRepository = bookingRepository;
+        this.eventPublisher = eventPublisher;
+        this.roomLockService = roomLockService;
+        this.roomAvailabilityService = roomAvailabilityService;
+        this.bookingValidator = bookingValidator;
+        this.roomHoldService = roomHoldService;
+        this.authoritativeView = applicationProperties.getAvailability().isAuthoritativeView();
     }
 
     /**
@@ -30,35 +80,170 @@ public class BookingService {
      *
      * @param booking the entity to save.
      * @return the persisted entity.
+     * @throws InvalidBookingException if some values of the booking are invalid.
+     * @throws RoomNotAvailableException if the room is already booked for some of the nights.
      */
     public Booking save(Booking booking) {
         log.debug("Request to save Booking : {}", booking);
-        return bookingRepository.save(booking);
+        bookingValidator.validate(booking);
+        checkRoomIsFree(booking, null, null);
+        Booking result = bookingRepository.save(booking);
+        eventPublisher.publishEvent(BookingChangedEvent.created(result));
+        return result;
+    }
+
+    /**
+     * Convert a room hold of the current user into a booking.
+     * <p>
+     * The room and the nights of the booking are the ones of the hold. The hold keeps the room away from the other
+     * bookings until this transaction commits, then it is removed; if the transaction rolls back, it is kept.
+     *
+     * @param holdId the id of the hold.
+     * @param booking the other values of the booking.
+     * @return the persisted entity, or nothing if there is no such live hold.
+     * @throws InvalidBookingException if some values of the booking are invalid.
+     * @throws RoomNotAvailableException if the room was booked meanwhile, or the hold is being converted already.
+     */
+    public Optional<Booking> saveFromHold(String holdId, Booking booking) {
+        log.debug("Request to save Booking : {} from room hold : {}", booking, holdId);
+        return roomHoldService
+            .claim(holdId)
+            .map(hold -> {
+                booking.setRoomId(hold.getRoomId());
+                booking.setCheckin(hold.getCheckin());
+                booking.setCheckout(hold.getCheckout());
+                bookingValidator.validate(booking);
+                checkRoomIsFree(booking, null, holdId);
+                Booking result = bookingRepository.save(booking);
+                eventPublisher.publishEvent(BookingChangedEvent.created(result));
+                return result;
+            });
+    }
+
+    /**
+     * Save new bookings in a single transaction, rejecting the invalid ones.
+     * <p>
+     * Each booking is first checked in memory, by the {@link BookingValidator}, the room holds and, when it is
+     * authoritative, the availability view. All the remaining rooms are then locked at once, and their bookings
+     * overlapping the batch are loaded with a single query.
+     * The accepted bookings are finally inserted with JDBC batches, their ids being allocated by blocks.
+     *
+     * @param bookings the bookings to create.
+     * @return the outcome of each booking, in the order of the batch.
+     */
+    public List<BookingBatchResultDTO> saveAll(List<Booking> bookings) {
+        log.debug("Request to save {} Bookings", bookings.size());
+        BookingBatchResultDTO[] results = new BookingBatchResultDTO[bookings.size()];
+        Set<Long> roomIds = new HashSet<>();
+        LocalDate from = null;
+        LocalDate to = null;
+        for (int i = 0; i < bookings.size(); i++) {
+            Booking booking = bookings.get(i);
+            Map<String, String> errors = booking == null ? Map.of() : bookingValidator.errors(booking);
+            if (booking == null) {
+                results[i] = BookingBatchResultDTO.rejected(i, "bookingnull", "The booking is missing");
+            } else if (booking.getId() != null) {
+                results[i] = BookingBatchResultDTO.rejected(i, "idexists", "A new booking cannot already have an ID");
+            } else if (!errors.isEmpty()) {
+                results[i] = BookingBatchResultDTO.rejected(i, "invalid", new InvalidBookingException(errors).getMessage());
+            } else if (occupiesRoom(booking)) {
+                boolean bookedInView =
+                    authoritativeView && !roomAvailabilityService.isFree(booking.getRoomId(), booking.getCheckin(), booking.getCheckout());
+                if (bookedInView || roomHoldService.isHeld(booking.getRoomId(), booking.getCheckin(), booking.getCheckout(), null)) {
+                    // Known conflicts are rejected before their room gets locked
+                    results[i] = BookingBatchResultDTO.rejected(i, "roomnotavailable", new RoomNotAvailableException().getMessage());
+                    continue;
+                }
+                roomIds.add(booking.getRoomId());
+                from = from == null || booking.getCheckin().isBefore(from) ? booking.getCheckin() : from;
+                to = to == null || booking.getCheckout().isAfter(to) ? booking.getCheckout() : to;
+            }
+        }
+
+        Map<Long, List<Booking>> bookingsByRoomId = new HashMap<>();
+        if (!roomIds.isEmpty()) {
+            roomLockService.lock(roomIds);
+            for (Booking existing : bookingRepository.findAllOverlapping(roomIds, from, to)) {
+                bookingsByRoomId.computeIfAbsent(existing.getRoomId(), id -> new ArrayList<>()).add(existing);
+            }
+        }
+
+        List<Booking> accepted = new ArrayList<>();
+        for (int i = 0; i < bookings.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            Booking booking = bookings.get(i);
+            if (occupiesRoom(booking)) {
+                List<Booking> roomBookings = bookingsByRoomId.computeIfAbsent(booking.getRoomId(), id -> new ArrayList<>());
+                if (roomBookings.stream().anyMatch(other -> overlaps(other, booking))) {
+                    results[i] = BookingBatchResultDTO.rejected(i, "roomnotavailable", new RoomNotAvailableException().getMessage());
+                    continue;
+                }
+                roomBookings.add(booking);
+            }
+            accepted.add(booking);
+            results[i] = BookingBatchResultDTO.created(i, booking);
+        }
+
+        bookingRepository.saveAll(accepted);
+        bookingRepository.flush();
+        accepted.forEach(booking -> eventPublisher.publishEvent(BookingChangedEvent.created(booking)));
+        return Arrays.asList(results);
     }
 
     /**
      * Update a booking.
+     * <p>
+     * The booking is loaded once, and its changes are written by a single flush. If the given booking has a version,
+     * it must be the current one.
      *
      * @param booking the entity to save.
-     * @return the persisted entity.
+     * @return the persisted entity, or nothing if there is no such booking.
+     * @throws InvalidBookingException if some values of the booking are invalid.
+     * @throws RoomNotAvailableException if the room is already booked for some of the nights.
+     * @throws BookingVersionMismatchException if the booking was modified since the given version.
      */
-    public Booking update(Booking booking) {
+    public Optional<Booking> update(Booking booking) {
         log.debug("Request to save Booking : {}", booking);
-        return bookingRepository.save(booking);
+        bookingValidator.validate(booking);
+        return bookingRepository
+            .findById(booking.getId())
+            .map(existingBooking -> {
+                checkVersion(booking, existingBooking);
+                Booking previous = BookingChangedEvent.snapshot(existingBooking);
+                existingBooking.setHotelId(booking.getHotelId());
+                existingBooking.setRoomId(booking.getRoomId());
+                existingBooking.setUserId(booking.getUserId());
+                existingBooking.setCheckin(booking.getCheckin());
+                existingBooking.setCheckout(booking.getCheckout());
+                existingBooking.setNumOfGuests(booking.getNumOfGuests());
+                existingBooking.setFinalPrice(booking.getFinalPrice());
+                return flushUpdate(previous, existingBooking);
+            });
     }
 
     /**
      * Partially update a booking.
+     * <p>
+     * The booking is loaded once, and its changes are written by a single flush. If the given booking has a version,
+     * it must be the current one.
      *
      * @param booking the entity to update partially.
-     * @return the persisted entity.
+     * @return the persisted entity, or nothing if there is no such booking.
+     * @throws InvalidBookingException if some values of the booking, once updated, are invalid.
+     * @throws RoomNotAvailableException if the room is already booked for some of the nights.
+     * @throws BookingVersionMismatchException if the booking was modified since the given version.
      */
     public Optional<Booking> partialUpdate(Booking booking) {
         log.debug("Request to partially update Booking : {}", booking);
+        bookingValidator.validate(booking);
 
         return bookingRepository
             .findById(booking.getId())
             .map(existingBooking -> {
+                checkVersion(booking, existingBooking);
+                Booking previous = BookingChangedEvent.snapshot(existingBooking);
                 if (booking.getHotelId() != null) {
                     existingBooking.setHotelId(booking.getHotelId());
                 }
@@ -80,10 +265,10 @@ public class BookingService {
                 if (booking.getFinalPrice() != null) {
                     existingBooking.setFinalPrice(booking.getFinalPrice());
                 }
-
-                return existingBooking;
-            })
-            .map(bookingRepository::save);
+                // The dates may come one from the update and the other from the stored booking
+                bookingValidator.validate(existingBooking);
+                return flushUpdate(previous, existingBooking);
+            });
     }
 
     /**
@@ -98,6 +283,20 @@ public class BookingService {
         return bookingRepository.findAll(pageable);
     }
 
+    /**
+     * Get the bookings whose stay lies completely within the given dates.
+     *
+     * @param startDate the earliest checkin date (inclusive).
+     * @param endDate the latest checkout date (inclusive).
+     * @param pageable the pagination information.
+     * @return the list of entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<Booking> findAllWithinDates(LocalDate startDate, LocalDate endDate, Pageable pageable) {
+        log.debug("Request to get Bookings between {} and {}", startDate, endDate);
+        return bookingRepository.findAllByCheckinGreaterThanEqualAndCheckoutLessThanEqual(startDate, endDate, pageable);
+    }
+
     /**
      * Get one booking by id.
      *
@@ -117,6 +316,85 @@ public class BookingService {
      */
     public void delete(Long id) {
         log.debug("Request to delete Booking : {}", id);
+        Optional<Booking> previous = bookingRepository.findById(id).map(BookingChangedEvent::snapshot);
         bookingRepository.deleteById(id);
+        previous.map(BookingChangedEvent::deleted).ifPresent(eventPublisher::publishEvent);
+    }
+
+    private static void checkVersion(Booking booking, Booking existingBooking) {
+        if (booking.getVersion() != null && !booking.getVersion().equals(existingBooking.getVersion())) {
+            throw new BookingVersionMismatchException();
+        }
+    }
+
+    /**
+     * Check the room if the update moves the booking, then write the update, which increments the version.
+     */
+    private Booking flushUpdate(Booking previous, Booking existingBooking) {
+        try {
+            if (
+                !Objects.equals(previous.getRoomId(), existingBooking.getRoomId()) ||
+                !Objects.equals(previous.getCheckin(), existingBooking.getCheckin()) ||
+                !Objects.equals(previous.getCheckout(), existingBooking.getCheckout())
+            ) {
+                checkRoomIsFree(existingBooking, previous.getRoomId(), null);
+            }
+            bookingRepository.flush();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // Another transaction committed an update since the booking was loaded
+            throw new BookingVersionMismatchException();
+        }
+        eventPublisher.publishEvent(BookingChangedEvent.updated(previous, existingBooking));
+        return existingBooking;
+    }
+
+    /**
+     * Lock the room of a booking and check that none of its nights is already booked or held.
+     * <p>
+     * When {@code application.availability.authoritative-view} is set, the in-memory availability view is asked first,
+     * so most conflicts are rejected without locking anything. Otherwise a conflict in the view is only a hint: the view
+     * follows the writes committed on this node, so it would keep rejecting a room freed on another node. It cannot tell
+     * the booking from its own previous stay either, so it is only asked about a room the booking moves to.
+     *
+     * @param booking the booking to check.
+     * @param previousRoomId the room of the booking before the update, {@code null} for a new booking.
+     * @param holdId the room hold the booking is converted from, {@code null} if none.
+     * @throws RoomNotAvailableException if another booking or hold of the room overlaps it.
+     */
+    private void checkRoomIsFree(Booking booking, Long previousRoomId, String holdId) {
+        if (!occupiesRoom(booking)) {
+            return;
+        }
+        if (roomHoldService.isHeld(booking.getRoomId(), booking.getCheckin(), booking.getCheckout(), holdId)) {
+            throw new RoomNotAvailableException();
+        }
+        if (
+            authoritativeView &&
+            !booking.getRoomId().equals(previousRoomId) &&
+            !roomAvailabilityService.isFree(booking.getRoomId(), booking.getCheckin(), booking.getCheckout())
+        ) {
+            throw new RoomNotAvailableException();
+        }
+        roomLockService.lock(booking.getRoomId());
+        if (
+            !bookingRepository
+                .findAllOverlappingIds(booking.getRoomId(), booking.getCheckin(), booking.getCheckout(), booking.getId())
+                .isEmpty()
+        ) {
+            throw new RoomNotAvailableException();
+        }
+    }
+
+    private static boolean occupiesRoom(Booking booking) {
+        return (
+            booking.getRoomId() != null &&
+            booking.getCheckin() != null &&
+            booking.getCheckout() != null &&
+            booking.getCheckout().isAfter(booking.getCheckin())
+        );
+    }
+
+    private static boolean overlaps(Booking booking, Booking other) {
+        return booking.getCheckin().isBefore(other.getCheckout()) && booking.getCheckout().isAfter(other.getCheckin());
     }
 }
@@ -0,0 +1,66 @@
+package hmbs.service;
+
+import hmbs.config.ApplicationProperties;
+import hmbs.domain.Booking;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.stereotype.Service;
+
+/**
+ * Checks the values of a booking in memory, so nonsense is rejected before any database access.
+ * <p>
+ * Only the fields which are set are checked, so the same rules apply to partial updates. The error codes are the
+ * ones of Bean Validation, which the client already translates, except for {@code checkoutbeforecheckin}.
+ */
+@Service
+public class BookingValidator {
+
+    public static final String CHECKOUT_BEFORE_CHECKIN = "checkoutbeforecheckin";
+
+    private final int maxGuests;
+
+    public BookingValidator(ApplicationProperties applicationProperties) {
+        this.maxGuests = applicationProperties.getValidation().getMaxGuests();
+    }
+
+    /**
+     * @param booking the booking to check.
+     * @throws InvalidBookingException if some of its values are invalid.
+     */
+    public void validate(Booking booking) {
+        Map<String, String> errors = errors(booking);
+        if (!errors.isEmpty()) {
+            throw new InvalidBookingException(errors);
+        }
+    }
+
+    /**
+     * @param booking the booking to check.
+     * @return the error code of each invalid field, empty if the booking is valid.
+     */
+    public Map<String, String> errors(Booking booking) {
+        Map<String, String> errors = null;
+        if (booking.getNumOfGuests() != null) {
+            if (booking.getNumOfGuests() < 1) {
+                errors = put(errors, "numOfGuests", "Min");
+            } else if (booking.getNumOfGuests() > maxGuests) {
+                errors = put(errors, "numOfGuests", "Max");
+            }
+        }
+        if (booking.getFinalPrice() != null && !(booking.getFinalPrice() >= 0 && booking.getFinalPrice() < Double.POSITIVE_INFINITY)) {
+            // Also rejects NaN, which fails every comparison
+            errors = put(errors, "finalPrice", "DecimalMin");
+        }
+        if (booking.getCheckin() != null && booking.getCheckout() != null && booking.getCheckout().isBefore(booking.getCheckin())) {
+            errors = put(errors, "checkout", CHECKOUT_BEFORE_CHECKIN);
+        }
+        return errors == null ? Collections.emptyMap() : errors;
+    }
+
+    private static Map<String, String> put(Map<String, String> errors, String field, String code) {
+        Map<String, String> result = errors == null ? new LinkedHashMap<>() : errors;
+        result.put(field, code);
+        return result;
+    }
+}
@@ -0,0 +1,10 @@
+package hmbs.service;
+
+public class BookingVersionMismatchException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public BookingVersionMismatchException() {
+        super("The booking was modified by someone else!", null, false, false);
+    }
+}
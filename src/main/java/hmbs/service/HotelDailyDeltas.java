@@ -0,0 +1,152 @@
+package hmbs.service;
+
+import hmbs.domain.Booking;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Changes to the daily rollups of some hotels, accumulated as the steps of a function of the day.
+ * <p>
+ * A stay only adds a step at its checkin and the opposite one at its checkout, whatever its length. The days between
+ * two steps then share the same change, so they can be written by a single range update.
+ */
+final class HotelDailyDeltas {
+
+    private final NavigableMap<Long, NavigableMap<LocalDate, Step>> stepsByHotelId = new TreeMap<>();
+
+    /**
+     * Add, or remove, the nights of a booking. Bookings without hotel or without night are ignored.
+     *
+     * @param booking the booking.
+     * @param sign {@code 1} to add the booking, {@code -1} to remove it.
+     */
+    void add(Booking booking, int sign) {
+        add(booking.getHotelId(), booking.getCheckin(), booking.getCheckout(), booking.getNumOfGuests(), booking.getFinalPrice(), sign);
+    }
+
+    void add(Long hotelId, LocalDate checkin, LocalDate checkout, Integer numOfGuests, Double finalPrice, int sign) {
+        if (hotelId == null || checkin == null || checkout == null || !checkout.isAfter(checkin)) {
+            return;
+        }
+        int guests = numOfGuests == null ? 0 : numOfGuests;
+        // The revenue is spread evenly over the nights
+        double revenue = finalPrice == null ? 0 : finalPrice / ChronoUnit.DAYS.between(checkin, checkout);
+        NavigableMap<LocalDate, Step> steps = stepsByHotelId.computeIfAbsent(hotelId, id -> new TreeMap<>());
+        steps.computeIfAbsent(checkin, day -> new Step()).add(sign, sign * guests, sign * revenue);
+        steps.computeIfAbsent(checkout, day -> new Step()).add(-sign, -sign * guests, -sign * revenue);
+    }
+
+    /**
+     * @return the hotels having changes, in ascending order.
+     */
+    Set<Long> hotelIds() {
+        return Collections.unmodifiableSet(stepsByHotelId.keySet());
+    }
+
+    /**
+     * @param hotelId the hotel.
+     * @return the changed nights of the hotel, as consecutive ranges in ascending order, without the unchanged ones.
+     */
+    List<Range> ranges(Long hotelId) {
+        List<Range> ranges = new ArrayList<>();
+        NavigableMap<LocalDate, Step> steps = stepsByHotelId.get(hotelId);
+        if (steps == null) {
+            return ranges;
+        }
+        Step current = new Step();
+        LocalDate from = null;
+        for (Map.Entry<LocalDate, Step> step : steps.entrySet()) {
+            if (from != null && !current.isZero()) {
+                Range last = ranges.isEmpty() ? null : ranges.get(ranges.size() - 1);
+                if (last != null && last.to.equals(from) && last.hasSameChange(current)) {
+                    ranges.set(ranges.size() - 1, new Range(last.from, step.getKey(), last.roomNights, last.guests, last.revenue));
+                } else {
+                    ranges.add(new Range(from, step.getKey(), current.roomNights, current.guests, current.revenue));
+                }
+            }
+            current.add(step.getValue().roomNights, step.getValue().guests, step.getValue().revenue);
+            from = step.getKey();
+        }
+        return ranges;
+    }
+
+    private static final class Step {
+
+        private int roomNights;
+
+        private int guests;
+
+        private double revenue;
+
+        void add(int roomNights, int guests, double revenue) {
+            this.roomNights += roomNights;
+            this.guests += guests;
+            this.revenue += revenue;
+        }
+
+        boolean isZero() {
+            return roomNights == 0 && guests == 0 && revenue == 0;
+        }
+    }
+
+    /**
+     * The same change to each night of a range.
+     */
+    static final class Range {
+
+        private final LocalDate from;
+
+        private final LocalDate to;
+
+        private final int roomNights;
+
+        private final int guests;
+
+        private final double revenue;
+
+        Range(LocalDate from, LocalDate to, int roomNights, int guests, double revenue) {
+            this.from = from;
+            this.to = to;
+            this.roomNights = roomNights;
+            this.guests = guests;
+            this.revenue = revenue;
+        }
+
+        /**
+         * @return the first night (inclusive).
+         */
+        LocalDate getFrom() {
+            return from;
+        }
+
+        /**
+         * @return the day after the last night (exclusive).
+         */
+        LocalDate getTo() {
+            return to;
+        }
+
+        int getRoomNights() {
+            return roomNights;
+        }
+
+        int getGuests() {
+            return guests;
+        }
+
+        double getRevenue() {
+            return revenue;
+        }
+
+        private boolean hasSameChange(Step step) {
+            return roomNights == step.roomNights && guests == step.guests && revenue == step.revenue;
+        }
+    }
+}
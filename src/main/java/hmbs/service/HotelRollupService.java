@@ -0,0 +1,382 @@
+package hmbs.service;
+
+import hmbs.config.ApplicationProperties;
+import hmbs.domain.HotelDailyRollup;
+import hmbs.domain.HotelRollupState;
+import hmbs.repository.BookingRepository;
+import hmbs.repository.BookingRevenue;
+import hmbs.repository.HotelDailyRollupRepository;
+import hmbs.repository.HotelRollupStateRepository;
+import hmbs.service.dto.HotelRollupDTO;
+import hmbs.service.event.BookingChangedEvent;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service maintaining the {@link HotelDailyRollup}s, the occupancy and revenue of each hotel per night, which the
+ * reports read instead of scanning the bookings.
+ * <p>
+ * The changes of the bookings are accumulated during their transaction, then added to the rollups right before it
+ * commits, with one range update per run of nights sharing the same change. The rollups are therefore exactly as
+ * committed as the bookings, and their rows stay locked for the duration of the commit only.
+ * <p>
+ * Writers of the rollups of a hotel, incremental or rebuild, lock its {@link HotelRollupState} first, in hotel order.
+ * A rebuild deletes the rollups of a hotel and sums its bookings again, in its own transaction, so hotels are rebuilt
+ * in parallel. Hotels which were never rebuilt are rebuilt once the application is ready, then all hotels are rebuilt
+ * every night to correct any drift.
+ */
+@Service
+public class HotelRollupService {
+
+    private final Logger log = LoggerFactory.getLogger(HotelRollupService.class);
+
+    private final HotelDailyRollupRepository hotelDailyRollupRepository;
+
+    private final HotelRollupStateRepository hotelRollupStateRepository;
+
+    private final BookingRepository bookingRepository;
+
+    private final Executor taskExecutor;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TransactionTemplate newTransactionTemplate;
+
+    private final int rebuildParallelism;
+
+    private final Object deltasKey = new Object();
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    public HotelRollupService(
+        HotelDailyRollupRepository hotelDailyRollupRepository,
+        HotelRollupStateRepository hotelRollupStateRepository,
+        BookingRepository bookingRepository,
+        @Qualifier("taskExecutor") Executor taskExecutor,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.hotelDailyRollupRepository = hotelDailyRollupRepository;
+        this.hotelRollupStateRepository = hotelRollupStateRepository;
+        this.bookingRepository = bookingRepository;
+        this.taskExecutor = taskExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.rebuildParallelism = Math.max(1, applicationProperties.getRollup().getRebuildParallelism());
+    }
+
+    /**
+     * Accumulate a change of a booking, to add it to the rollups when its transaction commits.
+     *
+     * @param event the change, published inside the transaction of the booking.
+     */
+    @EventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Bookings can only be rolled up inside a transaction");
+        }
+        HotelDailyDeltas deltas = (HotelDailyDeltas) TransactionSynchronizationManager.getResource(deltasKey);
+        if (deltas == null) {
+            HotelDailyDeltas transactionDeltas = new HotelDailyDeltas();
+            TransactionSynchronizationManager.bindResource(deltasKey, transactionDeltas);
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void beforeCommit(boolean readOnly) {
+                        apply(transactionDeltas);
+                    }
+
+                    @Override
+                    public void afterCompletion(int status) {
+                        TransactionSynchronizationManager.unbindResourceIfPossible(deltasKey);
+                    }
+                }
+            );
+            deltas = transactionDeltas;
+        }
+        if (event.getPrevious() != null) {
+            deltas.add(event.getPrevious(), -1);
+        }
+        if (event.getCurrent() != null) {
+            deltas.add(event.getCurrent(), 1);
+        }
+    }
+
+    /**
+     * Get the nights of a hotel having some occupancy.
+     *
+     * @param hotelId the hotel.
+     * @param from the first night (inclusive).
+     * @param to the day after the last night (exclusive).
+     * @return the rollups of the occupied nights, in ascending order.
+     */
+    @Transactional(readOnly = true)
+    public List<HotelDailyRollup> findAllDaily(Long hotelId, LocalDate from, LocalDate to) {
+        log.debug("Request to get the daily rollups of hotel {} from {} to {}", hotelId, from, to);
+        return hotelDailyRollupRepository.findAllOccupied(hotelId, from, to);
+    }
+
+    /**
+     * Sum the rollups of every hotel over some nights.
+     *
+     * @param from the first night (inclusive).
+     * @param to the day after the last night (exclusive).
+     * @return the totals of the hotels having some occupancy, in ascending order of their ids.
+     */
+    @Transactional(readOnly = true)
+    public List<HotelRollupDTO> findAllTotals(LocalDate from, LocalDate to) {
+        log.debug("Request to sum the rollups of every hotel from {} to {}", from, to);
+        return hotelDailyRollupRepository
+            .sumAllByHotelId(from, to)
+            .stream()
+            .map(total -> new HotelRollupDTO(total.getHotelId(), total.getRoomNights(), total.getGuestNights(), total.getRevenue()))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Rebuild the rollups of the hotels which were never rebuilt, in the background.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildNeverRebuilt() {
+        taskExecutor.execute(() -> {
+            Set<Long> hotelIds = new TreeSet<>(bookingRepository.findAllHotelIds());
+            hotelIds.removeAll(hotelRollupStateRepository.findAllRebuiltHotelIds());
+            if (!hotelIds.isEmpty() && !rebuildExclusively(hotelIds)) {
+                log.info("Rollups are already being rebuilt");
+            }
+        });
+    }
+
+    /**
+     * Rebuild the rollups of every hotel.
+     * <p>
+     * This is scheduled to get fired everyday, at 03:30 (am).
+     */
+    @Scheduled(cron = "0 30 3 * * ?")
+    public void rebuildAll() {
+        if (!rebuildExclusively(allHotelIds())) {
+            log.info("Rollups are already being rebuilt");
+        }
+    }
+
+    /**
+     * Start rebuilding the rollups of every hotel, in the background.
+     *
+     * @return {@code false} if a rebuild is already running.
+     */
+    public boolean startRebuildAll() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            taskExecutor.execute(() -> {
+                try {
+                    rebuild(allHotelIds());
+                } finally {
+                    rebuilding.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rebuilding.set(false);
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * Rebuild the rollups of a hotel from its bookings.
+     *
+     * @param hotelId the hotel.
+     * @return the number of occupied nights of the hotel.
+     */
+    public int rebuild(Long hotelId) {
+        long start = System.nanoTime();
+        createMissingStates(List.of(hotelId));
+        int days = transactionTemplate.execute(status -> {
+            // Locked by the first statement: on MySQL, the snapshot read below then includes every booking
+            // committed before the lock, and the others wait for this rebuild to add their changes
+            HotelRollupState state = lockStates(List.of(hotelId)).get(0);
+            hotelDailyRollupRepository.deleteAllByHotelId(hotelId);
+            HotelDailyDeltas deltas = new HotelDailyDeltas();
+            try (Stream<BookingRevenue> bookings = bookingRepository.streamAllRevenues(hotelId)) {
+                bookings.forEach(booking ->
+                    deltas.add(hotelId, booking.getCheckin(), booking.getCheckout(), booking.getNumOfGuests(), booking.getFinalPrice(), 1)
+                );
+            }
+            List<HotelDailyRollup> rollups = new ArrayList<>();
+            for (HotelDailyDeltas.Range range : deltas.ranges(hotelId)) {
+                for (LocalDate day = range.getFrom(); day.isBefore(range.getTo()); day = day.plusDays(1)) {
+                    rollups.add(new HotelDailyRollup(hotelId, day, range.getRoomNights(), range.getGuests(), range.getRevenue()));
+                }
+            }
+            hotelDailyRollupRepository.saveAll(rollups);
+            state.setRebuiltDate(Instant.now());
+            return rollups.size();
+        });
+        log.debug("Rebuilt {} daily rollups of hotel {} in {} ms", days, hotelId, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return days;
+    }
+
+    private Set<Long> allHotelIds() {
+        Set<Long> hotelIds = new TreeSet<>(bookingRepository.findAllHotelIds());
+        // Hotels whose bookings are all gone still have rollups to clear
+        hotelIds.addAll(hotelRollupStateRepository.findAllHotelIds());
+        return hotelIds;
+    }
+
+    private boolean rebuildExclusively(Collection<Long> hotelIds) {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            rebuild(hotelIds);
+        } finally {
+            rebuilding.set(false);
+        }
+        return true;
+    }
+
+    /**
+     * Rebuild hotels in parallel, each in its own transaction, with this thread and some workers of the task executor.
+     */
+    private void rebuild(Collection<Long> hotelIds) {
+        long start = System.nanoTime();
+        Queue<Long> pending = new ConcurrentLinkedQueue<>(hotelIds);
+        AtomicInteger failed = new AtomicInteger();
+        Runnable worker = () -> {
+            Long hotelId;
+            while ((hotelId = pending.poll()) != null) {
+                try {
+                    rebuild(hotelId);
+                } catch (RuntimeException e) {
+                    failed.incrementAndGet();
+                    log.warn("Could not rebuild the rollups of hotel {}: {}", hotelId, e.getMessage());
+                }
+            }
+        };
+        List<CompletableFuture<Void>> workers = new ArrayList<>();
+        try {
+            for (int i = 1; i < Math.min(rebuildParallelism, hotelIds.size()); i++) {
+                workers.add(CompletableFuture.runAsync(worker, taskExecutor));
+            }
+        } catch (RejectedExecutionException e) {
+            log.debug("Rebuilding the rollups with {} workers only, the task executor is full", workers.size() + 1);
+        }
+        // This thread works as well, so the rebuild progresses even when the task executor is busy
+        worker.run();
+        CompletableFuture.allOf(workers.toArray(new CompletableFuture[0])).join();
+        log.info(
+            "Rebuilt the rollups of {} hotels in {} ms, {} failed",
+            hotelIds.size() - failed.get(),
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+            failed.get()
+        );
+    }
+
+    /**
+     * Add the changes of a transaction to the rollups, creating the missing nights first.
+     */
+    private void apply(HotelDailyDeltas deltas) {
+        Map<Long, List<HotelDailyDeltas.Range>> rangesByHotelId = new TreeMap<>();
+        for (Long hotelId : deltas.hotelIds()) {
+            List<HotelDailyDeltas.Range> ranges = deltas.ranges(hotelId);
+            if (!ranges.isEmpty()) {
+                rangesByHotelId.put(hotelId, ranges);
+            }
+        }
+        if (rangesByHotelId.isEmpty()) {
+            return;
+        }
+        createMissingStates(rangesByHotelId.keySet());
+        lockStates(rangesByHotelId.keySet());
+        rangesByHotelId.forEach((hotelId, ranges) -> {
+            LocalDate from = ranges.get(0).getFrom();
+            LocalDate to = ranges.get(ranges.size() - 1).getTo();
+            Set<LocalDate> existing = hotelDailyRollupRepository
+                .findAllForUpdate(hotelId, from, to)
+                .stream()
+                .map(HotelDailyRollup::getDay)
+                .collect(Collectors.toCollection(HashSet::new));
+            List<HotelDailyRollup> missing = new ArrayList<>();
+            for (HotelDailyDeltas.Range range : ranges) {
+                for (LocalDate day = range.getFrom(); day.isBefore(range.getTo()); day = day.plusDays(1)) {
+                    if (!existing.contains(day)) {
+                        missing.add(new HotelDailyRollup(hotelId, day, 0, 0, 0));
+                    }
+                }
+            }
+            hotelDailyRollupRepository.saveAllAndFlush(missing);
+            for (HotelDailyDeltas.Range range : ranges) {
+                hotelDailyRollupRepository.addToAll(
+                    hotelId,
+                    range.getFrom(),
+                    range.getTo(),
+                    range.getRoomNights(),
+                    range.getGuests(),
+                    range.getRevenue()
+                );
+            }
+        });
+    }
+
+    private void createMissingStates(Collection<Long> hotelIds) {
+        // The rows are created after a plain read first, like the room locks: locking a missing row would take a gap
+        // lock on MySQL, which the insert would then wait on
+        Set<Long> existing = new HashSet<>(hotelRollupStateRepository.findAllExistingIds(hotelIds));
+        for (Long hotelId : hotelIds) {
+            if (!existing.contains(hotelId)) {
+                try {
+                    newTransactionTemplate.executeWithoutResult(status ->
+                        hotelRollupStateRepository.saveAndFlush(new HotelRollupState(hotelId))
+                    );
+                } catch (DataIntegrityViolationException e) {
+                    log.debug("Rollup state of hotel {} was created concurrently", hotelId);
+                }
+            }
+        }
+    }
+
+    /**
+     * Lock the states of some hotels until the current transaction completes, in the order of their ids.
+     */
+    private List<HotelRollupState> lockStates(Collection<Long> hotelIds) {
+        List<HotelRollupState> states = hotelRollupStateRepository.findAllForUpdate(hotelIds);
+        if (states.size() != hotelIds.size()) {
+            throw new IllegalStateException("Missing rollup states " + hotelIds);
+        }
+        return states;
+    }
+}
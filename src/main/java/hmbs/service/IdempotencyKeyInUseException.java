@@ -0,0 +1,10 @@
+package hmbs.service;
+
+public class IdempotencyKeyInUseException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public IdempotencyKeyInUseException() {
+        super("A request with this Idempotency-Key is still in progress!", null, false, false);
+    }
+}
@@ -0,0 +1,10 @@
+package hmbs.service;
+
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public IdempotencyKeyReusedException() {
+        super("This Idempotency-Key was already used for another request!", null, false, false);
+    }
+}
@@ -0,0 +1,257 @@
+package hmbs.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hmbs.config.ApplicationProperties;
+import hmbs.domain.IdempotentRequest;
+import hmbs.repository.IdempotentRequestRepository;
+import hmbs.security.SecurityUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service processing the requests sent with an {@code Idempotency-Key} at most once, and replaying their response to
+ * the retries.
+ * <p>
+ * A key is scoped to the current user, and claimed by inserting its {@link IdempotentRequest} before the request is
+ * processed, so concurrent retries on any node are answered {@code 409 (Conflict)} instead of being processed twice.
+ * The response is then stored in the transaction of the request itself: either both are committed, or the key is
+ * released so the request can be retried. A request which is still in progress after the configured timeout, because
+ * its node stopped, is deemed abandoned and its key can be claimed again.
+ * <p>
+ * The completed requests are kept in memory as well, so the retries reaching the same node do not read the table.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String METER_NAME = "idempotency.requests";
+
+    private final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private final IdempotentRequestRepository idempotentRequestRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Duration ttl;
+
+    private final Duration inProgressTimeout;
+
+    private final IdempotentResponseCache cache;
+
+    private final Counter processedRequests;
+
+    private final Counter replayedRequests;
+
+    public IdempotencyService(
+        IdempotentRequestRepository idempotentRequestRepository,
+        ObjectMapper objectMapper,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry registry
+    ) {
+        this.idempotentRequestRepository = idempotentRequestRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = Duration.ofSeconds(applicationProperties.getIdempotency().getTtlSeconds());
+        this.inProgressTimeout = Duration.ofSeconds(applicationProperties.getIdempotency().getInProgressTimeoutSeconds());
+        this.cache = new IdempotentResponseCache(applicationProperties.getIdempotency().getMaxEntries());
+        this.processedRequests = counter("processed", registry);
+        this.replayedRequests = counter("replayed", registry);
+    }
+
+    /**
+     * Process a request once per key.
+     *
+     * @param key the {@code Idempotency-Key} sent by the client.
+     * @param request the body of the request, to detect keys reused for another request.
+     * @param responseType the type of the response, to read the stored one.
+     * @param action the processing of the request, which is run in the transaction storing its response, before anything
+     * else is read in that transaction.
+     * @param <T> the type of the response.
+     * @return the response, either the new one or the stored one.
+     * @throws IdempotencyKeyInUseException if the same request is still in progress.
+     * @throws IdempotencyKeyReusedException if the key was used for another request.
+     */
+    public <T> Result<T> execute(String key, Object request, Class<T> responseType, Supplier<T> action) {
+        String keyHash = sha256(SecurityUtils.getCurrentUserLogin().orElse("") + '\n' + key);
+        String requestHash = sha256(toJson(request));
+        Instant now = Instant.now();
+        IdempotentResponseCache.Entry cached = cache.get(keyHash, now.toEpochMilli());
+        if (cached != null) {
+            return replay(cached.getRequestHash(), cached.getResponseBody(), requestHash, responseType);
+        }
+        Optional<IdempotentRequest> existing = claim(keyHash, requestHash, now);
+        if (existing.isPresent()) {
+            IdempotentRequest previous = existing.get();
+            if (previous.isCompleted()) {
+                cache(previous, now);
+            } else if (previous.getRequestHash().equals(requestHash)) {
+                throw new IdempotencyKeyInUseException();
+            }
+            return replay(previous.getRequestHash(), previous.getResponseBody(), requestHash, responseType);
+        }
+        IdempotentRequest completed;
+        T response;
+        try {
+            completed =
+                transactionTemplate.execute(status -> {
+                    // The action runs first: a read before it would fix the snapshot of a REPEATABLE READ transaction
+                    // on MySQL, before the booking locks its room and checks the other bookings
+                    String responseBody = toJson(action.get());
+                    IdempotentRequest idempotentRequest = idempotentRequestRepository.findById(keyHash).orElseThrow();
+                    idempotentRequest.setResponseBody(responseBody);
+                    idempotentRequest.setExpiresAt(Instant.now().plus(ttl));
+                    return idempotentRequest;
+                });
+            // Read back, so the first response is exactly the one replayed to the retries
+            response = fromJson(completed.getResponseBody(), responseType);
+        } catch (RuntimeException e) {
+            release(keyHash);
+            throw e;
+        }
+        cache(completed, now);
+        processedRequests.increment();
+        return new Result<>(response, false);
+    }
+
+    /**
+     * Delete the expired keys.
+     * <p>
+     * This is scheduled to get fired every hour, at the 15th minute.
+     */
+    @Scheduled(cron = "0 15 * * * ?")
+    public void removeExpiredKeys() {
+        Instant now = Instant.now();
+        int deleted = transactionTemplate.execute(status -> idempotentRequestRepository.deleteAllExpired(now));
+        int evicted = cache.evictExpired(now.toEpochMilli());
+        log.debug("Deleted {} expired idempotency keys, evicted {} from memory", deleted, evicted);
+    }
+
+    /**
+     * Insert the row of a key, unless a live one exists.
+     *
+     * @return the live row of the key, empty if it was claimed for this request.
+     */
+    private Optional<IdempotentRequest> claim(String keyHash, String requestHash, Instant now) {
+        try {
+            return transactionTemplate.execute(status -> {
+                Optional<IdempotentRequest> existing = idempotentRequestRepository.findById(keyHash);
+                if (existing.isPresent()) {
+                    if (existing.get().getExpiresAt().isAfter(now)) {
+                        return existing;
+                    }
+                    // Expired or abandoned: the delete must reach the database before the insert of the same key
+                    idempotentRequestRepository.delete(existing.get());
+                    idempotentRequestRepository.flush();
+                }
+                idempotentRequestRepository.saveAndFlush(new IdempotentRequest(keyHash, requestHash, now, now.plus(inProgressTimeout)));
+                return Optional.empty();
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Claimed concurrently, by a retry on this node or another one
+            return Optional.of(idempotentRequestRepository.findById(keyHash).orElseThrow(IdempotencyKeyInUseException::new));
+        }
+    }
+
+    private void release(String keyHash) {
+        transactionTemplate.executeWithoutResult(status ->
+            idempotentRequestRepository.findById(keyHash).ifPresent(idempotentRequestRepository::delete)
+        );
+    }
+
+    private void cache(IdempotentRequest completed, Instant now) {
+        long expiresAt = completed.getExpiresAt().toEpochMilli();
+        IdempotentResponseCache.Entry entry = new IdempotentResponseCache.Entry(
+            completed.getRequestHash(),
+            completed.getResponseBody(),
+            expiresAt
+        );
+        cache.put(completed.getKeyHash(), entry, now.toEpochMilli());
+    }
+
+    private <T> Result<T> replay(String previousRequestHash, String responseBody, String requestHash, Class<T> responseType) {
+        if (!previousRequestHash.equals(requestHash)) {
+            throw new IdempotencyKeyReusedException();
+        }
+        replayedRequests.increment();
+        return new Result<>(fromJson(responseBody, responseType), true);
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <T> T fromJson(String json, Class<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Counter counter(String result, MeterRegistry registry) {
+        return Counter
+            .builder(METER_NAME)
+            .description("Requests sent with an Idempotency-Key")
+            .tag("result", result)
+            .register(registry);
+    }
+
+    /**
+     * The response to an idempotent request.
+     *
+     * @param <T> the type of the response.
+     */
+    public static class Result<T> {
+
+        private final T response;
+
+        private final boolean replayed;
+
+        Result(T response, boolean replayed) {
+            this.response = response;
+            this.replayed = replayed;
+        }
+
+        public T getResponse() {
+            return response;
+        }
+
+        /**
+         * @return whether the response is the stored one of an earlier request.
+         */
+        public boolean isReplayed() {
+            return replayed;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package hmbs.service;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded cache of the responses of the completed idempotent requests, until their keys expire.
+ * <p>
+ * The {@code idempotent_request} table stays the reference: this cache only saves its reads for the retries reaching
+ * the node which processed the request. When the cache is full, expired entries are dropped first, then arbitrary
+ * ones.
+ */
+final class IdempotentResponseCache {
+
+    private final int maxEntries;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    IdempotentResponseCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @param keyHash the hash of the key of the request.
+     * @param now the current time, in milliseconds since the epoch.
+     * @return the completed request, {@code null} if it is not cached or expired.
+     */
+    Entry get(String keyHash, long now) {
+        Entry entry = entries.get(keyHash);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt <= now) {
+            entries.remove(keyHash, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * @param keyHash the hash of the key of the request.
+     * @param entry the completed request.
+     * @param now the current time, in milliseconds since the epoch.
+     */
+    void put(String keyHash, Entry entry, long now) {
+        if (maxEntries <= 0 || entry.expiresAt <= now) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            evictExpired(now);
+            Iterator<String> keyHashes = entries.keySet().iterator();
+            while (entries.size() >= maxEntries && keyHashes.hasNext()) {
+                keyHashes.next();
+                keyHashes.remove();
+            }
+        }
+        entries.put(keyHash, entry);
+    }
+
+    /**
+     * @param now the current time, in milliseconds since the epoch.
+     * @return the number of evicted entries.
+     */
+    int evictExpired(long now) {
+        int evicted = 0;
+        for (Iterator<Entry> iterator = entries.values().iterator(); iterator.hasNext();) {
+            if (iterator.next().expiresAt <= now) {
+                iterator.remove();
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    static final class Entry {
+
+        private final String requestHash;
+        private final String responseBody;
+        private final long expiresAt;
+
+        Entry(String requestHash, String responseBody, long expiresAt) {
+            this.requestHash = requestHash;
+            this.responseBody = responseBody;
+            this.expiresAt = expiresAt;
+        }
+
+        String getRequestHash() {
+            return requestHash;
+        }
+
+        String getResponseBody() {
+            return responseBody;
+        }
+    }
+}
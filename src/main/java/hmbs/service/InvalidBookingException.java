@@ -0,0 +1,27 @@
+package hmbs.service;
+
+import java.util.Map;
+
+/**
+ * Thrown when a booking breaks the rules checked by {@link BookingValidator}.
+ * <p>
+ * This is an expected rejection, so no stack trace is captured.
+ */
+public class InvalidBookingException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Map<String, String> errorsByField;
+
+    public InvalidBookingException(Map<String, String> errorsByField) {
+        super("Invalid booking: " + errorsByField, null, false, false);
+        this.errorsByField = errorsByField;
+    }
+
+    /**
+     * @return the code of the broken rule of each invalid field, such as {@code Min}, in the order they were checked.
+     */
+    public Map<String, String> getErrorsByField() {
+        return errorsByField;
+    }
+}
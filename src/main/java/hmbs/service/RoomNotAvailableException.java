@@ -0,0 +1,10 @@
+package hmbs.service;
+
+public class RoomNotAvailableException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public RoomNotAvailableException() {
+        super("The room is already booked for these dates!", null, false, false);
+    }
+}
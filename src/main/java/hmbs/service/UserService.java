@@ -1,9 +1,11 @@
 package hmbs.service;
 
+import hmbs.config.ApplicationProperties;
 import hmbs.config.Constants;
 import hmbs.domain.Authority;
 import hmbs.domain.User;
 import hmbs.repository.AuthorityRepository;
+import hmbs.repository.UserLogin;
 import hmbs.repository.UserRepository;
 import hmbs.security.AuthoritiesConstants;
 import hmbs.security.SecurityUtils;
@@ -15,13 +17,18 @@ import java.util.*;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import tech.jhipster.security.RandomUtil;
 
 /**
@@ -41,16 +48,24 @@ public class UserService {
 
     private final CacheManager cacheManager;
 
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.UserCleanup userCleanup;
+
     public UserService(
         UserRepository userRepository,
         PasswordEncoder passwordEncoder,
         AuthorityRepository authorityRepository,
-        CacheManager cacheManager
+        CacheManager cacheManager,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
     ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authorityRepository = authorityRepository;
         this.cacheManager = cacheManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.userCleanup = applicationProperties.getUserCleanup();
     }
 
     public Optional<User> activateRegistration(String key) {
@@ -295,16 +310,55 @@ public class UserService {
      * Not activated users should be automatically deleted after 3 days.
      * <p>
      * This is scheduled to get fired everyday, at 01:00 (am).
+     * <p>
+     * The users are deleted by chunks of {@code application.user-cleanup.chunk-size}, each with two bulk deletes in its
+     * own transaction, with a pause between the chunks so that a backlog of registrations does not hold the user table.
+     * When called within a transaction, the chunks join it.
      */
     @Scheduled(cron = "0 0 1 * * ?")
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void removeNotActivatedUsers() {
-        userRepository
-            .findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant.now().minus(3, ChronoUnit.DAYS))
-            .forEach(user -> {
-                log.debug("Deleting not activated user {}", user.getLogin());
-                userRepository.delete(user);
-                this.clearUserCaches(user);
+        Instant createdBefore = Instant.now().minus(3, ChronoUnit.DAYS);
+        int chunkSize = Math.max(1, userCleanup.getChunkSize());
+        long start = System.nanoTime();
+        long afterId = Long.MIN_VALUE;
+        int removed = 0;
+        while (true) {
+            List<UserLogin> chunk = userRepository.findAllNotActivatedCreatedBefore(createdBefore, afterId, PageRequest.of(0, chunkSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            List<Long> ids = chunk.stream().map(UserLogin::getId).collect(Collectors.toList());
+            Integer deleted = transactionTemplate.execute(status -> {
+                userRepository.deleteAllNotActivatedAuthoritiesByUserIdIn(ids);
+                return userRepository.deleteAllNotActivatedByIdIn(ids);
             });
+            removed += deleted == null ? 0 : deleted;
+            clearUserCaches(chunk);
+            log.debug("Deleted {} not activated users up to id {}", deleted, ids.get(ids.size() - 1));
+            if (chunk.size() < chunkSize || !pause()) {
+                break;
+            }
+            afterId = ids.get(ids.size() - 1);
+        }
+        if (removed > 0) {
+            double seconds = (System.nanoTime() - start) / 1e9;
+            log.info("Removed {} not activated users, {} rows/s", removed, String.format(Locale.ROOT, "%.0f", removed / seconds));
+        }
+    }
+
+    private boolean pause() {
+        if (userCleanup.getPauseMs() <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(userCleanup.getPauseMs());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while removing the not activated users, the others are left to the next run");
+            return false;
+        }
     }
 
     /**
@@ -322,4 +376,29 @@ public class UserService {
             Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE)).evict(user.getEmail());
         }
     }
+
+    private void clearUserCaches(List<UserLogin> users) {
+        Set<String> logins = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (UserLogin user : users) {
+            logins.add(user.getLogin());
+            if (user.getEmail() != null) {
+                emails.add(user.getEmail());
+            }
+        }
+        evictAll(Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE)), logins);
+        evictAll(Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE)), emails);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void evictAll(Cache cache, Set<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        if (cache.getNativeCache() instanceof javax.cache.Cache) {
+            ((javax.cache.Cache<Object, Object>) cache.getNativeCache()).removeAll(new HashSet<>(keys));
+        } else {
+            keys.forEach(cache::evict);
+        }
+    }
 }
@@ -0,0 +1,203 @@
+package hmbs.service.availability;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Day bitmap of the occupied nights of each room, over a fixed window of dates.
+ * <p>
+ * Bit {@code i} of a room is set when the night starting {@code i} days after the first day of the window is
+ * booked. Availability checks are then a few word-level operations on a {@code long[]}. Rooms without any occupied
+ * night in the window take no memory. Rooms that do not fit in the memory budget are not covered, and must be
+ * answered from the {@link RoomIntervalIndex} instead.
+ * <p>
+ * Bitmaps are replaced rather than modified, so readers never block.
+ */
+public class OccupancyCalendar {
+
+    /**
+     * Estimated cost of a map entry and an array header, on top of the bitmap words.
+     */
+    private static final int ROOM_OVERHEAD_BYTES = 64;
+
+    private final long firstDay;
+
+    private final int days;
+
+    private final int words;
+
+    private final long maxRooms;
+
+    private final Map<Long, long[]> bitsByRoomId = new ConcurrentHashMap<>();
+
+    private final Set<Long> uncoveredRoomIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param firstDay the first night of the window.
+     * @param days the number of nights in the window.
+     * @param maxMemoryBytes the memory budget of the bitmaps.
+     */
+    public OccupancyCalendar(LocalDate firstDay, int days, long maxMemoryBytes) {
+        this.firstDay = firstDay.toEpochDay();
+        this.days = days;
+        this.words = (days + Long.SIZE - 1) / Long.SIZE;
+        this.maxRooms = maxMemoryBytes / ((long) words * Long.BYTES + ROOM_OVERHEAD_BYTES);
+    }
+
+    public LocalDate getFirstDay() {
+        return LocalDate.ofEpochDay(firstDay);
+    }
+
+    /**
+     * @return the day after the last night of the window.
+     */
+    public LocalDate getEndDay() {
+        return LocalDate.ofEpochDay(firstDay + days);
+    }
+
+    /**
+     * Recompute the bitmap of a room from its stays.
+     *
+     * @param roomId the room to refresh.
+     * @param index the source of the stays.
+     */
+    public void refresh(Long roomId, RoomIntervalIndex index) {
+        long[] bits = new long[words];
+        boolean[] occupied = { false };
+        index.forEachStay(
+            roomId,
+            (checkin, checkout) -> {
+                int from = (int) Math.max(checkin - firstDay, 0);
+                int to = (int) Math.min(checkout - firstDay, days);
+                if (from < to) {
+                    setRange(bits, from, to);
+                    occupied[0] = true;
+                }
+            }
+        );
+        if (!occupied[0]) {
+            bitsByRoomId.remove(roomId);
+            uncoveredRoomIds.remove(roomId);
+        } else if (bitsByRoomId.containsKey(roomId) || bitsByRoomId.size() < maxRooms) {
+            bitsByRoomId.put(roomId, bits);
+            uncoveredRoomIds.remove(roomId);
+        } else {
+            uncoveredRoomIds.add(roomId);
+        }
+    }
+
+    /**
+     * @return {@code true} if the calendar can answer for this room and these nights.
+     */
+    public boolean covers(Long roomId, LocalDate from, LocalDate to) {
+        return from.toEpochDay() >= firstDay && to.toEpochDay() <= firstDay + days && !uncoveredRoomIds.contains(roomId);
+    }
+
+    /**
+     * Check whether a covered room is free for the given nights.
+     *
+     * @param roomId the room to check.
+     * @param from the first night (inclusive).
+     * @param to the checkout day (exclusive).
+     * @return {@code true} if none of the nights is occupied.
+     */
+    public boolean isFree(Long roomId, LocalDate from, LocalDate to) {
+        long[] bits = bitsByRoomId.get(roomId);
+        return bits == null || nextSetBit(bits, (int) (from.toEpochDay() - firstDay), (int) (to.toEpochDay() - firstDay)) < 0;
+    }
+
+    /**
+     * Find the first day, on or after the given one, from which a covered room is free for the given number of nights.
+     *
+     * @param roomId the room to check.
+     * @param from the earliest first night.
+     * @param nights the number of consecutive free nights needed.
+     * @return the first night of the earliest free run, or {@code null} if there is none inside the window.
+     */
+    public LocalDate nextFreeStart(Long roomId, LocalDate from, int nights) {
+        long[] bits = bitsByRoomId.get(roomId);
+        int start = (int) Math.max(from.toEpochDay() - firstDay, 0);
+        while (start + nights <= days) {
+            int occupied = bits == null ? -1 : nextSetBit(bits, start, start + nights);
+            if (occupied < 0) {
+                return LocalDate.ofEpochDay(firstDay + start);
+            }
+            start = nextClearBit(bits, occupied + 1);
+        }
+        return null;
+    }
+
+    /**
+     * @return the number of rooms holding a bitmap.
+     */
+    public int size() {
+        return bitsByRoomId.size();
+    }
+
+    /**
+     * @return the memory used by the bitmaps, in bytes.
+     */
+    public long memoryBytes() {
+        return bitsByRoomId.size() * ((long) words * Long.BYTES + ROOM_OVERHEAD_BYTES);
+    }
+
+    private static void setRange(long[] bits, int from, int to) {
+        int firstWord = from >>> 6;
+        int lastWord = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (firstWord == lastWord) {
+            bits[firstWord] |= firstMask & lastMask;
+            return;
+        }
+        bits[firstWord] |= firstMask;
+        for (int i = firstWord + 1; i < lastWord; i++) {
+            bits[i] = -1L;
+        }
+        bits[lastWord] |= lastMask;
+    }
+
+    /**
+     * @return the index of the first set bit in {@code [from, to)}, or {@code -1}.
+     */
+    private static int nextSetBit(long[] bits, int from, int to) {
+        if (from >= to) {
+            return -1;
+        }
+        int word = from >>> 6;
+        int lastWord = (to - 1) >>> 6;
+        long current = bits[word] & (-1L << from);
+        while (true) {
+            if (word == lastWord) {
+                current &= -1L >>> -to;
+            }
+            if (current != 0) {
+                return (word << 6) + Long.numberOfTrailingZeros(current);
+            }
+            if (word == lastWord) {
+                return -1;
+            }
+            current = bits[++word];
+        }
+    }
+
+    /**
+     * @return the index of the first clear bit from {@code from} on, which may be past the last word.
+     */
+    private static int nextClearBit(long[] bits, int from) {
+        int word = from >>> 6;
+        if (word >= bits.length) {
+            return from;
+        }
+        long current = ~bits[word] & (-1L << from);
+        while (current == 0) {
+            if (++word == bits.length) {
+                return word << 6;
+            }
+            current = ~bits[word];
+        }
+        return (word << 6) + Long.numberOfTrailingZeros(current);
+    }
+}
@@ -0,0 +1,193 @@
+package hmbs.service.availability;
+
+import hmbs.config.ApplicationProperties;
+import hmbs.domain.Booking;
+import hmbs.repository.BookingRepository;
+import hmbs.repository.BookingStay;
+import hmbs.service.event.BookingChangedEvent;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Service answering room availability questions from memory.
+ * <p>
+ * The {@link RoomIntervalIndex} is loaded from the booking table once the application is ready, and kept in sync
+ * with every committed {@link BookingChangedEvent}. Changes committed while the initial load is running are queued
+ * and replayed once it is done.
+ * <p>
+ * The nights around today are also kept in an {@link OccupancyCalendar}, which answers most questions with a few
+ * bit operations. Its window slides every night; questions outside of it fall back to the interval index.
+ */
+@Service
+public class RoomAvailabilityService {
+
+    private final Logger log = LoggerFactory.getLogger(RoomAvailabilityService.class);
+
+    private final BookingRepository bookingRepository;
+
+    private final ApplicationProperties.Availability.Calendar calendarProperties;
+
+    private final RoomIntervalIndex index = new RoomIntervalIndex();
+
+    private volatile OccupancyCalendar calendar;
+
+    private final List<BookingChangedEvent> pendingEvents = new ArrayList<>();
+
+    private volatile boolean loaded;
+
+    public RoomAvailabilityService(BookingRepository bookingRepository, ApplicationProperties applicationProperties) {
+        this.bookingRepository = bookingRepository;
+        this.calendarProperties = applicationProperties.getAvailability().getCalendar();
+        this.calendar = newCalendar();
+    }
+
+    /**
+     * Load the index from the booking table.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        long start = System.nanoTime();
+        try (Stream<BookingStay> stays = bookingRepository.streamAllStays()) {
+            stays.forEach(stay -> index.put(stay.getId(), stay.getHotelId(), stay.getRoomId(), stay.getCheckin(), stay.getCheckout()));
+        }
+        synchronized (pendingEvents) {
+            pendingEvents.forEach(this::apply);
+            pendingEvents.clear();
+            slideCalendar();
+            loaded = true;
+        }
+        log.info("Loaded {} booking stays in {} ms", index.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Move the occupancy calendar window to the current day.
+     * <p>
+     * This is scheduled to get fired everyday, at 00:05 (am).
+     */
+    @Scheduled(cron = "0 5 0 * * ?")
+    public synchronized void slideCalendar() {
+        OccupancyCalendar next = newCalendar();
+        index.occupiedRoomIds().forEach(roomId -> next.refresh(roomId, index));
+        calendar = next;
+        log.debug(
+            "Occupancy calendar from {} to {} holds {} rooms in {} bytes",
+            next.getFirstDay(),
+            next.getEndDay(),
+            next.size(),
+            next.memoryBytes()
+        );
+    }
+
+    /**
+     * Keep the index in sync with the committed bookings.
+     *
+     * @param event the committed change.
+     */
+    @TransactionalEventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        if (!loaded) {
+            synchronized (pendingEvents) {
+                if (!loaded) {
+                    pendingEvents.add(event);
+                    return;
+                }
+            }
+        }
+        apply(event);
+    }
+
+    /**
+     * Check whether a room is free for the given nights.
+     *
+     * @param roomId the room to check.
+     * @param from the first night (inclusive).
+     * @param to the checkout day (exclusive).
+     * @return {@code true} if no booking of the room overlaps the range.
+     */
+    public boolean isFree(Long roomId, LocalDate from, LocalDate to) {
+        OccupancyCalendar current = calendar;
+        if (current.covers(roomId, from, to)) {
+            return current.isFree(roomId, from, to);
+        }
+        return index.isFree(roomId, from, to);
+    }
+
+    /**
+     * Find the rooms of a hotel which are free for the given nights.
+     *
+     * @param hotelId the hotel to search.
+     * @param from the first night (inclusive).
+     * @param to the checkout day (exclusive).
+     * @return the ids of the free rooms, in ascending order.
+     */
+    public List<Long> freeRooms(Long hotelId, LocalDate from, LocalDate to) {
+        List<Long> result = new ArrayList<>();
+        for (Long roomId : index.roomIds(hotelId)) {
+            if (isFree(roomId, from, to)) {
+                result.add(roomId);
+            }
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    /**
+     * Find the first day, on or after the given one, from which a room is free for the given number of nights.
+     *
+     * @param roomId the room to check.
+     * @param from the earliest first night.
+     * @param nights the number of consecutive free nights needed.
+     * @return the first night of the earliest free run, or {@code null} if there is none in the calendar window.
+     */
+    public LocalDate nextFreeStart(Long roomId, LocalDate from, int nights) {
+        OccupancyCalendar current = calendar;
+        if (current.covers(roomId, from, from.plusDays(nights))) {
+            return current.nextFreeStart(roomId, from, nights);
+        }
+        for (LocalDate start = from; !start.plusDays(nights).isAfter(current.getEndDay()); start = start.plusDays(1)) {
+            if (index.isFree(roomId, start, start.plusDays(nights))) {
+                return start;
+            }
+        }
+        return null;
+    }
+
+    private synchronized void apply(BookingChangedEvent event) {
+        log.debug("Applying {} to the availability index", event);
+        Booking previous = event.getPrevious();
+        Booking current = event.getCurrent();
+        if (current == null) {
+            index.remove(previous.getId());
+        } else {
+            index.put(current.getId(), current.getHotelId(), current.getRoomId(), current.getCheckin(), current.getCheckout());
+        }
+        if (previous != null && previous.getRoomId() != null) {
+            calendar.refresh(previous.getRoomId(), index);
+        }
+        if (current != null && current.getRoomId() != null) {
+            calendar.refresh(current.getRoomId(), index);
+        }
+    }
+
+    private OccupancyCalendar newCalendar() {
+        LocalDate today = LocalDate.now();
+        return new OccupancyCalendar(
+            today.minusDays(calendarProperties.getPastDays()),
+            calendarProperties.getPastDays() + calendarProperties.getFutureDays(),
+            calendarProperties.getMaxMemoryMb() * 1024 * 1024
+        );
+    }
+}
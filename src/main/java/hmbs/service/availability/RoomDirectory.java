@@ -0,0 +1,104 @@
+package hmbs.service.availability;
+
+import com.carrotsearch.hppc.LongIntHashMap;
+import com.carrotsearch.hppc.LongObjectHashMap;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The known rooms of every hotel, with the largest party each room was booked for.
+ * <p>
+ * The maps are keyed by primitive ids, so a search does not box nor chase any entry object. The rooms of a hotel are
+ * an immutable sorted array, replaced when a room is added; rooms are never removed, like in the
+ * {@link RoomIntervalIndex}.
+ */
+final class RoomDirectory {
+
+    private static final long[] NO_ROOMS = new long[0];
+
+    private final LongObjectHashMap<long[]> roomIdsByHotelId = new LongObjectHashMap<>();
+
+    private final LongIntHashMap capacityByRoomId = new LongIntHashMap();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Add a room to a hotel, or raise its capacity.
+     *
+     * @param hotelId the hotel.
+     * @param roomId the room.
+     * @param guests the number of guests of a booking of the room, {@code 0} if unknown.
+     */
+    void add(long hotelId, long roomId, int guests) {
+        lock.writeLock().lock();
+        try {
+            long[] roomIds = roomIdsByHotelId.getOrDefault(hotelId, NO_ROOMS);
+            int position = Arrays.binarySearch(roomIds, roomId);
+            if (position < 0) {
+                int insertion = -position - 1;
+                long[] newRoomIds = new long[roomIds.length + 1];
+                System.arraycopy(roomIds, 0, newRoomIds, 0, insertion);
+                newRoomIds[insertion] = roomId;
+                System.arraycopy(roomIds, insertion, newRoomIds, insertion + 1, roomIds.length - insertion);
+                roomIdsByHotelId.put(hotelId, newRoomIds);
+            }
+            // Also puts the rooms of unknown capacity, which are counted
+            capacityByRoomId.put(roomId, Math.max(guests, capacityByRoomId.get(roomId)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param hotelId the hotel.
+     * @param guests the number of guests.
+     * @return the rooms of the hotel known to host that many guests, in ascending order. Any room qualifies for a
+     * single guest, even if the size of its parties is unknown.
+     */
+    long[] roomIds(long hotelId, int guests) {
+        lock.readLock().lock();
+        try {
+            long[] roomIds = roomIdsByHotelId.getOrDefault(hotelId, NO_ROOMS);
+            if (guests <= 1) {
+                return roomIds;
+            }
+            long[] result = new long[roomIds.length];
+            int size = 0;
+            for (long roomId : roomIds) {
+                if (capacityByRoomId.get(roomId) >= guests) {
+                    result[size++] = roomId;
+                }
+            }
+            return size == result.length ? result : Arrays.copyOf(result, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the known hotels, in ascending order.
+     */
+    long[] hotelIds() {
+        lock.readLock().lock();
+        try {
+            long[] hotelIds = roomIdsByHotelId.keys().toArray();
+            Arrays.sort(hotelIds);
+            return hotelIds;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of known rooms.
+     */
+    int roomCount() {
+        lock.readLock().lock();
+        try {
+            return capacityByRoomId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package hmbs.service.availability;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A room reserved for a few nights by a user, until it expires or is converted into a booking.
+ */
+final class RoomHold {
+
+    private final String id;
+
+    private final String login;
+
+    private final Long roomId;
+
+    private final LocalDate checkin;
+
+    private final LocalDate checkout;
+
+    private final long expiresAt;
+
+    /**
+     * Set while a transaction converts the hold into a booking, so it is converted at most once.
+     */
+    private final AtomicBoolean converting = new AtomicBoolean();
+
+    RoomHold(String id, String login, Long roomId, LocalDate checkin, LocalDate checkout, long expiresAt) {
+        this.id = id;
+        this.login = login;
+        this.roomId = roomId;
+        this.checkin = checkin;
+        this.checkout = checkout;
+        this.expiresAt = expiresAt;
+    }
+
+    String getId() {
+        return id;
+    }
+
+    String getLogin() {
+        return login;
+    }
+
+    Long getRoomId() {
+        return roomId;
+    }
+
+    LocalDate getCheckin() {
+        return checkin;
+    }
+
+    LocalDate getCheckout() {
+        return checkout;
+    }
+
+    long getExpiresAt() {
+        return expiresAt;
+    }
+
+    AtomicBoolean getConverting() {
+        return converting;
+    }
+
+    /**
+     * @param now the current time, in milliseconds since the epoch.
+     * @return whether the hold did not expire yet.
+     */
+    boolean isLive(long now) {
+        return expiresAt > now;
+    }
+
+    /**
+     * @param from the first night (inclusive).
+     * @param to the checkout day (exclusive).
+     * @return whether some nights of the hold are in the range.
+     */
+    boolean overlaps(LocalDate from, LocalDate to) {
+        return checkin.isBefore(to) && checkout.isAfter(from);
+    }
+}
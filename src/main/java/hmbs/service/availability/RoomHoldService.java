@@ -0,0 +1,257 @@
+package hmbs.service.availability;
+
+import hmbs.config.ApplicationProperties;
+import hmbs.security.SecurityUtils;
+import hmbs.service.BookingValidator;
+import hmbs.service.InvalidBookingException;
+import hmbs.service.RoomNotAvailableException;
+import hmbs.service.dto.RoomHoldDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Service holding rooms for a few minutes, while their booking is being paid.
+ * <p>
+ * The holds live in memory only. The holds of each room are an immutable array, replaced by compare-and-set, so
+ * placing a hold never takes a lock and two overlapping holds cannot both succeed. Every booking written by the
+ * {@code BookingService} must avoid the holds, except the one it is converted from.
+ * <p>
+ * Expired holds are ignored right away, and removed by a {@link TimerWheel} which only visits the holds due in the
+ * elapsed ticks.
+ * <p>
+ * A hold is checked against the committed bookings of the {@link RoomAvailabilityService}: a booking committed at
+ * the same time may still take its room, in which case the conversion is rejected by the room lock of the booking,
+ * like any other conflict.
+ */
+@Service
+public class RoomHoldService {
+
+    static final long TICK_MILLIS = 1000;
+
+    private static final RoomHold[] NO_HOLDS = new RoomHold[0];
+
+    private final Logger log = LoggerFactory.getLogger(RoomHoldService.class);
+
+    private final RoomAvailabilityService roomAvailabilityService;
+
+    private final long ttlMillis;
+
+    private final Map<String, RoomHold> holdsById = new ConcurrentHashMap<>();
+
+    private final Map<Long, AtomicReference<RoomHold[]>> holdsByRoomId = new ConcurrentHashMap<>();
+
+    private final TimerWheel<RoomHold> timerWheel;
+
+    public RoomHoldService(
+        RoomAvailabilityService roomAvailabilityService,
+        ApplicationProperties applicationProperties,
+        MeterRegistry registry
+    ) {
+        this.roomAvailabilityService = roomAvailabilityService;
+        this.ttlMillis = applicationProperties.getAvailability().getHold().getTtlSeconds() * 1000;
+        this.timerWheel = new TimerWheel<>(TICK_MILLIS, (int) Math.min(4096, ttlMillis / TICK_MILLIS + 1), System.currentTimeMillis());
+        Gauge.builder("room.holds", holdsById, Map::size).description("The number of room holds in memory").register(registry);
+    }
+
+    /**
+     * Hold a room for the current user.
+     *
+     * @param request the room and the nights to hold.
+     * @return the hold, with its id and expiration.
+     * @throws InvalidBookingException if the checkout is not after the checkin.
+     * @throws RoomNotAvailableException if the room is already booked or held for some of the nights.
+     */
+    public RoomHoldDTO hold(RoomHoldDTO request) {
+        log.debug("Request to hold room : {}", request);
+        if (!request.getCheckout().isAfter(request.getCheckin())) {
+            throw new InvalidBookingException(Map.of("checkout", BookingValidator.CHECKOUT_BEFORE_CHECKIN));
+        }
+        if (!roomAvailabilityService.isFree(request.getRoomId(), request.getCheckin(), request.getCheckout())) {
+            throw new RoomNotAvailableException();
+        }
+        long now = System.currentTimeMillis();
+        RoomHold hold = new RoomHold(
+            UUID.randomUUID().toString(),
+            SecurityUtils.getCurrentUserLogin().orElse(null),
+            request.getRoomId(),
+            request.getCheckin(),
+            request.getCheckout(),
+            now + ttlMillis
+        );
+        AtomicReference<RoomHold[]> roomHolds = holdsByRoomId.computeIfAbsent(hold.getRoomId(), id -> new AtomicReference<>(NO_HOLDS));
+        RoomHold[] current;
+        RoomHold[] next;
+        do {
+            current = roomHolds.get();
+            int live = 0;
+            for (RoomHold other : current) {
+                if (other.isLive(now)) {
+                    if (other.overlaps(hold.getCheckin(), hold.getCheckout())) {
+                        throw new RoomNotAvailableException();
+                    }
+                    live++;
+                }
+            }
+            // Expired holds are dropped on the way
+            next = new RoomHold[live + 1];
+            int i = 0;
+            for (RoomHold other : current) {
+                if (other.isLive(now)) {
+                    next[i++] = other;
+                }
+            }
+            next[i] = hold;
+        } while (!roomHolds.compareAndSet(current, next));
+        holdsById.put(hold.getId(), hold);
+        timerWheel.schedule(hold, hold.getExpiresAt());
+        return toDto(hold);
+    }
+
+    /**
+     * Get a live hold of the current user.
+     *
+     * @param id the id of the hold.
+     * @return the hold.
+     */
+    public Optional<RoomHoldDTO> findOne(String id) {
+        return findLive(id).map(RoomHoldService::toDto);
+    }
+
+    /**
+     * Release a live hold of the current user.
+     *
+     * @param id the id of the hold.
+     * @return whether the hold was released.
+     */
+    public boolean release(String id) {
+        log.debug("Request to release room hold : {}", id);
+        Optional<RoomHold> hold = findLive(id).filter(live -> !live.getConverting().get());
+        hold.ifPresent(this::remove);
+        return hold.isPresent();
+    }
+
+    /**
+     * Claim a live hold of the current user, to convert it into a booking in the current transaction.
+     * <p>
+     * The hold is removed once the transaction commits, or released for another attempt if it rolls back.
+     *
+     * @param id the id of the hold.
+     * @return the claimed hold, or nothing if there is no such live hold.
+     * @throws RoomNotAvailableException if the hold is being converted by another transaction.
+     */
+    public Optional<RoomHoldDTO> claim(String id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("A room hold can only be converted in a transaction");
+        }
+        Optional<RoomHold> result = findLive(id);
+        result.ifPresent(hold -> {
+            if (!hold.getConverting().compareAndSet(false, true)) {
+                throw new RoomNotAvailableException();
+            }
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        if (status == STATUS_COMMITTED) {
+                            remove(hold);
+                        } else {
+                            hold.getConverting().set(false);
+                        }
+                    }
+                }
+            );
+        });
+        return result.map(RoomHoldService::toDto);
+    }
+
+    /**
+     * Check whether some nights of a room are held.
+     *
+     * @param roomId the room to check.
+     * @param from the first night (inclusive).
+     * @param to the checkout day (exclusive).
+     * @param exceptHoldId the hold being converted, which is ignored, {@code null} if none.
+     * @return {@code true} if a live hold of the room, other than the given one, overlaps the range.
+     */
+    public boolean isHeld(Long roomId, LocalDate from, LocalDate to, String exceptHoldId) {
+        AtomicReference<RoomHold[]> roomHolds = holdsByRoomId.get(roomId);
+        if (roomHolds == null) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        for (RoomHold hold : roomHolds.get()) {
+            if (hold.isLive(now) && hold.overlaps(from, to) && !hold.getId().equals(exceptHoldId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Remove the holds which expired since the last tick.
+     * <p>
+     * This is scheduled to get fired every second.
+     */
+    @Scheduled(fixedDelay = TICK_MILLIS)
+    public void removeExpiredHolds() {
+        int expired = timerWheel.advance(System.currentTimeMillis(), this::remove);
+        if (expired > 0) {
+            log.debug("Removed {} expired room holds", expired);
+        }
+    }
+
+    private Optional<RoomHold> findLive(String id) {
+        String login = SecurityUtils.getCurrentUserLogin().orElse(null);
+        long now = System.currentTimeMillis();
+        return Optional.ofNullable(holdsById.get(id)).filter(hold -> hold.isLive(now) && Objects.equals(hold.getLogin(), login));
+    }
+
+    private void remove(RoomHold hold) {
+        if (!holdsById.remove(hold.getId(), hold)) {
+            return;
+        }
+        AtomicReference<RoomHold[]> roomHolds = holdsByRoomId.get(hold.getRoomId());
+        RoomHold[] current;
+        RoomHold[] next;
+        do {
+            current = roomHolds.get();
+            next = new RoomHold[current.length];
+            int size = 0;
+            for (RoomHold other : current) {
+                if (other != hold) {
+                    next[size++] = other;
+                }
+            }
+            if (size == current.length) {
+                // Already dropped as expired by a newer hold of the room
+                return;
+            }
+            next = size == 0 ? NO_HOLDS : Arrays.copyOf(next, size);
+        } while (!roomHolds.compareAndSet(current, next));
+    }
+
+    private static RoomHoldDTO toDto(RoomHold hold) {
+        RoomHoldDTO dto = new RoomHoldDTO();
+        dto.setId(hold.getId());
+        dto.setRoomId(hold.getRoomId());
+        dto.setCheckin(hold.getCheckin());
+        dto.setCheckout(hold.getCheckout());
+        dto.setExpiresAt(Instant.ofEpochMilli(hold.getExpiresAt()));
+        return dto;
+    }
+}
@@ -0,0 +1,257 @@
+package hmbs.service.availability;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of the occupied nights of every room.
+ * <p>
+ * Each room keeps an immutable array of its stays sorted by checkin, together with the running maximum of the
+ * checkout dates. A stay occupies the nights from its checkin (inclusive) to its checkout (exclusive), so an
+ * overlap check is a binary search followed by a single comparison. Writers replace the room's array
+ * (copy-on-write) while holding the index lock, readers never block.
+ * <p>
+ * Rooms are only known through their bookings: a room that was never booked is not part of any hotel.
+ */
+public class RoomIntervalIndex {
+
+    private final Map<Long, Stay> staysByBookingId = new ConcurrentHashMap<>();
+
+    private final Map<Long, RoomStays> staysByRoomId = new ConcurrentHashMap<>();
+
+    private final Map<Long, Set<Long>> roomIdsByHotelId = new ConcurrentHashMap<>();
+
+    /**
+     * Add or replace the stay of a booking.
+     *
+     * @param bookingId the id of the booking.
+     * @param hotelId the hotel of the booked room.
+     * @param roomId the booked room.
+     * @param checkin the first occupied night.
+     * @param checkout the day the room is freed.
+     */
+    public synchronized void put(Long bookingId, Long hotelId, Long roomId, LocalDate checkin, LocalDate checkout) {
+        remove(bookingId);
+        if (roomId == null) {
+            return;
+        }
+        if (hotelId != null) {
+            roomIdsByHotelId.computeIfAbsent(hotelId, id -> ConcurrentHashMap.newKeySet()).add(roomId);
+        }
+        if (checkin == null || checkout == null || !checkout.isAfter(checkin)) {
+            return;
+        }
+        Stay stay = new Stay(roomId, (int) checkin.toEpochDay(), (int) checkout.toEpochDay());
+        staysByBookingId.put(bookingId, stay);
+        staysByRoomId.merge(roomId, RoomStays.of(bookingId, stay), (existing, added) -> existing.with(bookingId, stay));
+    }
+
+    /**
+     * Remove the stay of a booking, if it is indexed.
+     *
+     * @param bookingId the id of the booking.
+     */
+    public synchronized void remove(Long bookingId) {
+        Stay stay = staysByBookingId.remove(bookingId);
+        if (stay != null) {
+            staysByRoomId.computeIfPresent(stay.roomId, (roomId, existing) -> existing.without(bookingId));
+        }
+    }
+
+    /**
+     * Remove every stay and room from the index.
+     */
+    public synchronized void clear() {
+        staysByBookingId.clear();
+        staysByRoomId.clear();
+        roomIdsByHotelId.clear();
+    }
+
+    /**
+     * Check whether no stay of the room overlaps the given nights.
+     *
+     * @param roomId the room to check.
+     * @param from the first night (inclusive).
+     * @param to the day the room would be freed (exclusive).
+     * @return {@code true} if the room is free for the whole range.
+     */
+    public boolean isFree(Long roomId, LocalDate from, LocalDate to) {
+        RoomStays stays = staysByRoomId.get(roomId);
+        return stays == null || !stays.overlaps((int) from.toEpochDay(), (int) to.toEpochDay());
+    }
+
+    /**
+     * Find the known rooms of a hotel which are free for the given nights.
+     *
+     * @param hotelId the hotel to search.
+     * @param from the first night (inclusive).
+     * @param to the day the rooms would be freed (exclusive).
+     * @return the ids of the free rooms, in ascending order.
+     */
+    public List<Long> freeRooms(Long hotelId, LocalDate from, LocalDate to) {
+        Set<Long> roomIds = roomIdsByHotelId.get(hotelId);
+        if (roomIds == null) {
+            return Collections.emptyList();
+        }
+        List<Long> result = new ArrayList<>(roomIds.size());
+        for (Long roomId : roomIds) {
+            if (isFree(roomId, from, to)) {
+                result.add(roomId);
+            }
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    /**
+     * @return the known rooms of a hotel.
+     */
+    public Set<Long> roomIds(Long hotelId) {
+        return roomIdsByHotelId.getOrDefault(hotelId, Collections.emptySet());
+    }
+
+    /**
+     * @return the rooms having at least one stay.
+     */
+    public Set<Long> occupiedRoomIds() {
+        return staysByRoomId.keySet();
+    }
+
+    /**
+     * Visit every stay of a room, in checkin order.
+     *
+     * @param roomId the room.
+     * @param visitor receives the checkin and checkout of each stay, as epoch days.
+     */
+    public void forEachStay(Long roomId, StayVisitor visitor) {
+        RoomStays stays = staysByRoomId.get(roomId);
+        if (stays != null) {
+            for (int i = 0; i < stays.checkins.length; i++) {
+                visitor.visit(stays.checkins[i], stays.checkouts[i]);
+            }
+        }
+    }
+
+    /**
+     * @return the number of indexed stays.
+     */
+    public int size() {
+        return staysByBookingId.size();
+    }
+
+    @FunctionalInterface
+    public interface StayVisitor {
+        void visit(long checkinEpochDay, long checkoutEpochDay);
+    }
+
+    private static final class Stay {
+
+        private final Long roomId;
+        private final int checkin;
+        private final int checkout;
+
+        private Stay(Long roomId, int checkin, int checkout) {
+            this.roomId = roomId;
+            this.checkin = checkin;
+            this.checkout = checkout;
+        }
+    }
+
+    /**
+     * Immutable stays of one room, sorted by checkin, with {@code maxCheckout[i]} being the latest checkout of the
+     * stays {@code 0..i}.
+     */
+    private static final class RoomStays {
+
+        private final long[] bookingIds;
+        private final int[] checkins;
+        private final int[] checkouts;
+        private final int[] maxCheckouts;
+
+        private RoomStays(long[] bookingIds, int[] checkins, int[] checkouts) {
+            this.bookingIds = bookingIds;
+            this.checkins = checkins;
+            this.checkouts = checkouts;
+            this.maxCheckouts = new int[checkouts.length];
+            int max = Integer.MIN_VALUE;
+            for (int i = 0; i < checkouts.length; i++) {
+                max = Math.max(max, checkouts[i]);
+                maxCheckouts[i] = max;
+            }
+        }
+
+        private static RoomStays of(long bookingId, Stay stay) {
+            return new RoomStays(new long[] { bookingId }, new int[] { stay.checkin }, new int[] { stay.checkout });
+        }
+
+        private RoomStays with(long bookingId, Stay stay) {
+            int position = countCheckinsBefore(stay.checkin + 1);
+            int length = bookingIds.length;
+            long[] newBookingIds = new long[length + 1];
+            int[] newCheckins = new int[length + 1];
+            int[] newCheckouts = new int[length + 1];
+            System.arraycopy(bookingIds, 0, newBookingIds, 0, position);
+            System.arraycopy(checkins, 0, newCheckins, 0, position);
+            System.arraycopy(checkouts, 0, newCheckouts, 0, position);
+            newBookingIds[position] = bookingId;
+            newCheckins[position] = stay.checkin;
+            newCheckouts[position] = stay.checkout;
+            System.arraycopy(bookingIds, position, newBookingIds, position + 1, length - position);
+            System.arraycopy(checkins, position, newCheckins, position + 1, length - position);
+            System.arraycopy(checkouts, position, newCheckouts, position + 1, length - position);
+            return new RoomStays(newBookingIds, newCheckins, newCheckouts);
+        }
+
+        private RoomStays without(long bookingId) {
+            for (int i = 0; i < bookingIds.length; i++) {
+                if (bookingIds[i] == bookingId) {
+                    if (bookingIds.length == 1) {
+                        return null;
+                    }
+                    return new RoomStays(removeAt(bookingIds, i), removeAt(checkins, i), removeAt(checkouts, i));
+                }
+            }
+            return this;
+        }
+
+        private boolean overlaps(int from, int to) {
+            int candidates = countCheckinsBefore(to);
+            return candidates > 0 && maxCheckouts[candidates - 1] > from;
+        }
+
+        /**
+         * @return the number of stays starting strictly before the given day.
+         */
+        private int countCheckinsBefore(int day) {
+            int low = 0;
+            int high = checkins.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (checkins[middle] < day) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private static long[] removeAt(long[] values, int index) {
+            long[] result = Arrays.copyOf(values, values.length - 1);
+            System.arraycopy(values, index + 1, result, index, values.length - index - 1);
+            return result;
+        }
+
+        private static int[] removeAt(int[] values, int index) {
+            int[] result = Arrays.copyOf(values, values.length - 1);
+            System.arraycopy(values, index + 1, result, index, values.length - index - 1);
+            return result;
+        }
+    }
+}
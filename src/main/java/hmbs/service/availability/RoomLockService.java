@@ -0,0 +1,167 @@
+package hmbs.service.availability;
+
+import hmbs.config.ApplicationProperties;
+import hmbs.domain.RoomLock;
+import hmbs.repository.RoomLockRepository;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service serializing the writers of a room, until their transaction completes.
+ * <p>
+ * Inside this JVM, writers wait on one of a fixed set of striped locks chosen by room id, so bookings of unrelated
+ * rooms still commit in parallel. Across nodes, the {@link RoomLock} row of the room is then locked with
+ * {@code SELECT ... FOR UPDATE}, which only ever waits on writers of other nodes.
+ * <p>
+ * The rows are never deleted, so a room whose row is known to exist is locked in the transaction of the writer alone.
+ * Only the first lock of a room on each node needs a second connection, to create its row.
+ */
+@Service
+public class RoomLockService {
+
+    private final Logger log = LoggerFactory.getLogger(RoomLockService.class);
+
+    private final RoomLockRepository roomLockRepository;
+
+    private final TransactionTemplate newTransactionTemplate;
+
+    private final ReentrantLock[] stripes;
+
+    private final long timeoutMillis;
+
+    /**
+     * The rooms whose {@link RoomLock} row exists.
+     */
+    private final Set<Long> existingRoomIds = ConcurrentHashMap.newKeySet();
+
+    public RoomLockService(
+        RoomLockRepository roomLockRepository,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.roomLockRepository = roomLockRepository;
+        this.newTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        int size = Integer.highestOneBit(Math.max(1, applicationProperties.getAvailability().getLockStripes() - 1) << 1);
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.timeoutMillis = TimeUnit.SECONDS.toMillis(applicationProperties.getAvailability().getLockTimeoutSeconds());
+    }
+
+    /**
+     * Lock a room until the current transaction completes.
+     *
+     * @param roomId the room to lock.
+     * @throws CannotAcquireLockException if the room stays locked by another writer for too long.
+     */
+    public void lock(Long roomId) {
+        lock(Collections.singleton(roomId));
+    }
+
+    /**
+     * Lock rooms until the current transaction completes. Rooms are always locked in the same order, so two
+     * transactions locking the same rooms cannot deadlock.
+     *
+     * @param roomIds the rooms to lock.
+     * @throws CannotAcquireLockException if a room stays locked by another writer for too long.
+     */
+    public void lock(Collection<Long> roomIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Rooms can only be locked inside a transaction");
+        }
+        long[] sortedRoomIds = roomIds.stream().filter(Objects::nonNull).mapToLong(Long::longValue).distinct().sorted().toArray();
+        int[] stripeIndexes = Arrays.stream(sortedRoomIds).mapToInt(this::stripe).distinct().sorted().toArray();
+        List<ReentrantLock> acquired = new ArrayList<>(stripeIndexes.length);
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    for (int i = acquired.size() - 1; i >= 0; i--) {
+                        acquired.get(i).unlock();
+                    }
+                }
+            }
+        );
+        for (int stripeIndex : stripeIndexes) {
+            ReentrantLock stripe = stripes[stripeIndex];
+            if (!tryLock(stripe)) {
+                throw new CannotAcquireLockException("Room is locked by another booking");
+            }
+            acquired.add(stripe);
+        }
+        lockRows(sortedRoomIds);
+    }
+
+    private boolean tryLock(ReentrantLock stripe) {
+        try {
+            return stripe.tryLock(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void lockRows(long[] sortedRoomIds) {
+        if (sortedRoomIds.length == 0) {
+            return;
+        }
+        List<Long> roomIds = Arrays.stream(sortedRoomIds).boxed().collect(Collectors.toList());
+        List<Long> unknownRoomIds = roomIds.stream().filter(roomId -> !existingRoomIds.contains(roomId)).collect(Collectors.toList());
+        if (!unknownRoomIds.isEmpty()) {
+            createRows(unknownRoomIds);
+        }
+        // A single query locks all the rows, in the order of their primary key
+        if (roomLockRepository.findAllForUpdate(roomIds).size() != roomIds.size()) {
+            existingRoomIds.removeAll(roomIds);
+            throw new IllegalStateException("Missing room locks " + roomIds);
+        }
+    }
+
+    private void createRows(List<Long> roomIds) {
+        // The rows are created after a plain read first: locking a missing row would take a gap lock on MySQL,
+        // which the insert below would then wait on. That read runs in its own transaction: on MySQL, the first plain
+        // read of a REPEATABLE READ transaction fixes its snapshot, which would then hide the bookings committed by
+        // another node while this one waits for the row locks.
+        Set<Long> existing = new HashSet<>(
+            Objects.requireNonNull(newTransactionTemplate.execute(status -> roomLockRepository.findAllExistingIds(roomIds)))
+        );
+        for (Long roomId : roomIds) {
+            if (!existing.contains(roomId)) {
+                try {
+                    newTransactionTemplate.executeWithoutResult(status -> roomLockRepository.saveAndFlush(new RoomLock(roomId)));
+                } catch (DataIntegrityViolationException e) {
+                    log.debug("Room lock {} was created concurrently", roomId);
+                }
+            }
+            existingRoomIds.add(roomId);
+        }
+    }
+
+    private int stripe(long roomId) {
+        int hash = Long.hashCode(roomId);
+        hash ^= hash >>> 16;
+        return hash & (stripes.length - 1);
+    }
+}
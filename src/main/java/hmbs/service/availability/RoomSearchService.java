@@ -0,0 +1,112 @@
+package hmbs.service.availability;
+
+import hmbs.domain.Booking;
+import hmbs.repository.BookingRepository;
+import hmbs.repository.HotelRoom;
+import hmbs.service.dto.HotelFreeRoomsDTO;
+import hmbs.service.event.BookingChangedEvent;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Service searching the free rooms of many hotels at once, for some nights and guests.
+ * <p>
+ * The rooms of each hotel, and the largest party each room was booked for, are kept in a {@link RoomDirectory}
+ * loaded from one aggregate query. Each candidate room is then checked against the occupancy of the
+ * {@link RoomAvailabilityService} and the holds of the {@link RoomHoldService}, so a search never reads the database.
+ * <p>
+ * There is no room table: a room is known to host as many guests as its largest booking so far.
+ */
+@Service
+public class RoomSearchService {
+
+    private final Logger log = LoggerFactory.getLogger(RoomSearchService.class);
+
+    private final BookingRepository bookingRepository;
+
+    private final RoomAvailabilityService roomAvailabilityService;
+
+    private final RoomHoldService roomHoldService;
+
+    private final RoomDirectory directory = new RoomDirectory();
+
+    public RoomSearchService(
+        BookingRepository bookingRepository,
+        RoomAvailabilityService roomAvailabilityService,
+        RoomHoldService roomHoldService
+    ) {
+        this.bookingRepository = bookingRepository;
+        this.roomAvailabilityService = roomAvailabilityService;
+        this.roomHoldService = roomHoldService;
+    }
+
+    /**
+     * Load the rooms of every hotel.
+     * <p>
+     * The directory only grows, so changes committed while it loads can be applied right away.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        long start = System.nanoTime();
+        for (HotelRoom room : bookingRepository.findAllHotelRooms()) {
+            directory.add(room.getHotelId(), room.getRoomId(), room.getMaxGuests() == null ? 0 : room.getMaxGuests());
+        }
+        log.info("Loaded {} rooms in {} ms", directory.roomCount(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Add the rooms of the committed bookings.
+     *
+     * @param event the committed change.
+     */
+    @TransactionalEventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        Booking current = event.getCurrent();
+        if (current != null && current.getHotelId() != null && current.getRoomId() != null) {
+            directory.add(current.getHotelId(), current.getRoomId(), current.getNumOfGuests() == null ? 0 : current.getNumOfGuests());
+        }
+    }
+
+    /**
+     * Find the free rooms of some hotels.
+     *
+     * @param hotelIds the hotels to search, every known hotel if empty.
+     * @param from the first night (inclusive).
+     * @param to the checkout day (exclusive).
+     * @param guests the number of guests.
+     * @return the free rooms of each hotel having some, in the order of the given hotels, or of their ids.
+     */
+    public List<HotelFreeRoomsDTO> search(Collection<Long> hotelIds, LocalDate from, LocalDate to, int guests) {
+        long[] hotels = hotelIds.isEmpty()
+            ? directory.hotelIds()
+            : hotelIds.stream().filter(Objects::nonNull).mapToLong(Long::longValue).distinct().toArray();
+        List<HotelFreeRoomsDTO> result = new ArrayList<>();
+        for (long hotelId : hotels) {
+            long[] roomIds = directory.roomIds(hotelId, guests);
+            long[] freeRoomIds = new long[roomIds.length];
+            int free = 0;
+            for (long roomId : roomIds) {
+                if (roomAvailabilityService.isFree(roomId, from, to) && !roomHoldService.isHeld(roomId, from, to, null)) {
+                    freeRoomIds[free++] = roomId;
+                }
+            }
+            if (free > 0) {
+                result.add(new HotelFreeRoomsDTO(hotelId, free == freeRoomIds.length ? freeRoomIds : Arrays.copyOf(freeRoomIds, free)));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,94 @@
+package hmbs.service.availability;
+
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timer wheel: items are dropped in the slot of their deadline tick, so expiring them only visits the slots of
+ * the elapsed ticks instead of scanning every item.
+ * <p>
+ * Items may be scheduled from any thread. The wheel is advanced by a single thread at a time, every tick; items whose
+ * deadline is more than a round away stay in their slot until their round comes.
+ *
+ * @param <T> the type of the items.
+ */
+final class TimerWheel<T> {
+
+    private final long tickMillis;
+
+    private final Queue<Timeout<T>>[] slots;
+
+    private final int mask;
+
+    private volatile long lastTick;
+
+    /**
+     * @param tickMillis the duration of a tick, in milliseconds.
+     * @param minSlots the minimum number of slots, rounded up to a power of two; about the longest delay in ticks.
+     * @param now the current time, in milliseconds since the epoch.
+     */
+    @SuppressWarnings("unchecked")
+    TimerWheel(long tickMillis, int minSlots, long now) {
+        int size = minSlots <= 2 ? 2 : Integer.highestOneBit(minSlots - 1) << 1;
+        this.tickMillis = tickMillis;
+        this.slots = new Queue[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.mask = size - 1;
+        this.lastTick = Math.floorDiv(now, tickMillis);
+    }
+
+    /**
+     * @param item the item to expire.
+     * @param deadline the time after which the item expires, in milliseconds since the epoch.
+     */
+    void schedule(T item, long deadline) {
+        // A deadline already behind the wheel is expired by the next tick
+        long tick = Math.max(-Math.floorDiv(-deadline, tickMillis), lastTick + 1);
+        slots[(int) (tick & mask)].add(new Timeout<>(item, tick));
+    }
+
+    /**
+     * Expire the items of the ticks elapsed since the last call.
+     *
+     * @param now the current time, in milliseconds since the epoch.
+     * @param onExpired called with each expired item.
+     * @return the number of expired items.
+     */
+    synchronized int advance(long now, Consumer<T> onExpired) {
+        long target = Math.floorDiv(now, tickMillis);
+        // After a long pause, one visit of every slot is enough
+        long first = Math.max(lastTick + 1, target - mask);
+        int expired = 0;
+        for (long tick = first; tick <= target; tick++) {
+            for (Iterator<Timeout<T>> iterator = slots[(int) (tick & mask)].iterator(); iterator.hasNext();) {
+                Timeout<T> timeout = iterator.next();
+                if (timeout.tick <= target) {
+                    iterator.remove();
+                    onExpired.accept(timeout.item);
+                    expired++;
+                }
+            }
+        }
+        lastTick = Math.max(lastTick, target);
+        return expired;
+    }
+
+    int slotCount() {
+        return slots.length;
+    }
+
+    private static final class Timeout<T> {
+
+        private final T item;
+        private final long tick;
+
+        private Timeout(T item, long tick) {
+            this.item = item;
+            this.tick = tick;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package hmbs.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import hmbs.domain.Booking;
+
+/**
+ * A DTO representing the outcome of one booking of a batch creation: either the created booking, or the reason why it
+ * was rejected.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookingBatchResultDTO {
+
+    public enum Status {
+        CREATED,
+        REJECTED,
+    }
+
+    private final int index;
+
+    private final Status status;
+
+    private final Booking booking;
+
+    private final String errorKey;
+
+    private final String message;
+
+    private BookingBatchResultDTO(int index, Status status, Booking booking, String errorKey, String message) {
+        this.index = index;
+        this.status = status;
+        this.booking = booking;
+        this.errorKey = errorKey;
+        this.message = message;
+    }
+
+    public static BookingBatchResultDTO created(int index, Booking booking) {
+        return new BookingBatchResultDTO(index, Status.CREATED, booking, null, null);
+    }
+
+    public static BookingBatchResultDTO rejected(int index, String errorKey, String message) {
+        return new BookingBatchResultDTO(index, Status.REJECTED, null, errorKey, message);
+    }
+
+    /**
+     * @return the position of the booking in the batch, starting at 0.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * @return the created booking, {@code null} if it was rejected.
+     */
+    public Booking getBooking() {
+        return booking;
+    }
+
+    /**
+     * @return the key of the rejection, as used by the error alerts, {@code null} if the booking was created.
+     */
+    public String getErrorKey() {
+        return errorKey;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BookingBatchResultDTO{" +
+            "index=" + index +
+            ", status=" + status +
+            ", booking=" + booking +
+            ", errorKey='" + errorKey + "'" +
+            "}";
+    }
+}
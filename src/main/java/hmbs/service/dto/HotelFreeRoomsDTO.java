@@ -0,0 +1,41 @@
+package hmbs.service.dto;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * A DTO representing the free rooms of a hotel, for the nights and the guests of a search.
+ */
+public class HotelFreeRoomsDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long hotelId;
+
+    private final long[] roomIds;
+
+    public HotelFreeRoomsDTO(long hotelId, long[] roomIds) {
+        this.hotelId = hotelId;
+        this.roomIds = roomIds;
+    }
+
+    public long getHotelId() {
+        return hotelId;
+    }
+
+    /**
+     * @return the ids of the free rooms, in ascending order.
+     */
+    public long[] getRoomIds() {
+        return roomIds;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "HotelFreeRoomsDTO{" +
+            "hotelId=" + hotelId +
+            ", roomIds=" + Arrays.toString(roomIds) +
+            "}";
+    }
+}
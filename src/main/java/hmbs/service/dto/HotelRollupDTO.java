@@ -0,0 +1,56 @@
+package hmbs.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO representing the occupancy and revenue of a hotel, summed over some nights.
+ */
+public class HotelRollupDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long hotelId;
+
+    private final long roomNights;
+
+    private final long guestNights;
+
+    private final double revenue;
+
+    public HotelRollupDTO(long hotelId, long roomNights, long guestNights, double revenue) {
+        this.hotelId = hotelId;
+        this.roomNights = roomNights;
+        this.guestNights = guestNights;
+        this.revenue = revenue;
+    }
+
+    public long getHotelId() {
+        return hotelId;
+    }
+
+    public long getRoomNights() {
+        return roomNights;
+    }
+
+    /**
+     * @return the number of guests staying each night, summed over the nights.
+     */
+    public long getGuestNights() {
+        return guestNights;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "HotelRollupDTO{" +
+            "hotelId=" + hotelId +
+            ", roomNights=" + roomNights +
+            ", guestNights=" + guestNights +
+            ", revenue=" + revenue +
+            "}";
+    }
+}
@@ -0,0 +1,79 @@
+package hmbs.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.LocalDate;
+import javax.validation.constraints.NotNull;
+
+/**
+ * A DTO representing a temporary hold of a room, while the booking is being paid.
+ */
+public class RoomHoldDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String id;
+
+    @NotNull
+    private Long roomId;
+
+    @NotNull
+    private LocalDate checkin;
+
+    @NotNull
+    private LocalDate checkout;
+
+    private Instant expiresAt;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Long getRoomId() {
+        return roomId;
+    }
+
+    public void setRoomId(Long roomId) {
+        this.roomId = roomId;
+    }
+
+    public LocalDate getCheckin() {
+        return checkin;
+    }
+
+    public void setCheckin(LocalDate checkin) {
+        this.checkin = checkin;
+    }
+
+    public LocalDate getCheckout() {
+        return checkout;
+    }
+
+    public void setCheckout(LocalDate checkout) {
+        this.checkout = checkout;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "RoomHoldDTO{" +
+            "id='" + id + "'" +
+            ", roomId=" + roomId +
+            ", checkin='" + checkin + "'" +
+            ", checkout='" + checkout + "'" +
+            ", expiresAt='" + expiresAt + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,70 @@
+package hmbs.service.event;
+
+import hmbs.domain.Booking;
+
+/**
+ * Published by {@link hmbs.service.BookingService} whenever a booking is created, updated or deleted.
+ * <p>
+ * Both states are detached copies, so listeners running after the commit can safely read them.
+ */
+public class BookingChangedEvent {
+
+    private final Booking previous;
+
+    private final Booking current;
+
+    private BookingChangedEvent(Booking previous, Booking current) {
+        this.previous = previous;
+        this.current = current;
+    }
+
+    public static BookingChangedEvent created(Booking current) {
+        return new BookingChangedEvent(null, snapshot(current));
+    }
+
+    public static BookingChangedEvent updated(Booking previous, Booking current) {
+        return new BookingChangedEvent(previous, snapshot(current));
+    }
+
+    public static BookingChangedEvent deleted(Booking previous) {
+        return new BookingChangedEvent(previous, null);
+    }
+
+    /**
+     * Copy the persistent state of a booking, to capture it before it gets modified.
+     *
+     * @param booking the booking to copy.
+     * @return a detached copy of the booking.
+     */
+    public static Booking snapshot(Booking booking) {
+        return new Booking()
+            .id(booking.getId())
+            .hotelId(booking.getHotelId())
+            .roomId(booking.getRoomId())
+            .userId(booking.getUserId())
+            .checkin(booking.getCheckin())
+            .checkout(booking.getCheckout())
+            .numOfGuests(booking.getNumOfGuests())
+            .finalPrice(booking.getFinalPrice())
+            .version(booking.getVersion());
+    }
+
+    /**
+     * @return the state before the change, or {@code null} if the booking was created.
+     */
+    public Booking getPrevious() {
+        return previous;
+    }
+
+    /**
+     * @return the state after the change, or {@code null} if the booking was deleted.
+     */
+    public Booking getCurrent() {
+        return current;
+    }
+
+    @Override
+    public String toString() {
+        return "BookingChangedEvent{" + "previous=" + previous + ", current=" + current + "}";
+    }
+}
@@ -0,0 +1,144 @@
+package hmbs.web.filter;
+
+import hmbs.management.RequestAccounting;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Filter accounting the JDBC statements, the database time and the second level cache hits of each request, see
+ * {@link RequestAccounting}.
+ * <p>
+ * They are recorded in meters tagged with the method and the URI template of the request, like the
+ * {@code http.server.requests} timers, and optionally reported in a {@code Server-Timing} response header, so the
+ * browser developer tools show them next to the request. The header is added just before the response is committed,
+ * so it covers the work done until its body is written.
+ * <p>
+ * The header is meant for development only: the work done by an anonymous request tells which data it found, for
+ * instance whether the email of a password reset is registered.
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    public static final String STATEMENTS_METER_NAME = "http.server.requests.jdbc.statements";
+
+    public static final String DATABASE_TIME_METER_NAME = "http.server.requests.jdbc.time";
+
+    public static final String CACHE_GETS_METER_NAME = "http.server.requests.cache.gets";
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final MeterRegistry registry;
+
+    private final boolean header;
+
+    /**
+     * @param registry the registry of the meters.
+     * @param header whether to add the {@code Server-Timing} header to the responses.
+     */
+    public ServerTimingFilter(MeterRegistry registry, boolean header) {
+        this.registry = registry;
+        this.header = header;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        RequestAccounting accounting = RequestAccounting.start();
+        try {
+            if (header) {
+                ServerTimingResponseWrapper wrapper = new ServerTimingResponseWrapper(response, accounting);
+                filterChain.doFilter(request, wrapper);
+                // Responses without a body are only committed by the container
+                wrapper.addServerTiming();
+            } else {
+                filterChain.doFilter(request, response);
+            }
+        } finally {
+            accounting.stop();
+            record(request, accounting);
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestAccounting accounting) {
+        Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Tags tags = Tags.of("method", request.getMethod(), "uri", uri == null ? UNKNOWN_URI : uri.toString());
+        DistributionSummary
+            .builder(STATEMENTS_METER_NAME)
+            .description("JDBC statements executed by the requests")
+            .baseUnit("statements")
+            .tags(tags)
+            .register(registry)
+            .record(accounting.getStatements());
+        Timer
+            .builder(DATABASE_TIME_METER_NAME)
+            .description("Time spent by the requests executing JDBC statements")
+            .tags(tags)
+            .register(registry)
+            .record(accounting.getStatementNanos(), TimeUnit.NANOSECONDS);
+        cacheGets(tags, "hit").increment(accounting.getCacheHits());
+        cacheGets(tags, "miss").increment(accounting.getCacheMisses());
+    }
+
+    private Counter cacheGets(Tags tags, String result) {
+        return Counter
+            .builder(CACHE_GETS_METER_NAME)
+            .description("Reads of the second level cache by the requests")
+            .tags(tags)
+            .tag("result", result)
+            .register(registry);
+    }
+
+    /**
+     * @param accounting the work done by a request.
+     * @return the value of its {@code Server-Timing} header.
+     */
+    static String serverTiming(RequestAccounting accounting) {
+        return String.format(
+            Locale.ROOT,
+            "db;desc=\"%d statements\";dur=%.3f, cache;desc=\"%d hits %d misses\", total;dur=%.3f",
+            accounting.getStatements(),
+            accounting.getStatementNanos() / 1e6,
+            accounting.getCacheHits(),
+            accounting.getCacheMisses(),
+            accounting.getElapsedNanos() / 1e6
+        );
+    }
+
+    private static final class ServerTimingResponseWrapper extends OnCommittedResponseWrapper {
+
+        private final RequestAccounting accounting;
+
+        private boolean added;
+
+        ServerTimingResponseWrapper(HttpServletResponse response, RequestAccounting accounting) {
+            super(response);
+            this.accounting = accounting;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            addServerTiming();
+        }
+
+        void addServerTiming() {
+            if (!added && !isCommitted()) {
+                added = true;
+                addHeader(SERVER_TIMING_HEADER, serverTiming(accounting));
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package hmbs.web.rest;
+
+import hmbs.service.availability.RoomAvailabilityService;
+import hmbs.service.availability.RoomSearchService;
+import hmbs.service.dto.HotelFreeRoomsDTO;
+import hmbs.web.rest.errors.BadRequestAlertException;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import tech.jhipster.web.util.ResponseUtil;
+
+/**
+ * REST controller answering room availability questions.
+ */
+@RestController
+@RequestMapping("/api")
+public class AvailabilityResource {
+
+    private final Logger log = LoggerFactory.getLogger(AvailabilityResource.class);
+
+    private static final String ENTITY_NAME = "booking";
+
+    private static final int MAX_SEARCHED_HOTELS = 1000;
+
+    private final RoomAvailabilityService roomAvailabilityService;
+
+    private final RoomSearchService roomSearchService;
+
+    public AvailabilityResource(RoomAvailabilityService roomAvailabilityService, RoomSearchService roomSearchService) {
+        this.roomAvailabilityService = roomAvailabilityService;
+        this.roomSearchService = roomSearchService;
+    }
+
+    /**
+     * {@code GET  /rooms/:roomId/availability} : check whether a room is free for the given nights.
+     *
+     * @param roomId the room to check.
+     * @param from the first night.
+     * @param to the checkout day.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and {@code true} in body if the room is free,
+     * or with status {@code 400 (Bad Request)} if the range is empty.
+     */
+    @GetMapping("/rooms/{roomId}/availability")
+    public ResponseEntity<Boolean> isRoomFree(
+        @PathVariable Long roomId,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        log.debug("REST request to check availability of room {} from {} to {}", roomId, from, to);
+        checkRange(from, to);
+        return ResponseEntity.ok().body(roomAvailabilityService.isFree(roomId, from, to));
+    }
+
+    /**
+     * {@code GET  /hotels/:hotelId/free-rooms} : get the rooms of a hotel which are free for the given nights.
+     *
+     * @param hotelId the hotel to search.
+     * @param from the first night.
+     * @param to the checkout day.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the ids of the free rooms in body,
+     * or with status {@code 400 (Bad Request)} if the range is empty.
+     */
+    @GetMapping("/hotels/{hotelId}/free-rooms")
+    public ResponseEntity<List<Long>> getFreeRooms(
+        @PathVariable Long hotelId,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        log.debug("REST request to get free rooms of hotel {} from {} to {}", hotelId, from, to);
+        checkRange(from, to);
+        return ResponseEntity.ok().body(roomAvailabilityService.freeRooms(hotelId, from, to));
+    }
+
+    /**
+     * {@code GET  /free-rooms} : search the free rooms of several hotels for the given nights and guests.
+     * <p>
+     * The rooms held by a checkout in progress are not free.
+     *
+     * @param hotelIds the hotels to search, at most {@value #MAX_SEARCHED_HOTELS}, or every hotel if none.
+     * @param from the first night.
+     * @param to the checkout day.
+     * @param guests the number of guests, a room being known to host the largest party it was booked for.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the free rooms of each hotel having some in body,
+     * or with status {@code 400 (Bad Request)} if the range is empty, there are too many hotels or no guest.
+     */
+    @GetMapping("/free-rooms")
+    public ResponseEntity<List<HotelFreeRoomsDTO>> searchFreeRooms(
+        @RequestParam(required = false) List<Long> hotelIds,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        @RequestParam(defaultValue = "1") int guests
+    ) {
+        log.debug("REST request to search free rooms of hotels {} from {} to {} for {} guests", hotelIds, from, to, guests);
+        checkRange(from, to);
+        if (guests < 1) {
+            throw new BadRequestAlertException("At least one guest is needed", ENTITY_NAME, "guestsinvalid");
+        }
+        if (hotelIds != null && hotelIds.size() > MAX_SEARCHED_HOTELS) {
+            throw new BadRequestAlertException("Too many hotels, the maximum is " + MAX_SEARCHED_HOTELS, ENTITY_NAME, "hotelstoomany");
+        }
+        List<Long> hotels = hotelIds == null ? Collections.emptyList() : hotelIds;
+        return ResponseEntity.ok().body(roomSearchService.search(hotels, from, to, guests));
+    }
+
+    /**
+     * {@code GET  /rooms/:roomId/next-free-start} : get the first day from which a room is free for some nights.
+     *
+     * @param roomId the room to check.
+     * @param from the earliest first night.
+     * @param nights the number of consecutive free nights needed.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the first free night in body,
+     * or with status {@code 404 (Not Found)} if the room is not free that long within the availability window.
+     */
+    @GetMapping("/rooms/{roomId}/next-free-start")
+    public ResponseEntity<LocalDate> getNextFreeStart(
+        @PathVariable Long roomId,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam int nights
+    ) {
+        log.debug("REST request to get the next start of {} free nights of room {} from {}", nights, roomId, from);
+        if (nights < 1) {
+            throw new BadRequestAlertException("At least one night is needed", ENTITY_NAME, "nightsinvalid");
+        }
+        return ResponseUtil.wrapOrNotFound(Optional.ofNullable(roomAvailabilityService.nextFreeStart(roomId, from, nights)));
+    }
+
+    private void checkRange(LocalDate from, LocalDate to) {
+        if (!to.isAfter(from)) {
+            throw new BadRequestAlertException("The checkout day must be after the first night", ENTITY_NAME, "daterangeinvalid");
+        }
+    }
+}
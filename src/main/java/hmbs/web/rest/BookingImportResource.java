@@ -0,0 +1,139 @@
+package hmbs.web.rest;
+
+import hmbs.domain.BookingImport;
+import hmbs.domain.enumeration.BookingImportFormat;
+import hmbs.security.AuthoritiesConstants;
+import hmbs.service.BookingImportService;
+import hmbs.web.rest.errors.BadRequestAlertException;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.NoSuchFileException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import javax.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springdoc.api.annotations.ParameterObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import tech.jhipster.web.util.HeaderUtil;
+import tech.jhipster.web.util.PaginationUtil;
+import tech.jhipster.web.util.ResponseUtil;
+
+/**
+ * REST controller for importing {@link hmbs.domain.Booking} files, see {@link BookingImportService}.
+ */
+@RestController
+@RequestMapping("/api/admin")
+public class BookingImportResource {
+
+    private final Logger log = LoggerFactory.getLogger(BookingImportResource.class);
+
+    private static final String ENTITY_NAME = "bookingImport";
+
+    @Value("${jhipster.clientApp.name}")
+    private String applicationName;
+
+    private final BookingImportService bookingImportService;
+
+    public BookingImportResource(BookingImportService bookingImportService) {
+        this.bookingImportService = bookingImportService;
+    }
+
+    /**
+     * {@code POST  /admin/booking-imports} : Start importing the bookings of a file.
+     * <p>
+     * The file is the raw body of the request, which is streamed to disk, then imported in the background.
+     *
+     * @param format the format of the file, {@code csv} or {@code ndjson}.
+     * @param fileName the name of the file, for reference only.
+     * @param request the request, with the file as body.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the pending import, or with status
+     * {@code 400 (Bad Request)} if the format is not supported or no shared directory is configured for the files.
+     * @throws IOException if the file cannot be read or stored.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    @PostMapping("/booking-imports")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<BookingImport> createBookingImport(
+        @RequestParam(value = "format", defaultValue = "csv") String format,
+        @RequestParam(value = "fileName", required = false) String fileName,
+        HttpServletRequest request
+    ) throws IOException, URISyntaxException {
+        log.debug("REST request to import Bookings from {} as {}", fileName, format);
+        BookingImportFormat importFormat;
+        try {
+            importFormat = BookingImportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Unsupported format " + format, ENTITY_NAME, "formatinvalid");
+        }
+        BookingImport result;
+        try {
+            result = bookingImportService.start(importFormat, fileName, request.getInputStream());
+        } catch (IllegalStateException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "nodirectory");
+        }
+        return ResponseEntity
+            .created(new URI("/api/admin/booking-imports/" + result.getId()))
+            .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
+            .body(result);
+    }
+
+    /**
+     * {@code POST  /admin/booking-imports/:id/resume} : Resume a failed import after its last committed chunk.
+     *
+     * @param id the id of the import.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the pending import, with status
+     * {@code 400 (Bad Request)} if the import did not fail or its file cannot be read, or with status {@code 404 (Not Found)}.
+     */
+    @PostMapping("/booking-imports/{id}/resume")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<BookingImport> resumeBookingImport(@PathVariable Long id) {
+        log.debug("REST request to resume BookingImport : {}", id);
+        Optional<BookingImport> result;
+        try {
+            result = bookingImportService.resume(id);
+        } catch (IllegalStateException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "notfailed");
+        } catch (NoSuchFileException e) {
+            throw new BadRequestAlertException(e.getReason(), ENTITY_NAME, "filenotfound");
+        }
+        return ResponseUtil.wrapOrNotFound(result);
+    }
+
+    /**
+     * {@code GET  /admin/booking-imports} : get all the imports.
+     *
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of imports in body.
+     */
+    @GetMapping("/booking-imports")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<List<BookingImport>> getAllBookingImports(@ParameterObject Pageable pageable) {
+        log.debug("REST request to get a page of BookingImports");
+        Page<BookingImport> page = bookingImportService.findAll(pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /admin/booking-imports/:id} : get the "id" import, with its progress.
+     *
+     * @param id the id of the import to retrieve.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the import, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/booking-imports/{id}")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<BookingImport> getBookingImport(@PathVariable Long id) {
+        log.debug("REST request to get BookingImport : {}", id);
+        return ResponseUtil.wrapOrNotFound(bookingImportService.findOne(id));
+    }
+}
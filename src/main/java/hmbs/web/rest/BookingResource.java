@@ -1,28 +1,39 @@
 package hmbs.web.rest;
 
 import hmbs.domain.Booking;
-import hmbs.repository.BookingRepository;
+import hmbs.service.BookingCursor;
+import hmbs.service.BookingExportService;
 import hmbs.service.BookingQueryService;
 import hmbs.service.BookingService;
+import hmbs.service.BookingVersionMismatchException;
+import hmbs.service.IdempotencyService;
 import hmbs.service.criteria.BookingCriteria;
+import hmbs.service.dto.BookingBatchResultDTO;
 import hmbs.web.rest.errors.BadRequestAlertException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springdoc.api.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -39,122 +50,293 @@ public class BookingResource {
 
     private static final String ENTITY_NAME = "booking";
 
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    private static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final BookingService bookingService;
 
-    private final BookingRepository bookingRepository;
-
     private final BookingQueryService bookingQueryService;
 
-    public BookingResource(BookingService bookingService, BookingRepository bookingRepository, BookingQueryService bookingQueryService) {
+    private final BookingExportService bookingExportService;
+
+    private final IdempotencyService idempotencyService;
+
+    public BookingResource(
+        BookingService bookingService,
+        BookingQueryService bookingQueryService,
+        BookingExportService bookingExportService,
+        IdempotencyService idempotencyService
+    ) {
         this.bookingService = bookingService;
-        this.bookingRepository = bookingRepository;
         this.bookingQueryService = bookingQueryService;
+        this.bookingExportService = bookingExportService;
+        this.idempotencyService = idempotencyService;
     }
 
     /**
      * {@code POST  /bookings} : Create a new booking.
+     * <p>
+     * With an {@code Idempotency-Key} header, the booking is created only once: the retries with the same key and body
+     * get the original response, with the {@code Idempotent-Replayed} header, until the key expires.
      *
      * @param booking the booking to create.
-     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new booking, or with status {@code 400 (Bad Request)} if the booking has already an ID.
+     * @param idempotencyKey the key identifying the request across its retries, chosen by the client.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new booking, or with status {@code 400 (Bad Request)} if the booking has already an ID,
+     * or with status {@code 409 (Conflict)} if the same request is still in progress,
+     * or with status {@code 422 (Unprocessable Entity)} if the key was used for another request.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PostMapping("/bookings")
-    public ResponseEntity<Booking> createBooking(@RequestBody Booking booking) throws URISyntaxException {
+    public ResponseEntity<Booking> createBooking(
+        @RequestBody Booking booking,
+        @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey
+    ) throws URISyntaxException {
         log.debug("REST request to save Booking : {}", booking);
         if (booking.getId() != null) {
             throw new BadRequestAlertException("A new booking cannot already have an ID", ENTITY_NAME, "idexists");
         }
-        Booking result = bookingService.save(booking);
-        return ResponseEntity
+        Booking result;
+        boolean replayed = false;
+        if (idempotencyKey == null) {
+            result = bookingService.save(booking);
+        } else {
+            if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+                throw new BadRequestAlertException("Invalid Idempotency-Key", ENTITY_NAME, "idempotencykeyinvalid");
+            }
+            IdempotencyService.Result<Booking> idempotent = idempotencyService.execute(
+                idempotencyKey,
+                booking,
+                Booking.class,
+                () -> bookingService.save(booking)
+            );
+            result = idempotent.getResponse();
+            replayed = idempotent.isReplayed();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity
             .created(new URI("/api/bookings/" + result.getId()))
-            .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
-            .body(result);
+            .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId().toString()));
+        if (replayed) {
+            response.header(IDEMPOTENT_REPLAYED, "true");
+        }
+        return response.body(result);
+    }
+
+    /**
+     * {@code POST  /bookings/batch} : Create new bookings in a single transaction.
+     * <p>
+     * Each booking is validated on its own: the invalid ones are rejected while the others are created.
+     *
+     * @param bookings the bookings to create, at most {@value #MAX_BATCH_SIZE}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the outcome of each booking, in the order
+     * of the request, or with status {@code 400 (Bad Request)} if there are too many bookings.
+     */
+    @PostMapping("/bookings/batch")
+    public ResponseEntity<List<BookingBatchResultDTO>> createBookings(@RequestBody List<Booking> bookings) {
+        log.debug("REST request to save {} Bookings", bookings.size());
+        if (bookings.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestAlertException("Too many bookings, the maximum is " + MAX_BATCH_SIZE, ENTITY_NAME, "batchtoolarge");
+        }
+        List<BookingBatchResultDTO> results = bookingService.saveAll(bookings);
+        long created = results.stream().filter(result -> result.getStatus() == BookingBatchResultDTO.Status.CREATED).count();
+        String message = applicationName + "." + ENTITY_NAME + ".batchCreated";
+        return ResponseEntity.ok().headers(HeaderUtil.createAlert(applicationName, message, String.valueOf(created))).body(results);
     }
 
     /**
      * {@code PUT  /bookings/:id} : Updates an existing booking.
+     * <p>
+     * The update only applies to the version of the booking given by the {@code If-Match} header, or else by the body,
+     * if any. The response has the {@code ETag} of the new version.
      *
      * @param id the id of the booking to save.
      * @param booking the booking to update.
+     * @param ifMatch the {@code ETag} of the version to update, {@code *} for any version.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated booking,
      * or with status {@code 400 (Bad Request)} if the booking is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the booking was modified since the given version,
      * or with status {@code 500 (Internal Server Error)} if the booking couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/bookings/{id}")
-    public ResponseEntity<Booking> updateBooking(@PathVariable(value = "id", required = false) final Long id, @RequestBody Booking booking)
-        throws URISyntaxException {
+    public ResponseEntity<Booking> updateBooking(
+        @PathVariable(value = "id", required = false) final Long id,
+        @RequestBody Booking booking,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) throws URISyntaxException {
         log.debug("REST request to update Booking : {}, {}", id, booking);
-        if (booking.getId() == null) {
-            throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
-        }
-        if (!Objects.equals(id, booking.getId())) {
-            throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
-        }
-
-        if (!bookingRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        Booking result = bookingService.update(booking);
+        checkUpdate(id, booking, ifMatch);
+        Booking result = bookingService
+            .update(booking)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
         return ResponseEntity
             .ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, booking.getId().toString()))
+            .eTag(eTag(result))
             .body(result);
     }
 
     /**
      * {@code PATCH  /bookings/:id} : Partial updates given fields of an existing booking, field will ignore if it is null
+     * <p>
+     * The update only applies to the version of the booking given by the {@code If-Match} header, or else by the body,
+     * if any. The response has the {@code ETag} of the new version.
      *
      * @param id the id of the booking to save.
      * @param booking the booking to update.
+     * @param ifMatch the {@code ETag} of the version to update, {@code *} for any version.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated booking,
-     * or with status {@code 400 (Bad Request)} if the booking is not valid,
-     * or with status {@code 404 (Not Found)} if the booking is not found,
+     * or with status {@code 400 (Bad Request)} if the booking is not valid or not found,
+     * or with status {@code 412 (Precondition Failed)} if the booking was modified since the given version,
      * or with status {@code 500 (Internal Server Error)} if the booking couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/bookings/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<Booking> partialUpdateBooking(
         @PathVariable(value = "id", required = false) final Long id,
-        @RequestBody Booking booking
+        @RequestBody Booking booking,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         log.debug("REST request to partial update Booking partially : {}, {}", id, booking);
+        checkUpdate(id, booking, ifMatch);
+        Booking result = bookingService
+            .partialUpdate(booking)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        return ResponseEntity
+            .ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, booking.getId().toString()))
+            .eTag(eTag(result))
+            .body(result);
+    }
+
+    /**
+     * Check the id of an update, and set the version to update from the {@code If-Match} header.
+     */
+    private void checkUpdate(Long id, Booking booking, String ifMatch) {
         if (booking.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
         if (!Objects.equals(id, booking.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
-
-        if (!bookingRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        if (ifMatch == null) {
+            return;
         }
+        String entityTag = ifMatch.trim();
+        if (entityTag.equals("*")) {
+            booking.setVersion(null);
+            return;
+        }
+        if (entityTag.contains(",")) {
+            throw new BadRequestAlertException("Only one entity tag is supported by If-Match", ENTITY_NAME, "ifmatchinvalid");
+        }
+        // Weak entity tags never match, as If-Match uses the strong comparison
+        if (!entityTag.matches("\"[0-9]+\"")) {
+            throw new BookingVersionMismatchException();
+        }
+        booking.setVersion(Long.valueOf(entityTag.substring(1, entityTag.length() - 1)));
+    }
 
-        Optional<Booking> result = bookingService.partialUpdate(booking);
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, booking.getId().toString())
-        );
+    private static String eTag(Booking booking) {
+        return "\"" + booking.getVersion() + "\"";
     }
 
     /**
      * {@code GET  /bookings} : get all the bookings.
+     * <p>
+     * When the {@code after} parameter is present, even empty, the bookings are paged with a cursor instead of an
+     * offset: the page number is ignored, the bookings are not counted, and the {@code Link} header only holds the
+     * cursor of the next page, if any.
+     *
+     * <p>
+     * Otherwise the {@code count} parameter tells how the {@code X-Total-Count} header is filled: {@code exact}
+     * (default) counts the bookings with a second query, {@code estimate} uses the maintained counters when the
+     * criteria only filter on one hotel, and {@code none} skips it. Without a count, the {@code Link} header only
+     * holds the previous and next pages.
      *
      * @param pageable the pagination information.
      * @param criteria the criteria which the requested entities should match.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of bookings in body.
+     * @param after the cursor of the previous page, from its {@code Link} header.
+     * @param count how to count the bookings: {@code exact}, {@code estimate} or {@code none}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of bookings in body,
+     * or with status {@code 400 (Bad Request)} if the cursor or the sort do not allow cursor paging, or the count mode is unknown.
      */
     @GetMapping("/bookings")
-    public ResponseEntity<List<Booking>> getAllBookings(BookingCriteria criteria, @ParameterObject Pageable pageable) {
-        log.debug("REST request to get Bookings by criteria: {}");
-        Page<Booking> page = bookingQueryService.findByCriteria(criteria, pageable);
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    public ResponseEntity<List<Booking>> getAllBookings(
+        BookingCriteria criteria,
+        @ParameterObject Pageable pageable,
+        @RequestParam(required = false) String after,
+        @RequestParam(defaultValue = "exact") String count
+    ) {
+        log.debug("REST request to get Bookings by criteria: {}", criteria);
+        if (after != null) {
+            return getBookingsAfter(criteria, pageable, after);
+        }
+        BookingQueryService.CountMode countMode;
+        try {
+            countMode = BookingQueryService.CountMode.valueOf(count.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Unknown count mode", ENTITY_NAME, "countinvalid");
+        }
+        Slice<Booking> slice = bookingQueryService.findByCriteria(criteria, pageable, countMode);
+        ServletUriComponentsBuilder uriBuilder = ServletUriComponentsBuilder.fromCurrentRequest();
+        HttpHeaders headers = slice instanceof Page
+            ? PaginationUtil.generatePaginationHttpHeaders(uriBuilder, (Page<Booking>) slice)
+            : generateSliceHttpHeaders(uriBuilder, slice);
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
+    private HttpHeaders generateSliceHttpHeaders(ServletUriComponentsBuilder uriBuilder, Slice<Booking> slice) {
+        List<String> links = new ArrayList<>(2);
+        if (slice.hasNext()) {
+            links.add(pageLink(uriBuilder, slice.nextPageable(), "next"));
+        }
+        if (slice.hasPrevious()) {
+            links.add(pageLink(uriBuilder, slice.previousPageable(), "prev"));
+        }
+        HttpHeaders headers = new HttpHeaders();
+        if (!links.isEmpty()) {
+            headers.add(HttpHeaders.LINK, String.join(",", links));
+        }
+        return headers;
+    }
+
+    private String pageLink(ServletUriComponentsBuilder uriBuilder, Pageable pageable, String relType) {
+        String link = uriBuilder
+            .replaceQueryParam("page", pageable.getPageNumber())
+            .replaceQueryParam("size", pageable.getPageSize())
+            .toUriString();
+        return "<" + link + ">; rel=\"" + relType + "\"";
+    }
+
+    private ResponseEntity<List<Booking>> getBookingsAfter(BookingCriteria criteria, Pageable pageable, String after) {
+        Sort keysetSort;
+        BookingCursor cursor;
+        try {
+            keysetSort = BookingCursor.keysetSort(pageable.getSort());
+            cursor = after.isEmpty() ? null : BookingCursor.decode(after, keysetSort);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "cursorinvalid");
+        }
+        Slice<Booking> slice = bookingQueryService.findByCriteriaAfter(criteria, cursor, keysetSort, pageable.getPageSize());
+        HttpHeaders headers = new HttpHeaders();
+        if (slice.hasNext()) {
+            String next = BookingCursor.after(slice.getContent().get(slice.getNumberOfElements() - 1), keysetSort).encode();
+            String link = ServletUriComponentsBuilder
+                .fromCurrentRequest()
+                .replaceQueryParam("page")
+                .replaceQueryParam("after", next)
+                .toUriString();
+            headers.add(HttpHeaders.LINK, "<" + link + ">; rel=\"next\"");
+        }
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
     }
 
     /**
@@ -170,7 +352,7 @@ public class BookingResource {
     }
 
     /**
-     * {@code GET  /bookings/:id} : get the "id" booking.
+     * {@code GET  /bookings/:id} : get the "id" booking, with the {@code ETag} of its version.
      *
      * @param id the id of the booking to retrieve.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the booking, or with status {@code 404 (Not Found)}.
@@ -179,7 +361,9 @@ public class BookingResource {
     public ResponseEntity<Booking> getBooking(@PathVariable Long id) {
         log.debug("REST request to get Booking : {}", id);
         Optional<Booking> booking = bookingService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(booking);
+        HttpHeaders headers = new HttpHeaders();
+        booking.ifPresent(found -> headers.setETag(eTag(found)));
+        return ResponseUtil.wrapOrNotFound(booking, headers);
     }
 
     /**
@@ -198,34 +382,80 @@ public class BookingResource {
             .build();
     }
 
+    /**
+     * {@code GET  /bookings/export} : export the bookings, streamed with constant memory.
+     *
+     * @param hotelId the hotel to export, all hotels if missing.
+     * @param format the export format: {@code ndjson} (default), {@code csv} or {@code json}.
+     * @param gzip whether to gzip the exported file.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the exported file in body,
+     * or with status {@code 400 (Bad Request)} if the format is unknown.
+     */
+    @GetMapping("/bookings/export")
+    public ResponseEntity<StreamingResponseBody> exportBookings(
+        @RequestParam(required = false) Long hotelId,
+        @RequestParam(defaultValue = "ndjson") String format,
+        @RequestParam(defaultValue = "false") boolean gzip
+    ) {
+        log.debug("REST request to export Bookings of hotel {} as {}", hotelId, format);
+        BookingExportService.Format exportFormat;
+        try {
+            exportFormat = BookingExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Unknown export format", ENTITY_NAME, "formatinvalid");
+        }
+        String filename = "bookings." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream gzipOut = new GZIPOutputStream(out, 8192);
+                bookingExportService.export(hotelId, exportFormat, gzipOut);
+                gzipOut.finish();
+            } else {
+                bookingExportService.export(hotelId, exportFormat, out);
+            }
+        };
+        return ResponseEntity
+            .ok()
+            .contentType(gzip ? MediaType.parseMediaType("application/gzip") : MediaType.parseMediaType(exportFormat.getContentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+            .body(body);
+    }
+
     @GetMapping("/booking")
-    public List<Booking> findAll() {
+    public ResponseEntity<StreamingResponseBody> findAll() {
         log.info("Inside findAll() method of BookingController");
-        return bookingRepository.findAll();
+        return ResponseEntity
+            .ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(out -> bookingExportService.export(null, BookingExportService.Format.JSON, out));
     }
 
     @PostMapping("/booking/add")
     public void addBooking(@RequestBody Booking book) {
         log.info("Inside addBooking() method of BookingController");
-        bookingRepository.save(book);
+        bookingService.save(book);
     }
 
+    /**
+     * {@code GET  /bookings/date/:startDate/to/:endDate} : get the bookings whose stay lies within the given dates.
+     *
+     * @param startDate the earliest checkin date (inclusive).
+     * @param endDate the latest checkout date (inclusive).
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of bookings in body.
+     */
     @GetMapping("/bookings/date/{startDate}/to/{endDate}")
-    public List<Booking> showBookingsByDate(
+    public ResponseEntity<List<Booking>> showBookingsByDate(
         @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-        @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate
+        @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+        @ParameterObject Pageable pageable
     ) {
-        log.info("Inside showBookingsByDate() method of BookingController");
-        if ((startDate.compareTo(endDate)) > 0) {
-            return null;
-        } else {
-            return bookingRepository
-                .findAll()
-                .stream()
-                .filter(bookings ->
-                    bookings.getCheckin().isAfter(startDate.minusDays(1)) && bookings.getCheckout().isBefore(endDate.plusDays(1))
-                )
-                .collect(Collectors.toList());
+        log.debug("REST request to get Bookings between {} and {}", startDate, endDate);
+        if (startDate.isAfter(endDate)) {
+            return ResponseEntity.ok().build();
         }
+        Page<Booking> page = bookingService.findAllWithinDates(startDate, endDate, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 }
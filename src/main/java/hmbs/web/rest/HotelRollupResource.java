@@ -0,0 +1,120 @@
+package hmbs.web.rest;
+
+import hmbs.domain.HotelDailyRollup;
+import hmbs.security.AuthoritiesConstants;
+import hmbs.service.HotelRollupService;
+import hmbs.service.dto.HotelRollupDTO;
+import hmbs.web.rest.errors.BadRequestAlertException;
+import java.time.LocalDate;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import tech.jhipster.web.util.HeaderUtil;
+
+/**
+ * REST controller for the occupancy and revenue reports of the hotels, read from the {@link HotelDailyRollup}s.
+ */
+@RestController
+@RequestMapping("/api/admin")
+public class HotelRollupResource {
+
+    private final Logger log = LoggerFactory.getLogger(HotelRollupResource.class);
+
+    private static final String ENTITY_NAME = "hotelRollup";
+
+    @Value("${jhipster.clientApp.name}")
+    private String applicationName;
+
+    private final HotelRollupService hotelRollupService;
+
+    public HotelRollupResource(HotelRollupService hotelRollupService) {
+        this.hotelRollupService = hotelRollupService;
+    }
+
+    /**
+     * {@code GET  /admin/hotel-rollups} : get the occupancy and revenue of every hotel over some nights.
+     *
+     * @param from the first night (inclusive).
+     * @param to the day after the last night (exclusive).
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the totals of the occupied hotels in body,
+     * or with status {@code 400 (Bad Request)} if the range is empty.
+     */
+    @GetMapping("/hotel-rollups")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<List<HotelRollupDTO>> getAllHotelRollups(
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        log.debug("REST request to get the rollups of every hotel from {} to {}", from, to);
+        checkRange(from, to);
+        return ResponseEntity.ok().body(hotelRollupService.findAllTotals(from, to));
+    }
+
+    /**
+     * {@code GET  /admin/hotel-rollups/:hotelId} : get the occupancy and revenue of a hotel for each night.
+     *
+     * @param hotelId the hotel.
+     * @param from the first night (inclusive).
+     * @param to the day after the last night (exclusive).
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the occupied nights in body,
+     * or with status {@code 400 (Bad Request)} if the range is empty.
+     */
+    @GetMapping("/hotel-rollups/{hotelId}")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<List<HotelDailyRollup>> getHotelDailyRollups(
+        @PathVariable Long hotelId,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        log.debug("REST request to get the daily rollups of hotel {} from {} to {}", hotelId, from, to);
+        checkRange(from, to);
+        return ResponseEntity.ok().body(hotelRollupService.findAllDaily(hotelId, from, to));
+    }
+
+    /**
+     * {@code POST  /admin/hotel-rollups/rebuild} : start rebuilding the rollups of every hotel from the bookings.
+     *
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)}, or with status {@code 409 (Conflict)} if a
+     * rebuild is already running.
+     */
+    @PostMapping("/hotel-rollups/rebuild")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<Void> rebuildAllHotelRollups() {
+        log.debug("REST request to rebuild the rollups of every hotel");
+        if (!hotelRollupService.startRebuildAll()) {
+            return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .headers(
+                    HeaderUtil.createFailureAlert(applicationName, true, ENTITY_NAME, "rebuildrunning", "A rebuild is already running")
+                )
+                .build();
+        }
+        return ResponseEntity.accepted().build();
+    }
+
+    /**
+     * {@code POST  /admin/hotel-rollups/:hotelId/rebuild} : rebuild the rollups of a hotel from its bookings.
+     *
+     * @param hotelId the hotel.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}.
+     */
+    @PostMapping("/hotel-rollups/{hotelId}/rebuild")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<Void> rebuildHotelRollups(@PathVariable Long hotelId) {
+        log.debug("REST request to rebuild the rollups of hotel {}", hotelId);
+        hotelRollupService.rebuild(hotelId);
+        return ResponseEntity.noContent().build();
+    }
+
+    private void checkRange(LocalDate from, LocalDate to) {
+        if (!to.isAfter(from)) {
+            throw new BadRequestAlertException("The last night must not be before the first one", ENTITY_NAME, "daterangeinvalid");
+        }
+    }
+}
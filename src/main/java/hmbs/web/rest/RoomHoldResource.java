@@ -0,0 +1,119 @@
+package hmbs.web.rest;
+
+import hmbs.domain.Booking;
+import hmbs.service.BookingService;
+import hmbs.service.availability.RoomHoldService;
+import hmbs.service.dto.RoomHoldDTO;
+import hmbs.web.rest.errors.BadRequestAlertException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import javax.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import tech.jhipster.web.util.HeaderUtil;
+import tech.jhipster.web.util.ResponseUtil;
+
+/**
+ * REST controller for holding rooms while their booking is being paid, see {@link RoomHoldService}.
+ */
+@RestController
+@RequestMapping("/api")
+public class RoomHoldResource {
+
+    private final Logger log = LoggerFactory.getLogger(RoomHoldResource.class);
+
+    private static final String ENTITY_NAME = "roomHold";
+
+    @Value("${jhipster.clientApp.name}")
+    private String applicationName;
+
+    private final RoomHoldService roomHoldService;
+
+    private final BookingService bookingService;
+
+    public RoomHoldResource(RoomHoldService roomHoldService, BookingService bookingService) {
+        this.roomHoldService = roomHoldService;
+        this.bookingService = bookingService;
+    }
+
+    /**
+     * {@code POST  /room-holds} : Hold a room for a few minutes.
+     *
+     * @param roomHoldDTO the room and the nights to hold.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the hold, with its expiration,
+     * or with status {@code 400 (Bad Request)} if the nights are invalid,
+     * or with status {@code 409 (Conflict)} if the room is already booked or held for some of the nights.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    @PostMapping("/room-holds")
+    public ResponseEntity<RoomHoldDTO> createRoomHold(@Valid @RequestBody RoomHoldDTO roomHoldDTO) throws URISyntaxException {
+        log.debug("REST request to hold room : {}", roomHoldDTO);
+        if (roomHoldDTO.getId() != null) {
+            throw new BadRequestAlertException("A new room hold cannot already have an ID", ENTITY_NAME, "idexists");
+        }
+        RoomHoldDTO result = roomHoldService.hold(roomHoldDTO);
+        return ResponseEntity
+            .created(new URI("/api/room-holds/" + result.getId()))
+            .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId()))
+            .body(result);
+    }
+
+    /**
+     * {@code GET  /room-holds/:id} : get a live hold of the current user.
+     *
+     * @param id the id of the hold.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the hold, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/room-holds/{id}")
+    public ResponseEntity<RoomHoldDTO> getRoomHold(@PathVariable String id) {
+        log.debug("REST request to get room hold : {}", id);
+        return ResponseUtil.wrapOrNotFound(roomHoldService.findOne(id));
+    }
+
+    /**
+     * {@code DELETE  /room-holds/:id} : release a live hold of the current user.
+     *
+     * @param id the id of the hold.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}, or with status {@code 404 (Not Found)}.
+     */
+    @DeleteMapping("/room-holds/{id}")
+    public ResponseEntity<Void> deleteRoomHold(@PathVariable String id) {
+        log.debug("REST request to release room hold : {}", id);
+        if (!roomHoldService.release(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id)).build();
+    }
+
+    /**
+     * {@code POST  /room-holds/:id/booking} : Convert a live hold of the current user into a booking.
+     * <p>
+     * The room and the nights of the booking are the ones of the hold.
+     *
+     * @param id the id of the hold.
+     * @param booking the other values of the booking.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new booking,
+     * or with status {@code 400 (Bad Request)} if the booking is not valid,
+     * or with status {@code 404 (Not Found)} if there is no such live hold,
+     * or with status {@code 409 (Conflict)} if the hold is being converted already.
+     */
+    @PostMapping("/room-holds/{id}/booking")
+    public ResponseEntity<Booking> createBookingFromRoomHold(@PathVariable String id, @RequestBody Booking booking) {
+        log.debug("REST request to save Booking : {} from room hold : {}", booking, id);
+        if (booking.getId() != null) {
+            throw new BadRequestAlertException("A new booking cannot already have an ID", "booking", "idexists");
+        }
+        return bookingService
+            .saveFromHold(id, booking)
+            .map(result ->
+                ResponseEntity
+                    .created(URI.create("/api/bookings/" + result.getId()))
+                    .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, "booking", result.getId().toString()))
+                    .body(result)
+            )
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,56 @@
+package hmbs.web.rest.errors;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import org.zalando.problem.AbstractThrowableProblem;
+import org.zalando.problem.Status;
+
+/**
+ * Problem of an expected rejection, sent with any status and a failure alert. No stack trace is captured.
+ */
+public class AlertProblemException extends AbstractThrowableProblem {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String entityName;
+
+    private final String errorKey;
+
+    public AlertProblemException(URI type, String defaultMessage, Status status, String entityName, String errorKey) {
+        this(type, defaultMessage, status, entityName, errorKey, getAlertParameters(entityName, errorKey));
+    }
+
+    protected AlertProblemException(
+        URI type,
+        String defaultMessage,
+        Status status,
+        String entityName,
+        String errorKey,
+        Map<String, Object> parameters
+    ) {
+        super(type, defaultMessage, status, null, null, null, parameters);
+        this.entityName = entityName;
+        this.errorKey = errorKey;
+    }
+
+    public String getEntityName() {
+        return entityName;
+    }
+
+    public String getErrorKey() {
+        return errorKey;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+
+    private static Map<String, Object> getAlertParameters(String entityName, String errorKey) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("message", "error." + errorKey);
+        parameters.put("params", entityName);
+        return parameters;
+    }
+}
@@ -0,0 +1,18 @@
+package hmbs.web.rest.errors;
+
+import org.zalando.problem.Status;
+
+public class BookingVersionMismatchException extends AlertProblemException {
+
+    private static final long serialVersionUID = 1L;
+
+    public BookingVersionMismatchException() {
+        super(
+            ErrorConstants.VERSION_MISMATCH_TYPE,
+            "The booking was modified by someone else!",
+            Status.PRECONDITION_FAILED,
+            "booking",
+            "versionmismatch"
+        );
+    }
+}
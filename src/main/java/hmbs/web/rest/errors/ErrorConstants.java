@@ -12,6 +12,10 @@ public final class ErrorConstants {
     public static final URI INVALID_PASSWORD_TYPE = URI.create(PROBLEM_BASE_URL + "/invalid-password");
     public static final URI EMAIL_ALREADY_USED_TYPE = URI.create(PROBLEM_BASE_URL + "/email-already-used");
     public static final URI LOGIN_ALREADY_USED_TYPE = URI.create(PROBLEM_BASE_URL + "/login-already-used");
+    public static final URI ROOM_NOT_AVAILABLE_TYPE = URI.create(PROBLEM_BASE_URL + "/room-not-available");
+    public static final URI VERSION_MISMATCH_TYPE = URI.create(PROBLEM_BASE_URL + "/version-mismatch");
+    public static final URI IDEMPOTENCY_KEY_IN_USE_TYPE = URI.create(PROBLEM_BASE_URL + "/idempotency-key-in-use");
+    public static final URI IDEMPOTENCY_KEY_REUSED_TYPE = URI.create(PROBLEM_BASE_URL + "/idempotency-key-reused");
 
     private ErrorConstants() {}
 }
@@ -143,6 +143,46 @@ public class ExceptionTranslator implements ProblemHandling, SecurityAdviceTrait
         return create(new InvalidPasswordException(), request);
     }
 
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleRoomNotAvailableException(hmbs.service.RoomNotAvailableException ex, NativeWebRequest request) {
+        return createAlert(new RoomNotAvailableException(), request);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleInvalidBookingException(hmbs.service.InvalidBookingException ex, NativeWebRequest request) {
+        List<FieldErrorVM> fieldErrors = ex
+            .getErrorsByField()
+            .entrySet()
+            .stream()
+            .map(error -> new FieldErrorVM("booking", error.getKey(), error.getValue()))
+            .collect(Collectors.toList());
+        return createAlert(new InvalidBookingException(fieldErrors), request);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleBookingVersionMismatchException(
+        hmbs.service.BookingVersionMismatchException ex,
+        NativeWebRequest request
+    ) {
+        return createAlert(new BookingVersionMismatchException(), request);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleIdempotencyKeyInUseException(
+        hmbs.service.IdempotencyKeyInUseException ex,
+        NativeWebRequest request
+    ) {
+        return createAlert(new IdempotencyKeyInUseException(), request);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleIdempotencyKeyReusedException(
+        hmbs.service.IdempotencyKeyReusedException ex,
+        NativeWebRequest request
+    ) {
+        return createAlert(new IdempotencyKeyReusedException(), request);
+    }
+
     @ExceptionHandler
     public ResponseEntity<Problem> handleBadRequestAlertException(BadRequestAlertException ex, NativeWebRequest request) {
         return create(
@@ -209,6 +249,14 @@ public class ExceptionTranslator implements ProblemHandling, SecurityAdviceTrait
             );
     }
 
+    private ResponseEntity<Problem> createAlert(AlertProblemException problem, NativeWebRequest request) {
+        return create(
+            problem,
+            request,
+            HeaderUtil.createFailureAlert(applicationName, true, problem.getEntityName(), problem.getErrorKey(), problem.getMessage())
+        );
+    }
+
     private boolean containsPackageName(String message) {
         // This list is for sure not complete
         return StringUtils.containsAny(message, "org.", "java.", "net.", "javax.", "com.", "io.", "de.", "hmbs");
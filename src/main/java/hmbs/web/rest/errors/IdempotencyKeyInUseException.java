@@ -0,0 +1,18 @@
+package hmbs.web.rest.errors;
+
+import org.zalando.problem.Status;
+
+public class IdempotencyKeyInUseException extends AlertProblemException {
+
+    private static final long serialVersionUID = 1L;
+
+    public IdempotencyKeyInUseException() {
+        super(
+            ErrorConstants.IDEMPOTENCY_KEY_IN_USE_TYPE,
+            "A request with this Idempotency-Key is still in progress!",
+            Status.CONFLICT,
+            "booking",
+            "idempotencykeyinuse"
+        );
+    }
+}
@@ -0,0 +1,18 @@
+package hmbs.web.rest.errors;
+
+import org.zalando.problem.Status;
+
+public class IdempotencyKeyReusedException extends AlertProblemException {
+
+    private static final long serialVersionUID = 1L;
+
+    public IdempotencyKeyReusedException() {
+        super(
+            ErrorConstants.IDEMPOTENCY_KEY_REUSED_TYPE,
+            "This Idempotency-Key was already used for another request!",
+            Status.UNPROCESSABLE_ENTITY,
+            "booking",
+            "idempotencykeyreused"
+        );
+    }
+}
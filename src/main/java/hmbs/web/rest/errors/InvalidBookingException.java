@@ -0,0 +1,25 @@
+package hmbs.web.rest.errors;
+
+import java.util.List;
+import java.util.Map;
+import org.zalando.problem.Status;
+
+/**
+ * Problem of a booking rejected by {@link hmbs.service.BookingValidator}, with the same {@code fieldErrors} as a
+ * failed Bean Validation.
+ */
+public class InvalidBookingException extends AlertProblemException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidBookingException(List<FieldErrorVM> fieldErrors) {
+        super(
+            ErrorConstants.CONSTRAINT_VIOLATION_TYPE,
+            "Invalid booking",
+            Status.BAD_REQUEST,
+            "booking",
+            "validation",
+            Map.of("message", ErrorConstants.ERR_VALIDATION, "fieldErrors", fieldErrors)
+        );
+    }
+}
@@ -0,0 +1,18 @@
+package hmbs.web.rest.errors;
+
+import org.zalando.problem.Status;
+
+public class RoomNotAvailableException extends AlertProblemException {
+
+    private static final long serialVersionUID = 1L;
+
+    public RoomNotAvailableException() {
+        super(
+            ErrorConstants.ROOM_NOT_AVAILABLE_TYPE,
+            "The room is already booked for these dates!",
+            Status.CONFLICT,
+            "booking",
+            "roomnotavailable"
+        );
+    }
+}
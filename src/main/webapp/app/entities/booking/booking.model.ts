@@ -9,6 +9,7 @@ export interface IBooking {
   checkout?: dayjs.Dayjs | null;
   numOfGuests?: number | null;
   finalPrice?: number | null;
+  version?: number | null;
 }
 
 export class Booking implements IBooking {
@@ -20,7 +21,8 @@ export class Booking implements IBooking {
     public checkin?: dayjs.Dayjs | null,
     public checkout?: dayjs.Dayjs | null,
     public numOfGuests?: number | null,
-    public finalPrice?: number | null
+    public finalPrice?: number | null,
+    public version?: number | null
   ) {}
 }
 
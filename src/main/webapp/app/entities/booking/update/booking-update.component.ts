@@ -24,6 +24,7 @@ export class BookingUpdateComponent implements OnInit {
     checkout: [],
     numOfGuests: [],
     finalPrice: [],
+    version: [],
   });
 
   constructor(protected bookingService: BookingService, protected activatedRoute: ActivatedRoute, protected fb: FormBuilder) {}
@@ -77,6 +78,7 @@ export class BookingUpdateComponent implements OnInit {
       checkout: booking.checkout,
       numOfGuests: booking.numOfGuests,
       finalPrice: booking.finalPrice,
+      version: booking.version,
     });
   }
 
@@ -91,6 +93,7 @@ export class BookingUpdateComponent implements OnInit {
       checkout: this.editForm.get(['checkout'])!.value,
       numOfGuests: this.editForm.get(['numOfGuests'])!.value,
       finalPrice: this.editForm.get(['finalPrice'])!.value,
+      version: this.editForm.get(['version'])!.value,
     };
   }
 }
@@ -0,0 +1,52 @@
+package hmbs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hmbs.management.AccountingDataSource;
+import hmbs.management.RequestAccounting;
+import javax.sql.DataSource;
+
+/**
+ * Budget of JDBC statements of the work done by a test, to catch N+1 selects and other query count regressions.
+ * <p>
+ * The statements are counted by the {@link AccountingDataSource} wrapping the data source, which the test
+ * configuration enables: the budget fails if the data source is not wrapped, rather than counting nothing. Only the
+ * statements executed by the calling thread are counted, which includes the requests performed with {@code MockMvc}.
+ */
+public final class StatementBudget {
+
+    private StatementBudget() {}
+
+    /**
+     * Work counted against a budget.
+     *
+     * @param <T> the type of its result.
+     */
+    @FunctionalInterface
+    public interface Work<T> {
+        T run() throws Exception;
+    }
+
+    /**
+     * Run some work and fail if it executes more statements than its budget.
+     *
+     * @param dataSource the data source of the application, which must count the statements.
+     * @param maxStatements the budget.
+     * @param work the work, typically a {@code MockMvc} request with its expectations.
+     * @param <T> the type of its result.
+     * @return the result of the work.
+     * @throws Exception if the work fails.
+     */
+    public static <T> T assertAtMost(DataSource dataSource, int maxStatements, Work<T> work) throws Exception {
+        assertThat(dataSource).as("data source counting the statements").isInstanceOf(AccountingDataSource.class);
+        RequestAccounting accounting = RequestAccounting.start();
+        T result;
+        try {
+            result = work.run();
+        } finally {
+            accounting.stop();
+        }
+        assertThat(accounting.getStatements()).as("JDBC statements executed").isLessThanOrEqualTo(maxStatements);
+        return result;
+    }
+}
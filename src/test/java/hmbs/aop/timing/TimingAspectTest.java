@@ -0,0 +1,99 @@
+package hmbs.aop.timing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import hmbs.config.ApplicationProperties;
+import hmbs.domain.Booking;
+import hmbs.repository.RoomLockRepository;
+import hmbs.service.BookingValidator;
+import hmbs.service.InvalidBookingException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+/**
+ * Unit tests for {@link TimingAspect}.
+ */
+class TimingAspectTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void timesEachMethod() {
+        BookingValidator validator = proxy(1.0, List.of("hmbs.service"));
+
+        validator.errors(new Booking());
+        validator.errors(new Booking());
+        validator.validate(new Booking());
+
+        assertThat(timer("errors").count()).isEqualTo(2);
+        assertThat(timer("validate").count()).isEqualTo(1);
+    }
+
+    @Test
+    void timesFailingCalls() {
+        BookingValidator validator = proxy(1.0, List.of());
+
+        assertThatThrownBy(() -> validator.validate(new Booking().numOfGuests(0))).isInstanceOf(InvalidBookingException.class);
+
+        assertThat(timer("validate").count()).isEqualTo(1);
+    }
+
+    @Test
+    void skipsTheClassesOutsideTheAllowedPackages() {
+        BookingValidator validator = proxy(1.0, List.of("hmbs.web.rest", "hmbs.serv"));
+
+        validator.errors(new Booking());
+
+        assertThat(registry.find(TimingAspect.METER_NAME).timers()).isEmpty();
+    }
+
+    @Test
+    void timesTheInheritedMethodsOfARepositoryUnderItsInterface() {
+        RoomLockRepository repository = repositoryProxy(List.of("hmbs.repository"));
+
+        repository.count();
+
+        assertThat(timer(RoomLockRepository.class, "count").count()).isEqualTo(1);
+    }
+
+    @Test
+    void skipsTheCallsOutsideTheSample() {
+        BookingValidator validator = proxy(0.0, List.of());
+
+        validator.errors(new Booking());
+
+        assertThat(registry.find(TimingAspect.METER_NAME).timers()).isEmpty();
+    }
+
+    private BookingValidator proxy(double sampleRate, List<String> packages) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new BookingValidator(new ApplicationProperties()));
+        factory.addAspect(new TimingAspect(registry, sampleRate, packages));
+        return factory.getProxy();
+    }
+
+    private RoomLockRepository repositoryProxy(List<String> packages) {
+        // Stands for the proxy which Spring Data creates for a repository interface
+        Object repository = Proxy.newProxyInstance(
+            getClass().getClassLoader(),
+            new Class<?>[] { RoomLockRepository.class },
+            (proxy, method, args) -> method.getReturnType() == long.class ? 0L : null
+        );
+        AspectJProxyFactory factory = new AspectJProxyFactory(repository);
+        factory.addAspect(new TimingAspect(registry, 1.0, packages));
+        return factory.getProxy();
+    }
+
+    private Timer timer(String method) {
+        return timer(BookingValidator.class, method);
+    }
+
+    private Timer timer(Class<?> type, String method) {
+        return registry.get(TimingAspect.METER_NAME).tag("class", type.getName()).tag("method", method).timer();
+    }
+}
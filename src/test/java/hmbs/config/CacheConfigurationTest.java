@@ -0,0 +1,87 @@
+package hmbs.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hmbs.domain.Booking;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import javax.cache.CacheManager;
+import org.ehcache.config.CacheRuntimeConfiguration;
+import org.ehcache.config.ResourceType;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Unit tests for the {@link CacheConfiguration} class.
+ */
+class CacheConfigurationTest {
+
+    private static final String BOOKING_REGION = Booking.class.getName();
+
+    @TempDir
+    Path diskDirectory;
+
+    private CacheConfiguration cacheConfiguration;
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getCache().setDiskDirectory(diskDirectory.toString());
+        ApplicationProperties.Cache.Region region = new ApplicationProperties.Cache.Region();
+        region.setHeapEntries(10L);
+        region.setOffHeapMb(1);
+        region.setDiskMb(2);
+        applicationProperties.getCache().getRegions().put(BOOKING_REGION, region);
+        cacheConfiguration = new CacheConfiguration(new JHipsterProperties(), applicationProperties);
+    }
+
+    @Test
+    void regionsAreSizedFromTheirSettings() {
+        CacheManager cacheManager = newCacheManager();
+        try {
+            CacheRuntimeConfiguration<?, ?> booking = runtimeConfiguration(cacheManager, BOOKING_REGION);
+            assertThat(booking.getResourcePools().getResourceTypeSet())
+                .containsExactlyInAnyOrder(ResourceType.Core.HEAP, ResourceType.Core.OFFHEAP, ResourceType.Core.DISK);
+            assertThat(booking.getResourcePools().getPoolForResource(ResourceType.Core.OFFHEAP).getSize()).isEqualTo(1);
+            assertThat(booking.getResourcePools().getPoolForResource(ResourceType.Core.OFFHEAP).getUnit()).isEqualTo(MemoryUnit.MB);
+            assertThat(booking.getResourcePools().getPoolForResource(ResourceType.Core.DISK).isPersistent()).isFalse();
+
+            CacheRuntimeConfiguration<?, ?> users = runtimeConfiguration(cacheManager, hmbs.domain.User.class.getName());
+            assertThat(users.getResourcePools().getResourceTypeSet()).containsExactly(ResourceType.Core.HEAP);
+            assertThat(users.getResourcePools().getPoolForResource(ResourceType.Core.HEAP).getSize()).isEqualTo(100);
+        } finally {
+            cacheManager.close();
+        }
+    }
+
+    @Test
+    void diskTiersAreEmptiedByARestart() {
+        Booking booking = new Booking().id(1L).hotelId(2L).roomId(3L).checkin(LocalDate.of(2023, 6, 10));
+        CacheManager cacheManager = newCacheManager();
+        cacheManager.getCache(BOOKING_REGION).put(1L, booking);
+        cacheManager.close();
+
+        cacheManager = newCacheManager();
+        try {
+            assertThat(cacheManager.getCache(BOOKING_REGION).get(1L)).isNull();
+        } finally {
+            cacheManager.close();
+        }
+    }
+
+    private CacheManager newCacheManager() {
+        CacheManager cacheManager = cacheConfiguration.newCacheManager();
+        cacheConfiguration.cacheManagerCustomizer().customize(cacheManager);
+        return cacheManager;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CacheRuntimeConfiguration<?, ?> runtimeConfiguration(CacheManager cacheManager, String cacheName) {
+        Eh107Configuration<Object, Object> configuration = cacheManager.getCache(cacheName).getConfiguration(Eh107Configuration.class);
+        return configuration.unwrap(CacheRuntimeConfiguration.class);
+    }
+}
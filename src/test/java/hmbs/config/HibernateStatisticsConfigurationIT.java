@@ -0,0 +1,47 @@
+package hmbs.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hmbs.IntegrationTest;
+import hmbs.management.HibernateStatisticsMetrics;
+import hmbs.repository.BookingRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link HibernateStatisticsConfiguration}.
+ */
+@IntegrationTest
+@Transactional
+class HibernateStatisticsConfigurationIT {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private HibernateStatisticsMetrics hibernateStatisticsMetrics;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void globalStatisticsAreExported() {
+        assertThat(meterRegistry.find("hibernate.flushes").functionCounter()).isNotNull();
+        assertThat(meterRegistry.find("hibernate.entities.loads").functionCounter()).isNotNull();
+    }
+
+    @Test
+    void executedQueriesAreExported() {
+        bookingRepository.findAll();
+
+        hibernateStatisticsMetrics.registerNewQueries();
+
+        assertThat(meterRegistry.find("hibernate.query.executions").functionCounters())
+            .anySatisfy(counter -> {
+                assertThat(counter.getId().getTag("query")).contains("Booking");
+                assertThat(counter.count()).isPositive();
+            });
+    }
+}
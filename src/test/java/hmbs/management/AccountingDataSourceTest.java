@@ -0,0 +1,111 @@
+package hmbs.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import javax.sql.DataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Unit tests for {@link AccountingDataSource}.
+ */
+class AccountingDataSourceTest {
+
+    private AccountingDataSource dataSource;
+
+    @BeforeEach
+    void setup() {
+        JdbcDataSource target = new JdbcDataSource();
+        target.setURL("jdbc:h2:mem:accounting");
+        dataSource = new AccountingDataSource(target);
+    }
+
+    @Test
+    void countsTheStatementsOfTheAccountedThread() throws Exception {
+        RequestAccounting accounting = RequestAccounting.start();
+        try (Connection connection = dataSource.getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SELECT 1");
+            }
+            try (PreparedStatement statement = connection.prepareStatement("SELECT ?")) {
+                statement.setInt(1, 2);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    assertThat(resultSet.next()).isTrue();
+                    assertThat(resultSet.getInt(1)).isEqualTo(2);
+                }
+            }
+        } finally {
+            accounting.stop();
+        }
+
+        assertThat(accounting.getStatements()).isEqualTo(2);
+        assertThat(accounting.getStatementNanos()).isPositive();
+    }
+
+    @Test
+    void ignoresTheOtherThreads() throws Exception {
+        RequestAccounting accounting = RequestAccounting.start();
+        accounting.stop();
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("SELECT 1");
+        }
+
+        assertThat(RequestAccounting.isActive()).isFalse();
+        assertThat(accounting.getStatements()).isZero();
+    }
+
+    @Test
+    void proxiesAreOnlyEqualToThemselves() throws Exception {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            assertThat(statement).isEqualTo(statement).isNotEqualTo(connection.createStatement());
+            assertThat(connection.unwrap(org.h2.jdbc.JdbcConnection.class)).isNotNull();
+        }
+    }
+
+    @Test
+    void logsTheSlowStatementsWithTheTypesOfTheirParameters() throws Exception {
+        PreparedStatement target = mock(PreparedStatement.class);
+        when(target.executeUpdate())
+            .thenAnswer(invocation -> {
+                Thread.sleep(20);
+                return 1;
+            });
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenReturn(target);
+        DataSource targetDataSource = mock(DataSource.class);
+        when(targetDataSource.getConnection()).thenReturn(connection);
+        Logger logger = (Logger) LoggerFactory.getLogger(AccountingDataSource.class);
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        logger.addAppender(appender);
+        try {
+            PreparedStatement statement = new AccountingDataSource(targetDataSource, 10)
+                .getConnection()
+                .prepareStatement("UPDATE booking SET final_price = ? WHERE id = ? AND hotel_id = ?");
+            statement.setDouble(1, 100D);
+            statement.setNull(3, java.sql.Types.BIGINT);
+            statement.setObject(2, 42L);
+            statement.executeUpdate();
+        } finally {
+            logger.detachAppender(appender);
+        }
+
+        assertThat(appender.list).hasSize(1);
+        assertThat(appender.list.get(0).getFormattedMessage())
+            .contains("UPDATE booking SET final_price = ? WHERE id = ? AND hotel_id = ? with parameters [Double, Long, null]")
+            .doesNotContain("100")
+            .doesNotContain("42");
+    }
+}
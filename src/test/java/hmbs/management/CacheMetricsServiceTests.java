@@ -0,0 +1,112 @@
+package hmbs.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hmbs.config.CacheStatisticsServiceFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.impl.serialization.PlainJavaSerializer;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CacheMetricsServiceTests {
+
+    private CacheManager cacheManager;
+
+    private MeterRegistry meterRegistry;
+
+    private CacheMetricsService cacheMetricsService;
+
+    @BeforeEach
+    public void setup() {
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider();
+        CacheStatisticsServiceFactory.Capture statisticsServiceCapture = new CacheStatisticsServiceFactory.Capture();
+        DefaultConfiguration configuration = new DefaultConfiguration(provider.getDefaultClassLoader(), statisticsServiceCapture);
+        cacheManager = provider.getCacheManager(provider.getDefaultURI(), configuration);
+        cacheManager.createCache(
+            "heap",
+            Eh107Configuration.fromEhcacheCacheConfiguration(
+                CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(10))
+            )
+        );
+        cacheManager.createCache(
+            "offHeap",
+            Eh107Configuration.fromEhcacheCacheConfiguration(
+                CacheConfigurationBuilder
+                    .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(10).offheap(1, MemoryUnit.MB))
+                    .withKeySerializer(new PlainJavaSerializer<>(getClass().getClassLoader()))
+                    .withValueSerializer(new PlainJavaSerializer<>(getClass().getClassLoader()))
+            )
+        );
+        cacheManager.enableStatistics("heap", true);
+        cacheManager.enableStatistics("offHeap", true);
+        meterRegistry = new SimpleMeterRegistry();
+        cacheMetricsService = new CacheMetricsService(cacheManager, statisticsServiceCapture.getStatisticsService());
+        cacheMetricsService.bindTo(meterRegistry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        cacheManager.close();
+    }
+
+    @Test
+    void testRegionStatistics() {
+        Cache<Object, Object> heap = cacheManager.getCache("heap");
+        heap.put("a", "1");
+        heap.get("a");
+        heap.get("a");
+        heap.get("b");
+
+        CacheRegionStatistics statistics = cacheMetricsService.statistics("heap");
+        assertThat(statistics.getHits()).isEqualTo(2);
+        assertThat(statistics.getMisses()).isEqualTo(1);
+        assertThat(statistics.getHitRatio()).isEqualTo(2d / 3);
+        assertThat(statistics.getPuts()).isEqualTo(1);
+        assertThat(statistics.getEntries()).isEqualTo(1);
+        assertThat(statistics.getAverageGetMicros()).isPositive();
+        assertThat(statistics.getTiers()).containsOnlyKeys("OnHeap");
+        assertThat(cacheMetricsService.statistics("offHeap").getHitRatio()).isNull();
+    }
+
+    @Test
+    void testSizeGaugesAreRegistered() {
+        Cache<Object, Object> offHeap = cacheManager.getCache("offHeap");
+        for (int i = 0; i < 20; i++) {
+            offHeap.put(i, "value " + i);
+        }
+
+        assertThat(meterRegistry.get("cache.size").tag("cache", "offHeap").gauge().value()).isEqualTo(20);
+        assertThat(meterRegistry.get("cache.tier.size").tag("cache", "offHeap").tag("tier", "OffHeap").gauge().value()).isEqualTo(20);
+        assertThat(meterRegistry.get("cache.tier.occupied").tag("cache", "offHeap").tag("tier", "OffHeap").gauge().value()).isPositive();
+        meterRegistry.get("cache.get.latency").tag("cache", "offHeap").timeGauge();
+        meterRegistry.get("cache.put.latency").tag("cache", "heap").timeGauge();
+    }
+
+    @Test
+    void testEndpointRanksRegions() {
+        Cache<Object, Object> heap = cacheManager.getCache("heap");
+        heap.put("a", "1");
+        heap.get("a");
+        Cache<Object, Object> offHeap = cacheManager.getCache("offHeap");
+        offHeap.put("a", "1");
+        offHeap.get("b");
+
+        Map<String, List<CacheRegionStatistics>> stats = new CacheStatsEndpoint(cacheMetricsService).cacheStats();
+
+        assertThat(stats.get("byHitRatio")).extracting(CacheRegionStatistics::getName).containsExactly("heap", "offHeap");
+        assertThat(stats.get("byMemory")).extracting(CacheRegionStatistics::getName).containsExactly("offHeap", "heap");
+    }
+}
@@ -0,0 +1,89 @@
+package hmbs.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link HibernateStatisticsMetrics}.
+ */
+class HibernateStatisticsMetricsTest {
+
+    private static final String QUERY = "select booking from Booking booking";
+
+    private static final String REGION = "hmbs.domain.Booking";
+
+    private final Statistics statistics = mock(Statistics.class);
+
+    private final QueryStatistics queryStatistics = mock(QueryStatistics.class);
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setup() {
+        when(statistics.getSecondLevelCacheRegionNames()).thenReturn(new String[0]);
+        when(statistics.getQueries()).thenReturn(new String[0]);
+        when(statistics.getQueryStatistics(QUERY)).thenReturn(queryStatistics);
+        when(queryStatistics.getExecutionCount()).thenReturn(4L);
+        when(queryStatistics.getExecutionTotalTime()).thenReturn(100L);
+        when(queryStatistics.getExecutionMaxTime()).thenReturn(70L);
+    }
+
+    @Test
+    void exportsTheSessionFactoryAndItsRegions() {
+        CacheRegionStatistics regionStatistics = mock(CacheRegionStatistics.class);
+        when(regionStatistics.getHitCount()).thenReturn(3L);
+        when(statistics.getSecondLevelCacheRegionNames()).thenReturn(new String[] { REGION });
+        when(statistics.getCacheRegionStatistics(REGION)).thenReturn(regionStatistics);
+        when(statistics.getFlushCount()).thenReturn(5L);
+
+        new HibernateStatisticsMetrics(statistics, Tags.of("entityManagerFactory", "test"), 10).bindTo(registry);
+
+        assertThat(registry.get("hibernate.flushes").tag("entityManagerFactory", "test").functionCounter().count()).isEqualTo(5);
+        assertThat(
+            registry.get("hibernate.second.level.cache.requests").tags("region", REGION, "result", "hit").functionCounter().count()
+        )
+            .isEqualTo(3);
+    }
+
+    @Test
+    void exportsTheQueriesOnceExecuted() {
+        HibernateStatisticsMetrics metrics = new HibernateStatisticsMetrics(statistics, Tags.of("entityManagerFactory", "test"), 10);
+        metrics.bindTo(registry);
+        assertThat(registry.find("hibernate.query.executions").meters()).isEmpty();
+
+        when(statistics.getQueries()).thenReturn(new String[] { QUERY });
+        metrics.registerNewQueries();
+        metrics.registerNewQueries();
+
+        FunctionTimer timer = registry
+            .get("hibernate.query.execution.time")
+            .tags("entityManagerFactory", "test", "query", QUERY)
+            .functionTimer();
+        assertThat(timer.count()).isEqualTo(4);
+        assertThat(timer.mean(TimeUnit.MILLISECONDS)).isEqualTo(25);
+        assertThat(registry.get("hibernate.query.execution.max").tag("query", QUERY).timeGauge().value(TimeUnit.MILLISECONDS))
+            .isEqualTo(70);
+        assertThat(registry.find("hibernate.query.executions").functionCounters()).hasSize(1);
+    }
+
+    @Test
+    void boundsTheNumberOfQueries() {
+        when(statistics.getQueries()).thenReturn(new String[] { QUERY, "select user from User user" });
+
+        new HibernateStatisticsMetrics(statistics, Tags.empty(), 1).bindTo(registry);
+
+        assertThat(registry.find("hibernate.query.executions").functionCounters()).hasSize(1);
+    }
+}
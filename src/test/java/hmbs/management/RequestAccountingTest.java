@@ -0,0 +1,34 @@
+package hmbs.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link RequestAccounting}.
+ */
+class RequestAccountingTest {
+
+    @Test
+    void nestedAccountingsCountTheSameWork() {
+        RequestAccounting outer = RequestAccounting.start();
+        RequestAccounting.statementExecuted(10);
+        RequestAccounting inner = RequestAccounting.start();
+        RequestAccounting.statementExecuted(20);
+        RequestAccounting.cacheGet(true);
+        inner.stop();
+        RequestAccounting.cacheGet(false);
+        outer.stop();
+        RequestAccounting.statementExecuted(40);
+
+        assertThat(inner.getStatements()).isEqualTo(1);
+        assertThat(inner.getStatementNanos()).isEqualTo(20);
+        assertThat(inner.getCacheHits()).isEqualTo(1);
+        assertThat(inner.getCacheMisses()).isZero();
+        assertThat(outer.getStatements()).isEqualTo(2);
+        assertThat(outer.getStatementNanos()).isEqualTo(30);
+        assertThat(outer.getCacheHits()).isEqualTo(1);
+        assertThat(outer.getCacheMisses()).isEqualTo(1);
+        assertThat(RequestAccounting.isActive()).isFalse();
+    }
+}
@@ -0,0 +1,52 @@
+package hmbs.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Unit tests for {@link AuthenticationCache}.
+ */
+class AuthenticationCacheTest {
+
+    private static final long NOW = 1_000_000L;
+
+    @Test
+    void testEntriesExpireWithTheirToken() {
+        AuthenticationCache cache = new AuthenticationCache(10);
+        Authentication authentication = new UsernamePasswordAuthenticationToken("user", "token");
+        cache.put("token", authentication, NOW + 1000, NOW);
+
+        assertThat(cache.get("token", NOW + 999)).isSameAs(authentication);
+        assertThat(cache.get("token", NOW + 1000)).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void testSizeIsBounded() {
+        AuthenticationCache cache = new AuthenticationCache(2);
+        cache.put("expired", new UsernamePasswordAuthenticationToken("a", "expired"), NOW + 10, NOW);
+        cache.put("first", new UsernamePasswordAuthenticationToken("b", "first"), NOW + 1000, NOW);
+        cache.put("second", new UsernamePasswordAuthenticationToken("c", "second"), NOW + 1000, NOW + 100);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("first", NOW + 100)).isNotNull();
+        assertThat(cache.get("second", NOW + 100)).isNotNull();
+
+        cache.put("third", new UsernamePasswordAuthenticationToken("d", "third"), NOW + 1000, NOW + 100);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("third", NOW + 100)).isNotNull();
+        assertThat(cache.evictExpired(NOW + 1000)).isEqualTo(2);
+    }
+
+    @Test
+    void testDisabledCacheKeepsNothing() {
+        AuthenticationCache cache = new AuthenticationCache(0);
+        cache.put("token", new UsernamePasswordAuthenticationToken("user", "token"), NOW + 1000, NOW);
+
+        assertThat(cache.get("token", NOW)).isNull();
+    }
+}
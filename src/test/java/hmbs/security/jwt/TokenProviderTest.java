@@ -2,6 +2,7 @@ package hmbs.security.jwt;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import hmbs.config.ApplicationProperties;
 import hmbs.management.SecurityMetersService;
 import hmbs.security.AuthoritiesConstants;
 import io.jsonwebtoken.Jwts;
@@ -36,7 +37,7 @@ class TokenProviderTest {
 
         SecurityMetersService securityMetersService = new SecurityMetersService(new SimpleMeterRegistry());
 
-        tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
+        tokenProvider = new TokenProvider(jHipsterProperties, new ApplicationProperties(), securityMetersService);
         key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret));
 
         ReflectionTestUtils.setField(tokenProvider, "key", key);
@@ -88,6 +89,36 @@ class TokenProviderTest {
         assertThat(isTokenValid).isFalse();
     }
 
+    @Test
+    void testAuthenticateCachesTheAuthenticationOfAValidToken() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        Optional<Authentication> authentication = tokenProvider.authenticate(token);
+
+        assertThat(authentication).isPresent();
+        assertThat(authentication.get().getName()).isEqualTo("anonymous");
+        assertThat(authentication.get().getAuthorities())
+            .extracting(GrantedAuthority::getAuthority)
+            .containsExactly(AuthoritiesConstants.ANONYMOUS);
+        assertThat(tokenProvider.authenticate(token)).containsSame(authentication.get());
+    }
+
+    @Test
+    void testAuthenticateRejectsAnInvalidToken() {
+        assertThat(tokenProvider.authenticate(createTokenWithDifferentSignature())).isEmpty();
+        assertThat(tokenProvider.authenticate(createUnsupportedToken())).isEmpty();
+        assertThat(tokenProvider.authenticate("")).isEmpty();
+    }
+
+    @Test
+    void testAuthenticateRejectsAnExpiredToken() {
+        ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", -ONE_MINUTE);
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        assertThat(tokenProvider.authenticate(token)).isEmpty();
+        assertThat(tokenProvider.authenticate(token)).isEmpty();
+    }
+
     @Test
     void testKeyIsSetFromSecretWhenSecretIsNotEmpty() {
         final String secret = "NwskoUmKHZtzGRKJKVjsJF7BtQMMxNWi";
@@ -96,7 +127,7 @@ class TokenProviderTest {
 
         SecurityMetersService securityMetersService = new SecurityMetersService(new SimpleMeterRegistry());
 
-        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
+        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties, new ApplicationProperties(), securityMetersService);
 
         Key key = (Key) ReflectionTestUtils.getField(tokenProvider, "key");
         assertThat(key).isNotNull().isEqualTo(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)));
@@ -110,7 +141,7 @@ class TokenProviderTest {
 
         SecurityMetersService securityMetersService = new SecurityMetersService(new SimpleMeterRegistry());
 
-        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
+        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties, new ApplicationProperties(), securityMetersService);
 
         Key key = (Key) ReflectionTestUtils.getField(tokenProvider, "key");
         assertThat(key).isNotNull().isEqualTo(Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret)));
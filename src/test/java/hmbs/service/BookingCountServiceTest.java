@@ -0,0 +1,94 @@
+package hmbs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import hmbs.domain.Booking;
+import hmbs.repository.BookingRepository;
+import hmbs.repository.HotelBookingCount;
+import hmbs.service.criteria.BookingCriteria;
+import hmbs.service.event.BookingChangedEvent;
+import java.util.List;
+import java.util.OptionalLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link BookingCountService}.
+ */
+class BookingCountServiceTest {
+
+    private BookingCountService bookingCountService;
+
+    @BeforeEach
+    public void setup() {
+        BookingRepository bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.countAllByHotelId()).thenReturn(List.of(count(1L, 3), count(2L, 5), count(null, 1)));
+        bookingCountService = new BookingCountService(bookingRepository);
+    }
+
+    @Test
+    void nothingIsEstimatedBeforeLoading() {
+        assertThat(bookingCountService.estimate(new BookingCriteria())).isEmpty();
+    }
+
+    @Test
+    void estimateAllAndPerHotel() {
+        bookingCountService.reload();
+
+        assertThat(bookingCountService.estimate(null)).hasValue(9);
+        assertThat(bookingCountService.estimate(hotel(2L))).hasValue(5);
+        assertThat(bookingCountService.estimate(hotel(3L))).hasValue(0);
+    }
+
+    @Test
+    void otherFiltersAreNotEstimated() {
+        bookingCountService.reload();
+
+        BookingCriteria criteria = hotel(1L);
+        criteria.roomId().setEquals(1L);
+        assertThat(bookingCountService.estimate(criteria)).isEmpty();
+
+        criteria = new BookingCriteria();
+        criteria.hotelId().setGreaterThan(1L);
+        assertThat(bookingCountService.estimate(criteria)).isEmpty();
+    }
+
+    @Test
+    void followTheCommittedChanges() {
+        bookingCountService.reload();
+        Booking booking = new Booking().id(10L).hotelId(1L);
+
+        bookingCountService.onBookingChanged(BookingChangedEvent.created(booking));
+        assertThat(bookingCountService.estimate(hotel(1L))).hasValue(4);
+
+        bookingCountService.onBookingChanged(BookingChangedEvent.updated(booking, new Booking().id(10L).hotelId(2L)));
+        assertThat(bookingCountService.estimate(hotel(1L))).hasValue(3);
+        assertThat(bookingCountService.estimate(hotel(2L))).hasValue(6);
+
+        bookingCountService.onBookingChanged(BookingChangedEvent.deleted(new Booking().id(10L).hotelId(2L)));
+        assertThat(bookingCountService.estimate(hotel(2L))).hasValue(5);
+        assertThat(bookingCountService.estimate(null)).isEqualTo(OptionalLong.of(9));
+    }
+
+    private static BookingCriteria hotel(Long hotelId) {
+        BookingCriteria criteria = new BookingCriteria();
+        criteria.hotelId().setEquals(hotelId);
+        return criteria;
+    }
+
+    private static HotelBookingCount count(Long hotelId, long bookings) {
+        return new HotelBookingCount() {
+            @Override
+            public Long getHotelId() {
+                return hotelId;
+            }
+
+            @Override
+            public long getBookings() {
+                return bookings;
+            }
+        };
+    }
+}
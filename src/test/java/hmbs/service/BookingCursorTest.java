@@ -0,0 +1,80 @@
+package hmbs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import hmbs.domain.Booking;
+import java.time.LocalDate;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Unit tests for {@link BookingCursor}.
+ */
+class BookingCursorTest {
+
+    @Test
+    void keysetSortDefaultsToId() {
+        assertThat(BookingCursor.keysetSort(Sort.unsorted())).isEqualTo(Sort.by("id"));
+        assertThat(BookingCursor.keysetSort(Sort.by(Sort.Direction.DESC, "id"))).isEqualTo(Sort.by(Sort.Direction.DESC, "id"));
+    }
+
+    @Test
+    void keysetSortAppendsIdInTheSameDirection() {
+        assertThat(BookingCursor.keysetSort(Sort.by(Sort.Direction.DESC, "checkin")))
+            .isEqualTo(Sort.by(Sort.Direction.DESC, "checkin", "id"));
+        assertThat(BookingCursor.keysetSort(Sort.by(Sort.Order.asc("checkin"), Sort.Order.desc("id"))))
+            .isEqualTo(Sort.by(Sort.Direction.ASC, "checkin", "id"));
+    }
+
+    @Test
+    void keysetSortRejectsSeveralProperties() {
+        assertThatThrownBy(() -> BookingCursor.keysetSort(Sort.by("checkin", "roomId"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BookingCursor.keysetSort(Sort.by("unknown"))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void encodeThenDecode() {
+        Sort sort = BookingCursor.keysetSort(Sort.by(Sort.Direction.DESC, "checkin"));
+        BookingCursor cursor = BookingCursor.after(new Booking().id(42L).checkin(LocalDate.of(2023, 6, 10)), sort);
+
+        assertThat(BookingCursor.decode(cursor.encode(), sort)).isEqualTo(cursor);
+    }
+
+    @Test
+    void encodeThenDecodeWithoutSortValue() {
+        Sort sort = BookingCursor.keysetSort(Sort.by("checkin"));
+        BookingCursor cursor = BookingCursor.after(new Booking().id(42L), sort);
+
+        assertThat(BookingCursor.decode(cursor.encode(), sort)).isEqualTo(cursor);
+    }
+
+    @Test
+    void phasesReadTheRowsWithoutSortValueLastInAscendingOrder() {
+        Sort sort = BookingCursor.keysetSort(Sort.by("checkin"));
+        BookingCursor withValue = BookingCursor.after(new Booking().id(42L).checkin(LocalDate.of(2023, 6, 10)), sort);
+        BookingCursor withoutValue = BookingCursor.after(new Booking().id(42L), sort);
+
+        assertThat(BookingCursor.phases(withValue, sort)).extracting(BookingCursor.Phase::getSort).containsExactly(sort, Sort.by("id"));
+        assertThat(BookingCursor.phases(withoutValue, sort)).extracting(BookingCursor.Phase::getSort).containsExactly(Sort.by("id"));
+    }
+
+    @Test
+    void phasesReadTheRowsWithoutSortValueFirstInDescendingOrder() {
+        Sort sort = BookingCursor.keysetSort(Sort.by(Sort.Direction.DESC, "checkin"));
+        Sort byId = Sort.by(Sort.Direction.DESC, "id");
+
+        assertThat(BookingCursor.phases(null, sort)).extracting(BookingCursor.Phase::getSort).containsExactly(byId, sort);
+        assertThat(BookingCursor.phases(null, byId)).extracting(BookingCursor.Phase::getSort).containsExactly(byId);
+    }
+
+    @Test
+    void decodeRejectsAnotherSort() {
+        Sort sort = BookingCursor.keysetSort(Sort.by(Sort.Direction.DESC, "checkin"));
+        String token = BookingCursor.after(new Booking().id(42L).checkin(LocalDate.of(2023, 6, 10)), sort).encode();
+
+        assertThatThrownBy(() -> BookingCursor.decode(token, BookingCursor.keysetSort(Sort.by("checkin"))))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BookingCursor.decode("not a cursor", sort)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
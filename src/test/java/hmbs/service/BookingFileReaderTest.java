@@ -0,0 +1,127 @@
+package hmbs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import hmbs.domain.Booking;
+import hmbs.domain.enumeration.BookingImportFormat;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link BookingFileReader}.
+ */
+class BookingFileReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void readsTheCsvOfTheExport() throws IOException {
+        BookingFileReader reader = reader(
+            BookingImportFormat.CSV,
+            "id,hotelId,roomId,userId,checkin,checkout,numOfGuests,finalPrice\n" +
+            "7,1,2,3,2024-01-01,2024-01-03,2,150.5\n"
+        );
+
+        BookingFileReader.Row row = reader.next();
+
+        assertThat(row.getNumber()).isEqualTo(1);
+        assertThat(row.getError()).isNull();
+        Booking booking = row.getBooking();
+        assertThat(booking.getId()).isNull();
+        assertThat(booking.getHotelId()).isEqualTo(1L);
+        assertThat(booking.getRoomId()).isEqualTo(2L);
+        assertThat(booking.getUserId()).isEqualTo(3);
+        assertThat(booking.getCheckin()).isEqualTo(LocalDate.of(2024, 1, 1));
+        assertThat(booking.getCheckout()).isEqualTo(LocalDate.of(2024, 1, 3));
+        assertThat(booking.getNumOfGuests()).isEqualTo(2);
+        assertThat(booking.getFinalPrice()).isEqualTo(150.5);
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void readsTheCsvOfTheDatabaseColumns() throws IOException {
+        BookingFileReader reader = reader(
+            BookingImportFormat.CSV,
+            "id;hotel_id;room_id;user_id;checkin;checkout;num_of_guests;final_price\n" +
+            "\n" +
+            "1;31557;96105;13776;2023-01-25;2023-01-25;2;87284\n"
+        );
+
+        Booking booking = reader.next().getBooking();
+
+        assertThat(booking.getHotelId()).isEqualTo(31557L);
+        assertThat(booking.getNumOfGuests()).isEqualTo(2);
+        assertThat(booking.getFinalPrice()).isEqualTo(87284.0);
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void rejectsInvalidRowsAndGoesOn() throws IOException {
+        BookingFileReader reader = reader(
+            BookingImportFormat.CSV,
+            "hotelId,roomId,checkin,checkout\n" +
+            "1,2,2024-01-01\n" +
+            "1,x,2024-01-01,2024-01-02\n" +
+            "1,2,2024-13-01,2024-01-02\n" +
+            "1,2,2024-01-01,2024-01-02\n"
+        );
+
+        for (int number = 1; number <= 3; number++) {
+            BookingFileReader.Row row = reader.next();
+            assertThat(row.getNumber()).isEqualTo(number);
+            assertThat(row.getBooking()).isNull();
+            assertThat(row.getError()).startsWith("Row " + number + ": ");
+        }
+        assertThat(reader.next().getBooking()).isNotNull();
+    }
+
+    @Test
+    void rejectsACsvWithoutHeader() {
+        assertThatThrownBy(() -> reader(BookingImportFormat.CSV, "\n").next()).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void readsNdjson() throws IOException {
+        BookingFileReader reader = reader(
+            BookingImportFormat.NDJSON,
+            "{\"id\":7,\"hotelId\":1,\"roomId\":2,\"checkin\":\"2024-01-01\",\"checkout\":\"2024-01-03\"}\n" +
+            "{\"hotelId\":\n" +
+            "null\n"
+        );
+
+        Booking booking = reader.next().getBooking();
+        BookingFileReader.Row invalid = reader.next();
+        BookingFileReader.Row missing = reader.next();
+
+        assertThat(booking.getId()).isNull();
+        assertThat(booking.getRoomId()).isEqualTo(2L);
+        assertThat(booking.getCheckout()).isEqualTo(LocalDate.of(2024, 1, 3));
+        assertThat(invalid.getBooking()).isNull();
+        assertThat(invalid.getError()).startsWith("Row 2: ");
+        assertThat(missing.getBooking()).isNull();
+        assertThat(missing.getError()).isEqualTo("Row 3: the booking is missing");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void skipsTheProcessedRows() throws IOException {
+        BookingFileReader reader = reader(BookingImportFormat.CSV, "hotelId\n1\n\n2\n3\n");
+
+        assertThat(reader.skip(2)).isEqualTo(2);
+        BookingFileReader.Row row = reader.next();
+
+        assertThat(row.getNumber()).isEqualTo(3);
+        assertThat(row.getBooking().getHotelId()).isEqualTo(3L);
+        assertThat(reader.skip(5)).isZero();
+    }
+
+    private BookingFileReader reader(BookingImportFormat format, String content) {
+        return new BookingFileReader(new BufferedReader(new StringReader(content)), format, objectMapper);
+    }
+}
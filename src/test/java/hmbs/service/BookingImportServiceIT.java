@@ -0,0 +1,129 @@
+package hmbs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hmbs.IntegrationTest;
+import hmbs.domain.BookingImport;
+import hmbs.domain.enumeration.BookingImportFormat;
+import hmbs.domain.enumeration.BookingImportStatus;
+import hmbs.repository.BookingImportRepository;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link BookingImportService}.
+ * <p>
+ * The imports are read and updated by several transactions, so these tests are not transactional and clean up after
+ * themselves.
+ */
+@IntegrationTest
+class BookingImportServiceIT {
+
+    @Autowired
+    private BookingImportService bookingImportService;
+
+    @Autowired
+    private BookingImportRepository bookingImportRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Long> importIds = new ArrayList<>();
+
+    @AfterEach
+    public void cleanUp() {
+        importIds.forEach(bookingImportRepository::deleteById);
+    }
+
+    @Test
+    void onlyTheImportsWithAnExpiredLeaseAreFailed() {
+        BookingImport abandoned = save(BookingImportStatus.RUNNING, Instant.now().minus(2, ChronoUnit.MINUTES));
+        BookingImport pending = save(BookingImportStatus.PENDING, Instant.now().minus(2, ChronoUnit.MINUTES));
+        BookingImport alive = save(BookingImportStatus.RUNNING, Instant.now());
+
+        bookingImportService.failAbandonedImports();
+
+        BookingImport failed = bookingImportRepository.findById(abandoned.getId()).orElseThrow();
+        assertThat(failed.getStatus()).isEqualTo(BookingImportStatus.FAILED);
+        assertThat(failed.getLastError()).isEqualTo("Abandoned by its node");
+        assertThat(bookingImportRepository.findById(pending.getId()).orElseThrow().getStatus()).isEqualTo(BookingImportStatus.FAILED);
+        assertThat(bookingImportRepository.findById(alive.getId()).orElseThrow().getStatus()).isEqualTo(BookingImportStatus.RUNNING);
+    }
+
+    @Test
+    void aRenewedLeaseIsNotFailed() {
+        Instant expired = Instant.now().minus(2, ChronoUnit.MINUTES);
+        BookingImport renewed = save(BookingImportStatus.RUNNING, expired.minusSeconds(1));
+        transactionTemplate().executeWithoutResult(status -> bookingImportRepository.renewLeases(List.of(renewed.getId()), Instant.now()));
+
+        Integer failed = transactionTemplate()
+            .execute(status -> bookingImportRepository.failExpired(renewed.getId(), expired, Instant.now(), "Abandoned by its node"));
+
+        assertThat(failed).isZero();
+        assertThat(bookingImportRepository.findById(renewed.getId()).orElseThrow().getStatus()).isEqualTo(BookingImportStatus.RUNNING);
+    }
+
+    @Test
+    void concurrentResumesResumeOnce() throws Exception {
+        BookingImport failed = save(BookingImportStatus.FAILED, Instant.now().minus(2, ChronoUnit.MINUTES));
+        TransactionTemplate transactionTemplate = transactionTemplate();
+        Instant now = Instant.now();
+        CountDownLatch updated = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // The first resume holds its update until the second one was sent
+            Future<Integer> first = executor.submit(() ->
+                transactionTemplate.execute(status -> {
+                    int count = bookingImportRepository.resumeFailed(failed.getId(), now);
+                    updated.countDown();
+                    pause(300);
+                    return count;
+                })
+            );
+            updated.await();
+            Integer second = transactionTemplate.execute(status -> bookingImportRepository.resumeFailed(failed.getId(), now));
+
+            assertThat(List.of(first.get(), second)).containsExactly(1, 0);
+        } finally {
+            executor.shutdown();
+        }
+        BookingImport resumed = bookingImportRepository.findById(failed.getId()).orElseThrow();
+        assertThat(resumed.getStatus()).isEqualTo(BookingImportStatus.PENDING);
+        assertThat(resumed.getHeartbeatDate()).isAfter(failed.getHeartbeatDate());
+    }
+
+    private BookingImport save(BookingImportStatus status, Instant heartbeatDate) {
+        BookingImport bookingImport = new BookingImport();
+        bookingImport.setFormat(BookingImportFormat.CSV);
+        bookingImport.setStatus(status);
+        bookingImport.setCreatedDate(Instant.now());
+        bookingImport.setHeartbeatDate(heartbeatDate);
+        bookingImport = bookingImportRepository.saveAndFlush(bookingImport);
+        importIds.add(bookingImport.getId());
+        return bookingImport;
+    }
+
+    private TransactionTemplate transactionTemplate() {
+        return new TransactionTemplate(transactionManager);
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
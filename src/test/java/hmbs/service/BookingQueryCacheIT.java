@@ -0,0 +1,132 @@
+package hmbs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hmbs.IntegrationTest;
+import hmbs.domain.Booking;
+import hmbs.service.criteria.BookingCriteria;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.TestPropertySource;
+import tech.jhipster.service.filter.LongFilter;
+
+/**
+ * Integration tests for {@link BookingQueryCache}, through {@link BookingQueryService}.
+ * <p>
+ * The cache is evicted once the bookings commit, so these tests are not transactional and clean up after themselves.
+ */
+@IntegrationTest
+@TestPropertySource(properties = "application.query-cache.enabled=true")
+class BookingQueryCacheIT {
+
+    private static final LocalDate CHECKIN = LocalDate.of(2024, 4, 1);
+
+    private static final long HOTEL_ID = 93000L;
+
+    private static final long OTHER_HOTEL_ID = 93001L;
+
+    private static final Pageable PAGE = PageRequest.of(0, 20);
+
+    private static long nextRoomId = 93000L;
+
+    @Autowired
+    private BookingQueryService bookingQueryService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final List<Long> createdIds = new ArrayList<>();
+
+    @AfterEach
+    public void cleanUp() {
+        createdIds.forEach(bookingService::delete);
+    }
+
+    @Test
+    void cachedResultIsReadWithoutConnection() {
+        save(HOTEL_ID);
+        Page<Booking> loaded = bookingQueryService.findByCriteria(byHotel(HOTEL_ID), PAGE);
+        long acquired = acquiredConnections();
+
+        Slice<Booking> cached = bookingQueryService.findByCriteria(byHotel(HOTEL_ID), PAGE, BookingQueryService.CountMode.EXACT);
+
+        assertThat(cached).isSameAs(loaded);
+        assertThat(acquiredConnections()).isEqualTo(acquired);
+    }
+
+    @Test
+    void changesOfTheHotelAreSeen() {
+        Booking first = save(HOTEL_ID);
+        assertThat(bookingQueryService.findByCriteria(byHotel(HOTEL_ID), PAGE)).containsExactly(first);
+
+        Booking second = save(HOTEL_ID);
+        assertThat(bookingQueryService.findByCriteria(byHotel(HOTEL_ID), PAGE)).containsExactlyInAnyOrder(first, second);
+        assertThat(bookingQueryService.countByCriteria(byHotel(HOTEL_ID))).isEqualTo(2);
+
+        bookingService.delete(first.getId());
+        createdIds.remove(first.getId());
+        assertThat(bookingQueryService.findByCriteria(byHotel(HOTEL_ID), PAGE)).containsExactly(second);
+        assertThat(bookingQueryService.countByCriteria(byHotel(HOTEL_ID))).isEqualTo(1);
+    }
+
+    @Test
+    void changesOfAnotherHotelKeepTheResult() {
+        save(HOTEL_ID);
+        Page<Booking> loaded = bookingQueryService.findByCriteria(byHotel(HOTEL_ID), PAGE);
+
+        save(OTHER_HOTEL_ID);
+
+        assertThat(bookingQueryService.findByCriteria(byHotel(HOTEL_ID), PAGE)).isSameAs(loaded);
+    }
+
+    @Test
+    void changesOfAnyHotelAreSeenByTheResultsOfAllHotels() {
+        BookingCriteria allHotels = new BookingCriteria();
+        allHotels.checkin().setGreaterThanOrEqual(CHECKIN);
+        allHotels.checkin().setLessThan(CHECKIN.plusDays(1));
+        assertThat(bookingQueryService.countByCriteria(allHotels)).isZero();
+
+        save(OTHER_HOTEL_ID);
+
+        assertThat(bookingQueryService.countByCriteria(allHotels)).isEqualTo(1);
+    }
+
+    private Booking save(long hotelId) {
+        Booking booking = bookingService.save(
+            new Booking()
+                .hotelId(hotelId)
+                .roomId(nextRoomId++)
+                .userId(1)
+                .checkin(CHECKIN)
+                .checkout(CHECKIN.plusDays(2))
+                .numOfGuests(2)
+                .finalPrice(100D)
+        );
+        createdIds.add(booking.getId());
+        return booking;
+    }
+
+    private static BookingCriteria byHotel(long hotelId) {
+        BookingCriteria criteria = new BookingCriteria();
+        LongFilter filter = new LongFilter();
+        filter.setEquals(hotelId);
+        criteria.setHotelId(filter);
+        return criteria;
+    }
+
+    private long acquiredConnections() {
+        return meterRegistry.get("hikaricp.connections.acquire").timer().count();
+    }
+}
@@ -0,0 +1,190 @@
+package hmbs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hmbs.config.ApplicationProperties;
+import hmbs.domain.Booking;
+import hmbs.service.criteria.BookingCriteria;
+import hmbs.service.event.BookingChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.cache.Caching;
+import javax.cache.configuration.MutableConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.jcache.JCacheCacheManager;
+import org.springframework.data.domain.PageRequest;
+import tech.jhipster.service.filter.LocalDateFilter;
+
+/**
+ * Unit tests for {@link BookingQueryCache}.
+ */
+class BookingQueryCacheTest {
+
+    private javax.cache.CacheManager jcacheManager;
+
+    private SimpleMeterRegistry registry;
+
+    private BookingQueryCache bookingQueryCache;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    public void setup() {
+        jcacheManager = Caching.getCachingProvider().getCacheManager();
+        jcacheManager.createCache(BookingQueryCache.BOOKINGS_BY_CRITERIA_CACHE, new MutableConfiguration<>());
+        jcacheManager.createCache(BookingQueryCache.BOOKING_COUNTS_BY_CRITERIA_CACHE, new MutableConfiguration<>());
+        registry = new SimpleMeterRegistry();
+        bookingQueryCache = new BookingQueryCache(new JCacheCacheManager(jcacheManager), new ApplicationProperties(), registry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jcacheManager.destroyCache(BookingQueryCache.BOOKINGS_BY_CRITERIA_CACHE);
+        jcacheManager.destroyCache(BookingQueryCache.BOOKING_COUNTS_BY_CRITERIA_CACHE);
+        jcacheManager.close();
+    }
+
+    @Test
+    void equivalentCriteriaShareTheirEntry() {
+        BookingCriteria criteria = new BookingCriteria();
+        criteria.hotelId().setIn(List.of(2L, 1L));
+        criteria.roomId();
+        BookingCriteria equivalent = new BookingCriteria();
+        equivalent.hotelId().setIn(List.of(1L, 2L, 1L));
+        equivalent.setDistinct(false);
+
+        assertThat(count(criteria)).isEqualTo(1);
+        assertThat(count(equivalent)).isEqualTo(1);
+        assertThat(loads).hasValue(1);
+        assertThat(meter(BookingQueryCache.BOOKING_COUNTS_BY_CRITERIA_CACHE, "hit")).isEqualTo(1);
+        assertThat(meter(BookingQueryCache.BOOKING_COUNTS_BY_CRITERIA_CACHE, "miss")).isEqualTo(1);
+    }
+
+    @Test
+    void pagesAreCachedSeparately() {
+        bookingQueryCache.get(BookingQueryCache.BOOKINGS_BY_CRITERIA_CACHE, null, PageRequest.of(0, 20), loads::incrementAndGet);
+        bookingQueryCache.get(BookingQueryCache.BOOKINGS_BY_CRITERIA_CACHE, null, PageRequest.of(1, 20), loads::incrementAndGet);
+        bookingQueryCache.get(BookingQueryCache.BOOKINGS_BY_CRITERIA_CACHE, null, PageRequest.of(0, 20), loads::incrementAndGet);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void onlyMatchingEntriesAreEvicted() {
+        BookingCriteria hotel1 = hotel(1L);
+        BookingCriteria hotel2 = hotel(2L);
+        BookingCriteria hotel1InJune = hotel(1L);
+        hotel1InJune.setCheckin(new LocalDateFilter());
+        hotel1InJune.getCheckin().setGreaterThanOrEqual(LocalDate.of(2023, 6, 1));
+        hotel1InJune.getCheckin().setLessThan(LocalDate.of(2023, 7, 1));
+        count(hotel1);
+        count(hotel2);
+        count(hotel1InJune);
+
+        bookingQueryCache.onBookingChanged(BookingChangedEvent.created(booking(1L, LocalDate.of(2023, 8, 1))));
+
+        assertThat(count(hotel1)).isEqualTo(4);
+        assertThat(count(hotel2)).isEqualTo(2);
+        assertThat(count(hotel1InJune)).isEqualTo(3);
+        assertThat(meter(BookingQueryCache.BOOKING_COUNTS_BY_CRITERIA_CACHE, "eviction")).isEqualTo(1);
+    }
+
+    @Test
+    void bothSidesOfAnUpdateAreEvicted() {
+        count(hotel(1L));
+        count(hotel(2L));
+
+        bookingQueryCache.onBookingChanged(
+            BookingChangedEvent.updated(booking(1L, LocalDate.of(2023, 8, 1)), booking(2L, LocalDate.of(2023, 8, 1)))
+        );
+
+        assertThat(meter(BookingQueryCache.BOOKING_COUNTS_BY_CRITERIA_CACHE, "eviction")).isEqualTo(2);
+    }
+
+    @Test
+    void entriesOfSeveralHotelsAreEvictedOnce() {
+        BookingCriteria hotels = new BookingCriteria();
+        hotels.hotelId().setIn(List.of(1L, 2L));
+        count(hotels);
+        count(hotel(3L));
+
+        bookingQueryCache.onBookingChanged(
+            BookingChangedEvent.updated(booking(1L, LocalDate.of(2023, 8, 1)), booking(2L, LocalDate.of(2023, 8, 1)))
+        );
+
+        assertThat(meter(BookingQueryCache.BOOKING_COUNTS_BY_CRITERIA_CACHE, "eviction")).isEqualTo(1);
+        assertThat(count(hotels)).isEqualTo(3);
+        assertThat(count(hotel(3L))).isEqualTo(2);
+    }
+
+    @Test
+    void entriesOfAnyHotelAreEvicted() {
+        count(new BookingCriteria());
+
+        bookingQueryCache.onBookingChanged(BookingChangedEvent.created(booking(5L, LocalDate.of(2023, 8, 1))));
+        bookingQueryCache.onBookingChanged(BookingChangedEvent.created(booking(null, LocalDate.of(2023, 8, 1))));
+
+        assertThat(meter(BookingQueryCache.BOOKING_COUNTS_BY_CRITERIA_CACHE, "eviction")).isEqualTo(1);
+        assertThat(count(new BookingCriteria())).isEqualTo(2);
+    }
+
+    @Test
+    void keysOfExpiredEntriesAreForgotten() {
+        count(hotel(1L));
+        jcacheManager.getCache(BookingQueryCache.BOOKING_COUNTS_BY_CRITERIA_CACHE).clear();
+
+        bookingQueryCache.removeStaleKeys();
+        bookingQueryCache.onBookingChanged(BookingChangedEvent.created(booking(1L, LocalDate.of(2023, 8, 1))));
+
+        assertThat(meter(BookingQueryCache.BOOKING_COUNTS_BY_CRITERIA_CACHE, "eviction")).isZero();
+    }
+
+    @Test
+    void resultsReadDuringAnEvictionAreNotCached() {
+        bookingQueryCache.get(
+            BookingQueryCache.BOOKING_COUNTS_BY_CRITERIA_CACHE,
+            hotel(1L),
+            null,
+            () -> {
+                bookingQueryCache.onBookingChanged(BookingChangedEvent.created(booking(1L, LocalDate.of(2023, 8, 1))));
+                return loads.incrementAndGet();
+            }
+        );
+
+        assertThat(count(hotel(1L))).isEqualTo(2);
+    }
+
+    @Test
+    void disabledCacheAlwaysLoads() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getQueryCache().setEnabled(false);
+        bookingQueryCache = new BookingQueryCache(new JCacheCacheManager(jcacheManager), applicationProperties, registry);
+
+        count(hotel(1L));
+        count(hotel(1L));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    private int count(BookingCriteria criteria) {
+        return bookingQueryCache.get(BookingQueryCache.BOOKING_COUNTS_BY_CRITERIA_CACHE, criteria, null, loads::incrementAndGet);
+    }
+
+    private double meter(String cacheName, String result) {
+        return registry.get(BookingQueryCache.METER_NAME).tag("cache", cacheName).tag("result", result).counter().count();
+    }
+
+    private static BookingCriteria hotel(Long hotelId) {
+        BookingCriteria criteria = new BookingCriteria();
+        criteria.hotelId().setEquals(hotelId);
+        return criteria;
+    }
+
+    private static Booking booking(Long hotelId, LocalDate checkin) {
+        return new Booking().id(10L).hotelId(hotelId).checkin(checkin).checkout(checkin.plusDays(2));
+    }
+}
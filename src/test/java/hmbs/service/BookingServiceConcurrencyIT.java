@@ -0,0 +1,253 @@
+package hmbs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import hmbs.IntegrationTest;
+import hmbs.config.ApplicationProperties;
+import hmbs.domain.Booking;
+import hmbs.repository.BookingRepository;
+import hmbs.repository.RoomLockRepository;
+import hmbs.service.availability.RoomAvailabilityService;
+import hmbs.service.availability.RoomHoldService;
+import hmbs.service.availability.RoomLockService;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Stress tests for the room conflict detection of {@link BookingService}.
+ * <p>
+ * Bookings are committed concurrently, so these tests are not transactional and clean up after themselves.
+ */
+@IntegrationTest
+class BookingServiceConcurrencyIT {
+
+    private final Logger log = LoggerFactory.getLogger(BookingServiceConcurrencyIT.class);
+
+    private static final long FIRST_ROOM_ID = 91000L;
+    private static final int THREADS = 8;
+    private static final int ATTEMPTS_PER_THREAD = 40;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 2, 1);
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private RoomLockRepository roomLockRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private BookingValidator bookingValidator;
+
+    @Autowired
+    private RoomHoldService roomHoldService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final List<Booking> createdBookings = Collections.synchronizedList(new ArrayList<>());
+
+    @AfterEach
+    public void cleanUp() {
+        createdBookings.forEach(booking -> bookingService.delete(booking.getId()));
+    }
+
+    @Test
+    void concurrentBookingsOfTheSameRoomsNeverOverlap() throws Exception {
+        int rooms = 3;
+        AtomicInteger rejected = new AtomicInteger();
+        long elapsed = runConcurrently(attempt -> {
+            Random random = new Random(attempt);
+            LocalDate checkin = FIRST_DAY.plusDays(random.nextInt(30));
+            Booking booking = newBooking(FIRST_ROOM_ID + random.nextInt(rooms), checkin, checkin.plusDays(1 + random.nextInt(4)));
+            try {
+                createdBookings.add(bookingService.save(booking));
+            } catch (RoomNotAvailableException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        log.info(
+            "{} bookings accepted and {} rejected on {} rooms in {} ms ({} attempts/s)",
+            createdBookings.size(),
+            rejected.get(),
+            rooms,
+            elapsed,
+            THREADS * ATTEMPTS_PER_THREAD * 1000L / Math.max(elapsed, 1)
+        );
+        assertThat(createdBookings.size() + rejected.get()).isEqualTo(THREADS * ATTEMPTS_PER_THREAD);
+        assertThat(createdBookings).isNotEmpty();
+        for (long roomId = FIRST_ROOM_ID; roomId < FIRST_ROOM_ID + rooms; roomId++) {
+            assertNoOverlap(roomId);
+        }
+    }
+
+    @Test
+    void bookingsOfUnrelatedRoomsAreAllAccepted() throws Exception {
+        long elapsed = runConcurrently(attempt ->
+            createdBookings.add(bookingService.save(newBooking(FIRST_ROOM_ID + 100 + attempt, FIRST_DAY, FIRST_DAY.plusDays(3))))
+        );
+
+        log.info(
+            "{} bookings of distinct rooms accepted in {} ms ({} bookings/s)",
+            createdBookings.size(),
+            elapsed,
+            createdBookings.size() * 1000L / Math.max(elapsed, 1)
+        );
+        assertThat(createdBookings).hasSize(THREADS * ATTEMPTS_PER_THREAD);
+    }
+
+    @Test
+    void bookingsOfTwoNodesAreSerializedByTheDatabase() throws Exception {
+        // Each node has its own striped locks, and an availability view which does not know about the other node
+        BookingService firstNode = newNode();
+        BookingService secondNode = newNode();
+        // The default isolation level of InnoDB, where a transaction reads the snapshot taken by its first read
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        long roomId = FIRST_ROOM_ID + 900;
+        CountDownLatch firstLocked = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        boolean secondRejected = false;
+        try {
+            Future<Booking> first = executor.submit(() ->
+                transactionTemplate.execute(status -> {
+                    Booking booking = firstNode.save(newBooking(roomId, FIRST_DAY, FIRST_DAY.plusDays(3)));
+                    firstLocked.countDown();
+                    // Commit only once the second node waits on the room
+                    pause(300);
+                    return booking;
+                })
+            );
+            assertThat(firstLocked.await(10, TimeUnit.SECONDS)).isTrue();
+            try {
+                createdBookings.add(
+                    transactionTemplate.execute(status -> secondNode.save(newBooking(roomId, FIRST_DAY.plusDays(1), FIRST_DAY.plusDays(4))))
+                );
+            } catch (RoomNotAvailableException e) {
+                secondRejected = true;
+            }
+            createdBookings.add(first.get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(secondRejected).isTrue();
+        assertNoOverlap(roomId);
+    }
+
+    @Test
+    void aRoomWithAKnownLockIsBookedWithOneConnection() {
+        long roomId = FIRST_ROOM_ID + 950;
+        createdBookings.add(bookingService.save(newBooking(roomId, FIRST_DAY, FIRST_DAY.plusDays(1))));
+        long acquired = acquiredConnections();
+
+        createdBookings.add(bookingService.save(newBooking(roomId, FIRST_DAY.plusDays(1), FIRST_DAY.plusDays(2))));
+
+        assertThat(acquiredConnections() - acquired).isEqualTo(1);
+    }
+
+    private long acquiredConnections() {
+        return meterRegistry.get("hikaricp.connections.acquire").timer().count();
+    }
+
+    private BookingService newNode() {
+        RoomAvailabilityService roomAvailabilityService = mock(RoomAvailabilityService.class);
+        when(roomAvailabilityService.isFree(any(), any(), any())).thenReturn(true);
+        return new BookingService(
+            bookingRepository,
+            eventPublisher,
+            new RoomLockService(roomLockRepository, transactionManager, applicationProperties),
+            roomAvailabilityService,
+            bookingValidator,
+            roomHoldService,
+            applicationProperties
+        );
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private long runConcurrently(Attempt attempt) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            int firstAttempt = thread * ATTEMPTS_PER_THREAD;
+            tasks.add(() -> {
+                for (int i = firstAttempt; i < firstAttempt + ATTEMPTS_PER_THREAD; i++) {
+                    attempt.run(i);
+                }
+                return null;
+            });
+        }
+        long start = System.nanoTime();
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private void assertNoOverlap(long roomId) {
+        List<Booking> bookings = bookingRepository
+            .findAll()
+            .stream()
+            .filter(booking -> Long.valueOf(roomId).equals(booking.getRoomId()))
+            .sorted((first, second) -> first.getCheckin().compareTo(second.getCheckin()))
+            .collect(Collectors.toList());
+        for (int i = 1; i < bookings.size(); i++) {
+            assertThat(bookings.get(i).getCheckin()).isAfterOrEqualTo(bookings.get(i - 1).getCheckout());
+        }
+    }
+
+    private static Booking newBooking(long roomId, LocalDate checkin, LocalDate checkout) {
+        return new Booking().hotelId(1L).roomId(roomId).userId(1).checkin(checkin).checkout(checkout).numOfGuests(2).finalPrice(100D);
+    }
+
+    @FunctionalInterface
+    private interface Attempt {
+        void run(int attempt) throws Exception;
+    }
+}
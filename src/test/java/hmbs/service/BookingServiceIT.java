@@ -0,0 +1,78 @@
+package hmbs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hmbs.IntegrationTest;
+import hmbs.domain.Booking;
+import hmbs.repository.BookingRepository;
+import hmbs.service.availability.RoomAvailabilityService;
+import hmbs.service.dto.BookingBatchResultDTO;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Integration tests for {@link BookingService}.
+ * <p>
+ * The availability view only follows the bookings once they commit, so these tests are not transactional and clean up
+ * after themselves.
+ */
+@IntegrationTest
+class BookingServiceIT {
+
+    private static final LocalDate CHECKIN = LocalDate.of(2024, 3, 1);
+
+    private static long nextRoomId = 92000L;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private RoomAvailabilityService roomAvailabilityService;
+
+    private final List<Long> createdIds = new ArrayList<>();
+
+    private long roomId;
+
+    @BeforeEach
+    public void freeRoomInTheViewOnly() {
+        // A room the view still believes booked, as when another node or plain SQL deleted its booking
+        roomId = nextRoomId++;
+        Booking booking = bookingService.save(newBooking());
+        bookingRepository.deleteById(booking.getId());
+        assertThat(roomAvailabilityService.isFree(roomId, CHECKIN, CHECKIN.plusDays(2))).isFalse();
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        createdIds.forEach(bookingService::delete);
+    }
+
+    @Test
+    void roomBookedOnlyInTheViewCanBeBooked() {
+        Booking booking = bookingService.save(newBooking());
+        createdIds.add(booking.getId());
+
+        assertThat(bookingRepository.findById(booking.getId())).isPresent();
+    }
+
+    @Test
+    void roomBookedOnlyInTheViewCanBeBookedInABatch() {
+        List<BookingBatchResultDTO> results = bookingService.saveAll(List.of(newBooking()));
+        results.forEach(result -> createdIds.add(result.getBooking().getId()));
+
+        assertThat(results).extracting(BookingBatchResultDTO::getStatus).containsExactly(BookingBatchResultDTO.Status.CREATED);
+    }
+
+    private Booking newBooking() {
+        // Without hotel, so the rollups are left alone
+        return new Booking().roomId(roomId).userId(1).checkin(CHECKIN).checkout(CHECKIN.plusDays(2)).numOfGuests(2).finalPrice(100D);
+    }
+}
@@ -0,0 +1,68 @@
+package hmbs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import hmbs.config.ApplicationProperties;
+import hmbs.domain.Booking;
+import java.time.LocalDate;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link BookingValidator}.
+ */
+class BookingValidatorTest {
+
+    private static final LocalDate CHECKIN = LocalDate.of(2024, 5, 1);
+
+    private final BookingValidator validator = new BookingValidator(new ApplicationProperties());
+
+    @Test
+    void acceptsAValidBooking() {
+        Booking booking = new Booking().roomId(1L).checkin(CHECKIN).checkout(CHECKIN.plusDays(3)).numOfGuests(2).finalPrice(0D);
+
+        assertThat(validator.errors(booking)).isEmpty();
+        validator.validate(booking);
+    }
+
+    @Test
+    void acceptsAPartialBooking() {
+        assertThat(validator.errors(new Booking())).isEmpty();
+        assertThat(validator.errors(new Booking().checkout(CHECKIN))).isEmpty();
+        assertThat(validator.errors(new Booking().checkin(CHECKIN).checkout(CHECKIN))).isEmpty();
+    }
+
+    @Test
+    void rejectsTheGuestsOutOfBounds() {
+        assertThat(validator.errors(new Booking().numOfGuests(0))).isEqualTo(Map.of("numOfGuests", "Min"));
+        assertThat(validator.errors(new Booking().numOfGuests(51))).isEqualTo(Map.of("numOfGuests", "Max"));
+    }
+
+    @Test
+    void rejectsTheInsanePrices() {
+        assertThat(validator.errors(new Booking().finalPrice(-0.01))).isEqualTo(Map.of("finalPrice", "DecimalMin"));
+        assertThat(validator.errors(new Booking().finalPrice(Double.NaN))).isEqualTo(Map.of("finalPrice", "DecimalMin"));
+        assertThat(validator.errors(new Booking().finalPrice(Double.POSITIVE_INFINITY))).isEqualTo(Map.of("finalPrice", "DecimalMin"));
+    }
+
+    @Test
+    void rejectsTheUnorderedDates() {
+        assertThat(validator.errors(new Booking().checkin(CHECKIN).checkout(CHECKIN.minusDays(1))))
+            .isEqualTo(Map.of("checkout", BookingValidator.CHECKOUT_BEFORE_CHECKIN));
+    }
+
+    @Test
+    void reportsEveryInvalidField() {
+        Booking booking = new Booking().checkin(CHECKIN).checkout(CHECKIN.minusDays(1)).numOfGuests(0).finalPrice(-1D);
+
+        assertThatThrownBy(() -> validator.validate(booking))
+            .isInstanceOfSatisfying(
+                InvalidBookingException.class,
+                e -> {
+                    assertThat(e.getErrorsByField()).containsOnlyKeys("numOfGuests", "finalPrice", "checkout");
+                    assertThat(e.getStackTrace()).isEmpty();
+                }
+            );
+    }
+}
@@ -0,0 +1,99 @@
+package hmbs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hmbs.domain.Booking;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link HotelDailyDeltas}.
+ */
+class HotelDailyDeltasTest {
+
+    private static final LocalDate CHECKIN = LocalDate.of(2024, 5, 1);
+
+    @Test
+    void spreadsTheRevenueOverTheNights() {
+        HotelDailyDeltas deltas = new HotelDailyDeltas();
+        deltas.add(booking(1L, CHECKIN, CHECKIN.plusDays(4), 2, 400D), 1);
+
+        List<HotelDailyDeltas.Range> ranges = deltas.ranges(1L);
+
+        assertThat(ranges).hasSize(1);
+        assertRange(ranges.get(0), CHECKIN, CHECKIN.plusDays(4), 1, 2, 100);
+    }
+
+    @Test
+    void splitsOverlappingStaysIntoRanges() {
+        HotelDailyDeltas deltas = new HotelDailyDeltas();
+        deltas.add(booking(1L, CHECKIN, CHECKIN.plusDays(3), 2, 300D), 1);
+        deltas.add(booking(1L, CHECKIN.plusDays(2), CHECKIN.plusDays(4), 1, null), 1);
+        deltas.add(booking(2L, CHECKIN, CHECKIN.plusDays(1), null, 50D), 1);
+
+        List<HotelDailyDeltas.Range> ranges = deltas.ranges(1L);
+
+        assertThat(deltas.hotelIds()).containsExactly(1L, 2L);
+        assertThat(ranges).hasSize(3);
+        assertRange(ranges.get(0), CHECKIN, CHECKIN.plusDays(2), 1, 2, 100);
+        assertRange(ranges.get(1), CHECKIN.plusDays(2), CHECKIN.plusDays(3), 2, 3, 100);
+        assertRange(ranges.get(2), CHECKIN.plusDays(3), CHECKIN.plusDays(4), 1, 1, 0);
+        assertRange(deltas.ranges(2L).get(0), CHECKIN, CHECKIN.plusDays(1), 1, 0, 50);
+    }
+
+    @Test
+    void keepsOnlyTheNightsChangedByAMove() {
+        HotelDailyDeltas deltas = new HotelDailyDeltas();
+        deltas.add(booking(1L, CHECKIN, CHECKIN.plusDays(3), 2, 300D), -1);
+        deltas.add(booking(1L, CHECKIN.plusDays(1), CHECKIN.plusDays(4), 2, 300D), 1);
+
+        List<HotelDailyDeltas.Range> ranges = deltas.ranges(1L);
+
+        assertThat(ranges).hasSize(2);
+        assertRange(ranges.get(0), CHECKIN, CHECKIN.plusDays(1), -1, -2, -100);
+        assertRange(ranges.get(1), CHECKIN.plusDays(3), CHECKIN.plusDays(4), 1, 2, 100);
+    }
+
+    @Test
+    void mergesAdjacentRangesWithTheSameChange() {
+        HotelDailyDeltas deltas = new HotelDailyDeltas();
+        deltas.add(booking(1L, CHECKIN, CHECKIN.plusDays(2), 2, 200D), 1);
+        deltas.add(booking(1L, CHECKIN.plusDays(2), CHECKIN.plusDays(5), 2, 300D), 1);
+
+        List<HotelDailyDeltas.Range> ranges = deltas.ranges(1L);
+
+        assertThat(ranges).hasSize(1);
+        assertRange(ranges.get(0), CHECKIN, CHECKIN.plusDays(5), 1, 2, 100);
+    }
+
+    @Test
+    void ignoresBookingsWithoutHotelOrNight() {
+        HotelDailyDeltas deltas = new HotelDailyDeltas();
+        deltas.add(booking(null, CHECKIN, CHECKIN.plusDays(2), 2, 200D), 1);
+        deltas.add(booking(1L, CHECKIN, CHECKIN, 2, 200D), 1);
+        deltas.add(booking(1L, CHECKIN, null, 2, 200D), 1);
+
+        assertThat(deltas.hotelIds()).isEmpty();
+        assertThat(deltas.ranges(1L)).isEmpty();
+    }
+
+    private static Booking booking(Long hotelId, LocalDate checkin, LocalDate checkout, Integer numOfGuests, Double finalPrice) {
+        return new Booking().hotelId(hotelId).checkin(checkin).checkout(checkout).numOfGuests(numOfGuests).finalPrice(finalPrice);
+    }
+
+    private static void assertRange(
+        HotelDailyDeltas.Range range,
+        LocalDate from,
+        LocalDate to,
+        int roomNights,
+        int guests,
+        double revenue
+    ) {
+        assertThat(range.getFrom()).isEqualTo(from);
+        assertThat(range.getTo()).isEqualTo(to);
+        assertThat(range.getRoomNights()).isEqualTo(roomNights);
+        assertThat(range.getGuests()).isEqualTo(guests);
+        assertThat(range.getRevenue()).isEqualTo(revenue);
+    }
+}
@@ -0,0 +1,58 @@
+package hmbs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hmbs.config.ApplicationProperties;
+import hmbs.domain.IdempotentRequest;
+import hmbs.repository.IdempotentRequestRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Unit tests for {@link IdempotencyService}.
+ */
+class IdempotencyServiceTest {
+
+    private final IdempotentRequestRepository idempotentRequestRepository = mock(IdempotentRequestRepository.class);
+
+    private final IdempotencyService idempotencyService = new IdempotencyService(
+        idempotentRequestRepository,
+        new ObjectMapper(),
+        mock(PlatformTransactionManager.class),
+        new ApplicationProperties(),
+        new SimpleMeterRegistry()
+    );
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void runsTheActionBeforeReadingTheKeyInItsTransaction() {
+        Instant now = Instant.now();
+        IdempotentRequest claimed = new IdempotentRequest("key", "request", now, now.plusSeconds(60));
+        when(idempotentRequestRepository.findById(anyString())).thenReturn(Optional.empty(), Optional.of(claimed));
+        Supplier<String> action = mock(Supplier.class);
+        when(action.get()).thenReturn("response");
+
+        IdempotencyService.Result<String> result = idempotencyService.execute("key", "request", String.class, action);
+
+        assertThat(result.getResponse()).isEqualTo("response");
+        assertThat(result.isReplayed()).isFalse();
+        InOrder inOrder = inOrder(idempotentRequestRepository, action);
+        // The claim, in its own transaction
+        inOrder.verify(idempotentRequestRepository).findById(anyString());
+        inOrder.verify(idempotentRequestRepository).saveAndFlush(any());
+        // Then the request, whose own reads must come first in the transaction storing its response
+        inOrder.verify(action).get();
+        inOrder.verify(idempotentRequestRepository).findById(anyString());
+    }
+}
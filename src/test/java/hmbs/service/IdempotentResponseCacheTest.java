@@ -0,0 +1,49 @@
+package hmbs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link IdempotentResponseCache}.
+ */
+class IdempotentResponseCacheTest {
+
+    private static final long NOW = 1_000_000L;
+
+    @Test
+    void testEntriesExpireWithTheirKey() {
+        IdempotentResponseCache cache = new IdempotentResponseCache(10);
+        IdempotentResponseCache.Entry entry = new IdempotentResponseCache.Entry("request", "{}", NOW + 1000);
+        cache.put("key", entry, NOW);
+
+        assertThat(cache.get("key", NOW + 999)).isSameAs(entry);
+        assertThat(cache.get("key", NOW + 1000)).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void testSizeIsBounded() {
+        IdempotentResponseCache cache = new IdempotentResponseCache(2);
+        cache.put("expired", new IdempotentResponseCache.Entry("a", "{}", NOW + 10), NOW);
+        cache.put("first", new IdempotentResponseCache.Entry("b", "{}", NOW + 1000), NOW);
+        cache.put("second", new IdempotentResponseCache.Entry("c", "{}", NOW + 1000), NOW + 100);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("first", NOW + 100)).isNotNull();
+        assertThat(cache.get("second", NOW + 100)).isNotNull();
+
+        cache.put("third", new IdempotentResponseCache.Entry("d", "{}", NOW + 1000), NOW + 100);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("third", NOW + 100)).isNotNull();
+    }
+
+    @Test
+    void testDisabledWithoutEntries() {
+        IdempotentResponseCache cache = new IdempotentResponseCache(0);
+        cache.put("key", new IdempotentResponseCache.Entry("request", "{}", NOW + 1000), NOW);
+
+        assertThat(cache.get("key", NOW)).isNull();
+    }
+}
@@ -6,18 +6,26 @@ import static org.mockito.Mockito.when;
 import hmbs.IntegrationTest;
 import hmbs.config.Constants;
 import hmbs.domain.User;
+import hmbs.repository.AuthorityRepository;
 import hmbs.repository.UserRepository;
+import hmbs.security.AuthoritiesConstants;
 import hmbs.service.dto.AdminUserDTO;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.auditing.AuditingHandler;
 import org.springframework.data.auditing.DateTimeProvider;
 import org.springframework.data.domain.Page;
@@ -50,6 +58,12 @@ class UserServiceIT {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private AuthorityRepository authorityRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
     @Autowired
     private AuditingHandler auditingHandler;
 
@@ -182,4 +196,42 @@ class UserServiceIT {
         Optional<User> maybeDbUser = userRepository.findById(dbUser.getId());
         assertThat(maybeDbUser).contains(dbUser);
     }
+
+    @Test
+    @Transactional
+    void assertThatNotActivatedUsersAreDeletedInChunksWithTheirAuthoritiesAndCaches() {
+        Instant now = Instant.now();
+        when(dateTimeProvider.getNow()).thenReturn(Optional.of(now.minus(4, ChronoUnit.DAYS)));
+        List<User> notActivated = new ArrayList<>();
+        // Several chunks of 2 in the tests, the last one incomplete
+        for (int i = 0; i < 5; i++) {
+            notActivated.add(saveUser("notactivated" + i, false, now.minus(4, ChronoUnit.DAYS)));
+        }
+        User activated = saveUser("activated", true, now.minus(4, ChronoUnit.DAYS));
+        notActivated.forEach(notActivatedUser -> userRepository.findOneWithAuthoritiesByLogin(notActivatedUser.getLogin()));
+        assertThat(Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE)).get("notactivated0")).isNotNull();
+
+        userService.removeNotActivatedUsers();
+
+        assertThat(userRepository.findAllById(notActivated.stream().map(User::getId).collect(Collectors.toList()))).isEmpty();
+        assertThat(userRepository.findById(activated.getId())).isPresent();
+        for (User notActivatedUser : notActivated) {
+            assertThat(Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE)).get(notActivatedUser.getLogin()))
+                .isNull();
+        }
+    }
+
+    private User saveUser(String login, boolean activated, Instant createdDate) {
+        User newUser = new User();
+        newUser.setLogin(login);
+        newUser.setPassword(RandomStringUtils.random(60));
+        newUser.setEmail(login + "@localhost");
+        newUser.setLangKey(DEFAULT_LANGKEY);
+        newUser.setActivated(activated);
+        newUser.setActivationKey(RandomStringUtils.random(20));
+        newUser.setAuthorities(new HashSet<>(Set.of(authorityRepository.findById(AuthoritiesConstants.USER).orElseThrow())));
+        User dbUser = userRepository.saveAndFlush(newUser);
+        dbUser.setCreatedDate(createdDate);
+        return userRepository.saveAndFlush(dbUser);
+    }
 }
@@ -0,0 +1,112 @@
+package hmbs.service.availability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link OccupancyCalendar}.
+ */
+class OccupancyCalendarTest {
+
+    private static final Long HOTEL_ID = 1L;
+    private static final Long ROOM_ID = 10L;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2023, 1, 1);
+    private static final int DAYS = 365;
+
+    private RoomIntervalIndex index;
+
+    private OccupancyCalendar calendar;
+
+    @BeforeEach
+    public void init() {
+        index = new RoomIntervalIndex();
+        calendar = new OccupancyCalendar(FIRST_DAY, DAYS, 1024 * 1024);
+    }
+
+    @Test
+    void staysAcrossWordBoundaries() {
+        book(1L, ROOM_ID, FIRST_DAY.plusDays(60), FIRST_DAY.plusDays(200));
+
+        assertThat(calendar.isFree(ROOM_ID, FIRST_DAY, FIRST_DAY.plusDays(60))).isTrue();
+        assertThat(calendar.isFree(ROOM_ID, FIRST_DAY.plusDays(59), FIRST_DAY.plusDays(61))).isFalse();
+        assertThat(calendar.isFree(ROOM_ID, FIRST_DAY.plusDays(128), FIRST_DAY.plusDays(129))).isFalse();
+        assertThat(calendar.isFree(ROOM_ID, FIRST_DAY.plusDays(199), FIRST_DAY.plusDays(201))).isFalse();
+        assertThat(calendar.isFree(ROOM_ID, FIRST_DAY.plusDays(200), FIRST_DAY.plusDays(DAYS))).isTrue();
+    }
+
+    @Test
+    void staysAreClippedToTheWindow() {
+        book(1L, ROOM_ID, FIRST_DAY.minusDays(10), FIRST_DAY.plusDays(2));
+        book(2L, ROOM_ID, FIRST_DAY.plusDays(DAYS - 1), FIRST_DAY.plusDays(DAYS + 10));
+
+        assertThat(calendar.isFree(ROOM_ID, FIRST_DAY, FIRST_DAY.plusDays(1))).isFalse();
+        assertThat(calendar.isFree(ROOM_ID, FIRST_DAY.plusDays(2), FIRST_DAY.plusDays(DAYS - 1))).isTrue();
+        assertThat(calendar.isFree(ROOM_ID, FIRST_DAY.plusDays(DAYS - 1), FIRST_DAY.plusDays(DAYS))).isFalse();
+        assertThat(calendar.covers(ROOM_ID, FIRST_DAY.minusDays(1), FIRST_DAY.plusDays(1))).isFalse();
+        assertThat(calendar.covers(ROOM_ID, FIRST_DAY.plusDays(DAYS - 1), FIRST_DAY.plusDays(DAYS + 1))).isFalse();
+    }
+
+    @Test
+    void removedStaysFreeTheRoom() {
+        book(1L, ROOM_ID, FIRST_DAY.plusDays(10), FIRST_DAY.plusDays(20));
+        book(2L, ROOM_ID, FIRST_DAY.plusDays(15), FIRST_DAY.plusDays(25));
+        index.remove(1L);
+        calendar.refresh(ROOM_ID, index);
+
+        assertThat(calendar.isFree(ROOM_ID, FIRST_DAY.plusDays(10), FIRST_DAY.plusDays(15))).isTrue();
+        assertThat(calendar.isFree(ROOM_ID, FIRST_DAY.plusDays(15), FIRST_DAY.plusDays(16))).isFalse();
+
+        index.remove(2L);
+        calendar.refresh(ROOM_ID, index);
+
+        assertThat(calendar.size()).isZero();
+    }
+
+    @Test
+    void nextFreeStartSkipsTooShortGaps() {
+        book(1L, ROOM_ID, FIRST_DAY.plusDays(10), FIRST_DAY.plusDays(20));
+        book(2L, ROOM_ID, FIRST_DAY.plusDays(22), FIRST_DAY.plusDays(100));
+
+        assertThat(calendar.nextFreeStart(ROOM_ID, FIRST_DAY, 5)).isEqualTo(FIRST_DAY);
+        assertThat(calendar.nextFreeStart(ROOM_ID, FIRST_DAY.plusDays(9), 2)).isEqualTo(FIRST_DAY.plusDays(20));
+        assertThat(calendar.nextFreeStart(ROOM_ID, FIRST_DAY.plusDays(8), 3)).isEqualTo(FIRST_DAY.plusDays(100));
+        assertThat(calendar.nextFreeStart(ROOM_ID, FIRST_DAY.plusDays(8), DAYS)).isNull();
+    }
+
+    @Test
+    void roomsBeyondTheMemoryBudgetAreNotCovered() {
+        calendar = new OccupancyCalendar(FIRST_DAY, DAYS, 200);
+        book(1L, ROOM_ID, FIRST_DAY.plusDays(10), FIRST_DAY.plusDays(20));
+        book(2L, ROOM_ID + 1, FIRST_DAY.plusDays(10), FIRST_DAY.plusDays(20));
+
+        assertThat(calendar.covers(ROOM_ID, FIRST_DAY, FIRST_DAY.plusDays(1))).isTrue();
+        assertThat(calendar.covers(ROOM_ID + 1, FIRST_DAY, FIRST_DAY.plusDays(1))).isFalse();
+        assertThat(calendar.size()).isEqualTo(1);
+    }
+
+    @Test
+    void agreesWithTheIntervalIndex() {
+        Random random = new Random(42);
+        for (long id = 1; id <= 200; id++) {
+            LocalDate checkin = FIRST_DAY.plusDays(random.nextInt(DAYS + 40) - 20);
+            book(id, ROOM_ID + random.nextInt(5), checkin, checkin.plusDays(1 + random.nextInt(14)));
+        }
+        for (int i = 0; i < 2000; i++) {
+            Long roomId = ROOM_ID + random.nextInt(5);
+            LocalDate from = FIRST_DAY.plusDays(random.nextInt(DAYS - 1));
+            LocalDate to = from.plusDays(1 + random.nextInt(DAYS - (int) (from.toEpochDay() - FIRST_DAY.toEpochDay())));
+            assertThat(calendar.isFree(roomId, from, to))
+                .as("room %s from %s to %s", roomId, from, to)
+                .isEqualTo(index.isFree(roomId, from, to));
+        }
+    }
+
+    private void book(Long bookingId, Long roomId, LocalDate checkin, LocalDate checkout) {
+        index.put(bookingId, HOTEL_ID, roomId, checkin, checkout);
+        calendar.refresh(roomId, index);
+    }
+}
@@ -0,0 +1,44 @@
+package hmbs.service.availability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link RoomDirectory}.
+ */
+class RoomDirectoryTest {
+
+    @Test
+    void testRoomsAreSortedPerHotel() {
+        RoomDirectory directory = new RoomDirectory();
+        directory.add(2, 30, 2);
+        directory.add(1, 12, 2);
+        directory.add(1, 10, 2);
+        directory.add(1, 11, 2);
+        directory.add(1, 10, 1);
+
+        assertThat(directory.roomIds(1, 1)).containsExactly(10, 11, 12);
+        assertThat(directory.roomIds(2, 1)).containsExactly(30);
+        assertThat(directory.roomIds(3, 1)).isEmpty();
+        assertThat(directory.hotelIds()).containsExactly(1, 2);
+        assertThat(directory.roomCount()).isEqualTo(4);
+    }
+
+    @Test
+    void testRoomsAreFilteredByTheirLargestParty() {
+        RoomDirectory directory = new RoomDirectory();
+        directory.add(1, 10, 2);
+        directory.add(1, 11, 4);
+        directory.add(1, 12, 0);
+        directory.add(1, 10, 3);
+        directory.add(1, 11, 1);
+
+        assertThat(directory.roomIds(1, 3)).containsExactly(10, 11);
+        assertThat(directory.roomIds(1, 4)).containsExactly(11);
+        assertThat(directory.roomIds(1, 5)).isEmpty();
+        // The room of unknown capacity only qualifies for a single guest
+        assertThat(directory.roomIds(1, 1)).containsExactly(10, 11, 12);
+        assertThat(directory.roomCount()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,80 @@
+package hmbs.service.availability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link RoomIntervalIndex}.
+ */
+class RoomIntervalIndexTest {
+
+    private static final Long HOTEL_ID = 1L;
+    private static final Long ROOM_ID = 10L;
+    private static final Long OTHER_ROOM_ID = 11L;
+    private static final LocalDate DAY = LocalDate.of(2023, 3, 1);
+
+    private RoomIntervalIndex index;
+
+    @BeforeEach
+    public void init() {
+        index = new RoomIntervalIndex();
+        index.put(1L, HOTEL_ID, ROOM_ID, DAY, DAY.plusDays(3));
+        index.put(2L, HOTEL_ID, ROOM_ID, DAY.plusDays(10), DAY.plusDays(12));
+        index.put(3L, HOTEL_ID, OTHER_ROOM_ID, DAY.plusDays(1), DAY.plusDays(2));
+    }
+
+    @Test
+    void overlappingRangesAreNotFree() {
+        assertThat(index.isFree(ROOM_ID, DAY.minusDays(1), DAY.plusDays(1))).isFalse();
+        assertThat(index.isFree(ROOM_ID, DAY.plusDays(2), DAY.plusDays(4))).isFalse();
+        assertThat(index.isFree(ROOM_ID, DAY.plusDays(4), DAY.plusDays(11))).isFalse();
+        assertThat(index.isFree(ROOM_ID, DAY.minusDays(5), DAY.plusDays(20))).isFalse();
+    }
+
+    @Test
+    void adjacentRangesAreFree() {
+        assertThat(index.isFree(ROOM_ID, DAY.minusDays(2), DAY)).isTrue();
+        assertThat(index.isFree(ROOM_ID, DAY.plusDays(3), DAY.plusDays(10))).isTrue();
+        assertThat(index.isFree(ROOM_ID, DAY.plusDays(12), DAY.plusDays(13))).isTrue();
+    }
+
+    @Test
+    void longStayHidesLaterShortStays() {
+        index.put(4L, HOTEL_ID, ROOM_ID, DAY.minusDays(30), DAY.plusDays(30));
+        index.put(5L, HOTEL_ID, ROOM_ID, DAY.minusDays(20), DAY.minusDays(19));
+
+        assertThat(index.isFree(ROOM_ID, DAY.plusDays(20), DAY.plusDays(21))).isFalse();
+
+        index.remove(4L);
+
+        assertThat(index.isFree(ROOM_ID, DAY.plusDays(20), DAY.plusDays(21))).isTrue();
+    }
+
+    @Test
+    void updatedStayReplacesThePreviousOne() {
+        index.put(1L, HOTEL_ID, OTHER_ROOM_ID, DAY.plusDays(5), DAY.plusDays(6));
+
+        assertThat(index.isFree(ROOM_ID, DAY, DAY.plusDays(3))).isTrue();
+        assertThat(index.isFree(OTHER_ROOM_ID, DAY.plusDays(5), DAY.plusDays(6))).isFalse();
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void emptyStaysDoNotOccupyTheRoom() {
+        index.put(4L, HOTEL_ID, 12L, DAY, DAY);
+
+        assertThat(index.isFree(12L, DAY, DAY.plusDays(1))).isTrue();
+        assertThat(index.roomIds(HOTEL_ID)).contains(12L);
+    }
+
+    @Test
+    void freeRoomsOfHotel() {
+        assertThat(index.freeRooms(HOTEL_ID, DAY.plusDays(1), DAY.plusDays(2))).isEmpty();
+        assertThat(index.freeRooms(HOTEL_ID, DAY.plusDays(2), DAY.plusDays(3))).containsExactly(OTHER_ROOM_ID);
+        assertThat(index.freeRooms(HOTEL_ID, DAY.plusDays(3), DAY.plusDays(4))).containsExactly(ROOM_ID, OTHER_ROOM_ID);
+        assertThat(index.freeRooms(2L, DAY, DAY.plusDays(1))).isEmpty();
+    }
+}
@@ -0,0 +1,72 @@
+package hmbs.service.availability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link TimerWheel}.
+ */
+class TimerWheelTest {
+
+    private static final long NOW = 1_000_000L;
+
+    @Test
+    void testSlotCountIsAPowerOfTwo() {
+        assertThat(new TimerWheel<String>(1000, 601, NOW).slotCount()).isEqualTo(1024);
+        assertThat(new TimerWheel<String>(1000, 512, NOW).slotCount()).isEqualTo(512);
+        assertThat(new TimerWheel<String>(1000, 1, NOW).slotCount()).isEqualTo(2);
+    }
+
+    @Test
+    void testItemsExpireAfterTheirDeadline() {
+        TimerWheel<String> wheel = new TimerWheel<>(1000, 16, NOW);
+        wheel.schedule("first", NOW + 1500);
+        wheel.schedule("second", NOW + 3000);
+        List<String> expired = new ArrayList<>();
+
+        assertThat(wheel.advance(NOW + 1000, expired::add)).isZero();
+        assertThat(wheel.advance(NOW + 2000, expired::add)).isEqualTo(1);
+        assertThat(expired).containsExactly("first");
+        assertThat(wheel.advance(NOW + 2999, expired::add)).isZero();
+        assertThat(wheel.advance(NOW + 3000, expired::add)).isEqualTo(1);
+        assertThat(expired).containsExactly("first", "second");
+    }
+
+    @Test
+    void testItemsOfLaterRoundsStayInTheirSlot() {
+        TimerWheel<String> wheel = new TimerWheel<>(1000, 4, NOW);
+        // Same slot as NOW + 1000, one round later
+        wheel.schedule("later", NOW + 5000);
+        List<String> expired = new ArrayList<>();
+
+        assertThat(wheel.advance(NOW + 4000, expired::add)).isZero();
+        assertThat(wheel.advance(NOW + 5000, expired::add)).isEqualTo(1);
+        assertThat(expired).containsExactly("later");
+    }
+
+    @Test
+    void testLongPauseExpiresEverythingDue() {
+        TimerWheel<String> wheel = new TimerWheel<>(1000, 4, NOW);
+        for (int i = 1; i <= 10; i++) {
+            wheel.schedule("item" + i, NOW + i * 1000L);
+        }
+        List<String> expired = new ArrayList<>();
+
+        assertThat(wheel.advance(NOW + 100_000, expired::add)).isEqualTo(10);
+        assertThat(wheel.advance(NOW + 200_000, expired::add)).isZero();
+    }
+
+    @Test
+    void testPastDeadlineExpiresOnNextTick() {
+        TimerWheel<String> wheel = new TimerWheel<>(1000, 16, NOW);
+        wheel.advance(NOW + 5000, item -> {});
+        wheel.schedule("late", NOW);
+        List<String> expired = new ArrayList<>();
+
+        assertThat(wheel.advance(NOW + 6000, expired::add)).isEqualTo(1);
+        assertThat(expired).containsExactly("late");
+    }
+}
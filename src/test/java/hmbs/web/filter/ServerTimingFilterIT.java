@@ -0,0 +1,68 @@
+package hmbs.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import hmbs.IntegrationTest;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for the {@link ServerTimingFilter}.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class ServerTimingFilterIT {
+
+    private static final String BOOKING_URL = "/api/bookings/{id}";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc restMockMvc;
+
+    @Test
+    void statementsAreReportedInTheHeader() throws Exception {
+        restMockMvc
+            .perform(get(BOOKING_URL, Long.MAX_VALUE))
+            .andExpect(status().isNotFound())
+            .andExpect(
+                header()
+                    .string(
+                        ServerTimingFilter.SERVER_TIMING_HEADER,
+                        matchesPattern("db;desc=\"1 statements\";dur=[0-9.]+, cache;desc=\"0 hits 0 misses\", total;dur=[0-9.]+")
+                    )
+            );
+    }
+
+    @Test
+    void statementsAreRecordedPerUri() throws Exception {
+        long count = requests();
+
+        restMockMvc.perform(get(BOOKING_URL, Long.MAX_VALUE)).andExpect(status().isNotFound());
+
+        assertThat(requests()).isEqualTo(count + 1);
+        DistributionSummary statements = meterRegistry.get(ServerTimingFilter.STATEMENTS_METER_NAME).tag("uri", BOOKING_URL).summary();
+        assertThat(statements.totalAmount()).isEqualTo(statements.count());
+    }
+
+    @Test
+    void otherRequestsAreNotAccounted() throws Exception {
+        restMockMvc.perform(get("/management/info")).andExpect(header().doesNotExist(ServerTimingFilter.SERVER_TIMING_HEADER));
+    }
+
+    private long requests() {
+        Timer timer = meterRegistry.find(ServerTimingFilter.DATABASE_TIME_METER_NAME).tags("method", "GET", "uri", BOOKING_URL).timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
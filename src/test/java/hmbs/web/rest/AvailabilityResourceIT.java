@@ -0,0 +1,146 @@
+package hmbs.web.rest;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import hmbs.IntegrationTest;
+import hmbs.domain.Booking;
+import hmbs.service.BookingService;
+import java.time.LocalDate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for the {@link AvailabilityResource} REST controller.
+ * <p>
+ * The availability index is only updated once a booking is committed, so these tests are not transactional.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class AvailabilityResourceIT {
+
+    private static final Long HOTEL_ID = 4201L;
+    private static final Long ROOM_ID = 4202L;
+    private static final LocalDate CHECKIN = LocalDate.of(2023, 6, 10);
+    private static final LocalDate CHECKOUT = LocalDate.of(2023, 6, 14);
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private MockMvc restAvailabilityMockMvc;
+
+    private Booking booking;
+
+    @BeforeEach
+    public void initTest() {
+        booking =
+            bookingService.save(
+                new Booking()
+                    .hotelId(HOTEL_ID)
+                    .roomId(ROOM_ID)
+                    .userId(1)
+                    .checkin(CHECKIN)
+                    .checkout(CHECKOUT)
+                    .numOfGuests(2)
+                    .finalPrice(100D)
+            );
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        bookingService.delete(booking.getId());
+    }
+
+    @Test
+    void bookedRoomIsNotFree() throws Exception {
+        restAvailabilityMockMvc
+            .perform(get("/api/rooms/{roomId}/availability?from={from}&to={to}", ROOM_ID, CHECKIN.plusDays(1), CHECKOUT.plusDays(1)))
+            .andExpect(status().isOk())
+            .andExpect(content().string("false"));
+        restAvailabilityMockMvc
+            .perform(get("/api/hotels/{hotelId}/free-rooms?from={from}&to={to}", HOTEL_ID, CHECKIN, CHECKOUT))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").value(not(hasItem(ROOM_ID.intValue()))));
+    }
+
+    @Test
+    void roomIsFreeAfterCheckout() throws Exception {
+        restAvailabilityMockMvc
+            .perform(get("/api/rooms/{roomId}/availability?from={from}&to={to}", ROOM_ID, CHECKOUT, CHECKOUT.plusDays(2)))
+            .andExpect(status().isOk())
+            .andExpect(content().string("true"));
+        restAvailabilityMockMvc
+            .perform(get("/api/hotels/{hotelId}/free-rooms?from={from}&to={to}", HOTEL_ID, CHECKOUT, CHECKOUT.plusDays(2)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").value(hasItem(ROOM_ID.intValue())));
+    }
+
+    @Test
+    void roomIsFreeOnceTheBookingIsMoved() throws Exception {
+        bookingService.partialUpdate(new Booking().id(booking.getId()).checkin(CHECKIN.plusDays(30)).checkout(CHECKOUT.plusDays(30)));
+
+        restAvailabilityMockMvc
+            .perform(get("/api/rooms/{roomId}/availability?from={from}&to={to}", ROOM_ID, CHECKIN, CHECKOUT))
+            .andExpect(status().isOk())
+            .andExpect(content().string("true"));
+    }
+
+    @Test
+    void nextFreeStartSkipsTheBooking() throws Exception {
+        restAvailabilityMockMvc
+            .perform(get("/api/rooms/{roomId}/next-free-start?from={from}&nights=2", ROOM_ID, CHECKIN.minusDays(1)))
+            .andExpect(status().isOk())
+            .andExpect(content().string("\"" + CHECKOUT + "\""));
+    }
+
+    @Test
+    void searchSkipsTheBookedRoom() throws Exception {
+        restAvailabilityMockMvc
+            .perform(get("/api/free-rooms?hotelIds={hotelId}&from={from}&to={to}", HOTEL_ID, CHECKIN.plusDays(1), CHECKOUT))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[?(@.hotelId == %d)].roomIds[*]", HOTEL_ID).value(not(hasItem(ROOM_ID.intValue()))));
+    }
+
+    @Test
+    void searchFindsTheRoomForItsLargestParty() throws Exception {
+        restAvailabilityMockMvc
+            .perform(get("/api/free-rooms?hotelIds={hotelId}&from={from}&to={to}&guests=2", HOTEL_ID, CHECKOUT, CHECKOUT.plusDays(2)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[?(@.hotelId == %d)].roomIds[*]", HOTEL_ID).value(hasItem(ROOM_ID.intValue())));
+        restAvailabilityMockMvc
+            .perform(get("/api/free-rooms?hotelIds={hotelId}&from={from}&to={to}&guests=3", HOTEL_ID, CHECKOUT, CHECKOUT.plusDays(2)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[?(@.hotelId == %d)].roomIds[*]", HOTEL_ID).value(not(hasItem(ROOM_ID.intValue()))));
+    }
+
+    @Test
+    void searchOfAllHotelsFindsTheRoom() throws Exception {
+        restAvailabilityMockMvc
+            .perform(get("/api/free-rooms?from={from}&to={to}", CHECKOUT, CHECKOUT.plusDays(2)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[?(@.hotelId == %d)].roomIds[*]", HOTEL_ID).value(hasItem(ROOM_ID.intValue())));
+    }
+
+    @Test
+    void searchWithoutGuestIsRejected() throws Exception {
+        restAvailabilityMockMvc
+            .perform(get("/api/free-rooms?from={from}&to={to}&guests=0", CHECKOUT, CHECKOUT.plusDays(2)))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void emptyRangeIsRejected() throws Exception {
+        restAvailabilityMockMvc
+            .perform(get("/api/rooms/{roomId}/availability?from={from}&to={to}", ROOM_ID, CHECKOUT, CHECKIN))
+            .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,230 @@
+package hmbs.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import hmbs.IntegrationTest;
+import hmbs.config.ApplicationProperties;
+import hmbs.domain.Booking;
+import hmbs.domain.BookingImport;
+import hmbs.domain.enumeration.BookingImportFormat;
+import hmbs.domain.enumeration.BookingImportStatus;
+import hmbs.repository.BookingImportRepository;
+import hmbs.repository.BookingRepository;
+import hmbs.security.AuthoritiesConstants;
+import hmbs.service.BookingService;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for the {@link BookingImportResource} REST controller.
+ * <p>
+ * Imports commit in the background, so these tests are not transactional and clean up after themselves.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+class BookingImportResourceIT {
+
+    private static final Long HOTEL_ID = 93000L;
+
+    private static final String ENTITY_API_URL = "/api/admin/booking-imports";
+    private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
+
+    @Autowired
+    private BookingImportRepository bookingImportRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private MockMvc restBookingImportMockMvc;
+
+    private final List<Long> importIds = new ArrayList<>();
+
+    @AfterEach
+    public void cleanUp() {
+        bookings().forEach(booking -> bookingService.delete(booking.getId()));
+        importIds.forEach(bookingImportRepository::deleteById);
+    }
+
+    @Test
+    void importCsv() throws Exception {
+        String csv =
+            "id;hotel_id;room_id;user_id;checkin;checkout;num_of_guests;final_price\n" +
+            "1;93000;1;1;2024-03-01;2024-03-03;2;100\n" +
+            "2;93000;1;1;2024-03-02;2024-03-04;2;100\n" +
+            "3;93000;2;1;not-a-date;2024-03-04;2;100\n" +
+            "\n" +
+            "4;93000;2;1;2024-03-02;2024-03-04;2;100\n" +
+            "5;93000;3;1;2024-03-02;2024-03-04;2;100\n";
+
+        String location = restBookingImportMockMvc
+            .perform(post(ENTITY_API_URL + "?format=csv&fileName=bookings.csv").contentType("text/csv").content(csv))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.status").value(BookingImportStatus.PENDING.toString()))
+            .andExpect(jsonPath("$.fileName").value("bookings.csv"))
+            .andReturn()
+            .getResponse()
+            .getHeader("Location");
+        Long id = Long.valueOf(location.substring(location.lastIndexOf('/') + 1));
+        importIds.add(id);
+
+        BookingImport bookingImport = awaitEnd(id);
+
+        assertThat(bookingImport.getStatus()).isEqualTo(BookingImportStatus.COMPLETED);
+        assertThat(bookingImport.getProcessedRows()).isEqualTo(5);
+        assertThat(bookingImport.getImportedRows()).isEqualTo(3);
+        assertThat(bookingImport.getRejectedRows()).isEqualTo(2);
+        assertThat(bookingImport.getFinishedDate()).isNotNull();
+        assertThat(bookings()).extracting(Booking::getRoomId).containsExactlyInAnyOrder(1L, 2L, 3L);
+        assertThat(file(bookingImport)).doesNotExist();
+
+        restBookingImportMockMvc
+            .perform(get(ENTITY_API_URL_ID, id))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value(BookingImportStatus.COMPLETED.toString()))
+            .andExpect(jsonPath("$.importedRows").value(3))
+            .andExpect(jsonPath("$.rowsPerSecond").isNumber());
+        restBookingImportMockMvc
+            .perform(get(ENTITY_API_URL))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(id.intValue())));
+    }
+
+    @Test
+    void importNdjson() throws Exception {
+        String ndjson =
+            "{\"hotelId\":93000,\"roomId\":4,\"checkin\":\"2024-03-01\",\"checkout\":\"2024-03-02\"}\n" +
+            "{\"hotelId\":93000,\"roomId\":5,\"checkin\":\"2024-03-01\",\"checkout\":\"2024-03-02\"}\n";
+
+        String location = restBookingImportMockMvc
+            .perform(post(ENTITY_API_URL + "?format=ndjson").contentType("application/x-ndjson").content(ndjson))
+            .andExpect(status().isCreated())
+            .andReturn()
+            .getResponse()
+            .getHeader("Location");
+        Long id = Long.valueOf(location.substring(location.lastIndexOf('/') + 1));
+        importIds.add(id);
+
+        BookingImport bookingImport = awaitEnd(id);
+
+        assertThat(bookingImport.getStatus()).isEqualTo(BookingImportStatus.COMPLETED);
+        assertThat(bookingImport.getImportedRows()).isEqualTo(2);
+        assertThat(bookings()).extracting(Booking::getRoomId).containsExactlyInAnyOrder(4L, 5L);
+    }
+
+    @Test
+    void importUnsupportedFormat() throws Exception {
+        restBookingImportMockMvc
+            .perform(post(ENTITY_API_URL + "?format=xml").contentType(MediaType.APPLICATION_XML).content("<bookings/>"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void resumeAfterTheLastCommittedChunk() throws Exception {
+        BookingImport failed = new BookingImport();
+        failed.setFormat(BookingImportFormat.CSV);
+        failed.setStatus(BookingImportStatus.FAILED);
+        failed.setProcessedRows(2);
+        failed.setImportedRows(2);
+        failed.setLastError("Interrupted by a restart");
+        failed.setCreatedDate(Instant.now());
+        failed = bookingImportRepository.saveAndFlush(failed);
+        importIds.add(failed.getId());
+        Files.createDirectories(file(failed).getParent());
+        Files.writeString(
+            file(failed),
+            "hotelId,roomId,checkin,checkout\n" +
+            "93000,6,2024-03-01,2024-03-02\n" +
+            "93000,7,2024-03-01,2024-03-02\n" +
+            "93000,8,2024-03-01,2024-03-02\n",
+            StandardCharsets.UTF_8
+        );
+
+        restBookingImportMockMvc.perform(post(ENTITY_API_URL_ID + "/resume", failed.getId())).andExpect(status().isOk());
+        BookingImport bookingImport = awaitEnd(failed.getId());
+
+        assertThat(bookingImport.getStatus()).isEqualTo(BookingImportStatus.COMPLETED);
+        assertThat(bookingImport.getProcessedRows()).isEqualTo(3);
+        assertThat(bookingImport.getImportedRows()).isEqualTo(3);
+        assertThat(bookingImport.getRunStartRow()).isEqualTo(2);
+        assertThat(bookingImport.getLastError()).isNull();
+        assertThat(bookings()).extracting(Booking::getRoomId).containsExactly(8L);
+
+        restBookingImportMockMvc.perform(post(ENTITY_API_URL_ID + "/resume", failed.getId())).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void resumeWithoutTheFile() throws Exception {
+        BookingImport failed = new BookingImport();
+        failed.setFormat(BookingImportFormat.CSV);
+        failed.setStatus(BookingImportStatus.FAILED);
+        failed.setCreatedDate(Instant.now());
+        failed = bookingImportRepository.saveAndFlush(failed);
+        importIds.add(failed.getId());
+
+        restBookingImportMockMvc
+            .perform(post(ENTITY_API_URL_ID + "/resume", failed.getId()))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.filenotfound"));
+
+        assertThat(bookingImportRepository.findById(failed.getId()).orElseThrow().getStatus()).isEqualTo(BookingImportStatus.FAILED);
+    }
+
+    @Test
+    void resumeUnknownImport() throws Exception {
+        restBookingImportMockMvc.perform(post(ENTITY_API_URL_ID + "/resume", Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser
+    void importRequiresAdmin() throws Exception {
+        restBookingImportMockMvc
+            .perform(post(ENTITY_API_URL).contentType("text/csv").content("hotelId\n1\n"))
+            .andExpect(status().isForbidden());
+    }
+
+    private BookingImport awaitEnd(Long id) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (true) {
+            BookingImport bookingImport = bookingImportRepository.findById(id).orElseThrow();
+            boolean ended =
+                bookingImport.getStatus() == BookingImportStatus.COMPLETED || bookingImport.getStatus() == BookingImportStatus.FAILED;
+            if (ended || System.currentTimeMillis() > deadline) {
+                return bookingImport;
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    private List<Booking> bookings() {
+        return bookingRepository.findAll().stream().filter(booking -> HOTEL_ID.equals(booking.getHotelId())).collect(Collectors.toList());
+    }
+
+    private Path file(BookingImport bookingImport) {
+        Path directory = Paths.get(applicationProperties.getBookingImport().getDirectory());
+        return directory.resolve("booking-import-" + bookingImport.getId() + ".csv");
+    }
+}
@@ -1,27 +1,47 @@
 package hmbs.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import hmbs.IntegrationTest;
+import hmbs.StatementBudget;
 import hmbs.domain.Booking;
+import hmbs.domain.IdempotentRequest;
 import hmbs.repository.BookingRepository;
+import hmbs.repository.IdempotentRequestRepository;
 import hmbs.service.criteria.BookingCriteria;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.HexFormat;
 import java.util.Random;
+import java.util.UUID;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
 import javax.persistence.EntityManager;
+import javax.sql.DataSource;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -69,9 +89,18 @@ class BookingResourceIT {
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private IdempotentRequestRepository idempotentRequestRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Autowired
     private EntityManager em;
 
+    @Autowired
+    private DataSource dataSource;
+
     @Autowired
     private MockMvc restBookingMockMvc;
 
@@ -158,6 +187,232 @@ class BookingResourceIT {
         assertThat(bookingList).hasSize(databaseSizeBeforeCreate);
     }
 
+    @Test
+    @Transactional
+    void createBookingInBookedRoom() throws Exception {
+        // Initialize the database with a stay of several nights
+        bookingRepository.saveAndFlush(booking.checkout(DEFAULT_CHECKIN.plusDays(3)));
+        int databaseSizeBeforeCreate = bookingRepository.findAll().size();
+
+        // A booking overlapping that stay must be rejected
+        Booking overlappingBooking = createEntity(em).checkin(DEFAULT_CHECKIN.plusDays(2)).checkout(DEFAULT_CHECKIN.plusDays(5));
+        restBookingMockMvc
+            .perform(
+                post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(overlappingBooking))
+            )
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.message").value("error.roomnotavailable"));
+
+        // A booking starting on the checkout day is accepted
+        Booking nextBooking = createEntity(em).checkin(DEFAULT_CHECKIN.plusDays(3)).checkout(DEFAULT_CHECKIN.plusDays(5));
+        restBookingMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(nextBooking)))
+            .andExpect(status().isCreated());
+
+        assertThat(bookingRepository.findAll()).hasSize(databaseSizeBeforeCreate + 1);
+    }
+
+    @Test
+    @Transactional
+    void createBookingWithIdempotencyKey() throws Exception {
+        int databaseSizeBeforeCreate = bookingRepository.findAll().size();
+        String idempotencyKey = UUID.randomUUID().toString();
+
+        MvcResult first = restBookingMockMvc
+            .perform(
+                post(ENTITY_API_URL)
+                    .header("Idempotency-Key", idempotencyKey)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(booking))
+            )
+            .andExpect(status().isCreated())
+            .andExpect(header().doesNotExist("Idempotent-Replayed"))
+            .andReturn();
+        Long id = Long.valueOf(first.getResponse().getHeader(HttpHeaders.LOCATION).replace(ENTITY_API_URL + "/", ""));
+
+        // The retry gets the original response, without creating the booking again
+        restBookingMockMvc
+            .perform(
+                post(ENTITY_API_URL)
+                    .header("Idempotency-Key", idempotencyKey)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(booking))
+            )
+            .andExpect(status().isCreated())
+            .andExpect(header().string("Idempotent-Replayed", "true"))
+            .andExpect(header().string(HttpHeaders.LOCATION, ENTITY_API_URL + "/" + id))
+            .andExpect(jsonPath("$.id").value(id.intValue()))
+            .andExpect(jsonPath("$.roomId").value(DEFAULT_ROOM_ID.intValue()));
+
+        assertThat(bookingRepository.findAll()).hasSize(databaseSizeBeforeCreate + 1);
+        assertThat(idempotentRequestRepository.findAll()).hasSize(1);
+    }
+
+    @Test
+    @Transactional
+    void createBookingWithReusedIdempotencyKey() throws Exception {
+        String idempotencyKey = UUID.randomUUID().toString();
+        restBookingMockMvc
+            .perform(
+                post(ENTITY_API_URL)
+                    .header("Idempotency-Key", idempotencyKey)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(booking))
+            )
+            .andExpect(status().isCreated());
+        int databaseSizeBeforeCreate = bookingRepository.findAll().size();
+
+        // The same key with another body is a client error, not a retry
+        restBookingMockMvc
+            .perform(
+                post(ENTITY_API_URL)
+                    .header("Idempotency-Key", idempotencyKey)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(createEntity(em).roomId(UPDATED_ROOM_ID)))
+            )
+            .andExpect(status().isUnprocessableEntity())
+            .andExpect(jsonPath("$.message").value("error.idempotencykeyreused"));
+
+        assertThat(bookingRepository.findAll()).hasSize(databaseSizeBeforeCreate);
+    }
+
+    @Test
+    @Transactional
+    void createBookingWithIdempotencyKeyInProgress() throws Exception {
+        String idempotencyKey = UUID.randomUUID().toString();
+        // Claimed by a request which is still being processed, on this node or another one
+        Instant now = Instant.now();
+        String keyHash = sha256("user\n" + idempotencyKey);
+        String requestHash = sha256(objectMapper.writeValueAsString(booking));
+        idempotentRequestRepository.saveAndFlush(new IdempotentRequest(keyHash, requestHash, now, now.plusSeconds(60)));
+        int databaseSizeBeforeCreate = bookingRepository.findAll().size();
+
+        restBookingMockMvc
+            .perform(
+                post(ENTITY_API_URL)
+                    .header("Idempotency-Key", idempotencyKey)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(booking))
+            )
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.message").value("error.idempotencykeyinuse"));
+
+        assertThat(bookingRepository.findAll()).hasSize(databaseSizeBeforeCreate);
+    }
+
+    @Test
+    @Transactional
+    void createBookingWithIdempotencyKeyAfterFailure() throws Exception {
+        bookingRepository.saveAndFlush(createEntity(em).checkout(DEFAULT_CHECKIN.plusDays(3)));
+        String idempotencyKey = UUID.randomUUID().toString();
+        Booking overlappingBooking = createEntity(em).checkin(DEFAULT_CHECKIN.plusDays(2)).checkout(DEFAULT_CHECKIN.plusDays(5));
+
+        // A failed request releases its key, so its retry is processed again instead of being answered as in progress
+        for (int attempt = 0; attempt < 2; attempt++) {
+            restBookingMockMvc
+                .perform(
+                    post(ENTITY_API_URL)
+                        .header("Idempotency-Key", idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(TestUtil.convertObjectToJsonBytes(overlappingBooking))
+                )
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("error.roomnotavailable"));
+        }
+
+        assertThat(idempotentRequestRepository.findAll()).isEmpty();
+    }
+
+    @Test
+    @Transactional
+    void createBookingWithInvalidIdempotencyKey() throws Exception {
+        int databaseSizeBeforeCreate = bookingRepository.findAll().size();
+
+        restBookingMockMvc
+            .perform(
+                post(ENTITY_API_URL)
+                    .header("Idempotency-Key", "x".repeat(256))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(booking))
+            )
+            .andExpect(status().isBadRequest());
+
+        assertThat(bookingRepository.findAll()).hasSize(databaseSizeBeforeCreate);
+    }
+
+    @Test
+    @Transactional
+    void createBookingsInBatch() throws Exception {
+        // Initialize the database with a booked stay
+        bookingRepository.saveAndFlush(booking.checkout(DEFAULT_CHECKIN.plusDays(3)));
+        int databaseSizeBeforeCreate = bookingRepository.findAll().size();
+
+        Booking free = createEntity(em).checkin(DEFAULT_CHECKIN.plusDays(3)).checkout(DEFAULT_CHECKIN.plusDays(5));
+        Booking withId = createEntity(em).roomId(UPDATED_ROOM_ID).checkout(DEFAULT_CHECKIN.plusDays(1));
+        withId.setId(count.incrementAndGet());
+        Booking overlappingDatabase = createEntity(em).checkin(DEFAULT_CHECKIN.plusDays(1)).checkout(DEFAULT_CHECKIN.plusDays(2));
+        Booking overlappingBatch = createEntity(em).checkin(DEFAULT_CHECKIN.plusDays(4)).checkout(DEFAULT_CHECKIN.plusDays(6));
+        Booking otherRoom = createEntity(em).roomId(UPDATED_ROOM_ID).checkout(DEFAULT_CHECKIN.plusDays(1));
+
+        restBookingMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(List.of(free, withId, overlappingDatabase, overlappingBatch, otherRoom)))
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-hmbsApp-params", "2"))
+            .andExpect(jsonPath("$.[0].status").value("CREATED"))
+            .andExpect(jsonPath("$.[0].booking.id").isNumber())
+            .andExpect(jsonPath("$.[1].status").value("REJECTED"))
+            .andExpect(jsonPath("$.[1].errorKey").value("idexists"))
+            .andExpect(jsonPath("$.[2].errorKey").value("roomnotavailable"))
+            .andExpect(jsonPath("$.[3].index").value(3))
+            .andExpect(jsonPath("$.[3].errorKey").value("roomnotavailable"))
+            .andExpect(jsonPath("$.[4].status").value("CREATED"))
+            .andExpect(jsonPath("$.[4].booking.roomId").value(UPDATED_ROOM_ID.intValue()));
+
+        assertThat(bookingRepository.findAll()).hasSize(databaseSizeBeforeCreate + 2);
+    }
+
+    @Test
+    @Transactional
+    void createInvalidBookingsInBatch() throws Exception {
+        int databaseSizeBeforeCreate = bookingRepository.findAll().size();
+        Booking valid = createEntity(em).checkout(DEFAULT_CHECKIN.plusDays(1));
+        Booking invalid = createEntity(em).roomId(UPDATED_ROOM_ID).checkout(DEFAULT_CHECKIN.minusDays(1));
+
+        restBookingMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(List.of(valid, invalid)))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].status").value("CREATED"))
+            .andExpect(jsonPath("$.[1].status").value("REJECTED"))
+            .andExpect(jsonPath("$.[1].errorKey").value("invalid"))
+            .andExpect(jsonPath("$.[1].message").value(containsString("checkout")));
+
+        assertThat(bookingRepository.findAll()).hasSize(databaseSizeBeforeCreate + 1);
+    }
+
+    @Test
+    @Transactional
+    void createTooManyBookingsInBatch() throws Exception {
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i <= 1000; i++) {
+            bookings.add(createEntity(em));
+        }
+
+        restBookingMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/batch").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(bookings))
+            )
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.batchtoolarge"));
+    }
+
     @Test
     @Transactional
     void getAllBookings() throws Exception {
@@ -179,6 +434,121 @@ class BookingResourceIT {
             .andExpect(jsonPath("$.[*].finalPrice").value(hasItem(DEFAULT_FINAL_PRICE.doubleValue())));
     }
 
+    @Test
+    @Transactional
+    void getAllBookingsWithinStatementBudget() throws Exception {
+        // Initialize the database
+        for (long roomId = 1; roomId <= 5; roomId++) {
+            bookingRepository.save(createEntity(em).hotelId(9003L).roomId(roomId));
+        }
+        bookingRepository.flush();
+        em.clear();
+
+        // The page of bookings, then their count
+        StatementBudget.assertAtMost(
+            dataSource,
+            2,
+            () ->
+                restBookingMockMvc
+                    .perform(get(ENTITY_API_URL + "?hotelId.equals=9003&size=2&sort=id,desc"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(2)))
+                    .andExpect(header().string("X-Total-Count", "5"))
+        );
+    }
+
+    @Test
+    @Transactional
+    void getAllBookingsAfterCursor() throws Exception {
+        // Initialize the database
+        Booking first = bookingRepository.saveAndFlush(createEntity(em).hotelId(9001L).roomId(1L).checkin(DEFAULT_CHECKIN.plusDays(2)));
+        Booking second = bookingRepository.saveAndFlush(createEntity(em).hotelId(9001L).roomId(2L).checkin(DEFAULT_CHECKIN.plusDays(1)));
+        Booking third = bookingRepository.saveAndFlush(createEntity(em).hotelId(9001L).roomId(3L).checkin(DEFAULT_CHECKIN.plusDays(1)));
+        bookingRepository.saveAndFlush(createEntity(em).hotelId(9002L).checkin(DEFAULT_CHECKIN.plusDays(1)));
+
+        // Get the first page, ordered by checkin then id, both descending
+        MvcResult firstPage = restBookingMockMvc
+            .perform(get(ENTITY_API_URL + "?hotelId.equals=9001&sort=checkin,desc&size=2&after="))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(jsonPath("$.[*].id").value(contains(first.getId().intValue(), third.getId().intValue())))
+            .andReturn();
+        String link = firstPage.getResponse().getHeader(HttpHeaders.LINK);
+        assertThat(link).startsWith("<http://localhost/api/bookings?").endsWith(">; rel=\"next\"");
+
+        // Follow the next link
+        restBookingMockMvc
+            .perform(get(link.substring(1, link.indexOf('>'))))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.LINK))
+            .andExpect(jsonPath("$.[*].id").value(contains(second.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    void getAllBookingsAfterCursorWithoutCheckin() throws Exception {
+        // Initialize the database
+        Booking early = bookingRepository.saveAndFlush(createEntity(em).hotelId(9005L).roomId(1L).checkin(DEFAULT_CHECKIN));
+        Booking none = bookingRepository.saveAndFlush(createEntity(em).hotelId(9005L).roomId(2L).checkin(null));
+        Booking otherNone = bookingRepository.saveAndFlush(createEntity(em).hotelId(9005L).roomId(3L).checkin(null));
+        Booking late = bookingRepository.saveAndFlush(createEntity(em).hotelId(9005L).roomId(4L).checkin(DEFAULT_CHECKIN.plusDays(1)));
+
+        // The bookings without checkin come last in ascending order, and first in descending order
+        assertThat(getAllPagesAfterCursor("hotelId.equals=9005&sort=checkin&size=1"))
+            .containsExactly(early.getId(), late.getId(), none.getId(), otherNone.getId());
+        assertThat(getAllPagesAfterCursor("hotelId.equals=9005&sort=checkin,desc&size=1"))
+            .containsExactly(otherNone.getId(), none.getId(), late.getId(), early.getId());
+    }
+
+    @Test
+    @Transactional
+    void getAllBookingsWithoutCount() throws Exception {
+        // Initialize the database
+        for (long roomId = 1; roomId <= 3; roomId++) {
+            bookingRepository.saveAndFlush(createEntity(em).hotelId(9003L).roomId(roomId));
+        }
+
+        restBookingMockMvc
+            .perform(get(ENTITY_API_URL + "?hotelId.equals=9003&sort=id&size=2&count=none"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("page=1&size=2>; rel=\"next\"")))
+            .andExpect(jsonPath("$.length()").value(2));
+        restBookingMockMvc
+            .perform(get(ENTITY_API_URL + "?hotelId.equals=9003&sort=id&size=2&page=1&count=none"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.LINK, not(containsString("rel=\"next\""))))
+            .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    @Transactional
+    void getAllBookingsWithEstimatedCount() throws Exception {
+        // Initialize the database
+        for (long roomId = 1; roomId <= 3; roomId++) {
+            bookingRepository.saveAndFlush(createEntity(em).hotelId(9004L).roomId(roomId));
+        }
+
+        // The uncommitted bookings are not counted yet, but the total covers what was read
+        restBookingMockMvc
+            .perform(get(ENTITY_API_URL + "?hotelId.equals=9004&sort=id&size=2&count=estimate"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "3"));
+        // Filtering on the room cannot be estimated
+        restBookingMockMvc
+            .perform(get(ENTITY_API_URL + "?hotelId.equals=9004&roomId.equals=1&count=estimate"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("X-Total-Count"));
+        restBookingMockMvc.perform(get(ENTITY_API_URL + "?count=approximately")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getAllBookingsAfterInvalidCursor() throws Exception {
+        restBookingMockMvc.perform(get(ENTITY_API_URL + "?sort=checkin,desc&after=bm90LWEtY3Vyc29y")).andExpect(status().isBadRequest());
+        restBookingMockMvc.perform(get(ENTITY_API_URL + "?sort=checkin&sort=roomId&after=")).andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getBooking() throws Exception {
@@ -197,7 +567,9 @@ class BookingResourceIT {
             .andExpect(jsonPath("$.checkin").value(DEFAULT_CHECKIN.toString()))
             .andExpect(jsonPath("$.checkout").value(DEFAULT_CHECKOUT.toString()))
             .andExpect(jsonPath("$.numOfGuests").value(DEFAULT_NUM_OF_GUESTS))
-            .andExpect(jsonPath("$.finalPrice").value(DEFAULT_FINAL_PRICE.doubleValue()));
+            .andExpect(jsonPath("$.finalPrice").value(DEFAULT_FINAL_PRICE.doubleValue()))
+            .andExpect(jsonPath("$.version").value(0))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
     }
 
     @Test
@@ -946,6 +1318,22 @@ class BookingResourceIT {
         defaultBookingShouldBeFound("finalPrice.greaterThan=" + SMALLER_FINAL_PRICE);
     }
 
+    /**
+     * Follows the next links of a search paged with a cursor, and returns the ids of all the pages.
+     */
+    private List<Long> getAllPagesAfterCursor(String query) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        String url = ENTITY_API_URL + "?" + query + "&after=";
+        while (url != null) {
+            MvcResult page = restBookingMockMvc.perform(get(url)).andExpect(status().isOk()).andReturn();
+            List<Booking> bookings = List.of(objectMapper.readValue(page.getResponse().getContentAsString(), Booking[].class));
+            bookings.forEach(booking -> ids.add(booking.getId()));
+            String link = page.getResponse().getHeader(HttpHeaders.LINK);
+            url = link == null ? null : link.substring(1, link.indexOf('>'));
+        }
+        return ids;
+    }
+
     /**
      * Executes the search, and checks that the default entity is returned.
      */
@@ -990,6 +1378,138 @@ class BookingResourceIT {
             .andExpect(content().string("0"));
     }
 
+    @Test
+    @Transactional
+    void getBookingsByDate() throws Exception {
+        // Initialize the database
+        bookingRepository.saveAndFlush(booking);
+
+        // Get the bookings within the default stay
+        restBookingMockMvc
+            .perform(get(ENTITY_API_URL + "/date/{startDate}/to/{endDate}?sort=id,desc", SMALLER_CHECKIN, UPDATED_CHECKOUT))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().exists("X-Total-Count"))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(booking.getId().intValue())))
+            .andExpect(jsonPath("$.[*].checkin").value(hasItem(DEFAULT_CHECKIN.toString())))
+            .andExpect(jsonPath("$.[*].checkout").value(hasItem(DEFAULT_CHECKOUT.toString())));
+    }
+
+    @Test
+    @Transactional
+    void getBookingsByDateOutsideStay() throws Exception {
+        // Initialize the database
+        bookingRepository.saveAndFlush(booking);
+
+        // A range starting after the checkin date must not return the booking
+        restBookingMockMvc
+            .perform(get(ENTITY_API_URL + "/date/{startDate}/to/{endDate}", DEFAULT_CHECKIN.plusDays(1), UPDATED_CHECKOUT))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(not(hasItem(booking.getId().intValue()))));
+    }
+
+    @Test
+    void exportBookingsAsNdjson() throws Exception {
+        // The export is streamed from another thread, so the booking has to be committed
+        bookingRepository.saveAndFlush(booking);
+        try {
+            MvcResult result = restBookingMockMvc
+                .perform(get(ENTITY_API_URL + "/export?format=ndjson&hotelId={hotelId}", DEFAULT_HOTEL_ID))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+            String body = restBookingMockMvc
+                .perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+            assertThat(body.split("\n")).anyMatch(line -> line.startsWith("{\"id\":" + booking.getId() + ","));
+        } finally {
+            bookingRepository.deleteById(booking.getId());
+        }
+    }
+
+    @Test
+    void exportBookingsAsGzippedCsv() throws Exception {
+        // The export is streamed from another thread, so the booking has to be committed
+        bookingRepository.saveAndFlush(booking);
+        try {
+            MvcResult result = restBookingMockMvc
+                .perform(get(ENTITY_API_URL + "/export?format=csv&gzip=true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+            byte[] body = restBookingMockMvc
+                .perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"bookings.csv.gz\""))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+            String csv = new String(new GZIPInputStream(new ByteArrayInputStream(body)).readAllBytes(), StandardCharsets.UTF_8);
+            assertThat(csv)
+                .startsWith("id,hotelId,roomId,userId,checkin,checkout,numOfGuests,finalPrice\n")
+                .contains(
+                    "\n" +
+                    booking.getId() +
+                    "," +
+                    DEFAULT_HOTEL_ID +
+                    "," +
+                    DEFAULT_ROOM_ID +
+                    "," +
+                    DEFAULT_USER_ID +
+                    "," +
+                    DEFAULT_CHECKIN +
+                    "," +
+                    DEFAULT_CHECKOUT +
+                    "," +
+                    DEFAULT_NUM_OF_GUESTS +
+                    "," +
+                    DEFAULT_FINAL_PRICE +
+                    "\n"
+                );
+        } finally {
+            bookingRepository.deleteById(booking.getId());
+        }
+    }
+
+    @Test
+    void exportBookingsWithUnknownFormat() throws Exception {
+        restBookingMockMvc.perform(get(ENTITY_API_URL + "/export?format=xml")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getAllBookingsStreamed() throws Exception {
+        // The list is streamed from another thread, so the booking has to be committed
+        bookingRepository.saveAndFlush(booking);
+        try {
+            MvcResult result = restBookingMockMvc.perform(get("/api/booking")).andExpect(request().asyncStarted()).andReturn();
+            restBookingMockMvc
+                .perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(jsonPath("$.[*].id").value(hasItem(booking.getId().intValue())));
+        } finally {
+            bookingRepository.deleteById(booking.getId());
+        }
+    }
+
+    @Test
+    @Transactional
+    void getBookingWithinStatementBudget() throws Exception {
+        // Initialize the database
+        bookingRepository.saveAndFlush(booking);
+        em.clear();
+
+        StatementBudget.assertAtMost(
+            dataSource,
+            1,
+            () -> restBookingMockMvc.perform(get(ENTITY_API_URL_ID, booking.getId())).andExpect(status().isOk())
+        );
+    }
+
     @Test
     @Transactional
     void getNonExistingBooking() throws Exception {
@@ -1228,6 +1748,131 @@ class BookingResourceIT {
         assertThat(bookingList).hasSize(databaseSizeBeforeUpdate);
     }
 
+    @Test
+    @Transactional
+    void putWithIfMatchBooking() throws Exception {
+        bookingRepository.saveAndFlush(booking);
+        Booking updatedBooking = new Booking().id(booking.getId()).hotelId(UPDATED_HOTEL_ID);
+
+        restBookingMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, booking.getId())
+                    .header(HttpHeaders.IF_MATCH, "\"0\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedBooking))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.version").value(1))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+        assertThat(bookingRepository.findById(booking.getId()).get().getHotelId()).isEqualTo(UPDATED_HOTEL_ID);
+    }
+
+    @Test
+    @Transactional
+    void putWithStaleIfMatchBooking() throws Exception {
+        bookingRepository.saveAndFlush(booking);
+        Booking updatedBooking = new Booking().id(booking.getId()).hotelId(UPDATED_HOTEL_ID);
+
+        restBookingMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, booking.getId())
+                    .header(HttpHeaders.IF_MATCH, "\"1\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedBooking))
+            )
+            .andExpect(status().isPreconditionFailed())
+            .andExpect(jsonPath("$.message").value("error.versionmismatch"));
+        restBookingMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, booking.getId())
+                    .header(HttpHeaders.IF_MATCH, "W/\"0\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedBooking))
+            )
+            .andExpect(status().isPreconditionFailed());
+
+        assertThat(bookingRepository.findById(booking.getId()).get().getHotelId()).isEqualTo(DEFAULT_HOTEL_ID);
+    }
+
+    @Test
+    @Transactional
+    void patchWithStaleVersionBooking() throws Exception {
+        bookingRepository.saveAndFlush(booking);
+        Booking partialUpdatedBooking = new Booking().id(booking.getId()).finalPrice(UPDATED_FINAL_PRICE).version(1L);
+
+        restBookingMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, booking.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedBooking))
+            )
+            .andExpect(status().isPreconditionFailed());
+
+        // If-Match takes precedence over the version of the body
+        restBookingMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, booking.getId())
+                    .header(HttpHeaders.IF_MATCH, "*")
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedBooking))
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+        assertThat(bookingRepository.findById(booking.getId()).get().getFinalPrice()).isEqualTo(UPDATED_FINAL_PRICE);
+    }
+
+    @Test
+    @Transactional
+    void createInvalidBooking() throws Exception {
+        int databaseSizeBeforeCreate = bookingRepository.findAll().size();
+        booking.checkin(UPDATED_CHECKIN).checkout(UPDATED_CHECKIN.minusDays(1)).numOfGuests(0);
+
+        restBookingMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(booking)))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.validation"))
+            .andExpect(jsonPath("$.fieldErrors.[*].field").value(containsInAnyOrder("numOfGuests", "checkout")))
+            .andExpect(jsonPath("$.fieldErrors.[*].message").value(containsInAnyOrder("Min", "checkoutbeforecheckin")))
+            .andExpect(jsonPath("$.trace").doesNotExist());
+
+        assertThat(bookingRepository.findAll()).hasSize(databaseSizeBeforeCreate);
+    }
+
+    @Test
+    @Transactional
+    void patchBookingIntoInvalidDates() throws Exception {
+        bookingRepository.saveAndFlush(booking.checkin(UPDATED_CHECKIN).checkout(UPDATED_CHECKIN.plusDays(2)));
+        Booking partialUpdatedBooking = new Booking().id(booking.getId()).checkout(UPDATED_CHECKIN.minusDays(1));
+
+        restBookingMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, booking.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedBooking))
+            )
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.fieldErrors.[0].field").value("checkout"));
+    }
+
+    @Test
+    @Transactional
+    void putBookingWithNegativePrice() throws Exception {
+        bookingRepository.saveAndFlush(booking);
+
+        restBookingMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, booking.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(new Booking().id(booking.getId()).finalPrice(-1D)))
+            )
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.fieldErrors.[0].field").value("finalPrice"));
+
+        assertThat(bookingRepository.findById(booking.getId()).get().getFinalPrice()).isEqualTo(DEFAULT_FINAL_PRICE);
+    }
+
     @Test
     @Transactional
     void deleteBooking() throws Exception {
@@ -1245,4 +1890,8 @@ class BookingResourceIT {
         List<Booking> bookingList = bookingRepository.findAll();
         assertThat(bookingList).hasSize(databaseSizeBeforeDelete - 1);
     }
+
+    private static String sha256(String value) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
 }
@@ -0,0 +1,184 @@
+package hmbs.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import hmbs.IntegrationTest;
+import hmbs.domain.Booking;
+import hmbs.domain.HotelDailyRollup;
+import hmbs.repository.BookingRepository;
+import hmbs.repository.HotelDailyRollupRepository;
+import hmbs.repository.HotelRollupStateRepository;
+import hmbs.security.AuthoritiesConstants;
+import hmbs.service.BookingService;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the {@link HotelRollupResource} REST controller.
+ * <p>
+ * The rollups are only written when the bookings commit, so these tests are not transactional and clean up after
+ * themselves.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+class HotelRollupResourceIT {
+
+    private static final Long HOTEL_ID = 95000L;
+
+    private static final LocalDate CHECKIN = LocalDate.of(2024, 7, 1);
+
+    private static final String ENTITY_API_URL = "/api/admin/hotel-rollups";
+    private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{hotelId}?from={from}&to={to}";
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private HotelDailyRollupRepository hotelDailyRollupRepository;
+
+    @Autowired
+    private HotelRollupStateRepository hotelRollupStateRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MockMvc restHotelRollupMockMvc;
+
+    @AfterEach
+    public void cleanUp() {
+        bookingRepository
+            .findAll()
+            .stream()
+            .filter(booking -> HOTEL_ID.equals(booking.getHotelId()))
+            .forEach(booking -> bookingService.delete(booking.getId()));
+        hotelDailyRollupRepository.deleteAll(rollups());
+        hotelRollupStateRepository.findById(HOTEL_ID).ifPresent(hotelRollupStateRepository::delete);
+    }
+
+    @Test
+    void bookingsAreRolledUp() throws Exception {
+        bookingService.save(booking(95001L, CHECKIN, CHECKIN.plusDays(3), 2, 300D));
+        bookingService.save(booking(95002L, CHECKIN.plusDays(1), CHECKIN.plusDays(3), 1, 100D));
+
+        restHotelRollupMockMvc
+            .perform(get(ENTITY_API_URL_ID, HOTEL_ID, CHECKIN.minusDays(1), CHECKIN.plusDays(5)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(3)))
+            .andExpect(jsonPath("$.[0].day").value(CHECKIN.toString()))
+            .andExpect(jsonPath("$.[0].roomNights").value(1))
+            .andExpect(jsonPath("$.[0].guests").value(2))
+            .andExpect(jsonPath("$.[0].revenue").value(100.0))
+            .andExpect(jsonPath("$.[2].day").value(CHECKIN.plusDays(2).toString()))
+            .andExpect(jsonPath("$.[2].roomNights").value(2))
+            .andExpect(jsonPath("$.[2].guests").value(3))
+            .andExpect(jsonPath("$.[2].revenue").value(150.0));
+
+        restHotelRollupMockMvc
+            .perform(get(ENTITY_API_URL + "?from={from}&to={to}", CHECKIN, CHECKIN.plusDays(2)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[?(@.hotelId == %d)].roomNights", HOTEL_ID).value(3))
+            .andExpect(jsonPath("$[?(@.hotelId == %d)].guestNights", HOTEL_ID).value(5))
+            .andExpect(jsonPath("$[?(@.hotelId == %d)].revenue", HOTEL_ID).value(250.0));
+    }
+
+    @Test
+    void movedAndDeletedBookingsAreRolledUp() throws Exception {
+        Booking booking = bookingService.save(booking(95001L, CHECKIN, CHECKIN.plusDays(2), 2, 200D));
+
+        bookingService.partialUpdate(new Booking().id(booking.getId()).checkin(CHECKIN.plusDays(1)).checkout(CHECKIN.plusDays(3)));
+
+        restHotelRollupMockMvc
+            .perform(get(ENTITY_API_URL_ID, HOTEL_ID, CHECKIN, CHECKIN.plusDays(5)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$.[0].day").value(CHECKIN.plusDays(1).toString()))
+            .andExpect(jsonPath("$.[1].day").value(CHECKIN.plusDays(2).toString()));
+
+        bookingService.delete(booking.getId());
+
+        restHotelRollupMockMvc
+            .perform(get(ENTITY_API_URL_ID, HOTEL_ID, CHECKIN, CHECKIN.plusDays(5)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void rolledBackBookingIsNotRolledUp() {
+        bookingService.save(booking(95001L, CHECKIN, CHECKIN.plusDays(2), 2, 200D));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            bookingService.save(booking(95002L, CHECKIN, CHECKIN.plusDays(3), 1, 300D));
+            status.setRollbackOnly();
+        });
+
+        assertThat(rollups()).extracting(HotelDailyRollup::getRoomNights).containsExactly(1, 1);
+        assertThat(rollups()).extracting(HotelDailyRollup::getGuests).containsExactly(2, 2);
+    }
+
+    @Test
+    void rollupsAreRebuilt() throws Exception {
+        bookingService.save(booking(95001L, CHECKIN, CHECKIN.plusDays(2), 2, 200D));
+        // Drift: a night gets lost
+        hotelDailyRollupRepository.delete(rollups().get(0));
+
+        restHotelRollupMockMvc.perform(post(ENTITY_API_URL + "/{hotelId}/rebuild", HOTEL_ID)).andExpect(status().isNoContent());
+
+        assertThat(rollups()).extracting(HotelDailyRollup::getDay).containsExactly(CHECKIN, CHECKIN.plusDays(1));
+        assertThat(rollups()).extracting(HotelDailyRollup::getRevenue).containsExactly(100.0, 100.0);
+        assertThat(hotelRollupStateRepository.findById(HOTEL_ID))
+            .hasValueSatisfying(state -> assertThat(state.getRebuiltDate()).isNotNull());
+    }
+
+    @Test
+    void emptyRangeIsRejected() throws Exception {
+        restHotelRollupMockMvc
+            .perform(get(ENTITY_API_URL + "?from={from}&to={to}", CHECKIN, CHECKIN))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser
+    void reportsAreForAdminsOnly() throws Exception {
+        restHotelRollupMockMvc
+            .perform(get(ENTITY_API_URL_ID, HOTEL_ID, CHECKIN, CHECKIN.plusDays(5)))
+            .andExpect(status().isForbidden());
+        restHotelRollupMockMvc.perform(post(ENTITY_API_URL + "/rebuild")).andExpect(status().isForbidden());
+    }
+
+    private static Booking booking(Long roomId, LocalDate checkin, LocalDate checkout, int numOfGuests, double finalPrice) {
+        return new Booking()
+            .hotelId(HOTEL_ID)
+            .roomId(roomId)
+            .userId(1)
+            .checkin(checkin)
+            .checkout(checkout)
+            .numOfGuests(numOfGuests)
+            .finalPrice(finalPrice);
+    }
+
+    private List<HotelDailyRollup> rollups() {
+        return hotelDailyRollupRepository
+            .findAll()
+            .stream()
+            .filter(rollup -> HOTEL_ID.equals(rollup.getHotelId()))
+            .sorted((first, second) -> first.getDay().compareTo(second.getDay()))
+            .collect(Collectors.toList());
+    }
+}
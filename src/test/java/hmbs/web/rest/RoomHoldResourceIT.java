@@ -0,0 +1,231 @@
+package hmbs.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hmbs.IntegrationTest;
+import hmbs.domain.Booking;
+import hmbs.repository.BookingRepository;
+import hmbs.service.BookingService;
+import hmbs.service.dto.RoomHoldDTO;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for the {@link RoomHoldResource} REST controller.
+ * <p>
+ * Holds are removed when the conversion commits, so these tests are not transactional and clean up after themselves.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class RoomHoldResourceIT {
+
+    private static final Long HOTEL_ID = 94000L;
+
+    private static final Long ROOM_ID = 94001L;
+
+    private static final LocalDate CHECKIN = LocalDate.of(2024, 5, 10);
+
+    private static final LocalDate CHECKOUT = LocalDate.of(2024, 5, 13);
+
+    private static final String ENTITY_API_URL = "/api/room-holds";
+    private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MockMvc restRoomHoldMockMvc;
+
+    private final List<String> holdIds = new ArrayList<>();
+
+    @AfterEach
+    public void cleanUp() throws Exception {
+        for (String id : holdIds) {
+            restRoomHoldMockMvc.perform(delete(ENTITY_API_URL_ID, id).with(user("user")));
+        }
+        bookings().forEach(booking -> bookingService.delete(booking.getId()));
+    }
+
+    @Test
+    void holdRoom() throws Exception {
+        String id = hold(CHECKIN, CHECKOUT);
+
+        restRoomHoldMockMvc
+            .perform(get(ENTITY_API_URL_ID, id))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.roomId").value(ROOM_ID.intValue()))
+            .andExpect(jsonPath("$.checkin").value(CHECKIN.toString()))
+            .andExpect(jsonPath("$.checkout").value(CHECKOUT.toString()))
+            .andExpect(jsonPath("$.expiresAt").isNotEmpty());
+    }
+
+    @Test
+    void holdHeldRoom() throws Exception {
+        hold(CHECKIN, CHECKOUT);
+
+        restRoomHoldMockMvc
+            .perform(
+                post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(holdJson(CHECKIN.plusDays(2), CHECKOUT.plusDays(2)))
+            )
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.message").value("error.roomnotavailable"));
+
+        // The checkout day of a hold can be held again
+        hold(CHECKOUT, CHECKOUT.plusDays(2));
+    }
+
+    @Test
+    void holdBookedRoom() throws Exception {
+        bookingService.save(booking().roomId(ROOM_ID).checkin(CHECKIN).checkout(CHECKOUT));
+
+        restRoomHoldMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(holdJson(CHECKIN.plusDays(1), CHECKOUT)))
+            .andExpect(status().isConflict());
+    }
+
+    @Test
+    void holdWithInvalidNights() throws Exception {
+        restRoomHoldMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(holdJson(CHECKIN, CHECKIN)))
+            .andExpect(status().isBadRequest());
+
+        restRoomHoldMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content("{\"roomId\":" + ROOM_ID + "}"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void bookHeldRoom() throws Exception {
+        hold(CHECKIN, CHECKOUT);
+
+        // The hold keeps the room away from any other booking
+        restRoomHoldMockMvc
+            .perform(
+                post("/api/bookings")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(booking().roomId(ROOM_ID).checkin(CHECKIN.minusDays(1)).checkout(CHECKOUT)))
+            )
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.message").value("error.roomnotavailable"));
+
+        assertThat(bookings()).isEmpty();
+    }
+
+    @Test
+    void convertHoldIntoBooking() throws Exception {
+        String id = hold(CHECKIN, CHECKOUT);
+
+        restRoomHoldMockMvc
+            .perform(post(ENTITY_API_URL_ID + "/booking", id).contentType(MediaType.APPLICATION_JSON).content(bookingJson()))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.id").isNumber())
+            .andExpect(jsonPath("$.roomId").value(ROOM_ID.intValue()))
+            .andExpect(jsonPath("$.checkin").value(CHECKIN.toString()))
+            .andExpect(jsonPath("$.checkout").value(CHECKOUT.toString()));
+
+        assertThat(bookings()).hasSize(1);
+        // The hold is gone, so it cannot be converted twice
+        restRoomHoldMockMvc.perform(get(ENTITY_API_URL_ID, id)).andExpect(status().isNotFound());
+        restRoomHoldMockMvc
+            .perform(post(ENTITY_API_URL_ID + "/booking", id).contentType(MediaType.APPLICATION_JSON).content(bookingJson()))
+            .andExpect(status().isNotFound());
+        assertThat(bookings()).hasSize(1);
+    }
+
+    @Test
+    void convertHoldIntoInvalidBooking() throws Exception {
+        String id = hold(CHECKIN, CHECKOUT);
+
+        restRoomHoldMockMvc
+            .perform(
+                post(ENTITY_API_URL_ID + "/booking", id)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(booking().numOfGuests(0)))
+            )
+            .andExpect(status().isBadRequest());
+
+        // The rolled back conversion keeps the hold
+        restRoomHoldMockMvc.perform(get(ENTITY_API_URL_ID, id)).andExpect(status().isOk());
+        assertThat(bookings()).isEmpty();
+    }
+
+    @Test
+    void releaseHold() throws Exception {
+        String id = hold(CHECKIN, CHECKOUT);
+
+        restRoomHoldMockMvc.perform(delete(ENTITY_API_URL_ID, id)).andExpect(status().isNoContent());
+        restRoomHoldMockMvc.perform(delete(ENTITY_API_URL_ID, id)).andExpect(status().isNotFound());
+
+        // The nights can be booked again
+        restRoomHoldMockMvc
+            .perform(
+                post("/api/bookings")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(booking().roomId(ROOM_ID).checkin(CHECKIN).checkout(CHECKOUT)))
+            )
+            .andExpect(status().isCreated());
+    }
+
+    @Test
+    void getHoldOfAnotherUser() throws Exception {
+        String id = hold(CHECKIN, CHECKOUT);
+
+        restRoomHoldMockMvc.perform(get(ENTITY_API_URL_ID, id).with(user("other"))).andExpect(status().isNotFound());
+        restRoomHoldMockMvc.perform(delete(ENTITY_API_URL_ID, id).with(user("other"))).andExpect(status().isNotFound());
+        restRoomHoldMockMvc
+            .perform(
+                post(ENTITY_API_URL_ID + "/booking", id).with(user("other")).contentType(MediaType.APPLICATION_JSON).content(bookingJson())
+            )
+            .andExpect(status().isNotFound());
+        restRoomHoldMockMvc.perform(get(ENTITY_API_URL_ID, id)).andExpect(status().isOk());
+    }
+
+    private String hold(LocalDate checkin, LocalDate checkout) throws Exception {
+        String response = restRoomHoldMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(holdJson(checkin, checkout)))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.id").isNotEmpty())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        String id = objectMapper.readValue(response, RoomHoldDTO.class).getId();
+        holdIds.add(id);
+        return id;
+    }
+
+    private static String holdJson(LocalDate checkin, LocalDate checkout) {
+        return "{\"roomId\":" + ROOM_ID + ",\"checkin\":\"" + checkin + "\",\"checkout\":\"" + checkout + "\"}";
+    }
+
+    private static byte[] bookingJson() throws Exception {
+        return TestUtil.convertObjectToJsonBytes(booking());
+    }
+
+    private static Booking booking() {
+        return new Booking().hotelId(HOTEL_ID).userId(1).numOfGuests(2).finalPrice(100D);
+    }
+
+    private List<Booking> bookings() {
+        return bookingRepository.findAll().stream().filter(booking -> HOTEL_ID.equals(booking.getHotelId())).collect(Collectors.toList());
+    }
+}
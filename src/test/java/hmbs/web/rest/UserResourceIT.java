@@ -7,6 +7,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import hmbs.IntegrationTest;
+import hmbs.StatementBudget;
 import hmbs.domain.Authority;
 import hmbs.domain.User;
 import hmbs.repository.UserRepository;
@@ -19,6 +20,7 @@ import java.time.Instant;
 import java.util.*;
 import java.util.function.Consumer;
 import javax.persistence.EntityManager;
+import javax.sql.DataSource;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -73,6 +75,9 @@ class UserResourceIT {
     @Autowired
     private CacheManager cacheManager;
 
+    @Autowired
+    private DataSource dataSource;
+
     @Autowired
     private MockMvc restUserMockMvc;
 
@@ -259,6 +264,33 @@ class UserResourceIT {
             .andExpect(jsonPath("$.[*].langKey").value(hasItem(DEFAULT_LANGKEY)));
     }
 
+    @Test
+    @Transactional
+    void getAllUsersLoadsTheAuthoritiesInOneStatement() throws Exception {
+        // Initialize the database
+        Authority authority = new Authority();
+        authority.setName(AuthoritiesConstants.USER);
+        for (int i = 0; i < 5; i++) {
+            User other = createEntity(em);
+            other.setAuthorities(Collections.singleton(authority));
+            userRepository.save(other);
+        }
+        userRepository.flush();
+        // Read the users back from the database, not from the persistence context
+        em.clear();
+
+        // The page of users, then the authorities of all of them
+        StatementBudget.assertAtMost(
+            dataSource,
+            2,
+            () ->
+                restUserMockMvc
+                    .perform(get("/api/admin/users?sort=id,desc").accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.[*].authorities[*]").value(hasItem(AuthoritiesConstants.USER)))
+        );
+    }
+
     @Test
     @Transactional
     void getUser() throws Exception {